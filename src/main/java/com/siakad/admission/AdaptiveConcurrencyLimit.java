@@ -0,0 +1,116 @@
+package com.siakad.admission;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.LongSupplier;
+
+/**
+ * Batas konkurensi global yang menyesuaikan diri dari latensi yang teramati (AIMD)
+ * Selama latensi di bawah target, batas naik sekitar satu per "putaran" (+1/limit per request);
+ * saat latensi melewati target, batas dikali faktor backoff, maksimal sekali per jendela target
+ * Semua state disimpan dalam atomic sehingga acquire/release tidak memakai lock
+ */
+
+public class AdaptiveConcurrencyLimit {
+    private static final double BACKOFF_FACTOR = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyTargetNanos;
+    private final LongSupplier clock;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong limitBits;
+    private final AtomicLong lastDecrease;
+
+    /**
+     * @param initialLimit Batas awal
+     * @param minLimit Batas terendah
+     * @param maxLimit Batas tertinggi
+     * @param latencyTarget Latensi yang dianggap sehat
+     * @throws IllegalArgumentException jika batas tidak valid
+     */
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, Duration latencyTarget) {
+        this(initialLimit, minLimit, maxLimit, latencyTarget, System::nanoTime);
+    }
+
+    AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, Duration latencyTarget,
+                             LongSupplier clock) {
+        if (minLimit < 1 || minLimit > initialLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 1 <= min <= initial <= max");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyTargetNanos = latencyTarget.toNanos();
+        this.clock = clock;
+        this.limitBits = new AtomicLong(Double.doubleToRawLongBits(initialLimit));
+        this.lastDecrease = new AtomicLong(clock.getAsLong() - latencyTargetNanos);
+    }
+
+    /**
+     * Mencoba mengambil slot eksekusi
+     * @param share Porsi batas yang boleh dipakai pemanggil (1.0 = seluruh batas)
+     * @return true jika slot didapat; pemanggil wajib memanggil {@link #release(long)}
+     */
+    public boolean tryAcquire(double share) {
+        int allowed = Math.max(1, (int) (getLimitValue() * share));
+        while (true) {
+            int current = inFlight.get();
+            if (current >= allowed) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Mengembalikan slot dan memperbarui batas dari latensi permintaan
+     * @param latencyNanos Latensi permintaan yang baru selesai
+     */
+    public void release(long latencyNanos) {
+        inFlight.decrementAndGet();
+        if (latencyNanos > latencyTargetNanos) {
+            long now = clock.getAsLong();
+            long last = lastDecrease.get();
+            // Satu lonjakan latensi cukup menurunkan batas sekali, bukan sekali per request
+            if (now - last >= latencyTargetNanos && lastDecrease.compareAndSet(last, now)) {
+                updateLimit(limit -> Math.max(minLimit, limit * BACKOFF_FACTOR));
+            }
+        } else {
+            updateLimit(limit -> Math.min(maxLimit, limit + 1.0 / limit));
+        }
+    }
+
+    /**
+     * Batas konkurensi saat ini (dibulatkan ke bawah)
+     * @return Batas
+     */
+    public int getLimit() {
+        return (int) getLimitValue();
+    }
+
+    /**
+     * Jumlah permintaan yang sedang berjalan
+     * @return Jumlah permintaan
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private double getLimitValue() {
+        return Double.longBitsToDouble(limitBits.get());
+    }
+
+    private void updateLimit(DoubleUnaryOperator update) {
+        while (true) {
+            long bits = limitBits.get();
+            double next = update.applyAsDouble(Double.longBitsToDouble(bits));
+            if (limitBits.compareAndSet(bits, Double.doubleToRawLongBits(next))) {
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.siakad.admission;
+
+import com.siakad.exception.AdmissionRejectedException;
+import com.siakad.model.Enrollment;
+import com.siakad.model.Student;
+import com.siakad.repository.StudentRepository;
+import com.siakad.service.EnrollmentService;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Admission control di depan EnrollmentService saat pembukaan KRS
+ * Urutan pengecekan: token bucket per mahasiswa, lalu batas konkurensi adaptif.
+ * Mahasiswa tingkat akhir (semester >= prioritySemester) memakai jalur prioritas yang boleh
+ * memakai seluruh batas, sedangkan mahasiswa lain hanya {@link #STANDARD_LANE_SHARE} dari batas
+ * Jalur standar dicoba lebih dulu, sehingga status prioritas (dan lookup mahasiswa saat cache
+ * kosong) hanya diperlukan ketika jalur standar sudah penuh
+ * Permintaan yang tidak lolos langsung ditolak (shed) dengan AdmissionRejectedException
+ */
+
+public class AdmissionController {
+    /**
+     * Porsi batas konkurensi untuk jalur non-prioritas; sisanya dicadangkan untuk tingkat akhir
+     */
+    public static final double STANDARD_LANE_SHARE = 0.8;
+
+    private static final int DEFAULT_PRIORITY_CACHE_SIZE = 50_000;
+    private static final Duration DEFAULT_PRIORITY_TTL = Duration.ofMinutes(10);
+
+    private final EnrollmentService enrollmentService;
+    private final StudentRepository studentRepository;
+    private final StudentRateLimiter rateLimiter;
+    private final AdaptiveConcurrencyLimit concurrencyLimit;
+    private final int prioritySemester;
+    private final int priorityCacheSize;
+    private final long priorityTtlNanos;
+    private final LongSupplier clock;
+    private final ReentrantLock cacheLock = new ReentrantLock();
+    private final LinkedHashMap<String, CachedPriority> priorityCache;
+    private final LongAdder rateLimited = new LongAdder();
+    private final LongAdder overloaded = new LongAdder();
+
+    /**
+     * @param enrollmentService Service yang dilindungi
+     * @param studentRepository Repository untuk menentukan jalur prioritas
+     * @param rateLimiter Token bucket per mahasiswa
+     * @param concurrencyLimit Batas konkurensi global
+     * @param prioritySemester Semester minimal untuk jalur prioritas
+     */
+    public AdmissionController(EnrollmentService enrollmentService, StudentRepository studentRepository,
+                               StudentRateLimiter rateLimiter, AdaptiveConcurrencyLimit concurrencyLimit,
+                               int prioritySemester) {
+        this(enrollmentService, studentRepository, rateLimiter, concurrencyLimit, prioritySemester,
+                DEFAULT_PRIORITY_CACHE_SIZE, DEFAULT_PRIORITY_TTL);
+    }
+
+    /**
+     * @param enrollmentService Service yang dilindungi
+     * @param studentRepository Repository untuk menentukan jalur prioritas
+     * @param rateLimiter Token bucket per mahasiswa
+     * @param concurrencyLimit Batas konkurensi global
+     * @param prioritySemester Semester minimal untuk jalur prioritas
+     * @param priorityCacheSize Jumlah maksimal mahasiswa di cache prioritas (LRU)
+     * @param priorityTtl Umur entri cache prioritas, agar perubahan semester ikut terbaca
+     * @throws IllegalArgumentException jika ukuran cache atau TTL tidak positif
+     */
+    public AdmissionController(EnrollmentService enrollmentService, StudentRepository studentRepository,
+                               StudentRateLimiter rateLimiter, AdaptiveConcurrencyLimit concurrencyLimit,
+                               int prioritySemester, int priorityCacheSize, Duration priorityTtl) {
+        this(enrollmentService, studentRepository, rateLimiter, concurrencyLimit, prioritySemester,
+                priorityCacheSize, priorityTtl, System::nanoTime);
+    }
+
+    AdmissionController(EnrollmentService enrollmentService, StudentRepository studentRepository,
+                        StudentRateLimiter rateLimiter, AdaptiveConcurrencyLimit concurrencyLimit,
+                        int prioritySemester, int priorityCacheSize, Duration priorityTtl, LongSupplier clock) {
+        if (priorityCacheSize < 1) {
+            throw new IllegalArgumentException("Priority cache size must be positive");
+        }
+        if (priorityTtl.isNegative() || priorityTtl.isZero()) {
+            throw new IllegalArgumentException("Priority cache TTL must be positive");
+        }
+        this.enrollmentService = enrollmentService;
+        this.studentRepository = studentRepository;
+        this.rateLimiter = rateLimiter;
+        this.concurrencyLimit = concurrencyLimit;
+        this.prioritySemester = prioritySemester;
+        this.priorityCacheSize = priorityCacheSize;
+        this.priorityTtlNanos = priorityTtl.toNanos();
+        this.clock = clock;
+        this.priorityCache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedPriority> eldest) {
+                return size() > AdmissionController.this.priorityCacheSize;
+            }
+        };
+    }
+
+    /**
+     * Menjalankan enrollCourse jika permintaan lolos admission control
+     *
+     * @param studentId ID mahasiswa
+     * @param courseCode Kode mata kuliah
+     * @return Enrollment object
+     * @throws AdmissionRejectedException jika terkena rate limit atau sistem sedang penuh
+     */
+    public Enrollment enrollCourse(String studentId, String courseCode) {
+        if (!rateLimiter.tryAcquire(studentId)) {
+            rateLimited.increment();
+            throw new AdmissionRejectedException("Too many requests from student: " + studentId);
+        }
+
+        // Cadangan jalur prioritas hanya dicek saat jalur standar penuh
+        if (!concurrencyLimit.tryAcquire(STANDARD_LANE_SHARE)
+                && !(isPriority(studentId) && concurrencyLimit.tryAcquire(1.0))) {
+            overloaded.increment();
+            throw new AdmissionRejectedException("Enrollment service is overloaded, try again later");
+        }
+
+        long start = System.nanoTime();
+        try {
+            return enrollmentService.enrollCourse(studentId, courseCode);
+        } finally {
+            concurrencyLimit.release(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Mengecek apakah mahasiswa masuk jalur prioritas
+     * Hasil di-cache (LRU terbatas dengan TTL); lookup repository dilakukan di luar lock cache
+     *
+     * @param studentId ID mahasiswa
+     * @return true jika mahasiswa tingkat akhir
+     */
+    public boolean isPriority(String studentId) {
+        cacheLock.lock();
+        try {
+            CachedPriority cached = priorityCache.get(studentId);
+            if (cached != null) {
+                if (clock.getAsLong() - cached.expiresAt < 0) {
+                    return cached.priority;
+                }
+                priorityCache.remove(studentId);
+            }
+        } finally {
+            cacheLock.unlock();
+        }
+
+        Student student = studentRepository.findById(studentId);
+        if (student == null) {
+            // Tidak di-cache: EnrollmentService yang akan menolak mahasiswa tidak dikenal
+            return false;
+        }
+        boolean priority = student.getSemester() >= prioritySemester;
+        cacheLock.lock();
+        try {
+            priorityCache.put(studentId, new CachedPriority(priority, clock.getAsLong() + priorityTtlNanos));
+        } finally {
+            cacheLock.unlock();
+        }
+        return priority;
+    }
+
+    /**
+     * Jumlah mahasiswa di cache prioritas
+     * @return Jumlah entri
+     */
+    public int getPriorityCacheSize() {
+        cacheLock.lock();
+        try {
+            return priorityCache.size();
+        } finally {
+            cacheLock.unlock();
+        }
+    }
+
+    /**
+     * Jumlah permintaan yang ditolak karena rate limit per mahasiswa
+     * @return Jumlah penolakan
+     */
+    public long getRateLimitedCount() {
+        return rateLimited.sum();
+    }
+
+    /**
+     * Jumlah permintaan yang ditolak karena batas konkurensi
+     * @return Jumlah penolakan
+     */
+    public long getOverloadedCount() {
+        return overloaded.sum();
+    }
+
+    public AdaptiveConcurrencyLimit getConcurrencyLimit() {
+        return concurrencyLimit;
+    }
+
+    private static final class CachedPriority {
+        private final boolean priority;
+        private final long expiresAt;
+
+        private CachedPriority(boolean priority, long expiresAt) {
+            this.priority = priority;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
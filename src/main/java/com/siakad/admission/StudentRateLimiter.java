@@ -0,0 +1,79 @@
+package com.siakad.admission;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket per mahasiswa untuk mencegah refresh-spamming
+ * Diimplementasikan dengan GCRA (generic cell rate algorithm): setiap bucket cukup satu
+ * AtomicLong berisi "theoretical arrival time", sehingga pengecekan hanya satu CAS tanpa lock
+ */
+
+public class StudentRateLimiter {
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final LongSupplier clock;
+    private final ConcurrentHashMap<String, AtomicLong> arrivals = new ConcurrentHashMap<>();
+
+    /**
+     * @param burst Jumlah permintaan maksimal yang boleh datang sekaligus
+     * @param refillInterval Waktu untuk mengisi kembali satu token
+     * @throws IllegalArgumentException jika burst < 1 atau refillInterval tidak positif
+     */
+    public StudentRateLimiter(int burst, Duration refillInterval) {
+        this(burst, refillInterval, System::nanoTime);
+    }
+
+    StudentRateLimiter(int burst, Duration refillInterval, LongSupplier clock) {
+        if (burst < 1) {
+            throw new IllegalArgumentException("Burst must be positive");
+        }
+        if (refillInterval.isZero() || refillInterval.isNegative()) {
+            throw new IllegalArgumentException("Refill interval must be positive");
+        }
+        this.intervalNanos = refillInterval.toNanos();
+        this.toleranceNanos = intervalNanos * (burst - 1);
+        this.clock = clock;
+    }
+
+    /**
+     * Mengambil satu token untuk mahasiswa
+     * @param studentId ID mahasiswa
+     * @return true jika permintaan boleh lanjut
+     */
+    public boolean tryAcquire(String studentId) {
+        AtomicLong arrival = arrivals.computeIfAbsent(studentId, id -> new AtomicLong(Long.MIN_VALUE));
+        long now = clock.getAsLong();
+        while (true) {
+            long current = arrival.get();
+            long base = Math.max(current, now);
+            if (base - now > toleranceNanos) {
+                return false;
+            }
+            if (arrival.compareAndSet(current, base + intervalNanos)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Menghapus bucket yang sudah penuh kembali (mahasiswa idle) agar memori tidak terus tumbuh
+     * @return Jumlah bucket yang dihapus
+     */
+    public int evictIdle() {
+        long now = clock.getAsLong();
+        int before = arrivals.size();
+        arrivals.values().removeIf(arrival -> arrival.get() <= now);
+        return before - arrivals.size();
+    }
+
+    /**
+     * Jumlah bucket yang sedang dilacak
+     * @return Jumlah mahasiswa
+     */
+    public int size() {
+        return arrivals.size();
+    }
+}
@@ -0,0 +1,96 @@
+package com.siakad.cluster;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Consistent hashing ring untuk memetakan kode mata kuliah ke node pemiliknya
+ * Setiap node ditempatkan sebagai beberapa virtual node agar beban merata,
+ * dan penambahan/penghapusan node hanya memindahkan sebagian kecil mata kuliah
+ */
+
+public class ConsistentHashRing {
+    private final int virtualNodes;
+    private final TreeMap<Long, String> ring = new TreeMap<>();
+    private final Set<String> nodes = new LinkedHashSet<>();
+
+    /**
+     * @param virtualNodes Jumlah virtual node per node fisik
+     * @throws IllegalArgumentException jika virtualNodes < 1
+     */
+    public ConsistentHashRing(int virtualNodes) {
+        if (virtualNodes < 1) {
+            throw new IllegalArgumentException("Virtual node count must be positive");
+        }
+        this.virtualNodes = virtualNodes;
+    }
+
+    /**
+     * Menambahkan node ke ring
+     * @param nodeId ID node
+     */
+    public synchronized void addNode(String nodeId) {
+        if (!nodes.add(nodeId)) {
+            return;
+        }
+        for (int i = 0; i < virtualNodes; i++) {
+            ring.put(hash(nodeId + "#" + i), nodeId);
+        }
+    }
+
+    /**
+     * Menghapus node dari ring; mata kuliahnya berpindah ke node berikutnya di ring
+     * @param nodeId ID node
+     */
+    public synchronized void removeNode(String nodeId) {
+        if (!nodes.remove(nodeId)) {
+            return;
+        }
+        ring.values().removeIf(nodeId::equals);
+    }
+
+    /**
+     * Mencari node pemilik sebuah key (kode mata kuliah)
+     * @param key Key yang dicari
+     * @return ID node pemilik
+     * @throws IllegalStateException jika ring kosong
+     */
+    public synchronized String nodeFor(String key) {
+        if (ring.isEmpty()) {
+            throw new IllegalStateException("Hash ring has no nodes");
+        }
+        Map.Entry<Long, String> entry = ring.ceilingEntry(hash(key));
+        return entry != null ? entry.getValue() : ring.firstEntry().getValue();
+    }
+
+    /**
+     * Mendapatkan semua node yang terdaftar
+     * @return List ID node
+     */
+    public synchronized List<String> getNodes() {
+        return Collections.unmodifiableList(new ArrayList<>(nodes));
+    }
+
+    /**
+     * Hash 64-bit: FNV-1a lalu finalizer MurmurHash3 agar bit tersebar merata
+     */
+    static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,61 @@
+package com.siakad.cluster;
+
+import com.siakad.model.Enrollment;
+
+/**
+ * Operasi enrollment yang dilayani satu shard (node pemilik sekumpulan mata kuliah)
+ * prepare/commit/abort membentuk reservasi dua fase untuk KRS lintas shard
+ */
+
+public interface EnrollmentShard {
+
+    /**
+     * Mendaftarkan mahasiswa ke mata kuliah milik shard ini
+     * @param studentId ID mahasiswa
+     * @param courseCode Kode mata kuliah
+     * @return Enrollment object
+     */
+    Enrollment enrollCourse(String studentId, String courseCode);
+
+    /**
+     * Drop mata kuliah milik shard ini
+     * @param studentId ID mahasiswa
+     * @param courseCode Kode mata kuliah
+     */
+    void dropCourse(String studentId, String courseCode);
+
+    /**
+     * Fase 1: memesan kursi tanpa mengonfirmasi
+     * @param studentId ID mahasiswa
+     * @param courseCode Kode mata kuliah
+     * @return ID reservasi untuk commit/abort
+     */
+    String prepare(String studentId, String courseCode);
+
+    /**
+     * Fase 2: mengonfirmasi reservasi
+     * @param reservationId ID reservasi dari prepare
+     * @return Enrollment yang sudah APPROVED
+     */
+    Enrollment commit(String reservationId);
+
+    /**
+     * Fase 2: membatalkan reservasi dan mengembalikan kursi
+     * @param reservationId ID reservasi dari prepare
+     */
+    void abort(String reservationId);
+
+    /**
+     * SKS mahasiswa yang tercatat di shard ini (enrollment dan reservasi)
+     * @param studentId ID mahasiswa
+     * @return Jumlah SKS
+     */
+    int getCredits(String studentId);
+
+    /**
+     * Batas SKS mahasiswa
+     * @param studentId ID mahasiswa
+     * @return Maksimal SKS semester ini
+     */
+    int getMaxCredits(String studentId);
+}
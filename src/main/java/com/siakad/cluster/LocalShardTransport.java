@@ -0,0 +1,47 @@
+package com.siakad.cluster;
+
+import com.siakad.exception.EnrollmentException;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Transport in-process: semua node berjalan di JVM yang sama
+ * Dipakai untuk testing; node bisa ditandai tidak tersedia untuk mensimulasikan node mati
+ */
+
+public class LocalShardTransport implements ShardTransport {
+    private final ConcurrentHashMap<String, EnrollmentShard> shards = new ConcurrentHashMap<>();
+    private final Set<String> unavailable = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Mendaftarkan shard untuk sebuah node
+     * @param nodeId ID node
+     * @param shard Shard yang melayani node tersebut
+     */
+    public void register(String nodeId, EnrollmentShard shard) {
+        shards.put(nodeId, shard);
+    }
+
+    /**
+     * Menandai node tersedia atau tidak tersedia
+     * @param nodeId ID node
+     * @param available false untuk mensimulasikan node mati
+     */
+    public void setAvailable(String nodeId, boolean available) {
+        if (available) {
+            unavailable.remove(nodeId);
+        } else {
+            unavailable.add(nodeId);
+        }
+    }
+
+    @Override
+    public EnrollmentShard shard(String nodeId) {
+        EnrollmentShard shard = shards.get(nodeId);
+        if (shard == null || unavailable.contains(nodeId)) {
+            throw new EnrollmentException("Shard node unavailable: " + nodeId);
+        }
+        return shard;
+    }
+}
@@ -0,0 +1,97 @@
+package com.siakad.cluster;
+
+import com.siakad.model.Enrollment;
+import com.siakad.service.EnrollmentService;
+import com.siakad.service.SeatHoldManager;
+
+/**
+ * Shard yang dijalankan oleh satu EnrollmentService lokal
+ * Reservasi dua fase dipetakan ke reserveCourse / confirmReservation / cancelReservation
+ * Batas SKS di node ini hanya melihat mata kuliah milik node; batas lintas shard dijaga coordinator
+ * Reservasi dari prepare tidak punya batas waktu; jika coordinator mati sebelum commit/abort,
+ * kursi tertahan selamanya. Di deployment cluster pasang SeatHoldManager lewat
+ * setSeatHoldManager agar prepare yang menggantung dilepas otomatis setelah TTL
+ */
+
+public class ShardNode implements EnrollmentShard {
+    private final String nodeId;
+    private final EnrollmentService enrollmentService;
+    private SeatHoldManager seatHoldManager;
+
+    public ShardNode(String nodeId, EnrollmentService enrollmentService) {
+        this.nodeId = nodeId;
+        this.enrollmentService = enrollmentService;
+    }
+
+    @Override
+    public Enrollment enrollCourse(String studentId, String courseCode) {
+        return enrollmentService.enrollCourse(studentId, courseCode);
+    }
+
+    @Override
+    public void dropCourse(String studentId, String courseCode) {
+        enrollmentService.dropCourse(studentId, courseCode);
+    }
+
+    @Override
+    public String prepare(String studentId, String courseCode) {
+        if (seatHoldManager != null) {
+            return seatHoldManager.hold(studentId, courseCode).getEnrollmentId();
+        }
+        return enrollmentService.reserveCourse(studentId, courseCode).getEnrollmentId();
+    }
+
+    /**
+     * Commit setelah hold kedaluwarsa gagal dengan EnrollmentException
+     */
+    @Override
+    public Enrollment commit(String reservationId) {
+        if (seatHoldManager != null) {
+            return seatHoldManager.confirm(reservationId);
+        }
+        return enrollmentService.confirmReservation(reservationId);
+    }
+
+    @Override
+    public void abort(String reservationId) {
+        if (seatHoldManager != null) {
+            seatHoldManager.release(reservationId);
+            return;
+        }
+        enrollmentService.cancelReservation(reservationId);
+    }
+
+    @Override
+    public int getCredits(String studentId) {
+        return enrollmentService.getCreditLedger().getCredits(studentId);
+    }
+
+    @Override
+    public int getMaxCredits(String studentId) {
+        return enrollmentService.getMaxCredits(studentId);
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public EnrollmentService getEnrollmentService() {
+        return enrollmentService;
+    }
+
+    public SeatHoldManager getSeatHoldManager() {
+        return seatHoldManager;
+    }
+
+    /**
+     * Mengaktifkan batas waktu reservasi dua fase
+     * @param seatHoldManager Hold manager di atas EnrollmentService milik node ini
+     * @throws IllegalArgumentException jika hold manager memakai EnrollmentService lain
+     */
+    public void setSeatHoldManager(SeatHoldManager seatHoldManager) {
+        if (seatHoldManager != null && seatHoldManager.getEnrollmentService() != enrollmentService) {
+            throw new IllegalArgumentException("Seat hold manager must wrap this node's enrollment service");
+        }
+        this.seatHoldManager = seatHoldManager;
+    }
+}
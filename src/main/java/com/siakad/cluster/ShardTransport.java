@@ -0,0 +1,17 @@
+package com.siakad.cluster;
+
+/**
+ * Transport untuk menjangkau shard di node lain
+ * Implementasi jaringan (RPC) bisa menggantikan LocalShardTransport tanpa mengubah coordinator
+ */
+
+public interface ShardTransport {
+
+    /**
+     * Mendapatkan shard milik sebuah node
+     * @param nodeId ID node
+     * @return EnrollmentShard object
+     * @throws com.siakad.exception.EnrollmentException jika node tidak dapat dijangkau
+     */
+    EnrollmentShard shard(String nodeId);
+}
@@ -0,0 +1,177 @@
+package com.siakad.cluster;
+
+import com.siakad.exception.EnrollmentException;
+import com.siakad.exception.PartialCommitException;
+import com.siakad.model.Enrollment;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Coordinator enrollment lintas shard
+ * enrollCourse/dropCourse diteruskan ke node pemilik mata kuliah (consistent hashing),
+ * sedangkan submitKrs memakai reservasi dua fase: semua kursi dipesan dulu di setiap
+ * shard, lalu dikonfirmasi bersama, atau semua dibatalkan jika ada satu yang gagal.
+ * Setiap node hanya menghitung SKS mata kuliah miliknya, jadi batas SKS lintas shard dicek
+ * di sini setelah prepare, dengan permintaan mahasiswa yang sama diproses berurutan
+ */
+
+public class ShardedEnrollmentCoordinator {
+    private static final int STUDENT_LOCK_STRIPES = 64;
+
+    private final ConsistentHashRing ring;
+    private final ShardTransport transport;
+    private final ReentrantLock[] studentLocks = new ReentrantLock[STUDENT_LOCK_STRIPES];
+
+    public ShardedEnrollmentCoordinator(ConsistentHashRing ring, ShardTransport transport) {
+        this.ring = ring;
+        this.transport = transport;
+        for (int i = 0; i < studentLocks.length; i++) {
+            studentLocks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Mendaftarkan mahasiswa ke mata kuliah lewat shard pemiliknya
+     * Dijalankan sebagai KRS satu mata kuliah agar batas SKS lintas shard ikut dicek
+     *
+     * @param studentId ID mahasiswa
+     * @param courseCode Kode mata kuliah
+     * @return Enrollment object
+     */
+    public Enrollment enrollCourse(String studentId, String courseCode) {
+        return submitKrs(studentId, List.of(courseCode)).get(0);
+    }
+
+    /**
+     * Drop mata kuliah lewat shard pemiliknya
+     * @param studentId ID mahasiswa
+     * @param courseCode Kode mata kuliah
+     */
+    public void dropCourse(String studentId, String courseCode) {
+        shardFor(courseCode).dropCourse(studentId, courseCode);
+    }
+
+    /**
+     * Submit KRS (beberapa mata kuliah sekaligus)
+     * Fase prepare bersifat all-or-nothing: jika satu shard menolak, tidak bisa dihubungi, atau total
+     * SKS di semua shard melebihi batas, semua reservasi dibatalkan. Setelah keputusan commit, commit
+     * yang gagal (mis. reservasi sudah kedaluwarsa) tidak bisa membatalkan commit lain; hasilnya
+     * dilaporkan lewat PartialCommitException
+     *
+     * @param studentId ID mahasiswa
+     * @param courseCodes Daftar kode mata kuliah
+     * @return List Enrollment yang sudah APPROVED, urut sesuai courseCodes
+     * @throws EnrollmentException jika total SKS lintas shard melebihi batas
+     * @throws PartialCommitException jika sebagian mata kuliah sudah dikonfirmasi dan sebagian gagal
+     * @throws RuntimeException exception dari shard pertama yang menolak; reservasi lain sudah dibatalkan
+     */
+    public List<Enrollment> submitKrs(String studentId, List<String> courseCodes) {
+        ReentrantLock lock = studentLocks[Math.floorMod(studentId.hashCode(), studentLocks.length)];
+        lock.lock();
+        try {
+            List<PreparedSeat> prepared = prepareAll(studentId, courseCodes);
+            return commitAll(prepared);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private List<PreparedSeat> prepareAll(String studentId, List<String> courseCodes) {
+        List<PreparedSeat> prepared = new ArrayList<>(courseCodes.size());
+        try {
+            for (String courseCode : courseCodes) {
+                String nodeId = ring.nodeFor(courseCode);
+                String reservationId = transport.shard(nodeId).prepare(studentId, courseCode);
+                prepared.add(new PreparedSeat(nodeId, courseCode, reservationId));
+            }
+            checkCreditLimit(studentId);
+        } catch (RuntimeException e) {
+            abortAll(prepared, e);
+            throw e;
+        }
+        return prepared;
+    }
+
+    /**
+     * SKS dari semua shard (termasuk reservasi yang baru dibuat) dibandingkan dengan batas mahasiswa
+     */
+    private void checkCreditLimit(String studentId) {
+        List<String> nodes = ring.getNodes();
+        int taken = 0;
+        for (String nodeId : nodes) {
+            taken += transport.shard(nodeId).getCredits(studentId);
+        }
+        int maxCredits = transport.shard(ring.nodeFor(studentId)).getMaxCredits(studentId);
+        if (taken > maxCredits) {
+            throw new EnrollmentException("Credit limit exceeded across shards: " + taken + " > " + maxCredits);
+        }
+    }
+
+    private List<Enrollment> commitAll(List<PreparedSeat> prepared) {
+        // Semua shard sudah setuju: keputusan commit final, lanjutkan walau ada yang gagal
+        List<Enrollment> enrollments = new ArrayList<>(prepared.size());
+        Map<String, RuntimeException> failures = new LinkedHashMap<>();
+        for (PreparedSeat seat : prepared) {
+            try {
+                enrollments.add(transport.shard(seat.nodeId).commit(seat.reservationId));
+            } catch (RuntimeException e) {
+                failures.put(seat.courseCode, e);
+            }
+        }
+        if (failures.isEmpty()) {
+            return enrollments;
+        }
+        if (enrollments.isEmpty()) {
+            RuntimeException first = null;
+            for (RuntimeException failure : failures.values()) {
+                if (first == null) {
+                    first = failure;
+                } else {
+                    first.addSuppressed(failure);
+                }
+            }
+            throw first;
+        }
+        throw new PartialCommitException("KRS partially committed, failed courses: " + failures.keySet(),
+                enrollments, failures);
+    }
+
+    /**
+     * Mendapatkan node pemilik mata kuliah
+     * @param courseCode Kode mata kuliah
+     * @return ID node
+     */
+    public String ownerOf(String courseCode) {
+        return ring.nodeFor(courseCode);
+    }
+
+    private EnrollmentShard shardFor(String courseCode) {
+        return transport.shard(ring.nodeFor(courseCode));
+    }
+
+    private void abortAll(List<PreparedSeat> prepared, RuntimeException cause) {
+        for (PreparedSeat seat : prepared) {
+            try {
+                transport.shard(seat.nodeId).abort(seat.reservationId);
+            } catch (RuntimeException e) {
+                cause.addSuppressed(e);
+            }
+        }
+    }
+
+    private static final class PreparedSeat {
+        private final String nodeId;
+        private final String courseCode;
+        private final String reservationId;
+
+        private PreparedSeat(String nodeId, String courseCode, String reservationId) {
+            this.nodeId = nodeId;
+            this.courseCode = courseCode;
+            this.reservationId = reservationId;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.siakad.exception;
+
+/**
+ * Exception yang dilempar ketika permintaan enrollment ditolak oleh admission control
+ * (rate limit per mahasiswa atau batas konkurensi sistem)
+ */
+
+public class AdmissionRejectedException extends RuntimeException {
+
+    public AdmissionRejectedException(String message) {
+        super(message);
+    }
+
+    public AdmissionRejectedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
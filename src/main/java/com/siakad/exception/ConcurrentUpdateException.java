@@ -0,0 +1,17 @@
+package com.siakad.exception;
+
+/**
+ * Exception yang dilempar ketika update ditolak karena data sudah diubah pihak lain
+ * (versi yang dibaca sudah tidak sama dengan versi yang tersimpan)
+ */
+
+public class ConcurrentUpdateException extends RuntimeException {
+
+    public ConcurrentUpdateException(String message) {
+        super(message);
+    }
+
+    public ConcurrentUpdateException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
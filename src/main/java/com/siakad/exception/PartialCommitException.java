@@ -0,0 +1,39 @@
+package com.siakad.exception;
+
+import com.siakad.model.Enrollment;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Exception yang dilempar ketika fase commit KRS lintas shard hanya berhasil sebagian
+ * (mis. reservasi di salah satu shard sudah kedaluwarsa); enrollment yang sudah dikonfirmasi tetap berlaku
+ */
+
+public class PartialCommitException extends EnrollmentException {
+    private final List<Enrollment> committed;
+    private final Map<String, RuntimeException> failures;
+
+    public PartialCommitException(String message, List<Enrollment> committed, Map<String, RuntimeException> failures) {
+        super(message);
+        this.committed = Collections.unmodifiableList(committed);
+        this.failures = Collections.unmodifiableMap(failures);
+    }
+
+    /**
+     * Enrollment yang sudah APPROVED
+     * @return List Enrollment, urut sesuai permintaan
+     */
+    public List<Enrollment> getCommitted() {
+        return committed;
+    }
+
+    /**
+     * Mata kuliah yang gagal dikonfirmasi
+     * @return Kode mata kuliah -> exception dari shard
+     */
+    public Map<String, RuntimeException> getFailures() {
+        return failures;
+    }
+}
@@ -0,0 +1,17 @@
+package com.siakad.exception;
+
+/**
+ * Exception yang dilempar ketika jadwal mata kuliah bentrok dengan mata kuliah
+ * lain yang sudah diambil mahasiswa
+ */
+
+public class ScheduleConflictException extends RuntimeException {
+
+    public ScheduleConflictException(String message) {
+        super(message);
+    }
+
+    public ScheduleConflictException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
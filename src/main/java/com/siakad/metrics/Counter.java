@@ -0,0 +1,24 @@
+package com.siakad.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counter monoton untuk menghitung kejadian (misal hasil enrollment)
+ * Memakai LongAdder agar increment dari banyak thread tidak saling berebut
+ */
+
+public class Counter {
+    private final LongAdder count = new LongAdder();
+
+    public void increment() {
+        count.increment();
+    }
+
+    public void add(long amount) {
+        count.add(amount);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+}
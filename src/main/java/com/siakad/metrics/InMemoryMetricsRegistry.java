@@ -0,0 +1,79 @@
+package com.siakad.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Registry metrik yang menyimpan semua nilai di memori
+ * Cocok untuk testing dan untuk dibaca oleh exporter sederhana
+ */
+
+public class InMemoryMetricsRegistry implements MetricsRegistry {
+    private final ConcurrentHashMap<String, Counter> counters = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+
+    @Override
+    public Counter counter(String name) {
+        return counters.computeIfAbsent(name, key -> new Counter());
+    }
+
+    @Override
+    public LatencyHistogram histogram(String name) {
+        return histograms.computeIfAbsent(name, key -> new LatencyHistogram());
+    }
+
+    @Override
+    public void gauge(String name, LongSupplier supplier) {
+        gauges.put(name, supplier);
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    /**
+     * Nilai counter tanpa membuat counter baru
+     * @param name Nama metrik
+     * @return Nilai counter, 0 jika belum ada
+     */
+    public long getCount(String name) {
+        Counter counter = counters.get(name);
+        return counter == null ? 0 : counter.getCount();
+    }
+
+    /**
+     * Nilai gauge saat ini
+     * @param name Nama metrik
+     * @return Nilai gauge, 0 jika tidak terdaftar
+     */
+    public long getGaugeValue(String name) {
+        LongSupplier supplier = gauges.get(name);
+        return supplier == null ? 0 : supplier.getAsLong();
+    }
+
+    public boolean hasHistogram(String name) {
+        return histograms.containsKey(name);
+    }
+
+    /**
+     * Snapshot semua counter dan gauge, urut berdasarkan nama
+     * Histogram diekspor sebagai count, p50, p99 dan max (nanodetik)
+     * @return Map nama metrik ke nilai
+     */
+    public Map<String, Long> snapshot() {
+        Map<String, Long> values = new TreeMap<>();
+        counters.forEach((name, counter) -> values.put(name, counter.getCount()));
+        gauges.forEach((name, supplier) -> values.put(name, supplier.getAsLong()));
+        histograms.forEach((name, histogram) -> {
+            values.put(name + ".count", histogram.getCount());
+            values.put(name + ".p50", histogram.getPercentileNanos(50));
+            values.put(name + ".p99", histogram.getPercentileNanos(99));
+            values.put(name + ".max", histogram.getMaxNanos());
+        });
+        return values;
+    }
+}
@@ -0,0 +1,117 @@
+package com.siakad.metrics;
+
+import com.siakad.model.Course;
+import com.siakad.repository.AsyncCourseRepository;
+import com.siakad.repository.AsyncCourseRepositoryAdapter;
+import com.siakad.repository.CourseRepository;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Decorator CourseRepository yang merekam latensi setiap pemanggilan
+ * Method asinkron dicatat ke histogram yang sama saat future selesai
+ */
+
+public class InstrumentedCourseRepository implements CourseRepository, AsyncCourseRepository {
+    private final CourseRepository delegate;
+    private final AsyncCourseRepository asyncDelegate;
+    private final LatencyHistogram findByCourseCodeLatency;
+    private final LatencyHistogram updateLatency;
+    private final LatencyHistogram prerequisiteLatency;
+    private final LatencyHistogram findByCourseCodesLatency;
+    private final LatencyHistogram updateAllLatency;
+    private final LatencyHistogram prerequisitesLatency;
+
+    public InstrumentedCourseRepository(CourseRepository delegate, MetricsRegistry registry) {
+        this.delegate = delegate;
+        this.asyncDelegate = AsyncCourseRepositoryAdapter.of(delegate);
+        this.findByCourseCodeLatency = registry.histogram("repository.course.findByCourseCode");
+        this.updateLatency = registry.histogram("repository.course.update");
+        this.prerequisiteLatency = registry.histogram("repository.course.isPrerequisiteMet");
+        this.findByCourseCodesLatency = registry.histogram("repository.course.findByCourseCodes");
+        this.updateAllLatency = registry.histogram("repository.course.updateAll");
+        this.prerequisitesLatency = registry.histogram("repository.course.arePrerequisitesMet");
+    }
+
+    @Override
+    public Map<String, Course> findByCourseCodes(Collection<String> courseCodes) {
+        long start = System.nanoTime();
+        try {
+            return delegate.findByCourseCodes(courseCodes);
+        } finally {
+            findByCourseCodesLatency.recordSince(start);
+        }
+    }
+
+    @Override
+    public void updateAll(Collection<Course> courses) {
+        long start = System.nanoTime();
+        try {
+            delegate.updateAll(courses);
+        } finally {
+            updateAllLatency.recordSince(start);
+        }
+    }
+
+    @Override
+    public Course findByCourseCode(String courseCode) {
+        long start = System.nanoTime();
+        try {
+            return delegate.findByCourseCode(courseCode);
+        } finally {
+            findByCourseCodeLatency.recordSince(start);
+        }
+    }
+
+    @Override
+    public void update(Course course) {
+        long start = System.nanoTime();
+        try {
+            delegate.update(course);
+        } finally {
+            updateLatency.recordSince(start);
+        }
+    }
+
+    @Override
+    public boolean isPrerequisiteMet(String studentId, String courseCode) {
+        long start = System.nanoTime();
+        try {
+            return delegate.isPrerequisiteMet(studentId, courseCode);
+        } finally {
+            prerequisiteLatency.recordSince(start);
+        }
+    }
+
+    @Override
+    public Map<String, Boolean> arePrerequisitesMet(Collection<String> studentIds, String courseCode) {
+        long start = System.nanoTime();
+        try {
+            return delegate.arePrerequisitesMet(studentIds, courseCode);
+        } finally {
+            prerequisitesLatency.recordSince(start);
+        }
+    }
+
+    @Override
+    public CompletableFuture<Course> findByCourseCodeAsync(String courseCode) {
+        long start = System.nanoTime();
+        return asyncDelegate.findByCourseCodeAsync(courseCode)
+                .whenComplete((course, error) -> findByCourseCodeLatency.recordSince(start));
+    }
+
+    @Override
+    public CompletableFuture<Void> updateAsync(Course course) {
+        long start = System.nanoTime();
+        return asyncDelegate.updateAsync(course).whenComplete((ignored, error) -> updateLatency.recordSince(start));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> isPrerequisiteMetAsync(String studentId, String courseCode) {
+        long start = System.nanoTime();
+        return asyncDelegate.isPrerequisiteMetAsync(studentId, courseCode)
+                .whenComplete((met, error) -> prerequisiteLatency.recordSince(start));
+    }
+}
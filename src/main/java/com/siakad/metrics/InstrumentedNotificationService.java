@@ -0,0 +1,54 @@
+package com.siakad.metrics;
+
+import com.siakad.service.EmailMessage;
+import com.siakad.service.NotificationService;
+
+import java.util.List;
+
+/**
+ * Decorator NotificationService yang merekam latensi pengiriman email dan SMS
+ */
+
+public class InstrumentedNotificationService implements NotificationService {
+    private final NotificationService delegate;
+    private final LatencyHistogram emailLatency;
+    private final LatencyHistogram smsLatency;
+    private final LatencyHistogram batchLatency;
+
+    public InstrumentedNotificationService(NotificationService delegate, MetricsRegistry registry) {
+        this.delegate = delegate;
+        this.emailLatency = registry.histogram("notification.sendEmail");
+        this.smsLatency = registry.histogram("notification.sendSMS");
+        this.batchLatency = registry.histogram("notification.sendEmails");
+    }
+
+    @Override
+    public void sendEmail(String email, String subject, String message) {
+        long start = System.nanoTime();
+        try {
+            delegate.sendEmail(email, subject, message);
+        } finally {
+            emailLatency.recordSince(start);
+        }
+    }
+
+    @Override
+    public void sendSMS(String phone, String message) {
+        long start = System.nanoTime();
+        try {
+            delegate.sendSMS(phone, message);
+        } finally {
+            smsLatency.recordSince(start);
+        }
+    }
+
+    @Override
+    public void sendEmails(List<EmailMessage> messages) {
+        long start = System.nanoTime();
+        try {
+            delegate.sendEmails(messages);
+        } finally {
+            batchLatency.recordSince(start);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.siakad.metrics;
+
+import com.siakad.model.Course;
+import com.siakad.model.Student;
+import com.siakad.repository.AsyncStudentRepository;
+import com.siakad.repository.AsyncStudentRepositoryAdapter;
+import com.siakad.repository.StudentRepository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Decorator StudentRepository yang merekam latensi setiap pemanggilan
+ * Method asinkron dicatat ke histogram yang sama saat future selesai
+ */
+
+public class InstrumentedStudentRepository implements StudentRepository, AsyncStudentRepository {
+    private final StudentRepository delegate;
+    private final AsyncStudentRepository asyncDelegate;
+    private final LatencyHistogram findByIdLatency;
+    private final LatencyHistogram updateLatency;
+    private final LatencyHistogram completedCoursesLatency;
+    private final LatencyHistogram findByIdsLatency;
+    private final LatencyHistogram updateAllLatency;
+    private final LatencyHistogram findCompletedCoursesLatency;
+
+    public InstrumentedStudentRepository(StudentRepository delegate, MetricsRegistry registry) {
+        this.delegate = delegate;
+        this.asyncDelegate = AsyncStudentRepositoryAdapter.of(delegate);
+        this.findByIdLatency = registry.histogram("repository.student.findById");
+        this.updateLatency = registry.histogram("repository.student.update");
+        this.completedCoursesLatency = registry.histogram("repository.student.getCompletedCourses");
+        this.findByIdsLatency = registry.histogram("repository.student.findByIds");
+        this.updateAllLatency = registry.histogram("repository.student.updateAll");
+        this.findCompletedCoursesLatency = registry.histogram("repository.student.findCompletedCourses");
+    }
+
+    @Override
+    public Map<String, Student> findByIds(Collection<String> studentIds) {
+        long start = System.nanoTime();
+        try {
+            return delegate.findByIds(studentIds);
+        } finally {
+            findByIdsLatency.recordSince(start);
+        }
+    }
+
+    @Override
+    public void updateAll(Collection<Student> students) {
+        long start = System.nanoTime();
+        try {
+            delegate.updateAll(students);
+        } finally {
+            updateAllLatency.recordSince(start);
+        }
+    }
+
+    @Override
+    public Student findById(String studentId) {
+        long start = System.nanoTime();
+        try {
+            return delegate.findById(studentId);
+        } finally {
+            findByIdLatency.recordSince(start);
+        }
+    }
+
+    @Override
+    public void update(Student student) {
+        long start = System.nanoTime();
+        try {
+            delegate.update(student);
+        } finally {
+            updateLatency.recordSince(start);
+        }
+    }
+
+    @Override
+    public List<Course> getCompletedCourses(String studentId) {
+        long start = System.nanoTime();
+        try {
+            return delegate.getCompletedCourses(studentId);
+        } finally {
+            completedCoursesLatency.recordSince(start);
+        }
+    }
+
+    @Override
+    public Map<String, List<Course>> findCompletedCourses(Collection<String> studentIds) {
+        long start = System.nanoTime();
+        try {
+            return delegate.findCompletedCourses(studentIds);
+        } finally {
+            findCompletedCoursesLatency.recordSince(start);
+        }
+    }
+
+    @Override
+    public CompletableFuture<Student> findByIdAsync(String studentId) {
+        long start = System.nanoTime();
+        return asyncDelegate.findByIdAsync(studentId).whenComplete((student, error) -> findByIdLatency.recordSince(start));
+    }
+
+    @Override
+    public CompletableFuture<Void> updateAsync(Student student) {
+        long start = System.nanoTime();
+        return asyncDelegate.updateAsync(student).whenComplete((ignored, error) -> updateLatency.recordSince(start));
+    }
+
+    @Override
+    public CompletableFuture<List<Course>> getCompletedCoursesAsync(String studentId) {
+        long start = System.nanoTime();
+        return asyncDelegate.getCompletedCoursesAsync(studentId)
+                .whenComplete((courses, error) -> completedCoursesLatency.recordSince(start));
+    }
+}
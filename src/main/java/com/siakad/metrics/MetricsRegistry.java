@@ -0,0 +1,39 @@
+package com.siakad.metrics;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Interface registry metrik (counter, histogram latensi, gauge)
+ * Implementasi bisa diganti untuk ekspor ke sistem monitoring lain;
+ * InMemoryMetricsRegistry dipakai untuk testing, NoopMetricsRegistry saat metrik dimatikan
+ */
+
+public interface MetricsRegistry {
+
+    /**
+     * Mendapatkan (atau membuat) counter dengan nama tertentu
+     * @param name Nama metrik
+     * @return Counter object
+     */
+    Counter counter(String name);
+
+    /**
+     * Mendapatkan (atau membuat) histogram latensi dengan nama tertentu
+     * @param name Nama metrik
+     * @return LatencyHistogram object
+     */
+    LatencyHistogram histogram(String name);
+
+    /**
+     * Mendaftarkan gauge yang nilainya dibaca saat ekspor
+     * @param name Nama metrik
+     * @param supplier Sumber nilai gauge
+     */
+    void gauge(String name, LongSupplier supplier);
+
+    /**
+     * Mengecek apakah metrik aktif; pemanggil melewati instrumentasi jika false
+     * @return true jika metrik direkam
+     */
+    boolean isEnabled();
+}
@@ -0,0 +1,36 @@
+package com.siakad.metrics;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Registry yang tidak merekam apa pun (default saat metrik dimatikan)
+ */
+
+public final class NoopMetricsRegistry implements MetricsRegistry {
+    public static final NoopMetricsRegistry INSTANCE = new NoopMetricsRegistry();
+
+    private final Counter counter = new Counter();
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+    private NoopMetricsRegistry() {
+    }
+
+    @Override
+    public Counter counter(String name) {
+        return counter;
+    }
+
+    @Override
+    public LatencyHistogram histogram(String name) {
+        return histogram;
+    }
+
+    @Override
+    public void gauge(String name, LongSupplier supplier) {
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return false;
+    }
+}
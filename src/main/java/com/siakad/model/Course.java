@@ -1,6 +1,7 @@
 package com.siakad.model;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -15,9 +16,12 @@ public class Course {
     private int enrolledCount;
     private String lecturer;
     private List<String> prerequisites; // Mata kuliah prasyarat
+    private List<MeetingTime> meetingTimes; // Jadwal pertemuan mingguan
+    private long version; // Versi untuk optimistic concurrency, naik setiap update berhasil
 
     public Course() {
         this.prerequisites = new ArrayList<>();
+        this.meetingTimes = new ArrayList<>();
     }
 
     public Course(String courseCode, String courseName, int credits,
@@ -29,6 +33,23 @@ public class Course {
         this.enrolledCount = enrolledCount;
         this.lecturer = lecturer;
         this.prerequisites = new ArrayList<>();
+        this.meetingTimes = new ArrayList<>();
+    }
+
+    /**
+     * Copy constructor, dipakai repository agar setiap pembaca mendapat salinan sendiri
+     * @param other Course yang disalin
+     */
+    public Course(Course other) {
+        this.courseCode = other.courseCode;
+        this.courseName = other.courseName;
+        this.credits = other.credits;
+        this.capacity = other.capacity;
+        this.enrolledCount = other.enrolledCount;
+        this.lecturer = other.lecturer;
+        this.prerequisites = other.prerequisites == null ? new ArrayList<>() : new ArrayList<>(other.prerequisites);
+        this.meetingTimes = other.meetingTimes == null ? new ArrayList<>() : new ArrayList<>(other.meetingTimes);
+        this.version = other.version;
     }
 
     // Getters and Setters
@@ -94,4 +115,41 @@ public class Course {
         }
         this.prerequisites.add(courseCode);
     }
+
+    /**
+     * Aturan prasyarat yang dipakai bersama oleh repository dan CourseCatalogIndex:
+     * terpenuhi jika semua kode prasyarat ada di daftar mata kuliah yang sudah diselesaikan
+     *
+     * @param completedCourseCodes Kode mata kuliah yang sudah diselesaikan mahasiswa
+     * @return true jika tidak ada prasyarat atau semuanya sudah diselesaikan
+     */
+    public boolean isPrerequisiteMet(Collection<String> completedCourseCodes) {
+        if (prerequisites == null || prerequisites.isEmpty()) {
+            return true;
+        }
+        return completedCourseCodes != null && completedCourseCodes.containsAll(prerequisites);
+    }
+
+    public List<MeetingTime> getMeetingTimes() {
+        return meetingTimes;
+    }
+
+    public void setMeetingTimes(List<MeetingTime> meetingTimes) {
+        this.meetingTimes = meetingTimes;
+    }
+
+    public void addMeetingTime(MeetingTime meetingTime) {
+        if (this.meetingTimes == null) {
+            this.meetingTimes = new ArrayList<>();
+        }
+        this.meetingTimes.add(meetingTime);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
 }
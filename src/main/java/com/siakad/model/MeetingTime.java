@@ -0,0 +1,70 @@
+package com.siakad.model;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.Objects;
+
+/**
+ * Model class untuk satu jadwal pertemuan mata kuliah (hari, jam mulai, jam selesai)
+ * Immutable, sehingga aman dibagi antar salinan Course
+ */
+
+public class MeetingTime {
+    private final DayOfWeek day;
+    private final LocalTime start;
+    private final LocalTime end;
+
+    /**
+     * @param day Hari pertemuan
+     * @param start Jam mulai
+     * @param end Jam selesai (eksklusif)
+     * @throws IllegalArgumentException jika jam selesai tidak setelah jam mulai
+     */
+    public MeetingTime(DayOfWeek day, LocalTime start, LocalTime end) {
+        if (day == null || start == null || end == null || !end.isAfter(start)) {
+            throw new IllegalArgumentException("Meeting must end after it starts");
+        }
+        this.day = day;
+        this.start = start;
+        this.end = end;
+    }
+
+    public DayOfWeek getDay() {
+        return day;
+    }
+
+    public LocalTime getStart() {
+        return start;
+    }
+
+    public LocalTime getEnd() {
+        return end;
+    }
+
+    /**
+     * Mengecek apakah dua pertemuan beririsan (bersentuhan di batas tidak dihitung)
+     * @param other Pertemuan lain
+     * @return true jika bentrok
+     */
+    public boolean overlaps(MeetingTime other) {
+        return day == other.day && start.isBefore(other.end) && other.start.isBefore(end);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof MeetingTime)) return false;
+        MeetingTime that = (MeetingTime) o;
+        return day == that.day && start.equals(that.start) && end.equals(that.end);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(day, start, end);
+    }
+
+    @Override
+    public String toString() {
+        return day + " " + start + "-" + end;
+    }
+}
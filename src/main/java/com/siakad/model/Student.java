@@ -8,6 +8,7 @@ public class Student {
     private int semester;
     private double gpa; // IPK
     private String academicStatus; // ACTIVE, PROBATION, SUSPENDED
+    private String advisorId; // dosen pembimbing akademik
     public Student() {
     }
     public Student(String studentId, String name, String email, String major,
@@ -63,4 +64,10 @@ public class Student {
     public void setAcademicStatus(String academicStatus) {
         this.academicStatus = academicStatus;
     }
+    public String getAdvisorId() {
+        return advisorId;
+    }
+    public void setAdvisorId(String advisorId) {
+        this.advisorId = advisorId;
+    }
 }
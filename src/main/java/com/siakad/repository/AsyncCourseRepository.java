@@ -0,0 +1,35 @@
+package com.siakad.repository;
+
+import com.siakad.model.Course;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Versi asinkron CourseRepository dengan kontrak yang sama (termasuk compare-and-set pada update)
+ */
+
+public interface AsyncCourseRepository {
+
+    /**
+     * Mencari mata kuliah berdasarkan course code
+     * @param courseCode Kode mata kuliah
+     * @return Future berisi Course object atau null jika tidak ditemukan
+     */
+    CompletableFuture<Course> findByCourseCodeAsync(String courseCode);
+
+    /**
+     * Update data mata kuliah secara compare-and-set
+     * @param course Course object yang akan diupdate
+     * @return Future yang selesai setelah tersimpan, atau exceptionally dengan
+     *         {@link com.siakad.exception.ConcurrentUpdateException} jika versi bentrok
+     */
+    CompletableFuture<Void> updateAsync(Course course);
+
+    /**
+     * Mengecek apakah prasyarat mata kuliah sudah terpenuhi
+     * @param studentId ID mahasiswa
+     * @param courseCode Kode mata kuliah
+     * @return Future berisi true jika prasyarat terpenuhi
+     */
+    CompletableFuture<Boolean> isPrerequisiteMetAsync(String studentId, String courseCode);
+}
@@ -0,0 +1,54 @@
+package com.siakad.repository;
+
+import com.siakad.model.Course;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * Adapter AsyncCourseRepository untuk repository blocking
+ * Setiap pemanggilan dijalankan di executor (default: virtual thread per pemanggilan)
+ */
+
+public class AsyncCourseRepositoryAdapter implements AsyncCourseRepository {
+    private static final Executor VIRTUAL_THREADS = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final CourseRepository delegate;
+    private final Executor executor;
+
+    public AsyncCourseRepositoryAdapter(CourseRepository delegate) {
+        this(delegate, VIRTUAL_THREADS);
+    }
+
+    public AsyncCourseRepositoryAdapter(CourseRepository delegate, Executor executor) {
+        this.delegate = delegate;
+        this.executor = executor;
+    }
+
+    /**
+     * Memakai repository langsung jika sudah asinkron (termasuk decorator), atau membungkusnya dengan adapter
+     * @param repository Repository mata kuliah
+     * @return AsyncCourseRepository untuk repository tersebut
+     */
+    public static AsyncCourseRepository of(CourseRepository repository) {
+        return repository instanceof AsyncCourseRepository
+                ? (AsyncCourseRepository) repository
+                : new AsyncCourseRepositoryAdapter(repository);
+    }
+
+    @Override
+    public CompletableFuture<Course> findByCourseCodeAsync(String courseCode) {
+        return CompletableFuture.supplyAsync(() -> delegate.findByCourseCode(courseCode), executor);
+    }
+
+    @Override
+    public CompletableFuture<Void> updateAsync(Course course) {
+        return CompletableFuture.runAsync(() -> delegate.update(course), executor);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> isPrerequisiteMetAsync(String studentId, String courseCode) {
+        return CompletableFuture.supplyAsync(() -> delegate.isPrerequisiteMet(studentId, courseCode), executor);
+    }
+}
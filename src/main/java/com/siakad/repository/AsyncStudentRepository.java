@@ -0,0 +1,37 @@
+package com.siakad.repository;
+
+import com.siakad.model.Course;
+import com.siakad.model.Student;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Versi asinkron StudentRepository
+ * Setiap method langsung kembali dengan future, sehingga banyak permintaan bisa menunggu
+ * backend tanpa masing-masing menahan satu thread
+ */
+
+public interface AsyncStudentRepository {
+
+    /**
+     * Mencari mahasiswa berdasarkan student ID
+     * @param studentId ID mahasiswa
+     * @return Future berisi Student object atau null jika tidak ditemukan
+     */
+    CompletableFuture<Student> findByIdAsync(String studentId);
+
+    /**
+     * Update data mahasiswa
+     * @param student Student object yang akan diupdate
+     * @return Future yang selesai setelah data tersimpan
+     */
+    CompletableFuture<Void> updateAsync(Student student);
+
+    /**
+     * Mendapatkan daftar mata kuliah yang sudah diselesaikan mahasiswa
+     * @param studentId ID mahasiswa
+     * @return Future berisi List of Course yang sudah diselesaikan
+     */
+    CompletableFuture<List<Course>> getCompletedCoursesAsync(String studentId);
+}
@@ -0,0 +1,57 @@
+package com.siakad.repository;
+
+import com.siakad.model.Course;
+import com.siakad.model.Student;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * Adapter AsyncStudentRepository untuk repository blocking
+ * Setiap pemanggilan dijalankan di executor (default: virtual thread per pemanggilan),
+ * sehingga thread pemanggil tidak ikut menunggu
+ */
+
+public class AsyncStudentRepositoryAdapter implements AsyncStudentRepository {
+    private static final Executor VIRTUAL_THREADS = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final StudentRepository delegate;
+    private final Executor executor;
+
+    public AsyncStudentRepositoryAdapter(StudentRepository delegate) {
+        this(delegate, VIRTUAL_THREADS);
+    }
+
+    public AsyncStudentRepositoryAdapter(StudentRepository delegate, Executor executor) {
+        this.delegate = delegate;
+        this.executor = executor;
+    }
+
+    /**
+     * Memakai repository langsung jika sudah asinkron (termasuk decorator), atau membungkusnya dengan adapter
+     * @param repository Repository mahasiswa
+     * @return AsyncStudentRepository untuk repository tersebut
+     */
+    public static AsyncStudentRepository of(StudentRepository repository) {
+        return repository instanceof AsyncStudentRepository
+                ? (AsyncStudentRepository) repository
+                : new AsyncStudentRepositoryAdapter(repository);
+    }
+
+    @Override
+    public CompletableFuture<Student> findByIdAsync(String studentId) {
+        return CompletableFuture.supplyAsync(() -> delegate.findById(studentId), executor);
+    }
+
+    @Override
+    public CompletableFuture<Void> updateAsync(Student student) {
+        return CompletableFuture.runAsync(() -> delegate.update(student), executor);
+    }
+
+    @Override
+    public CompletableFuture<List<Course>> getCompletedCoursesAsync(String studentId) {
+        return CompletableFuture.supplyAsync(() -> delegate.getCompletedCourses(studentId), executor);
+    }
+}
@@ -1,7 +1,12 @@
 package com.siakad.repository;
 
+import com.siakad.exception.ConcurrentUpdateException;
 import com.siakad.model.Course;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 /**
  * Interface untuk akses data mata kuliah
  * Interface ini akan di-stub atau di-mock dalam unit testing
@@ -17,8 +22,12 @@ public interface CourseRepository {
     Course findByCourseCode(String courseCode);
 
     /**
-     * Update data mata kuliah
+     * Update data mata kuliah secara compare-and-set
+     * Update hanya berhasil jika versi yang tersimpan sama dengan course.getVersion();
+     * setelah berhasil, versi di repository dan pada course dinaikkan satu
+     *
      * @param course Course object yang akan diupdate
+     * @throws ConcurrentUpdateException jika mata kuliah sudah diubah pihak lain sejak dibaca
      */
     void update(Course course);
 
@@ -29,4 +38,54 @@ public interface CourseRepository {
      * @return true jika prasyarat terpenuhi, false jika tidak
      */
     boolean isPrerequisiteMet(String studentId, String courseCode);
+
+    /**
+     * Mengecek prasyarat satu mata kuliah untuk banyak mahasiswa sekaligus
+     * Implementasi default memanggil isPrerequisiteMet satu per satu; implementasi yang mendukung
+     * pembacaan bulk sebaiknya meng-override agar cukup satu round trip
+     *
+     * @param studentIds Daftar ID mahasiswa
+     * @param courseCode Kode mata kuliah
+     * @return Map ID -> true jika prasyarat terpenuhi, sesuai urutan input
+     */
+    default Map<String, Boolean> arePrerequisitesMet(Collection<String> studentIds, String courseCode) {
+        Map<String, Boolean> result = new LinkedHashMap<>();
+        for (String studentId : studentIds) {
+            result.put(studentId, isPrerequisiteMet(studentId, courseCode));
+        }
+        return result;
+    }
+
+    /**
+     * Mencari banyak mata kuliah sekaligus
+     * Implementasi default memanggil findByCourseCode satu per satu; implementasi yang mendukung
+     * pembacaan bulk sebaiknya meng-override agar cukup satu round trip
+     *
+     * @param courseCodes Daftar kode mata kuliah
+     * @return Map kode -> Course sesuai urutan input; kode yang tidak ditemukan tidak dimasukkan
+     */
+    default Map<String, Course> findByCourseCodes(Collection<String> courseCodes) {
+        Map<String, Course> result = new LinkedHashMap<>();
+        for (String courseCode : courseCodes) {
+            Course course = findByCourseCode(courseCode);
+            if (course != null) {
+                result.put(courseCode, course);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Update banyak mata kuliah sekaligus dengan kontrak compare-and-set yang sama seperti update
+     * Implementasi default memanggil update satu per satu dan berhenti di kegagalan pertama
+     * (mata kuliah sebelumnya tetap tersimpan); implementasi lain boleh menjamin semua-atau-tidak-sama-sekali
+     *
+     * @param courses Daftar Course yang akan diupdate, setiap kode mata kuliah paling banyak sekali
+     * @throws ConcurrentUpdateException jika salah satu mata kuliah sudah diubah pihak lain
+     */
+    default void updateAll(Collection<Course> courses) {
+        for (Course course : courses) {
+            update(course);
+        }
+    }
 }
\ No newline at end of file
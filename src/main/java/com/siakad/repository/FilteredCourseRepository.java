@@ -0,0 +1,111 @@
+package com.siakad.repository;
+
+import com.siakad.model.Course;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Decorator CourseRepository yang menolak kode mata kuliah tidak dikenal lewat KnownKeyFilter
+ * Kode yang pasti tidak ada langsung menghasilkan null (lalu CourseNotFoundException di service)
+ * tanpa round trip ke repository. Insert langsung ke repository asli harus dicatat lewat getKeyFilter().add
+ * Method asinkron memakai filter yang sama di atas versi asinkron delegate
+ */
+
+public class FilteredCourseRepository implements CourseRepository, AsyncCourseRepository {
+    private final CourseRepository delegate;
+    private final AsyncCourseRepository asyncDelegate;
+    private final KnownKeyFilter keyFilter;
+
+    public FilteredCourseRepository(CourseRepository delegate, KnownKeyFilter keyFilter) {
+        this.delegate = delegate;
+        this.asyncDelegate = AsyncCourseRepositoryAdapter.of(delegate);
+        this.keyFilter = keyFilter;
+    }
+
+    public KnownKeyFilter getKeyFilter() {
+        return keyFilter;
+    }
+
+    @Override
+    public Course findByCourseCode(String courseCode) {
+        if (!keyFilter.mightExist(courseCode)) {
+            return null;
+        }
+        long stamp = keyFilter.lookupStamp();
+        Course course = delegate.findByCourseCode(courseCode);
+        if (course == null) {
+            keyFilter.recordMissing(courseCode, stamp);
+        }
+        return course;
+    }
+
+    @Override
+    public Map<String, Course> findByCourseCodes(Collection<String> courseCodes) {
+        List<String> candidates = new ArrayList<>(courseCodes.size());
+        for (String courseCode : courseCodes) {
+            if (keyFilter.mightExist(courseCode)) {
+                candidates.add(courseCode);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return new LinkedHashMap<>();
+        }
+        long stamp = keyFilter.lookupStamp();
+        Map<String, Course> found = delegate.findByCourseCodes(candidates);
+        for (String courseCode : candidates) {
+            if (!found.containsKey(courseCode)) {
+                keyFilter.recordMissing(courseCode, stamp);
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public void update(Course course) {
+        delegate.update(course);
+    }
+
+    @Override
+    public void updateAll(Collection<Course> courses) {
+        delegate.updateAll(courses);
+    }
+
+    @Override
+    public boolean isPrerequisiteMet(String studentId, String courseCode) {
+        return delegate.isPrerequisiteMet(studentId, courseCode);
+    }
+
+    @Override
+    public Map<String, Boolean> arePrerequisitesMet(Collection<String> studentIds, String courseCode) {
+        return delegate.arePrerequisitesMet(studentIds, courseCode);
+    }
+
+    @Override
+    public CompletableFuture<Course> findByCourseCodeAsync(String courseCode) {
+        if (!keyFilter.mightExist(courseCode)) {
+            return CompletableFuture.completedFuture(null);
+        }
+        long stamp = keyFilter.lookupStamp();
+        return asyncDelegate.findByCourseCodeAsync(courseCode).thenApply(course -> {
+            if (course == null) {
+                keyFilter.recordMissing(courseCode, stamp);
+            }
+            return course;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> updateAsync(Course course) {
+        return asyncDelegate.updateAsync(course);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> isPrerequisiteMetAsync(String studentId, String courseCode) {
+        return asyncDelegate.isPrerequisiteMetAsync(studentId, courseCode);
+    }
+}
@@ -0,0 +1,117 @@
+package com.siakad.repository;
+
+import com.siakad.model.Course;
+import com.siakad.model.Student;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Decorator StudentRepository yang menolak ID mahasiswa tidak dikenal lewat KnownKeyFilter
+ * ID yang pasti tidak ada langsung menghasilkan null (lalu StudentNotFoundException di service)
+ * tanpa round trip ke repository. Mahasiswa yang disimpan lewat update/updateAll otomatis dicatat;
+ * insert langsung ke repository asli harus dicatat lewat getKeyFilter().add
+ * Method asinkron memakai filter yang sama di atas versi asinkron delegate
+ */
+
+public class FilteredStudentRepository implements StudentRepository, AsyncStudentRepository {
+    private final StudentRepository delegate;
+    private final AsyncStudentRepository asyncDelegate;
+    private final KnownKeyFilter keyFilter;
+
+    public FilteredStudentRepository(StudentRepository delegate, KnownKeyFilter keyFilter) {
+        this.delegate = delegate;
+        this.asyncDelegate = AsyncStudentRepositoryAdapter.of(delegate);
+        this.keyFilter = keyFilter;
+    }
+
+    public KnownKeyFilter getKeyFilter() {
+        return keyFilter;
+    }
+
+    @Override
+    public Student findById(String studentId) {
+        if (!keyFilter.mightExist(studentId)) {
+            return null;
+        }
+        long stamp = keyFilter.lookupStamp();
+        Student student = delegate.findById(studentId);
+        if (student == null) {
+            keyFilter.recordMissing(studentId, stamp);
+        }
+        return student;
+    }
+
+    @Override
+    public Map<String, Student> findByIds(Collection<String> studentIds) {
+        List<String> candidates = new ArrayList<>(studentIds.size());
+        for (String studentId : studentIds) {
+            if (keyFilter.mightExist(studentId)) {
+                candidates.add(studentId);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return new LinkedHashMap<>();
+        }
+        long stamp = keyFilter.lookupStamp();
+        Map<String, Student> found = delegate.findByIds(candidates);
+        for (String studentId : candidates) {
+            if (!found.containsKey(studentId)) {
+                keyFilter.recordMissing(studentId, stamp);
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public void update(Student student) {
+        delegate.update(student);
+        keyFilter.add(student.getStudentId());
+    }
+
+    @Override
+    public void updateAll(Collection<Student> students) {
+        delegate.updateAll(students);
+        for (Student student : students) {
+            keyFilter.add(student.getStudentId());
+        }
+    }
+
+    @Override
+    public List<Course> getCompletedCourses(String studentId) {
+        return delegate.getCompletedCourses(studentId);
+    }
+
+    @Override
+    public Map<String, List<Course>> findCompletedCourses(Collection<String> studentIds) {
+        return delegate.findCompletedCourses(studentIds);
+    }
+
+    @Override
+    public CompletableFuture<Student> findByIdAsync(String studentId) {
+        if (!keyFilter.mightExist(studentId)) {
+            return CompletableFuture.completedFuture(null);
+        }
+        long stamp = keyFilter.lookupStamp();
+        return asyncDelegate.findByIdAsync(studentId).thenApply(student -> {
+            if (student == null) {
+                keyFilter.recordMissing(studentId, stamp);
+            }
+            return student;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> updateAsync(Student student) {
+        return asyncDelegate.updateAsync(student).thenRun(() -> keyFilter.add(student.getStudentId()));
+    }
+
+    @Override
+    public CompletableFuture<List<Course>> getCompletedCoursesAsync(String studentId) {
+        return asyncDelegate.getCompletedCoursesAsync(studentId);
+    }
+}
@@ -0,0 +1,218 @@
+package com.siakad.repository;
+
+import com.siakad.exception.ConcurrentUpdateException;
+import com.siakad.model.Course;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Implementasi CourseRepository di memori yang aman untuk banyak thread
+ * Setiap pembacaan mengembalikan salinan dan update memakai compare-and-set versi,
+ * sehingga beberapa instance service bisa berbagi repository tanpa lost update
+ * Prasyarat dicek dari daftar mata kuliah yang sudah diselesaikan di StudentRepository
+ * Latensi bisa disuntikkan untuk mensimulasikan database remote saat load test;
+ * method asinkron menunggu latensi tersebut tanpa menahan thread
+ */
+
+public class InMemoryCourseRepository implements CourseRepository, AsyncCourseRepository {
+    private final ConcurrentHashMap<String, Course> courses = new ConcurrentHashMap<>();
+    private final StudentRepository studentRepository;
+    private final AsyncStudentRepository studentAsync;
+    private volatile long latencyNanos;
+
+    public InMemoryCourseRepository(StudentRepository studentRepository) {
+        this.studentRepository = studentRepository;
+        // Repository mahasiswa blocking dijalankan lewat adapter, bukan di common pool
+        this.studentAsync = AsyncStudentRepositoryAdapter.of(studentRepository);
+    }
+
+    @Override
+    public Course findByCourseCode(String courseCode) {
+        simulateLatency();
+        Course course = courses.get(courseCode);
+        return course == null ? null : new Course(course);
+    }
+
+    @Override
+    public void update(Course course) {
+        simulateLatency();
+        compareAndSet(course);
+        course.setVersion(course.getVersion() + 1);
+    }
+
+    @Override
+    public Map<String, Course> findByCourseCodes(Collection<String> courseCodes) {
+        simulateLatency();
+        Map<String, Course> result = new LinkedHashMap<>();
+        for (String courseCode : courseCodes) {
+            Course course = courses.get(courseCode);
+            if (course != null) {
+                result.put(courseCode, new Course(course));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Update bulk dalam satu round trip, semua-atau-tidak-sama-sekali:
+     * jika satu mata kuliah bentrok versi, mata kuliah yang sudah ditulis dikembalikan
+     */
+    @Override
+    public void updateAll(Collection<Course> batch) {
+        simulateLatency();
+        List<Course[]> applied = new ArrayList<>(batch.size());
+        try {
+            for (Course course : batch) {
+                applied.add(compareAndSet(course));
+            }
+        } catch (ConcurrentUpdateException e) {
+            for (int i = applied.size() - 1; i >= 0; i--) {
+                Course previous = applied.get(i)[0];
+                Course written = applied.get(i)[1];
+                courses.compute(written.getCourseCode(), (code, current) -> current == written ? previous : current);
+            }
+            throw e;
+        }
+        for (Course course : batch) {
+            course.setVersion(course.getVersion() + 1);
+        }
+    }
+
+    @Override
+    public boolean isPrerequisiteMet(String studentId, String courseCode) {
+        simulateLatency();
+        Course course = courses.get(courseCode);
+        if (!hasPrerequisites(course)) {
+            return course != null;
+        }
+        return prerequisitesMet(course, studentRepository.getCompletedCourses(studentId));
+    }
+
+    /**
+     * Riwayat semua mahasiswa dibaca dengan satu findCompletedCourses
+     */
+    @Override
+    public Map<String, Boolean> arePrerequisitesMet(Collection<String> studentIds, String courseCode) {
+        simulateLatency();
+        Course course = courses.get(courseCode);
+        Map<String, Boolean> result = new LinkedHashMap<>();
+        if (!hasPrerequisites(course)) {
+            for (String studentId : studentIds) {
+                result.put(studentId, course != null);
+            }
+            return result;
+        }
+        Map<String, List<Course>> completed = studentRepository.findCompletedCourses(studentIds);
+        for (String studentId : studentIds) {
+            List<Course> done = completed.get(studentId);
+            result.put(studentId, prerequisitesMet(course, done == null ? List.of() : done));
+        }
+        return result;
+    }
+
+    @Override
+    public CompletableFuture<Course> findByCourseCodeAsync(String courseCode) {
+        return RepositoryLatency.after(latencyNanos, () -> {
+            Course course = courses.get(courseCode);
+            return course == null ? null : new Course(course);
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> updateAsync(Course course) {
+        return RepositoryLatency.after(latencyNanos, () -> {
+            compareAndSet(course);
+            course.setVersion(course.getVersion() + 1);
+            return null;
+        });
+    }
+
+    /**
+     * Prasyarat dicek dengan membaca mata kuliah dan riwayat mahasiswa secara paralel
+     * (jika StudentRepository juga asinkron)
+     */
+    @Override
+    public CompletableFuture<Boolean> isPrerequisiteMetAsync(String studentId, String courseCode) {
+        CompletableFuture<Course> courseLookup = RepositoryLatency.after(latencyNanos, () -> courses.get(courseCode));
+        CompletableFuture<List<Course>> completedLookup = studentAsync.getCompletedCoursesAsync(studentId);
+        return courseLookup.thenCombine(completedLookup, (course, completed) ->
+                hasPrerequisites(course) ? prerequisitesMet(course, completed) : course != null);
+    }
+
+    private static boolean hasPrerequisites(Course course) {
+        return course != null && course.getPrerequisites() != null && !course.getPrerequisites().isEmpty();
+    }
+
+    private static boolean prerequisitesMet(Course course, List<Course> completedCourses) {
+        Set<String> completed = new HashSet<>();
+        for (Course done : completedCourses) {
+            completed.add(done.getCourseCode());
+        }
+        return course.isPrerequisiteMet(completed);
+    }
+
+    /**
+     * Menyimpan salinan mata kuliah tanpa latensi dan tanpa cek versi (untuk pengisian data awal)
+     * @param course Course object
+     */
+    public void save(Course course) {
+        courses.put(course.getCourseCode(), new Course(course));
+    }
+
+    public Collection<Course> findAll() {
+        List<Course> result = new ArrayList<>(courses.size());
+        for (Course course : courses.values()) {
+            result.add(new Course(course));
+        }
+        return result;
+    }
+
+    public int size() {
+        return courses.size();
+    }
+
+    /**
+     * Menulis salinan course jika versi tersimpan sama dengan versi course
+     * @return Pasangan {nilai sebelumnya, nilai yang ditulis}
+     */
+    private Course[] compareAndSet(Course course) {
+        long expected = course.getVersion();
+        Course next = new Course(course);
+        next.setVersion(expected + 1);
+        Course[] previous = new Course[1];
+        Course stored = courses.compute(course.getCourseCode(), (code, current) -> {
+            long found = current == null ? 0 : current.getVersion();
+            if (found != expected) {
+                return current;
+            }
+            previous[0] = current;
+            return next;
+        });
+        if (stored != next) {
+            throw new ConcurrentUpdateException("Course was modified concurrently: " + course.getCourseCode()
+                    + " (expected version " + expected + ", found " + stored.getVersion() + ")");
+        }
+        return new Course[]{previous[0], next};
+    }
+
+    /**
+     * Mengatur latensi buatan untuk setiap pemanggilan method repository
+     * @param latency Durasi latensi, Duration.ZERO untuk mematikan
+     */
+    public void setLatency(Duration latency) {
+        this.latencyNanos = latency.toNanos();
+    }
+
+    private void simulateLatency() {
+        RepositoryLatency.pause(latencyNanos);
+    }
+}
@@ -0,0 +1,130 @@
+package com.siakad.repository;
+
+import com.siakad.model.Course;
+import com.siakad.model.Student;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Implementasi StudentRepository di memori yang aman untuk banyak thread
+ * Latensi bisa disuntikkan untuk mensimulasikan database remote saat load test;
+ * method asinkron menunggu latensi tersebut tanpa menahan thread
+ */
+
+public class InMemoryStudentRepository implements StudentRepository, AsyncStudentRepository {
+    private final ConcurrentHashMap<String, Student> students = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, List<Course>> completedCourses = new ConcurrentHashMap<>();
+    private volatile long latencyNanos;
+
+    @Override
+    public Student findById(String studentId) {
+        simulateLatency();
+        return students.get(studentId);
+    }
+
+    @Override
+    public void update(Student student) {
+        simulateLatency();
+        students.put(student.getStudentId(), student);
+    }
+
+    @Override
+    public List<Course> getCompletedCourses(String studentId) {
+        simulateLatency();
+        return completedCoursesOf(studentId);
+    }
+
+    private List<Course> completedCoursesOf(String studentId) {
+        List<Course> courses = completedCourses.get(studentId);
+        return courses == null ? new ArrayList<>() : new ArrayList<>(courses);
+    }
+
+    @Override
+    public Map<String, Student> findByIds(Collection<String> studentIds) {
+        simulateLatency();
+        Map<String, Student> result = new LinkedHashMap<>();
+        for (String studentId : studentIds) {
+            Student student = students.get(studentId);
+            if (student != null) {
+                result.put(studentId, student);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Map<String, List<Course>> findCompletedCourses(Collection<String> studentIds) {
+        simulateLatency();
+        Map<String, List<Course>> result = new LinkedHashMap<>();
+        for (String studentId : studentIds) {
+            result.put(studentId, completedCoursesOf(studentId));
+        }
+        return result;
+    }
+
+    @Override
+    public void updateAll(Collection<Student> batch) {
+        simulateLatency();
+        for (Student student : batch) {
+            students.put(student.getStudentId(), student);
+        }
+    }
+
+    @Override
+    public CompletableFuture<Student> findByIdAsync(String studentId) {
+        return RepositoryLatency.after(latencyNanos, () -> students.get(studentId));
+    }
+
+    @Override
+    public CompletableFuture<Void> updateAsync(Student student) {
+        return RepositoryLatency.after(latencyNanos, () -> {
+            students.put(student.getStudentId(), student);
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<List<Course>> getCompletedCoursesAsync(String studentId) {
+        return RepositoryLatency.after(latencyNanos, () -> completedCoursesOf(studentId));
+    }
+
+    /**
+     * Menyimpan mahasiswa tanpa latensi (untuk pengisian data awal)
+     * @param student Student object
+     */
+    public void save(Student student) {
+        students.put(student.getStudentId(), student);
+    }
+
+    public void addCompletedCourse(String studentId, Course course) {
+        completedCourses.computeIfAbsent(studentId, id -> new CopyOnWriteArrayList<>()).add(course);
+    }
+
+    public Collection<Student> findAll() {
+        return new ArrayList<>(students.values());
+    }
+
+    public int size() {
+        return students.size();
+    }
+
+    /**
+     * Mengatur latensi buatan untuk setiap pemanggilan method repository
+     * @param latency Durasi latensi, Duration.ZERO untuk mematikan
+     */
+    public void setLatency(Duration latency) {
+        this.latencyNanos = latency.toNanos();
+    }
+
+    private void simulateLatency() {
+        RepositoryLatency.pause(latencyNanos);
+    }
+}
@@ -0,0 +1,270 @@
+package com.siakad.repository;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Penyaring kunci (ID mahasiswa atau kode mata kuliah) sebelum menyentuh repository
+ * Bloom filter menolak kunci yang pasti tidak ada; kunci yang lolos Bloom filter tetapi ternyata
+ * tidak ada (false positive, salah ketik berulang) disimpan di negative cache LRU yang terbatas
+ * jumlah dan umurnya, sehingga pencarian berikutnya juga tidak ke repository
+ */
+
+public class KnownKeyFilter {
+    private final int expectedKeys;
+    private final double falsePositiveRate;
+    private final int negativeCacheSize;
+    private final long negativeTtlNanos;
+    private final LongSupplier clock;
+
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile BloomFilter bloom;
+    // Kunci yang di-add selama rebuild berjalan, diputar ulang ke filter baru sebelum dipublikasikan
+    private List<String> pendingAdds;
+
+    private final ReentrantLock cacheLock = new ReentrantLock();
+    private final LinkedHashMap<String, Long> negativeCache;
+    // Generasi insert per kunci, agar recordMissing yang kalah balapan dengan add tidak meng-cache kunci baru
+    private final LinkedHashMap<String, Long> recentAdds;
+    private long addGeneration;
+    private long evictedAddGeneration;
+
+    private final LongAdder bloomRejections = new LongAdder();
+    private final LongAdder negativeCacheHits = new LongAdder();
+
+    /**
+     * @param expectedKeys Perkiraan jumlah kunci (ukuran minimum Bloom filter)
+     * @param falsePositiveRate Target peluang false positive Bloom filter
+     * @param negativeCacheSize Jumlah maksimal kunci di negative cache, 0 untuk mematikan
+     * @param negativeTtl Umur entri negative cache
+     */
+    public KnownKeyFilter(int expectedKeys, double falsePositiveRate, int negativeCacheSize, Duration negativeTtl) {
+        this(expectedKeys, falsePositiveRate, negativeCacheSize, negativeTtl, System::nanoTime);
+    }
+
+    KnownKeyFilter(int expectedKeys, double falsePositiveRate, int negativeCacheSize, Duration negativeTtl,
+                   LongSupplier clock) {
+        if (negativeCacheSize < 0) {
+            throw new IllegalArgumentException("Negative cache size must not be negative");
+        }
+        if (negativeTtl.isNegative() || negativeTtl.isZero()) {
+            throw new IllegalArgumentException("Negative cache TTL must be positive");
+        }
+        this.expectedKeys = expectedKeys;
+        this.falsePositiveRate = falsePositiveRate;
+        this.negativeCacheSize = negativeCacheSize;
+        this.negativeTtlNanos = negativeTtl.toNanos();
+        this.clock = clock;
+        this.bloom = new BloomFilter(expectedKeys, falsePositiveRate);
+        this.negativeCache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > KnownKeyFilter.this.negativeCacheSize;
+            }
+        };
+        this.recentAdds = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                if (size() <= Math.max(1, KnownKeyFilter.this.negativeCacheSize)) {
+                    return false;
+                }
+                evictedAddGeneration = eldest.getValue();
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Membangun ulang Bloom filter dari seluruh kunci (setelah bulk load) dan mengosongkan negative cache
+     * Kunci yang di-add sebelum rebuild dipanggil harus sudah ada di keys; gunakan
+     * {@link #rebuild(Supplier)} jika daftar kunci dibaca saat insert masih berjalan
+     *
+     * @param keys Semua kunci yang ada di repository
+     */
+    public void rebuild(Collection<String> keys) {
+        rebuild(() -> keys);
+    }
+
+    /**
+     * Membangun ulang Bloom filter dari kunci yang dibaca keySource
+     * Kunci yang di-add sejak keySource mulai dibaca ikut dimasukkan ke filter baru
+     *
+     * @param keySource Pembaca semua kunci di repository
+     */
+    public void rebuild(Supplier<? extends Collection<String>> keySource) {
+        rebuildLock.lock();
+        try {
+            writeLock.lock();
+            try {
+                pendingAdds = new ArrayList<>();
+            } finally {
+                writeLock.unlock();
+            }
+            BloomFilter rebuilt;
+            try {
+                Collection<String> keys = keySource.get();
+                rebuilt = new BloomFilter(Math.max(expectedKeys, keys.size()), falsePositiveRate);
+                for (String key : keys) {
+                    rebuilt.add(key);
+                }
+            } catch (RuntimeException e) {
+                writeLock.lock();
+                try {
+                    pendingAdds = null;
+                } finally {
+                    writeLock.unlock();
+                }
+                throw e;
+            }
+            writeLock.lock();
+            try {
+                for (String key : pendingAdds) {
+                    rebuilt.add(key);
+                }
+                pendingAdds = null;
+                bloom = rebuilt;
+            } finally {
+                writeLock.unlock();
+            }
+        } finally {
+            rebuildLock.unlock();
+        }
+        cacheLock.lock();
+        try {
+            negativeCache.clear();
+        } finally {
+            cacheLock.unlock();
+        }
+    }
+
+    /**
+     * Mencatat kunci baru (insert) agar tidak lagi ditolak
+     * @param key Kunci yang baru disimpan
+     */
+    public void add(String key) {
+        writeLock.lock();
+        try {
+            bloom.add(key);
+            if (pendingAdds != null) {
+                pendingAdds.add(key);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+        if (negativeCacheSize > 0) {
+            cacheLock.lock();
+            try {
+                addGeneration++;
+                recentAdds.remove(key);
+                recentAdds.put(key, addGeneration);
+                negativeCache.remove(key);
+            } finally {
+                cacheLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Mengecek apakah kunci perlu dicari ke repository
+     * @param key Kunci; null selalu diteruskan ke repository
+     * @return false jika kunci pasti tidak ada
+     */
+    public boolean mightExist(String key) {
+        if (key == null) {
+            return true;
+        }
+        if (!bloom.mightContain(key)) {
+            bloomRejections.increment();
+            return false;
+        }
+        if (negativeCacheSize == 0) {
+            return true;
+        }
+        cacheLock.lock();
+        try {
+            Long expiresAt = negativeCache.get(key);
+            if (expiresAt == null) {
+                return true;
+            }
+            if (clock.getAsLong() - expiresAt >= 0) {
+                negativeCache.remove(key);
+                return true;
+            }
+        } finally {
+            cacheLock.unlock();
+        }
+        negativeCacheHits.increment();
+        return false;
+    }
+
+    /**
+     * Penanda sebelum membaca repository, diteruskan ke recordMissing jika kunci tidak ditemukan
+     * @return Generasi insert saat ini
+     */
+    public long lookupStamp() {
+        cacheLock.lock();
+        try {
+            return addGeneration;
+        } finally {
+            cacheLock.unlock();
+        }
+    }
+
+    /**
+     * Mencatat kunci yang lolos Bloom filter tetapi tidak ditemukan di repository
+     * Tanpa penanda pembacaan, sehingga tidak aman jika kunci bisa di-add bersamaan
+     *
+     * @param key Kunci yang tidak ada
+     */
+    public void recordMissing(String key) {
+        recordMissing(key, lookupStamp());
+    }
+
+    /**
+     * Mencatat kunci yang tidak ditemukan, kecuali kunci itu di-add sejak pembacaan dimulai
+     * @param key Kunci yang tidak ada
+     * @param lookupStamp Nilai lookupStamp() sebelum repository dibaca
+     */
+    public void recordMissing(String key, long lookupStamp) {
+        if (key == null || negativeCacheSize == 0) {
+            return;
+        }
+        cacheLock.lock();
+        try {
+            Long addedAt = recentAdds.get(key);
+            // Jika riwayat insert sejak pembacaan sudah terbuang, lewati cache agar tetap aman
+            if ((addedAt != null && addedAt > lookupStamp) || evictedAddGeneration > lookupStamp) {
+                return;
+            }
+            negativeCache.put(key, clock.getAsLong() + negativeTtlNanos);
+        } finally {
+            cacheLock.unlock();
+        }
+    }
+
+    public long getBloomRejectionCount() {
+        return bloomRejections.sum();
+    }
+
+    public long getNegativeCacheHitCount() {
+        return negativeCacheHits.sum();
+    }
+
+    public int getNegativeCacheSize() {
+        cacheLock.lock();
+        try {
+            return negativeCache.size();
+        } finally {
+            cacheLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.siakad.repository;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Helper untuk menyuntikkan latensi buatan pada repository in-memory
+ */
+
+final class RepositoryLatency {
+
+    private RepositoryLatency() {
+    }
+
+    /**
+     * Menahan thread pemanggil selama durasi tertentu (virtual thread akan di-unmount)
+     * @param nanos Durasi dalam nanodetik, tidak melakukan apa pun jika <= 0
+     */
+    static void pause(long nanos) {
+        if (nanos <= 0) {
+            return;
+        }
+        long deadline = System.nanoTime() + nanos;
+        long remaining = nanos;
+        while (remaining > 0 && !Thread.currentThread().isInterrupted()) {
+            LockSupport.parkNanos(remaining);
+            remaining = deadline - System.nanoTime();
+        }
+    }
+
+    /**
+     * Menjalankan operasi setelah latensi tanpa menahan thread selama menunggu
+     * @param nanos Durasi dalam nanodetik, operasi langsung dijalankan jika <= 0
+     * @param action Operasi yang hasilnya dikembalikan
+     * @return Future berisi hasil operasi
+     */
+    static <T> CompletableFuture<T> after(long nanos, Supplier<T> action) {
+        if (nanos <= 0) {
+            try {
+                return CompletableFuture.completedFuture(action.get());
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        Executor delayed = CompletableFuture.delayedExecutor(nanos, TimeUnit.NANOSECONDS);
+        return CompletableFuture.supplyAsync(action, delayed);
+    }
+}
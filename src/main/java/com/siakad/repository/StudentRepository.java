@@ -4,7 +4,10 @@ package com.siakad.repository;
 import com.siakad.model.Course;
 import com.siakad.model.Student;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Interface untuk akses data mahasiswa
@@ -32,4 +35,50 @@ public interface StudentRepository {
      * @return List of Course yang sudah diselesaikan
      */
     List<Course> getCompletedCourses(String studentId);
+
+    /**
+     * Mencari banyak mahasiswa sekaligus
+     * Implementasi default memanggil findById satu per satu; implementasi yang mendukung
+     * pembacaan bulk sebaiknya meng-override agar cukup satu round trip
+     *
+     * @param studentIds Daftar ID mahasiswa
+     * @return Map ID -> Student sesuai urutan input; ID yang tidak ditemukan tidak dimasukkan
+     */
+    default Map<String, Student> findByIds(Collection<String> studentIds) {
+        Map<String, Student> result = new LinkedHashMap<>();
+        for (String studentId : studentIds) {
+            Student student = findById(studentId);
+            if (student != null) {
+                result.put(studentId, student);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Mendapatkan mata kuliah yang sudah diselesaikan banyak mahasiswa sekaligus
+     * Implementasi default memanggil getCompletedCourses satu per satu; implementasi yang mendukung
+     * pembacaan bulk sebaiknya meng-override agar cukup satu round trip
+     *
+     * @param studentIds Daftar ID mahasiswa
+     * @return Map ID -> List of Course sesuai urutan input; mahasiswa tanpa riwayat mendapat list kosong
+     */
+    default Map<String, List<Course>> findCompletedCourses(Collection<String> studentIds) {
+        Map<String, List<Course>> result = new LinkedHashMap<>();
+        for (String studentId : studentIds) {
+            result.put(studentId, getCompletedCourses(studentId));
+        }
+        return result;
+    }
+
+    /**
+     * Update banyak mahasiswa sekaligus
+     * Implementasi default memanggil update satu per satu
+     * @param students Daftar Student yang akan diupdate
+     */
+    default void updateAll(Collection<Student> students) {
+        for (Student student : students) {
+            update(student);
+        }
+    }
 }
\ No newline at end of file
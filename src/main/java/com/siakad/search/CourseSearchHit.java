@@ -0,0 +1,40 @@
+package com.siakad.search;
+
+/**
+ * Satu hasil pencarian mata kuliah beserta skornya (semakin besar semakin relevan)
+ */
+
+public class CourseSearchHit {
+    private final String courseCode;
+    private final String courseName;
+    private final String lecturer;
+    private final double score;
+
+    CourseSearchHit(String courseCode, String courseName, String lecturer, double score) {
+        this.courseCode = courseCode;
+        this.courseName = courseName;
+        this.lecturer = lecturer;
+        this.score = score;
+    }
+
+    public String getCourseCode() {
+        return courseCode;
+    }
+
+    public String getCourseName() {
+        return courseName;
+    }
+
+    public String getLecturer() {
+        return lecturer;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    @Override
+    public String toString() {
+        return courseCode + " " + courseName + " (" + lecturer + ") " + String.format("%.2f", score);
+    }
+}
@@ -0,0 +1,559 @@
+package com.siakad.search;
+
+import com.siakad.model.Course;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntConsumer;
+
+/**
+ * Index pencarian type-ahead mata kuliah atas kode, nama dan dosen
+ * Kode dicari dengan trie persisten (prefix), nama dan dosen dengan inverted index trigram
+ * yang posting list-nya disimpan sebagai delta varint. Pembaca memakai snapshot immutable tanpa lock;
+ * penulis membuat snapshot baru dari salinan dangkal array dokumen dan map trigram: posting list yang
+ * tidak berubah dipakai bersama, hanya posting list trigram yang berubah yang dikodekan ulang,
+ * dan trie kode hanya disalin sepanjang jalur key. Setiap dokumen menyimpan versi mata kuliah
+ * sehingga update yang tiba tidak berurutan tidak menimpa versi yang lebih baru
+ */
+
+public class CourseSearchIndex {
+    private static final double CODE_EXACT_SCORE = 3.0;
+    private static final double CODE_PREFIX_SCORE = 2.0;
+    private static final double LECTURER_WEIGHT = 0.8;
+    private static final double MIN_TEXT_SCORE = 0.5;
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    /**
+     * Membangun ulang index dari seluruh katalog dalam satu lintasan
+     * @param courses Daftar mata kuliah
+     */
+    public void rebuild(Collection<Course> courses) {
+        Map<String, Integer> ids = new HashMap<>();
+        List<Doc> docs = new ArrayList<>();
+        for (Course course : courses) {
+            Doc doc = Doc.of(course);
+            Integer existing = ids.get(doc.code);
+            if (existing != null) {
+                if (doc.version >= docs.get(existing).version) {
+                    docs.set(existing, doc);
+                }
+            } else {
+                ids.put(doc.code, docs.size());
+                docs.add(doc);
+            }
+        }
+        TrieNode codes = TrieNode.EMPTY;
+        Map<String, PostingBuilder> nameGrams = new HashMap<>();
+        Map<String, PostingBuilder> lecturerGrams = new HashMap<>();
+        for (int id = 0; id < docs.size(); id++) {
+            Doc doc = docs.get(id);
+            codes = codes.with(doc.code, 0, id);
+            for (String gram : documentGrams(doc.name)) {
+                nameGrams.computeIfAbsent(gram, g -> new PostingBuilder()).add(id);
+            }
+            for (String gram : documentGrams(doc.lecturer)) {
+                lecturerGrams.computeIfAbsent(gram, g -> new PostingBuilder()).add(id);
+            }
+        }
+        writeLock.lock();
+        try {
+            snapshot = new Snapshot(docs.toArray(new Doc[0]), ids, codes, encodeAll(nameGrams), encodeAll(lecturerGrams));
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Menambah atau memperbarui satu mata kuliah
+     * Versi yang lebih lama dari yang sudah diindeks diabaikan. Jika kode, nama dan dosen tidak
+     * berubah (mis. hanya enrolledCount), hanya versi dokumen yang dinaikkan tanpa snapshot baru
+     *
+     * @param course Mata kuliah terbaru
+     */
+    public void index(Course course) {
+        Doc doc = Doc.of(course);
+        Doc indexed = snapshot.find(doc.code);
+        if (indexed != null && (doc.version < indexed.version
+                || doc.version == indexed.version && doc.equals(indexed))) {
+            return;
+        }
+        writeLock.lock();
+        try {
+            Snapshot current = snapshot;
+            Integer id = current.ids.get(doc.code);
+            Doc old = id == null ? null : current.docs[id];
+            if (old != null && doc.version < old.version) {
+                return;
+            }
+            if (doc.equals(old)) {
+                old.version = doc.version;
+                return;
+            }
+            Doc[] docs;
+            Map<String, Integer> ids = current.ids;
+            TrieNode codes = current.codes;
+            if (id == null) {
+                id = current.docs.length;
+                docs = Arrays.copyOf(current.docs, id + 1);
+                ids = new HashMap<>(current.ids);
+                ids.put(doc.code, id);
+                codes = codes.with(doc.code, 0, id);
+            } else {
+                docs = current.docs.clone();
+            }
+            docs[id] = doc;
+            snapshot = new Snapshot(docs, ids, codes,
+                    replaceGrams(current.nameGrams, old == null ? null : old.name, doc.name, id),
+                    replaceGrams(current.lecturerGrams, old == null ? null : old.lecturer, doc.lecturer, id));
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Menghapus mata kuliah dari index
+     * @param courseCode Kode mata kuliah
+     * @return true jika sebelumnya ada di index
+     */
+    public boolean remove(String courseCode) {
+        String code = normalizeCode(courseCode);
+        writeLock.lock();
+        try {
+            Snapshot current = snapshot;
+            Integer id = current.ids.get(code);
+            if (id == null) {
+                return false;
+            }
+            Doc old = current.docs[id];
+            Doc[] docs = current.docs.clone();
+            docs[id] = null;
+            Map<String, Integer> ids = new HashMap<>(current.ids);
+            ids.remove(code);
+            snapshot = new Snapshot(docs, ids, current.codes.with(code, 0, -1),
+                    replaceGrams(current.nameGrams, old.name, null, id),
+                    replaceGrams(current.lecturerGrams, old.lecturer, null, id));
+            return true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Jumlah mata kuliah di index
+     * @return Jumlah mata kuliah
+     */
+    public int size() {
+        return snapshot.ids.size();
+    }
+
+    /**
+     * Mencari mata kuliah untuk type-ahead
+     * Kode yang diawali query mendapat skor tertinggi; nama/dosen dinilai dari porsi trigram query
+     * yang cocok (kata terakhir dianggap belum selesai diketik). Hasil seri diurutkan per kode
+     *
+     * @param query Teks yang diketik pengguna
+     * @param limit Jumlah hasil maksimal
+     * @return Hasil terurut dari yang paling relevan
+     */
+    public List<CourseSearchHit> search(String query, int limit) {
+        Snapshot current = snapshot;
+        if (query == null || query.isBlank() || limit <= 0 || current.docs.length == 0) {
+            return new ArrayList<>();
+        }
+        double[] scores = new double[current.docs.length];
+
+        String codePrefix = normalizeCode(query);
+        TrieNode node = current.codes.find(codePrefix);
+        if (node != null) {
+            node.collect(id -> scores[id] += current.docs[id].code.length() == codePrefix.length()
+                    ? CODE_EXACT_SCORE : CODE_PREFIX_SCORE);
+        }
+
+        Set<String> grams = queryGrams(query);
+        if (!grams.isEmpty()) {
+            int[] nameHits = countHits(current.nameGrams, grams, scores.length);
+            int[] lecturerHits = countHits(current.lecturerGrams, grams, scores.length);
+            for (int id = 0; id < scores.length; id++) {
+                double text = Math.max(nameHits[id], LECTURER_WEIGHT * lecturerHits[id]) / grams.size();
+                if (text >= MIN_TEXT_SCORE) {
+                    scores[id] += text;
+                }
+            }
+        }
+
+        // Min-heap berukuran limit: hanya top-k yang disimpan
+        PriorityQueue<Integer> top = new PriorityQueue<>(limit + 1, (a, b) -> {
+            int byScore = Double.compare(scores[a], scores[b]);
+            return byScore != 0 ? byScore : current.docs[b].code.compareTo(current.docs[a].code);
+        });
+        for (int id = 0; id < scores.length; id++) {
+            if (scores[id] > 0 && current.docs[id] != null) {
+                top.add(id);
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+        }
+        List<CourseSearchHit> hits = new ArrayList<>(top.size());
+        while (!top.isEmpty()) {
+            int id = top.poll();
+            Doc doc = current.docs[id];
+            hits.add(new CourseSearchHit(doc.code, doc.name, doc.lecturer, scores[id]));
+        }
+        Collections.reverse(hits);
+        return hits;
+    }
+
+    private static int[] countHits(Map<String, byte[]> postings, Set<String> grams, int size) {
+        int[] hits = new int[size];
+        for (String gram : grams) {
+            byte[] posting = postings.get(gram);
+            if (posting != null) {
+                Postings.forEach(posting, id -> hits[id]++);
+            }
+        }
+        return hits;
+    }
+
+    private static Map<String, byte[]> replaceGrams(Map<String, byte[]> postings, String oldText, String newText, int id) {
+        Set<String> oldGrams = documentGrams(oldText);
+        Set<String> newGrams = documentGrams(newText);
+        if (oldGrams.equals(newGrams)) {
+            return postings;
+        }
+        Map<String, byte[]> copy = new HashMap<>(postings);
+        for (String gram : oldGrams) {
+            if (!newGrams.contains(gram)) {
+                byte[] updated = Postings.remove(copy.get(gram), id);
+                if (updated == null) {
+                    copy.remove(gram);
+                } else {
+                    copy.put(gram, updated);
+                }
+            }
+        }
+        for (String gram : newGrams) {
+            if (!oldGrams.contains(gram)) {
+                copy.put(gram, Postings.add(copy.get(gram), id));
+            }
+        }
+        return copy;
+    }
+
+    private static Map<String, byte[]> encodeAll(Map<String, PostingBuilder> builders) {
+        Map<String, byte[]> postings = new HashMap<>(builders.size() * 2);
+        builders.forEach((gram, builder) -> postings.put(gram, Postings.encode(builder.ids, builder.size)));
+        return postings;
+    }
+
+    /**
+     * Trigram dokumen: setiap kata diberi spasi di kedua sisi, sehingga awal kata ikut terindeks
+     */
+    static Set<String> documentGrams(String text) {
+        Set<String> grams = new LinkedHashSet<>();
+        if (text == null) {
+            return grams;
+        }
+        for (String word : words(text)) {
+            addGrams(grams, " " + word + " ");
+        }
+        return grams;
+    }
+
+    /**
+     * Trigram query: kata terakhir tidak diberi spasi penutup karena mungkin belum selesai diketik
+     */
+    static Set<String> queryGrams(String query) {
+        Set<String> grams = new LinkedHashSet<>();
+        List<String> words = words(query);
+        for (int i = 0; i < words.size(); i++) {
+            addGrams(grams, i == words.size() - 1 ? " " + words.get(i) : " " + words.get(i) + " ");
+        }
+        return grams;
+    }
+
+    private static void addGrams(Set<String> grams, String padded) {
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+    }
+
+    private static List<String> words(String text) {
+        List<String> words = new ArrayList<>();
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                word.append(Character.toLowerCase(c));
+            } else if (word.length() > 0) {
+                words.add(word.toString());
+                word.setLength(0);
+            }
+        }
+        if (word.length() > 0) {
+            words.add(word.toString());
+        }
+        return words;
+    }
+
+    private static String normalizeCode(String code) {
+        StringBuilder normalized = new StringBuilder(code.length());
+        for (int i = 0; i < code.length(); i++) {
+            char c = code.charAt(i);
+            if (!Character.isWhitespace(c)) {
+                normalized.append(Character.toUpperCase(c));
+            }
+        }
+        return normalized.toString();
+    }
+
+    /**
+     * Data mata kuliah yang diindeks
+     * Versi hanya diubah di bawah writeLock dan tidak ikut dibandingkan di equals
+     */
+    private static final class Doc {
+        private final String code;
+        private final String name;
+        private final String lecturer;
+        private volatile long version;
+
+        private Doc(String code, String name, String lecturer, long version) {
+            this.code = code;
+            this.name = name;
+            this.lecturer = lecturer;
+            this.version = version;
+        }
+
+        private static Doc of(Course course) {
+            return new Doc(normalizeCode(course.getCourseCode()), course.getCourseName(), course.getLecturer(),
+                    course.getVersion());
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Doc)) return false;
+            Doc that = (Doc) o;
+            return code.equals(that.code) && Objects.equals(name, that.name) && Objects.equals(lecturer, that.lecturer);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(code, name, lecturer);
+        }
+    }
+
+    /**
+     * Isi index yang immutable; diganti utuh setiap kali ada perubahan
+     */
+    private static final class Snapshot {
+        private static final Snapshot EMPTY = new Snapshot(new Doc[0], Collections.emptyMap(), TrieNode.EMPTY,
+                Collections.emptyMap(), Collections.emptyMap());
+
+        private final Doc[] docs;
+        private final Map<String, Integer> ids;
+        private final TrieNode codes;
+        private final Map<String, byte[]> nameGrams;
+        private final Map<String, byte[]> lecturerGrams;
+
+        private Snapshot(Doc[] docs, Map<String, Integer> ids, TrieNode codes,
+                         Map<String, byte[]> nameGrams, Map<String, byte[]> lecturerGrams) {
+            this.docs = docs;
+            this.ids = ids;
+            this.codes = codes;
+            this.nameGrams = nameGrams;
+            this.lecturerGrams = lecturerGrams;
+        }
+
+        private Doc find(String code) {
+            Integer id = ids.get(code);
+            return id == null ? null : docs[id];
+        }
+    }
+
+    /**
+     * Trie persisten untuk kode mata kuliah: anak disimpan dalam array karakter terurut,
+     * dan penulisan menyalin jalur dari akar saja (path copying)
+     */
+    private static final class TrieNode {
+        private static final TrieNode EMPTY = new TrieNode(new char[0], new TrieNode[0], -1);
+
+        private final char[] labels;
+        private final TrieNode[] children;
+        private final int docId;
+
+        private TrieNode(char[] labels, TrieNode[] children, int docId) {
+            this.labels = labels;
+            this.children = children;
+            this.docId = docId;
+        }
+
+        /**
+         * Salinan trie dengan key dipetakan ke docId (-1 untuk menghapus)
+         */
+        private TrieNode with(String key, int depth, int newDocId) {
+            if (depth == key.length()) {
+                return new TrieNode(labels, children, newDocId);
+            }
+            char label = key.charAt(depth);
+            int index = Arrays.binarySearch(labels, label);
+            TrieNode child = index >= 0 ? children[index] : EMPTY;
+            TrieNode updated = child.with(key, depth + 1, newDocId);
+            boolean empty = updated.docId < 0 && updated.labels.length == 0;
+
+            if (index >= 0 && !empty) {
+                TrieNode[] copy = children.clone();
+                copy[index] = updated;
+                return new TrieNode(labels, copy, docId);
+            }
+            if (index >= 0) {
+                char[] newLabels = new char[labels.length - 1];
+                TrieNode[] newChildren = new TrieNode[children.length - 1];
+                System.arraycopy(labels, 0, newLabels, 0, index);
+                System.arraycopy(labels, index + 1, newLabels, index, labels.length - index - 1);
+                System.arraycopy(children, 0, newChildren, 0, index);
+                System.arraycopy(children, index + 1, newChildren, index, children.length - index - 1);
+                return new TrieNode(newLabels, newChildren, docId);
+            }
+            if (empty) {
+                return this;
+            }
+            int insert = -index - 1;
+            char[] newLabels = new char[labels.length + 1];
+            TrieNode[] newChildren = new TrieNode[children.length + 1];
+            System.arraycopy(labels, 0, newLabels, 0, insert);
+            System.arraycopy(children, 0, newChildren, 0, insert);
+            newLabels[insert] = label;
+            newChildren[insert] = updated;
+            System.arraycopy(labels, insert, newLabels, insert + 1, labels.length - insert);
+            System.arraycopy(children, insert, newChildren, insert + 1, children.length - insert);
+            return new TrieNode(newLabels, newChildren, docId);
+        }
+
+        private TrieNode find(String prefix) {
+            TrieNode node = this;
+            for (int i = 0; i < prefix.length() && node != null; i++) {
+                int index = Arrays.binarySearch(node.labels, prefix.charAt(i));
+                node = index >= 0 ? node.children[index] : null;
+            }
+            return node;
+        }
+
+        private void collect(IntConsumer action) {
+            if (docId >= 0) {
+                action.accept(docId);
+            }
+            for (TrieNode child : children) {
+                child.collect(action);
+            }
+        }
+    }
+
+    /**
+     * Posting list terurut yang dikodekan sebagai selisih antar ID dalam varint
+     */
+    static final class Postings {
+        private Postings() {
+        }
+
+        static byte[] encode(int[] ids, int size) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(size + 4);
+            int previous = 0;
+            for (int i = 0; i < size; i++) {
+                int delta = ids[i] - previous;
+                previous = ids[i];
+                while ((delta & ~0x7F) != 0) {
+                    out.write((delta & 0x7F) | 0x80);
+                    delta >>>= 7;
+                }
+                out.write(delta);
+            }
+            return out.toByteArray();
+        }
+
+        static void forEach(byte[] posting, IntConsumer action) {
+            int id = 0;
+            int i = 0;
+            while (i < posting.length) {
+                int delta = 0;
+                int shift = 0;
+                byte b;
+                do {
+                    b = posting[i++];
+                    delta |= (b & 0x7F) << shift;
+                    shift += 7;
+                } while (b < 0);
+                id += delta;
+                action.accept(id);
+            }
+        }
+
+        static int[] decode(byte[] posting) {
+            PostingBuilder builder = new PostingBuilder();
+            if (posting != null) {
+                forEach(posting, builder::add);
+            }
+            return Arrays.copyOf(builder.ids, builder.size);
+        }
+
+        static byte[] add(byte[] posting, int id) {
+            int[] ids = decode(posting);
+            int index = Arrays.binarySearch(ids, id);
+            if (index >= 0) {
+                return posting;
+            }
+            int insert = -index - 1;
+            int[] updated = new int[ids.length + 1];
+            System.arraycopy(ids, 0, updated, 0, insert);
+            updated[insert] = id;
+            System.arraycopy(ids, insert, updated, insert + 1, ids.length - insert);
+            return encode(updated, updated.length);
+        }
+
+        /**
+         * @return Posting baru, atau null jika menjadi kosong
+         */
+        static byte[] remove(byte[] posting, int id) {
+            int[] ids = decode(posting);
+            int index = Arrays.binarySearch(ids, id);
+            if (index < 0) {
+                return posting;
+            }
+            if (ids.length == 1) {
+                return null;
+            }
+            int[] updated = new int[ids.length - 1];
+            System.arraycopy(ids, 0, updated, 0, index);
+            System.arraycopy(ids, index + 1, updated, index, ids.length - index - 1);
+            return encode(updated, updated.length);
+        }
+    }
+
+    /**
+     * Penampung ID saat membangun posting list (ID ditambahkan berurutan naik)
+     */
+    private static final class PostingBuilder {
+        private int[] ids = new int[4];
+        private int size;
+
+        private void add(int id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+    }
+}
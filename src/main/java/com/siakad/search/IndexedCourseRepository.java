@@ -0,0 +1,82 @@
+package com.siakad.search;
+
+import com.siakad.model.Course;
+import com.siakad.repository.AsyncCourseRepository;
+import com.siakad.repository.AsyncCourseRepositoryAdapter;
+import com.siakad.repository.CourseRepository;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Decorator CourseRepository yang menjaga CourseSearchIndex tetap sinkron
+ * Index diperbarui hanya setelah update di repository berhasil; update yang tidak mengubah
+ * kode, nama atau dosen (mis. perubahan enrolledCount) tidak menyentuh index. Update yang selesai
+ * tidak berurutan (mis. updateAsync) aman karena index mengabaikan versi yang lebih lama
+ */
+
+public class IndexedCourseRepository implements CourseRepository, AsyncCourseRepository {
+    private final CourseRepository delegate;
+    private final AsyncCourseRepository asyncDelegate;
+    private final CourseSearchIndex searchIndex;
+
+    public IndexedCourseRepository(CourseRepository delegate, CourseSearchIndex searchIndex) {
+        this.delegate = delegate;
+        this.asyncDelegate = AsyncCourseRepositoryAdapter.of(delegate);
+        this.searchIndex = searchIndex;
+    }
+
+    public CourseSearchIndex getSearchIndex() {
+        return searchIndex;
+    }
+
+    @Override
+    public Course findByCourseCode(String courseCode) {
+        return delegate.findByCourseCode(courseCode);
+    }
+
+    @Override
+    public Map<String, Course> findByCourseCodes(Collection<String> courseCodes) {
+        return delegate.findByCourseCodes(courseCodes);
+    }
+
+    @Override
+    public void update(Course course) {
+        delegate.update(course);
+        searchIndex.index(course);
+    }
+
+    @Override
+    public void updateAll(Collection<Course> courses) {
+        delegate.updateAll(courses);
+        for (Course course : courses) {
+            searchIndex.index(course);
+        }
+    }
+
+    @Override
+    public boolean isPrerequisiteMet(String studentId, String courseCode) {
+        return delegate.isPrerequisiteMet(studentId, courseCode);
+    }
+
+    @Override
+    public Map<String, Boolean> arePrerequisitesMet(Collection<String> studentIds, String courseCode) {
+        return delegate.arePrerequisitesMet(studentIds, courseCode);
+    }
+
+    @Override
+    public CompletableFuture<Course> findByCourseCodeAsync(String courseCode) {
+        return asyncDelegate.findByCourseCodeAsync(courseCode);
+    }
+
+    @Override
+    public CompletableFuture<Void> updateAsync(Course course) {
+        return asyncDelegate.updateAsync(course).thenRun(() -> searchIndex.index(course));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> isPrerequisiteMetAsync(String studentId, String courseCode) {
+        return asyncDelegate.isPrerequisiteMetAsync(studentId, courseCode);
+    }
+}
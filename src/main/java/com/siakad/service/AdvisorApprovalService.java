@@ -0,0 +1,327 @@
+package com.siakad.service;
+
+import com.siakad.exception.EnrollmentException;
+import com.siakad.exception.StudentNotFoundException;
+import com.siakad.model.Enrollment;
+import com.siakad.model.Student;
+import com.siakad.repository.StudentRepository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Alur persetujuan dosen pembimbing akademik (PA)
+ * Pengajuan memakai reserveCourse sehingga kursi dan SKS langsung ditahan dengan status PENDING.
+ * Antrian PENDING diindeks per dosen (urut waktu pengajuan) agar bisa dibaca tanpa memindai semua
+ * reservasi. Dosen menyetujui atau menolak ratusan enrollment dalam satu panggilan; penolakan
+ * disimpan dengan satu update per mata kuliah, dan setiap mahasiswa menerima satu email ringkasan
+ * per panggilan, bukan satu email per mata kuliah
+ */
+
+public class AdvisorApprovalService {
+    private final EnrollmentService enrollmentService;
+    private final StudentRepository studentRepository;
+    private final NotificationService notificationService;
+    private final ConcurrentHashMap<String, String> advisorByStudent = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, PendingApproval> pending = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, ConcurrentSkipListMap<Long, Enrollment>> queues =
+            new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    public AdvisorApprovalService(EnrollmentService enrollmentService, StudentRepository studentRepository,
+                                  NotificationService notificationService) {
+        this.enrollmentService = enrollmentService;
+        this.studentRepository = studentRepository;
+        this.notificationService = notificationService;
+    }
+
+    /**
+     * Posisi satu enrollment di antrian dosen
+     */
+    private static final class PendingApproval {
+        private final String advisorId;
+        private final long sequence;
+        private final Enrollment enrollment;
+
+        private PendingApproval(String advisorId, long sequence, Enrollment enrollment) {
+            this.advisorId = advisorId;
+            this.sequence = sequence;
+            this.enrollment = enrollment;
+        }
+    }
+
+    /**
+     * Mengajukan mata kuliah untuk disetujui dosen pembimbing
+     * Validasi sama dengan enrollCourse; kursi dan SKS ditahan sampai disetujui atau ditolak
+     *
+     * @param studentId ID mahasiswa
+     * @param courseCode Kode mata kuliah
+     * @return Enrollment dengan status PENDING
+     * @throws StudentNotFoundException jika mahasiswa tidak ditemukan
+     * @throws EnrollmentException jika mahasiswa belum punya dosen pembimbing, atau validasi enrollCourse gagal
+     */
+    public Enrollment submit(String studentId, String courseCode) {
+        String advisorId = advisorOf(studentId);
+        Enrollment enrollment = enrollmentService.reserveCourse(studentId, courseCode);
+        enqueue(new PendingApproval(advisorId, sequence.incrementAndGet(), enrollment));
+        return enrollment;
+    }
+
+    /**
+     * Membangun ulang antrian dosen dari enrollment PENDING tersimpan setelah restart
+     * Panggil setelah EnrollmentService.loadEnrollments; hanya enrollment yang sudah dipulihkan
+     * sebagai reservasi yang masuk antrian, urut tanggal pengajuan. Dosen pembimbing dibaca
+     * dengan satu findByIds; mahasiswa tanpa dosen pembimbing dilewati
+     *
+     * @param enrollments Enrollment tersimpan (status selain PENDING diabaikan)
+     * @return Jumlah enrollment yang masuk antrian
+     */
+    public int loadPending(Collection<Enrollment> enrollments) {
+        List<Enrollment> restorable = new ArrayList<>();
+        Set<String> studentIds = new TreeSet<>();
+        for (Enrollment enrollment : enrollments) {
+            if ("PENDING".equals(enrollment.getStatus()) && enrollmentService.isReserved(enrollment.getEnrollmentId())
+                    && !pending.containsKey(enrollment.getEnrollmentId())) {
+                restorable.add(enrollment);
+                studentIds.add(enrollment.getStudentId());
+            }
+        }
+        if (restorable.isEmpty()) {
+            return 0;
+        }
+        restorable.sort(Comparator.comparing(Enrollment::getEnrollmentDate,
+                Comparator.nullsFirst(Comparator.naturalOrder())));
+
+        Map<String, Student> students = studentRepository.findByIds(studentIds);
+        int loaded = 0;
+        for (Enrollment enrollment : restorable) {
+            Student student = students.get(enrollment.getStudentId());
+            if (student == null || student.getAdvisorId() == null) {
+                continue;
+            }
+            advisorByStudent.put(student.getStudentId(), student.getAdvisorId());
+            enqueue(new PendingApproval(student.getAdvisorId(), sequence.incrementAndGet(), enrollment));
+            loaded++;
+        }
+        return loaded;
+    }
+
+    /**
+     * Antrian PENDING seorang dosen, urut dari pengajuan paling lama
+     * Reservasi yang sudah dibatalkan di luar alur ini (mis. cancelCourse) tidak ikut
+     * dan sekaligus dibuang dari antrian
+     *
+     * @param advisorId ID dosen pembimbing
+     * @return Snapshot daftar enrollment PENDING
+     */
+    public List<Enrollment> getPendingQueue(String advisorId) {
+        List<Enrollment> result = new ArrayList<>();
+        ConcurrentSkipListMap<Long, Enrollment> queue = queues.get(advisorId);
+        if (queue != null) {
+            for (Map.Entry<Long, Enrollment> queued : queue.entrySet()) {
+                Enrollment enrollment = queued.getValue();
+                if ("PENDING".equals(enrollment.getStatus())) {
+                    result.add(enrollment);
+                    continue;
+                }
+                queue.remove(queued.getKey(), enrollment);
+                PendingApproval entry = pending.get(enrollment.getEnrollmentId());
+                if (entry != null && entry.sequence == queued.getKey()) {
+                    pending.remove(enrollment.getEnrollmentId(), entry);
+                }
+            }
+        }
+        return result;
+    }
+
+    public int getPendingCount(String advisorId) {
+        return getPendingQueue(advisorId).size();
+    }
+
+    /**
+     * Membaca ulang dosen pembimbing mahasiswa setelah pergantian PA
+     * Pengajuan berikutnya memakai dosen baru, dan enrollment PENDING mahasiswa tersebut
+     * dipindahkan ke antrian dosen baru dengan urutan pengajuan yang sama
+     *
+     * @param studentId ID mahasiswa
+     * @return ID dosen pembimbing yang baru
+     * @throws StudentNotFoundException jika mahasiswa tidak ditemukan
+     * @throws EnrollmentException jika mahasiswa tidak lagi punya dosen pembimbing
+     */
+    public String refreshAdvisor(String studentId) {
+        advisorByStudent.remove(studentId);
+        String advisorId = advisorOf(studentId);
+        for (PendingApproval entry : pending.values()) {
+            if (!entry.enrollment.getStudentId().equals(studentId) || entry.advisorId.equals(advisorId)
+                    || !pending.remove(entry.enrollment.getEnrollmentId(), entry)) {
+                continue;
+            }
+            ConcurrentSkipListMap<Long, Enrollment> previous = queues.get(entry.advisorId);
+            if (previous != null) {
+                previous.remove(entry.sequence, entry.enrollment);
+            }
+            enqueue(new PendingApproval(advisorId, entry.sequence, entry.enrollment));
+        }
+        return advisorId;
+    }
+
+    /**
+     * Menyetujui banyak enrollment sekaligus
+     * @param advisorId ID dosen pembimbing
+     * @param enrollmentIds ID enrollment di antrian dosen tersebut
+     * @return Hasil persetujuan
+     */
+    public ApprovalResult approve(String advisorId, Collection<String> enrollmentIds) {
+        return process(advisorId, enrollmentIds, List.of());
+    }
+
+    /**
+     * Menolak banyak enrollment sekaligus; kursi dan SKS dikembalikan
+     * @param advisorId ID dosen pembimbing
+     * @param enrollmentIds ID enrollment di antrian dosen tersebut
+     * @return Hasil penolakan
+     */
+    public ApprovalResult reject(String advisorId, Collection<String> enrollmentIds) {
+        return process(advisorId, List.of(), enrollmentIds);
+    }
+
+    /**
+     * Menyetujui dan menolak dalam satu panggilan, dengan satu email ringkasan per mahasiswa
+     * @param advisorId ID dosen pembimbing
+     * @param approveIds ID enrollment yang disetujui
+     * @param rejectIds ID enrollment yang ditolak
+     * @return Hasil pemrosesan
+     */
+    public ApprovalResult process(String advisorId, Collection<String> approveIds, Collection<String> rejectIds) {
+        Map<String, RuntimeException> failures = new LinkedHashMap<>();
+        Map<String, PendingApproval> toApprove = claim(advisorId, approveIds, failures);
+        Map<String, PendingApproval> toReject = claim(advisorId, rejectIds, failures);
+        List<Enrollment> approved = enrollmentService.confirmReservations(toApprove.keySet(), failures);
+        List<Enrollment> rejected = enrollmentService.rejectReservations(toReject.keySet(), failures);
+
+        // Enrollment yang gagal diproses tetapi masih PENDING (mis. update repository gagal)
+        // dikembalikan ke posisi semula di antrian
+        for (Map<String, PendingApproval> claimed : List.of(toApprove, toReject)) {
+            for (PendingApproval entry : claimed.values()) {
+                if (failures.containsKey(entry.enrollment.getEnrollmentId())
+                        && "PENDING".equals(entry.enrollment.getStatus())) {
+                    enqueue(entry);
+                }
+            }
+        }
+        Map<String, RuntimeException> notificationFailures = sendDigests(approved, rejected);
+        return new ApprovalResult(approved, rejected, failures, notificationFailures);
+    }
+
+    /**
+     * Mengambil enrollment dari antrian dosen; ID yang bukan milik antrian ini dicatat sebagai gagal
+     */
+    private Map<String, PendingApproval> claim(String advisorId, Collection<String> enrollmentIds,
+                                               Map<String, RuntimeException> failures) {
+        Map<String, PendingApproval> claimed = new LinkedHashMap<>();
+        ConcurrentSkipListMap<Long, Enrollment> queue = queues.get(advisorId);
+        for (String enrollmentId : enrollmentIds) {
+            PendingApproval entry = pending.get(enrollmentId);
+            if (entry == null || !entry.advisorId.equals(advisorId) || !pending.remove(enrollmentId, entry)) {
+                failures.put(enrollmentId, new EnrollmentException(
+                        "Enrollment is not pending for advisor " + advisorId + ": " + enrollmentId));
+                continue;
+            }
+            queue.remove(entry.sequence);
+            claimed.put(enrollmentId, entry);
+        }
+        return claimed;
+    }
+
+    private void enqueue(PendingApproval entry) {
+        queues.computeIfAbsent(entry.advisorId, id -> new ConcurrentSkipListMap<>()).put(entry.sequence, entry.enrollment);
+        pending.put(entry.enrollment.getEnrollmentId(), entry);
+    }
+
+    private String advisorOf(String studentId) {
+        String cached = advisorByStudent.get(studentId);
+        if (cached != null) {
+            return cached;
+        }
+        Student student = studentRepository.findById(studentId);
+        if (student == null) {
+            throw new StudentNotFoundException("Student not found: " + studentId);
+        }
+        if (student.getAdvisorId() == null) {
+            throw new EnrollmentException("Student has no academic advisor: " + studentId);
+        }
+        advisorByStudent.put(studentId, student.getAdvisorId());
+        return student.getAdvisorId();
+    }
+
+    /**
+     * Satu email per mahasiswa berisi semua mata kuliah yang disetujui dan ditolak pada panggilan ini
+     * Data mahasiswa dibaca dengan satu findByIds, email dikirim lewat sendEmails per batch;
+     * kegagalan dicatat per mahasiswa karena keputusan dosen sudah tersimpan
+     *
+     * @return ID mahasiswa -> exception untuk email yang gagal dikirim
+     */
+    private Map<String, RuntimeException> sendDigests(List<Enrollment> approved, List<Enrollment> rejected) {
+        Map<String, RuntimeException> notificationFailures = new LinkedHashMap<>();
+        Map<String, List<String>> approvedByStudent = groupByStudent(approved);
+        Map<String, List<String>> rejectedByStudent = groupByStudent(rejected);
+        List<String> studentIds = new ArrayList<>(approvedByStudent.keySet());
+        for (String studentId : rejectedByStudent.keySet()) {
+            if (!approvedByStudent.containsKey(studentId)) {
+                studentIds.add(studentId);
+            }
+        }
+        if (studentIds.isEmpty()) {
+            return notificationFailures;
+        }
+
+        Map<String, Student> students;
+        try {
+            students = studentRepository.findByIds(studentIds);
+        } catch (RuntimeException e) {
+            for (String studentId : studentIds) {
+                notificationFailures.put(studentId, e);
+            }
+            return notificationFailures;
+        }
+        EmailBatch batch = new EmailBatch(notificationService, notificationFailures);
+        for (String studentId : studentIds) {
+            Student student = students.get(studentId);
+            if (student == null) {
+                continue;
+            }
+            StringBuilder message = new StringBuilder();
+            List<String> approvedCodes = approvedByStudent.get(studentId);
+            if (approvedCodes != null) {
+                message.append("Approved: ").append(String.join(", ", approvedCodes));
+            }
+            List<String> rejectedCodes = rejectedByStudent.get(studentId);
+            if (rejectedCodes != null) {
+                if (message.length() > 0) {
+                    message.append('\n');
+                }
+                message.append("Rejected: ").append(String.join(", ", rejectedCodes));
+            }
+            batch.add(studentId, new EmailMessage(student.getEmail(), "Advisor Approval Result", message.toString()));
+        }
+        batch.flush();
+        return notificationFailures;
+    }
+
+    private static Map<String, List<String>> groupByStudent(List<Enrollment> enrollments) {
+        Map<String, List<String>> grouped = new LinkedHashMap<>();
+        for (Enrollment enrollment : enrollments) {
+            grouped.computeIfAbsent(enrollment.getStudentId(), id -> new ArrayList<>()).add(enrollment.getCourseCode());
+        }
+        return grouped;
+    }
+}
@@ -0,0 +1,51 @@
+package com.siakad.service;
+
+import com.siakad.model.Enrollment;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hasil satu panggilan persetujuan dosen pembimbing: enrollment yang disetujui, ditolak,
+ * ID yang gagal diproses beserta alasannya, dan email ringkasan yang gagal dikirim
+ */
+
+public class ApprovalResult {
+    private final List<Enrollment> approved;
+    private final List<Enrollment> rejected;
+    private final Map<String, RuntimeException> failures;
+    private final Map<String, RuntimeException> notificationFailures;
+
+    ApprovalResult(List<Enrollment> approved, List<Enrollment> rejected, Map<String, RuntimeException> failures,
+                   Map<String, RuntimeException> notificationFailures) {
+        this.approved = Collections.unmodifiableList(approved);
+        this.rejected = Collections.unmodifiableList(rejected);
+        this.failures = Collections.unmodifiableMap(failures);
+        this.notificationFailures = Collections.unmodifiableMap(notificationFailures);
+    }
+
+    public List<Enrollment> getApproved() {
+        return approved;
+    }
+
+    public List<Enrollment> getRejected() {
+        return rejected;
+    }
+
+    /**
+     * ID enrollment yang tidak diproses (bukan antrian dosen ini, sudah diproses, dll.)
+     * @return ID enrollment -> exception
+     */
+    public Map<String, RuntimeException> getFailures() {
+        return failures;
+    }
+
+    /**
+     * Mahasiswa yang email ringkasannya gagal dikirim; keputusan dosen tetap tersimpan
+     * @return ID mahasiswa -> exception
+     */
+    public Map<String, RuntimeException> getNotificationFailures() {
+        return notificationFailures;
+    }
+}
@@ -0,0 +1,99 @@
+package com.siakad.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Ring buffer multi-producer / single-consumer bergaya Disruptor
+ * Producer mengklaim nomor urut dengan CAS lalu mem-publish slot lewat array sequence,
+ * consumer tunggal membaca slot secara berurutan tanpa lock
+ *
+ * @param <T> Tipe command yang disimpan
+ */
+
+class CommandRingBuffer<T> {
+    private final Object[] slots;
+    private final AtomicLongArray published;
+    private final int mask;
+    private final AtomicLong claimed = new AtomicLong();
+    private volatile long consumed;
+
+    /**
+     * @param capacity Kapasitas buffer, harus pangkat dua
+     * @throws IllegalArgumentException jika capacity bukan pangkat dua
+     */
+    CommandRingBuffer(int capacity) {
+        if (capacity < 1 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two");
+        }
+        this.slots = new Object[capacity];
+        this.published = new AtomicLongArray(capacity);
+        this.mask = capacity - 1;
+        for (int i = 0; i < capacity; i++) {
+            published.set(i, -1);
+        }
+    }
+
+    /**
+     * Menambahkan item; menunggu (spin lalu park) selama buffer penuh
+     * @param item Item yang ditambahkan
+     */
+    void publish(T item) {
+        long sequence;
+        while (true) {
+            sequence = claimed.get();
+            if (sequence - consumed >= slots.length) {
+                // Buffer penuh: beri kesempatan consumer mengejar
+                LockSupport.parkNanos(1_000);
+                continue;
+            }
+            if (claimed.compareAndSet(sequence, sequence + 1)) {
+                break;
+            }
+        }
+        int index = (int) (sequence & mask);
+        slots[index] = item;
+        published.set(index, sequence);
+    }
+
+    /**
+     * Mengambil semua item yang sudah ter-publish secara berurutan (hanya dari thread consumer)
+     * @param handler Pemroses setiap item
+     * @param maxBatch Jumlah maksimal item per panggilan
+     * @return Jumlah item yang diproses
+     */
+    @SuppressWarnings("unchecked")
+    int drain(Consumer<T> handler, int maxBatch) {
+        long next = consumed;
+        int count = 0;
+        while (count < maxBatch) {
+            int index = (int) (next & mask);
+            if (published.get(index) != next) {
+                break;
+            }
+            T item = (T) slots[index];
+            slots[index] = null;
+            handler.accept(item);
+            next++;
+            count++;
+        }
+        if (count > 0) {
+            consumed = next;
+        }
+        return count;
+    }
+
+    /**
+     * Mengecek apakah masih ada item yang belum diproses
+     * @return true jika kosong
+     */
+    boolean isEmpty() {
+        return claimed.get() == consumed;
+    }
+
+    int capacity() {
+        return slots.length;
+    }
+}
@@ -0,0 +1,79 @@
+package com.siakad.service;
+
+import com.siakad.model.Enrollment;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hasil EnrollmentService.cancelCourse: mahasiswa yang di-drop, yang dipindahkan ke
+ * mata kuliah pengganti, yang gagal dipindahkan beserta alasannya, dan notifikasi yang gagal
+ */
+
+public class CourseCancellation {
+    private final String courseCode;
+    private final String alternativeCourseCode;
+    private final List<String> droppedStudentIds;
+    private final Map<String, Enrollment> reassigned = new LinkedHashMap<>();
+    private final Map<String, RuntimeException> failures = new LinkedHashMap<>();
+    private final Map<String, RuntimeException> notificationFailures = new LinkedHashMap<>();
+
+    CourseCancellation(String courseCode, String alternativeCourseCode, List<String> droppedStudentIds) {
+        this.courseCode = courseCode;
+        this.alternativeCourseCode = alternativeCourseCode;
+        this.droppedStudentIds = Collections.unmodifiableList(droppedStudentIds);
+    }
+
+    public String getCourseCode() {
+        return courseCode;
+    }
+
+    /**
+     * @return Kode mata kuliah pengganti, atau null jika tidak ada
+     */
+    public String getAlternativeCourseCode() {
+        return alternativeCourseCode;
+    }
+
+    public List<String> getDroppedStudentIds() {
+        return droppedStudentIds;
+    }
+
+    /**
+     * Enrollment baru di mata kuliah pengganti
+     * @return ID mahasiswa -> Enrollment
+     */
+    public Map<String, Enrollment> getReassigned() {
+        return Collections.unmodifiableMap(reassigned);
+    }
+
+    /**
+     * Mahasiswa yang tidak bisa dipindahkan (penuh, prasyarat, SKS, bentrok jadwal, dll.)
+     * @return ID mahasiswa -> exception
+     */
+    public Map<String, RuntimeException> getFailures() {
+        return Collections.unmodifiableMap(failures);
+    }
+
+    /**
+     * Mahasiswa yang email pembatalannya gagal dikirim (seluruh batch-nya gagal)
+     * @return ID mahasiswa -> exception dari NotificationService
+     */
+    public Map<String, RuntimeException> getNotificationFailures() {
+        return Collections.unmodifiableMap(notificationFailures);
+    }
+
+    void recordReassignment(Enrollment enrollment) {
+        reassigned.put(enrollment.getStudentId(), enrollment);
+    }
+
+    void recordFailure(String studentId, RuntimeException failure) {
+        failures.put(studentId, failure);
+    }
+
+    void recordNotificationFailure(String studentId, RuntimeException failure) {
+        notificationFailures.put(studentId, failure);
+    }
+}
@@ -0,0 +1,113 @@
+package com.siakad.service;
+
+import com.siakad.model.Course;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Index katalog mata kuliah untuk query "mata kuliah apa saja yang bisa diambil"
+ * Index menyimpan salinan mata kuliah sendiri; sisa kursi diperbarui lewat updateCourse,
+ * dan hasil query berupa salinan baru sehingga pemanggil tidak bisa mengubah isi index.
+ * Prasyarat dicek dengan aturan yang sama seperti repository (Course.isPrerequisiteMet),
+ * tanpa memanggil repository
+ */
+
+public class CourseCatalogIndex {
+
+    private volatile Snapshot snapshot = new Snapshot(Collections.emptyList());
+
+    /**
+     * Membangun ulang index dari seluruh katalog mata kuliah
+     * @param courses Daftar mata kuliah di katalog (disalin)
+     */
+    public void rebuild(Collection<Course> courses) {
+        this.snapshot = new Snapshot(new ArrayList<>(courses));
+    }
+
+    /**
+     * Memperbarui data mata kuliah setelah enroll/drop
+     * Mata kuliah yang tidak ada di katalog, atau yang versinya lebih lama dari salinan index, diabaikan
+     * @param course Course object dengan enrolledCount terbaru
+     */
+    public void updateCourse(Course course) {
+        Snapshot current = snapshot;
+        Integer id = current.codeIds.get(course.getCourseCode());
+        if (id == null) {
+            return;
+        }
+        Course copy = new Course(course);
+        Course stored;
+        do {
+            stored = current.courses.get(id);
+            if (stored.getVersion() > copy.getVersion()) {
+                return;
+            }
+        } while (!current.courses.compareAndSet(id, stored, copy));
+    }
+
+    /**
+     * Jumlah mata kuliah di katalog
+     * @return Jumlah mata kuliah
+     */
+    public int size() {
+        return snapshot.courses.length();
+    }
+
+    /**
+     * Mencari mata kuliah yang masih punya kursi, prasyaratnya sudah dipenuhi,
+     * belum pernah diselesaikan, dan SKS-nya tidak melebihi sisa kuota
+     *
+     * @param completedCourseCodes Kode mata kuliah yang sudah diselesaikan mahasiswa
+     * @param excludedCourseCodes Kode mata kuliah yang tidak boleh muncul (misal sudah diambil)
+     * @param creditBudget Sisa SKS yang masih boleh diambil
+     * @return Salinan mata kuliah yang eligible, urut sesuai katalog
+     */
+    public List<Course> findEligible(Collection<String> completedCourseCodes,
+                                     Collection<String> excludedCourseCodes,
+                                     int creditBudget) {
+        Snapshot current = snapshot;
+        Set<String> completed = completedCourseCodes == null
+                ? Collections.emptySet() : new HashSet<>(completedCourseCodes);
+        Set<String> excluded = excludedCourseCodes == null
+                ? Collections.emptySet() : new HashSet<>(excludedCourseCodes);
+
+        List<Course> eligible = new ArrayList<>();
+        for (int id = 0; id < current.courses.length(); id++) {
+            Course course = current.courses.get(id);
+            String code = course.getCourseCode();
+            if (course.getCredits() > creditBudget || course.getEnrolledCount() >= course.getCapacity()
+                    || completed.contains(code) || excluded.contains(code)) {
+                continue;
+            }
+            if (course.isPrerequisiteMet(completed)) {
+                eligible.add(new Course(course));
+            }
+        }
+        return eligible;
+    }
+
+    /**
+     * Salinan katalog; daftar kode tetap, isi setiap slot diganti utuh oleh updateCourse
+     */
+    private static final class Snapshot {
+        private final AtomicReferenceArray<Course> courses;
+        private final Map<String, Integer> codeIds = new HashMap<>();
+
+        private Snapshot(List<Course> catalog) {
+            courses = new AtomicReferenceArray<>(catalog.size());
+            for (int i = 0; i < catalog.size(); i++) {
+                Course course = catalog.get(i);
+                courses.set(i, new Course(course));
+                codeIds.put(course.getCourseCode(), i);
+            }
+        }
+    }
+}
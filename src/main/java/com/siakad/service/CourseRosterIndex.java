@@ -0,0 +1,89 @@
+package com.siakad.service;
+
+import com.siakad.model.Enrollment;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Consumer;
+
+/**
+ * Index roster per mata kuliah: kode mata kuliah -> enrollment aktif, terurut per ID mahasiswa
+ * Diperbarui oleh EnrollmentService saat enroll/reservasi dan drop/pembatalan
+ * Iterasi bersifat weakly consistent, sehingga roster bisa dibaca sambil enrollment berjalan
+ * tanpa menyalin seluruh isinya
+ */
+
+public class CourseRosterIndex {
+    private final ConcurrentHashMap<String, ConcurrentSkipListMap<String, Enrollment>> rosters =
+            new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<String> courseCodes = new ConcurrentSkipListSet<>();
+
+    /**
+     * Menambahkan enrollment ke roster mata kuliahnya
+     * @param enrollment Enrollment yang baru dibuat (PENDING atau APPROVED)
+     */
+    public void add(Enrollment enrollment) {
+        String courseCode = enrollment.getCourseCode();
+        rosters.computeIfAbsent(courseCode, code -> {
+            courseCodes.add(code);
+            return new ConcurrentSkipListMap<>();
+        }).put(enrollment.getStudentId(), enrollment);
+    }
+
+    /**
+     * Menghapus mahasiswa dari roster mata kuliah
+     * @param studentId ID mahasiswa
+     * @param courseCode Kode mata kuliah
+     * @return Enrollment yang dihapus, atau null jika mahasiswa tidak ada di roster
+     */
+    public Enrollment remove(String studentId, String courseCode) {
+        Map<String, Enrollment> roster = rosters.get(courseCode);
+        return roster == null ? null : roster.remove(studentId);
+    }
+
+    /**
+     * Snapshot roster satu mata kuliah, terurut per ID mahasiswa
+     * @param courseCode Kode mata kuliah
+     * @return Daftar enrollment (kosong jika belum ada)
+     */
+    public List<Enrollment> getRoster(String courseCode) {
+        Map<String, Enrollment> roster = rosters.get(courseCode);
+        return roster == null ? new ArrayList<>() : new ArrayList<>(roster.values());
+    }
+
+    /**
+     * Menelusuri roster satu mata kuliah tanpa membuat salinan
+     * @param courseCode Kode mata kuliah
+     * @param action Pemroses setiap enrollment, terurut per ID mahasiswa
+     */
+    public void forEach(String courseCode, Consumer<Enrollment> action) {
+        Map<String, Enrollment> roster = rosters.get(courseCode);
+        if (roster != null) {
+            roster.values().forEach(action);
+        }
+    }
+
+    /**
+     * Jumlah mahasiswa di roster mata kuliah
+     * @param courseCode Kode mata kuliah
+     * @return Jumlah mahasiswa
+     */
+    public int size(String courseCode) {
+        Map<String, Enrollment> roster = rosters.get(courseCode);
+        return roster == null ? 0 : roster.size();
+    }
+
+    /**
+     * Kode mata kuliah yang pernah memiliki roster, terurut (view read-only, bukan salinan)
+     * @return Kode mata kuliah
+     */
+    public Set<String> getCourseCodes() {
+        return Collections.unmodifiableSet(courseCodes);
+    }
+}
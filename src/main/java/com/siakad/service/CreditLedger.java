@@ -0,0 +1,70 @@
+package com.siakad.service;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Buku besar SKS semester berjalan per mahasiswa
+ * Reservasi SKS memakai compare-and-set per mahasiswa (tanpa lock global),
+ * sehingga dua enrollment paralel tidak bisa sama-sama lolos melewati batas SKS
+ */
+
+public class CreditLedger {
+    private final ConcurrentHashMap<String, AtomicInteger> credits = new ConcurrentHashMap<>();
+
+    /**
+     * Mencoba memesan SKS untuk mahasiswa
+     *
+     * @param studentId ID mahasiswa
+     * @param requestedCredits Jumlah SKS yang akan ditambahkan
+     * @param maxCredits Batas SKS mahasiswa
+     * @return true jika SKS berhasil dipesan, false jika akan melebihi batas
+     */
+    public boolean tryReserve(String studentId, int requestedCredits, int maxCredits) {
+        AtomicInteger current = credits.computeIfAbsent(studentId, id -> new AtomicInteger());
+        while (true) {
+            int taken = current.get();
+            if (taken + requestedCredits > maxCredits) {
+                return false;
+            }
+            if (current.compareAndSet(taken, taken + requestedCredits)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Mengembalikan SKS yang sudah dipesan (saat drop atau rollback)
+     * Nilai tidak pernah turun di bawah 0
+     *
+     * @param studentId ID mahasiswa
+     * @param releasedCredits Jumlah SKS yang dikembalikan
+     */
+    public void release(String studentId, int releasedCredits) {
+        AtomicInteger current = credits.get(studentId);
+        if (current != null) {
+            current.updateAndGet(taken -> Math.max(0, taken - releasedCredits));
+        }
+    }
+
+    /**
+     * Mengisi SKS yang sudah diambil mahasiswa dari data tersimpan (saat service mulai berjalan)
+     * Nilai sebelumnya diganti
+     *
+     * @param studentId ID mahasiswa
+     * @param takenCredits Total SKS yang sudah diambil
+     */
+    public void seed(String studentId, int takenCredits) {
+        credits.computeIfAbsent(studentId, id -> new AtomicInteger()).set(Math.max(0, takenCredits));
+    }
+
+    /**
+     * Jumlah SKS yang sedang diambil mahasiswa semester ini
+     * @param studentId ID mahasiswa
+     * @return Total SKS, 0 jika belum ada
+     */
+    public int getCredits(String studentId) {
+        AtomicInteger current = credits.get(studentId);
+        return current == null ? 0 : current.get();
+    }
+}
@@ -0,0 +1,52 @@
+package com.siakad.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pengumpul email yang dikirim lewat NotificationService.sendEmails per batch
+ * Batch yang gagal dicatat per penerima lalu pengiriman dilanjutkan, karena pemanggil
+ * sudah menyimpan perubahan datanya sebelum notifikasi dikirim
+ */
+
+final class EmailBatch {
+    static final int BATCH_SIZE = 100;
+
+    private final NotificationService notificationService;
+    private final Map<String, RuntimeException> failures;
+    private List<EmailMessage> messages = new ArrayList<>(BATCH_SIZE);
+    private List<String> recipients = new ArrayList<>(BATCH_SIZE);
+
+    /**
+     * @param notificationService Service pengirim
+     * @param failures Penampung ID penerima -> exception untuk batch yang gagal
+     */
+    EmailBatch(NotificationService notificationService, Map<String, RuntimeException> failures) {
+        this.notificationService = notificationService;
+        this.failures = failures;
+    }
+
+    void add(String recipientId, EmailMessage message) {
+        messages.add(message);
+        recipients.add(recipientId);
+        if (messages.size() == BATCH_SIZE) {
+            flush();
+        }
+    }
+
+    void flush() {
+        if (messages.isEmpty()) {
+            return;
+        }
+        try {
+            notificationService.sendEmails(messages);
+        } catch (RuntimeException e) {
+            for (String recipientId : recipients) {
+                failures.put(recipientId, e);
+            }
+        }
+        messages = new ArrayList<>(BATCH_SIZE);
+        recipients = new ArrayList<>(BATCH_SIZE);
+    }
+}
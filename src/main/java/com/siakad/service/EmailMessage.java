@@ -0,0 +1,29 @@
+package com.siakad.service;
+
+/**
+ * Satu email dalam pengiriman batch NotificationService
+ */
+
+public class EmailMessage {
+    private final String email;
+    private final String subject;
+    private final String message;
+
+    public EmailMessage(String email, String subject, String message) {
+        this.email = email;
+        this.subject = subject;
+        this.message = message;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
@@ -0,0 +1,125 @@
+package com.siakad.service;
+
+import com.siakad.exception.EnrollmentException;
+import com.siakad.model.Enrollment;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Lapisan eksekusi asinkron di depan EnrollmentService
+ * Setiap permintaan enroll/drop dijalankan di virtual thread sendiri, sehingga
+ * blocking pada repository dan notifikasi tidak menghabiskan platform thread
+ * Semaphore per mata kuliah membatasi berapa permintaan yang boleh berebut
+ * mata kuliah yang sama (hot course) pada satu waktu; sisanya antre dengan murah
+ */
+
+public class EnrollmentDispatcher implements AutoCloseable {
+    private final EnrollmentService enrollmentService;
+    private final ExecutorService executor;
+    private final int maxConcurrentPerCourse;
+    private final ConcurrentHashMap<String, Semaphore> coursePermits = new ConcurrentHashMap<>();
+
+    /**
+     * Membuat dispatcher berbasis virtual thread (satu virtual thread per permintaan)
+     *
+     * @param enrollmentService Service yang menjalankan enrollment
+     * @param maxConcurrentPerCourse Maksimal permintaan paralel per mata kuliah
+     * @throws IllegalArgumentException jika maxConcurrentPerCourse < 1
+     */
+    public EnrollmentDispatcher(EnrollmentService enrollmentService, int maxConcurrentPerCourse) {
+        this(enrollmentService, maxConcurrentPerCourse, Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    /**
+     * Membuat dispatcher dengan executor tertentu
+     *
+     * @param enrollmentService Service yang menjalankan enrollment
+     * @param maxConcurrentPerCourse Maksimal permintaan paralel per mata kuliah
+     * @param executor Executor yang menjalankan setiap permintaan; ditutup oleh {@link #close()}
+     * @throws IllegalArgumentException jika maxConcurrentPerCourse < 1
+     */
+    public EnrollmentDispatcher(EnrollmentService enrollmentService, int maxConcurrentPerCourse,
+                                ExecutorService executor) {
+        if (maxConcurrentPerCourse < 1) {
+            throw new IllegalArgumentException("Concurrency per course must be positive");
+        }
+        this.enrollmentService = enrollmentService;
+        this.maxConcurrentPerCourse = maxConcurrentPerCourse;
+        this.executor = executor;
+    }
+
+    /**
+     * Menjalankan enrollCourse secara asinkron
+     * @param studentId ID mahasiswa
+     * @param courseCode Kode mata kuliah
+     * @return Future berisi Enrollment, atau selesai exceptionally dengan exception dari EnrollmentService
+     */
+    public CompletableFuture<Enrollment> enrollCourse(String studentId, String courseCode) {
+        return CompletableFuture.supplyAsync(
+                () -> withCoursePermit(courseCode, () -> enrollmentService.enrollCourse(studentId, courseCode)),
+                executor);
+    }
+
+    /**
+     * Menjalankan dropCourse secara asinkron
+     * @param studentId ID mahasiswa
+     * @param courseCode Kode mata kuliah
+     * @return Future yang selesai setelah drop berhasil atau gagal
+     */
+    public CompletableFuture<Void> dropCourse(String studentId, String courseCode) {
+        return CompletableFuture.supplyAsync(
+                () -> withCoursePermit(courseCode, () -> {
+                    enrollmentService.dropCourse(studentId, courseCode);
+                    return null;
+                }),
+                executor);
+    }
+
+    /**
+     * Jumlah permintaan yang sedang berjalan untuk satu mata kuliah
+     * @param courseCode Kode mata kuliah
+     * @return Jumlah permintaan aktif
+     */
+    public int getActiveRequests(String courseCode) {
+        Semaphore permits = coursePermits.get(courseCode);
+        return permits == null ? 0 : maxConcurrentPerCourse - permits.availablePermits();
+    }
+
+    /**
+     * Menunggu semua permintaan selesai lalu menutup executor
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private <T> T withCoursePermit(String courseCode, Supplier<T> action) {
+        Semaphore permits = coursePermits.computeIfAbsent(courseCode,
+                code -> new Semaphore(maxConcurrentPerCourse, true));
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new EnrollmentException("Enrollment request interrupted", e);
+        }
+        try {
+            return action.get();
+        } finally {
+            permits.release();
+        }
+    }
+}
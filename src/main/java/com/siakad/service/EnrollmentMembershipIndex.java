@@ -0,0 +1,80 @@
+package com.siakad.service;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Index keanggotaan mahasiswa–mata kuliah yang aman untuk banyak thread
+ * Dipakai untuk menolak enrollment ganda dan drop oleh mahasiswa yang tidak terdaftar
+ * Operasi add/remove bersifat atomic dan O(1)
+ */
+
+public class EnrollmentMembershipIndex {
+    private final ConcurrentHashMap<String, Set<String>> studentsByCourse = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Set<String>> coursesByStudent = new ConcurrentHashMap<>();
+
+    /**
+     * Mendaftarkan keanggotaan mahasiswa di mata kuliah
+     * @param studentId ID mahasiswa
+     * @param courseCode Kode mata kuliah
+     * @return true jika berhasil, false jika mahasiswa sudah terdaftar
+     */
+    public boolean add(String studentId, String courseCode) {
+        Set<String> students = studentsByCourse.computeIfAbsent(courseCode, code -> ConcurrentHashMap.newKeySet());
+        if (!students.add(studentId)) {
+            return false;
+        }
+        coursesByStudent.computeIfAbsent(studentId, id -> ConcurrentHashMap.newKeySet()).add(courseCode);
+        return true;
+    }
+
+    /**
+     * Menghapus keanggotaan mahasiswa dari mata kuliah
+     * @param studentId ID mahasiswa
+     * @param courseCode Kode mata kuliah
+     * @return true jika berhasil, false jika mahasiswa memang tidak terdaftar
+     */
+    public boolean remove(String studentId, String courseCode) {
+        Set<String> students = studentsByCourse.get(courseCode);
+        if (students == null || !students.remove(studentId)) {
+            return false;
+        }
+        Set<String> courses = coursesByStudent.get(studentId);
+        if (courses != null) {
+            courses.remove(courseCode);
+        }
+        return true;
+    }
+
+    /**
+     * Mengecek apakah mahasiswa terdaftar di mata kuliah
+     * @param studentId ID mahasiswa
+     * @param courseCode Kode mata kuliah
+     * @return true jika terdaftar
+     */
+    public boolean contains(String studentId, String courseCode) {
+        Set<String> students = studentsByCourse.get(courseCode);
+        return students != null && students.contains(studentId);
+    }
+
+    /**
+     * Daftar mata kuliah yang sedang diambil mahasiswa (read-only view)
+     * @param studentId ID mahasiswa
+     * @return Set kode mata kuliah
+     */
+    public Set<String> getCourses(String studentId) {
+        Set<String> courses = coursesByStudent.get(studentId);
+        return courses == null ? Collections.emptySet() : Collections.unmodifiableSet(courses);
+    }
+
+    /**
+     * Jumlah mahasiswa yang terdaftar di mata kuliah
+     * @param courseCode Kode mata kuliah
+     * @return Jumlah mahasiswa
+     */
+    public int countStudents(String courseCode) {
+        Set<String> students = studentsByCourse.get(courseCode);
+        return students == null ? 0 : students.size();
+    }
+}
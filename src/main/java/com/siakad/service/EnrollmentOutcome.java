@@ -0,0 +1,36 @@
+package com.siakad.service;
+
+/**
+ * Hasil akhir sebuah permintaan enrollment, dipakai sebagai label metrik
+ */
+
+public enum EnrollmentOutcome {
+    SUCCESS("success"),
+    NOT_FOUND("not_found"),
+    SUSPENDED("suspended"),
+    FULL("full"),
+    PREREQUISITE("prerequisite"),
+    DUPLICATE("duplicate"),
+    CREDIT_LIMIT("credit_limit"),
+    TOO_EARLY("too_early"),
+    CONFLICT("conflict"),
+    SCHEDULE_CONFLICT("schedule_conflict");
+
+    private final String label;
+
+    EnrollmentOutcome(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Nama counter metrik untuk hasil ini
+     * @return Nama metrik, misal "enrollment.full"
+     */
+    public String metricName() {
+        return "enrollment." + label;
+    }
+}
@@ -1,13 +1,49 @@
 package com.siakad.service;
 
 import com.siakad.exception.*;
+import com.siakad.metrics.Counter;
+import com.siakad.metrics.InstrumentedCourseRepository;
+import com.siakad.metrics.InstrumentedNotificationService;
+import com.siakad.metrics.InstrumentedStudentRepository;
+import com.siakad.metrics.MetricsRegistry;
+import com.siakad.metrics.NoopMetricsRegistry;
 import com.siakad.model.Course;
 import com.siakad.model.Enrollment;
 import com.siakad.model.Student;
+import com.siakad.repository.AsyncCourseRepository;
+import com.siakad.repository.AsyncCourseRepositoryAdapter;
+import com.siakad.repository.AsyncStudentRepository;
+import com.siakad.repository.AsyncStudentRepositoryAdapter;
 import com.siakad.repository.CourseRepository;
 import com.siakad.repository.StudentRepository;
+import com.siakad.tracing.Trace;
+import com.siakad.tracing.TraceRecorder;
+import com.siakad.tracing.TraceStage;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
 
 /**
  * Service untuk mengelola enrollment (pendaftaran mata kuliah)
@@ -15,10 +51,37 @@ import java.time.LocalDateTime;
  */
 
 public class EnrollmentService {
+    private static final int MAX_UPDATE_ATTEMPTS = 8;
+    private static final long UPDATE_BACKOFF_NANOS = 20_000;
+
     private StudentRepository studentRepository;
     private CourseRepository courseRepository;
     private NotificationService notificationService;
+    // Delegate asli dari constructor, dibungkus ulang oleh setMetricsRegistry
+    private final StudentRepository baseStudentRepository;
+    private final CourseRepository baseCourseRepository;
+    private final NotificationService baseNotificationService;
     private GradeCalculator gradeCalculator;
+    private CourseCatalogIndex courseCatalogIndex = new CourseCatalogIndex();
+    private final CreditLedger creditLedger = new CreditLedger();
+    private final EnrollmentMembershipIndex membershipIndex = new EnrollmentMembershipIndex();
+    private final CourseRosterIndex rosterIndex = new CourseRosterIndex();
+    private final ScheduleConflictIndex scheduleIndex = new ScheduleConflictIndex();
+    private final ConcurrentHashMap<String, ReentrantLock> courseLocks = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Reservation> reservations = new ConcurrentHashMap<>();
+    // Naik setiap cancelCourse; enroll yang melepas lock selama backoff membatalkan diri jika berubah
+    private final ConcurrentHashMap<String, Long> cancellationEpochs = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, CompletableFuture<Course>> asyncCourseTails = new ConcurrentHashMap<>();
+    private final AtomicLong enrollmentSequence = new AtomicLong();
+    private final LongAdder updateConflicts = new LongAdder();
+    private MetricsRegistry metricsRegistry = NoopMetricsRegistry.INSTANCE;
+    private Counter[] outcomeCounters = new Counter[0];
+    private TraceRecorder traceRecorder = TraceRecorder.DISABLED;
+    private RegistrationScheduler registrationScheduler;
+    private AsyncStudentRepository asyncStudentRepository;
+    private AsyncCourseRepository asyncCourseRepository;
+    private Executor lookupExecutor;
+    private IdempotencyStore idempotencyStore;
 
     public EnrollmentService(StudentRepository studentRepository,
                              CourseRepository courseRepository,
@@ -27,6 +90,9 @@ public class EnrollmentService {
         this.studentRepository = studentRepository;
         this.courseRepository = courseRepository;
         this.notificationService = notificationService;
+        this.baseStudentRepository = studentRepository;
+        this.baseCourseRepository = courseRepository;
+        this.baseNotificationService = notificationService;
         this.gradeCalculator = gradeCalculator;
     }
 
@@ -38,76 +104,698 @@ public class EnrollmentService {
      * @param courseCode Kode mata kuliah
      * @return Enrollment object jika berhasil
      * @throws StudentNotFoundException jika mahasiswa tidak ditemukan
-     * @throws EnrollmentException jika mahasiswa di-suspend
+     * @throws EnrollmentException jika mahasiswa di-suspend, sudah terdaftar, atau batas SKS terlampaui
      * @throws CourseNotFoundException jika mata kuliah tidak ditemukan
      * @throws CourseFullException jika mata kuliah sudah penuh
      * @throws PrerequisiteNotMetException jika prasyarat tidak terpenuhi
+     * @throws ScheduleConflictException jika jadwal bentrok dengan mata kuliah yang sudah diambil
      */
     public Enrollment enrollCourse(String studentId, String courseCode) {
-        // Validate student
-        Student student = studentRepository.findById(studentId);
-        if (student == null) {
-            throw new StudentNotFoundException("Student not found: " + studentId);
+        Trace trace = traceRecorder.start("enrollCourse", studentId, courseCode);
+        try {
+            return enrollCourse(studentId, courseCode, trace);
+        } catch (RuntimeException e) {
+            trace.fail(e);
+            throw e;
+        } finally {
+            traceRecorder.finish(trace);
         }
+    }
 
-        // Check academic status
+    /**
+     * enrollCourse dengan idempotency key untuk retry klien
+     * Jika kunci sudah dipakai, Enrollment asli dikembalikan tanpa validasi dan penulisan ulang.
+     * Tanpa IdempotencyStore atau dengan kunci null, sama dengan enrollCourse biasa
+     *
+     * @param studentId ID mahasiswa
+     * @param courseCode Kode mata kuliah
+     * @param idempotencyKey Kunci unik per permintaan dari klien
+     * @return Enrollment dari permintaan pertama
+     * @throws EnrollmentException jika kunci sudah dipakai untuk permintaan lain
+     */
+    public Enrollment enrollCourse(String studentId, String courseCode, String idempotencyKey) {
+        IdempotencyStore store = idempotencyStore;
+        if (store == null || idempotencyKey == null) {
+            return enrollCourse(studentId, courseCode);
+        }
+        return store.execute(idempotencyKey, "enrollCourse:" + studentId + ":" + courseCode,
+                () -> enrollCourse(studentId, courseCode));
+    }
+
+    private Enrollment enrollCourse(String studentId, String courseCode, Trace trace) {
+        Reservation reservation = reserve(studentId, courseCode, "APPROVED", trace);
+
+        // Send notification
+        long mark = trace.mark();
+        notificationService.sendEmail(reservation.email,
+                "Enrollment Confirmation",
+                "You have been enrolled in: " + reservation.courseName);
+        trace.stage(TraceStage.SEND_NOTIFICATION, mark);
+
+        countOutcome(EnrollmentOutcome.SUCCESS);
+        return reservation.enrollment;
+    }
+
+    /**
+     * Versi asinkron enrollCourse di atas repository asinkron
+     * Pencarian mahasiswa dan mata kuliah dijalankan paralel, lalu prasyarat dicek dan
+     * enrolledCount disimpan dengan compare-and-set; tidak ada thread yang menunggu repository.
+     * Urutan penolakan sama dengan enrollCourse (mahasiswa dicek sebelum mata kuliah)
+     *
+     * @param studentId ID mahasiswa
+     * @param courseCode Kode mata kuliah
+     * @return Future berisi Enrollment, atau selesai exceptionally dengan exception yang sama seperti enrollCourse
+     */
+    public CompletableFuture<Enrollment> enrollCourseAsync(String studentId, String courseCode) {
+        try {
+            checkAdmission(studentId, courseCode);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        AsyncStudentRepository students = asyncStudentRepository();
+        AsyncCourseRepository courses = asyncCourseRepository();
+
+        CompletableFuture<Student> studentLookup = students.findByIdAsync(studentId);
+        CompletableFuture<Course> courseLookup = courses.findByCourseCodeAsync(courseCode);
+        return studentLookup.thenCombine(courseLookup, (student, course) -> {
+            checkStudent(student, studentId);
+            checkCourse(course, courseCode);
+            return student;
+        }).thenCompose(student -> courses.isPrerequisiteMetAsync(studentId, courseCode).thenCompose(met -> {
+            checkPrerequisite(met);
+            Course course = courseLookup.join();
+            int maxCredits = gradeCalculator.calculateMaxCredits(student.getGpa());
+            // Klaim dan index di memori diubah di bawah lock mata kuliah, sama seperti jalur sinkron
+            return withCourseLockAsync(courseCode, () -> {
+                claimSeat(studentId, course, maxCredits);
+                return course;
+            }).thenCompose(claimed -> serializedUpdateAsync(courses, claimed, 1))
+                    .handle((updated, error) -> withCourseLockAsync(courseCode,
+                            () -> recordAsyncEnrollment(studentId, course, updated, error)))
+                    .thenCompose(stage -> stage)
+                    .thenApply(enrollment -> {
+                        notificationService.sendEmail(student.getEmail(),
+                                "Enrollment Confirmation",
+                                "You have been enrolled in: " + course.getCourseName());
+                        countOutcome(EnrollmentOutcome.SUCCESS);
+                        return enrollment;
+                    });
+        }));
+    }
+
+    /**
+     * Mencatat hasil update asinkron ke index (atau membatalkan klaim jika gagal);
+     * dipanggil saat memegang lock mata kuliah
+     */
+    private Enrollment recordAsyncEnrollment(String studentId, Course course, Course updated, Throwable error) {
+        if (error != null) {
+            unclaimSeat(studentId, course);
+            Throwable cause = unwrap(error);
+            throw cause instanceof RuntimeException ? (RuntimeException) cause : new CompletionException(cause);
+        }
+        courseCatalogIndex.updateCourse(updated);
+        Enrollment enrollment = newEnrollment(studentId, course.getCourseCode(), "APPROVED");
+        rosterIndex.add(enrollment);
+        return enrollment;
+    }
+
+    /**
+     * Menjalankan perubahan index di memori di bawah lock mata kuliah tanpa memblokir thread:
+     * jika lock sedang dipegang (mis. oleh enrollCourse sinkron), dicoba lagi setelah jeda singkat
+     */
+    private <T> CompletableFuture<T> withCourseLockAsync(String courseCode, Supplier<T> action) {
+        ReentrantLock lock = courseLock(courseCode);
+        if (lock.tryLock()) {
+            try {
+                return CompletableFuture.completedFuture(action.get());
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            } finally {
+                lock.unlock();
+            }
+        }
+        Executor retry = CompletableFuture.delayedExecutor(UPDATE_BACKOFF_NANOS, TimeUnit.NANOSECONDS);
+        return CompletableFuture.supplyAsync(() -> courseCode, retry)
+                .thenCompose(code -> withCourseLockAsync(code, action));
+    }
+
+    /**
+     * Mengatur repository asinkron untuk enrollCourseAsync
+     * Jika tidak diatur, repository blocking dipakai langsung bila juga mengimplementasikan
+     * interface asinkron, atau dibungkus adapter berbasis virtual thread
+     *
+     * @param asyncStudentRepository Repository mahasiswa asinkron
+     * @param asyncCourseRepository Repository mata kuliah asinkron
+     */
+    public void setAsyncRepositories(AsyncStudentRepository asyncStudentRepository,
+                                     AsyncCourseRepository asyncCourseRepository) {
+        this.asyncStudentRepository = asyncStudentRepository;
+        this.asyncCourseRepository = asyncCourseRepository;
+    }
+
+    private AsyncStudentRepository asyncStudentRepository() {
+        if (asyncStudentRepository != null) {
+            return asyncStudentRepository;
+        }
+        // Decorator (Instrumented, Filtered) ikut asinkron jika delegate-nya asinkron
+        return AsyncStudentRepositoryAdapter.of(studentRepository);
+    }
+
+    private AsyncCourseRepository asyncCourseRepository() {
+        if (asyncCourseRepository != null) {
+            return asyncCourseRepository;
+        }
+        return AsyncCourseRepositoryAdapter.of(courseRepository);
+    }
+
+    /**
+     * Mengantrekan update asinkron per mata kuliah di instance ini (pengganti lock tanpa memblokir thread)
+     * Setiap update menunggu update sebelumnya lalu memakai versi terbaru yang baru ditulis,
+     * sehingga permintaan paralel ke mata kuliah yang sama tidak saling bentrok versi;
+     * konflik dengan instance lain tetap ditangani oleh compare-and-set
+     */
+    private CompletableFuture<Course> serializedUpdateAsync(AsyncCourseRepository courses, Course course, int delta) {
+        String courseCode = course.getCourseCode();
+        CompletableFuture<Course> tail = new CompletableFuture<>();
+        CompletableFuture<Course> previous = asyncCourseTails.put(courseCode, tail);
+        CompletableFuture<Course> start = previous == null
+                ? CompletableFuture.completedFuture(null)
+                : previous.exceptionally(error -> null);
+
+        return start.thenCompose(latest -> {
+            Course current = latest != null && latest.getVersion() > course.getVersion() ? new Course(latest) : course;
+            return updateEnrolledCountAsync(courses, current, delta, 1).whenComplete((updated, error) -> {
+                tail.complete(error == null ? updated : latest);
+                asyncCourseTails.remove(courseCode, tail);
+            });
+        });
+    }
+
+    /**
+     * Versi asinkron updateEnrolledCount: konflik versi memuat ulang mata kuliah dan mencoba lagi
+     * setelah backoff tanpa memblokir thread
+     */
+    private CompletableFuture<Course> updateEnrolledCountAsync(AsyncCourseRepository courses, Course course,
+                                                               int delta, int attempt) {
+        if (delta > 0 && course.getEnrolledCount() >= course.getCapacity()) {
+            return CompletableFuture.failedFuture(
+                    rejected(EnrollmentOutcome.FULL, new CourseFullException("Course is full")));
+        }
+        int applied = Math.max(delta, -course.getEnrolledCount());
+        course.setEnrolledCount(course.getEnrolledCount() + applied);
+        return courses.updateAsync(course).handle((ignored, error) -> {
+            if (error == null) {
+                return CompletableFuture.completedFuture(course);
+            }
+            course.setEnrolledCount(course.getEnrolledCount() - applied);
+            Throwable cause = unwrap(error);
+            if (!(cause instanceof ConcurrentUpdateException)) {
+                return CompletableFuture.<Course>failedFuture(cause);
+            }
+            updateConflicts.increment();
+            if (attempt >= MAX_UPDATE_ATTEMPTS) {
+                return CompletableFuture.<Course>failedFuture(rejected(EnrollmentOutcome.CONFLICT,
+                        new EnrollmentException("Course update conflict, retries exhausted: "
+                                + course.getCourseCode(), cause)));
+            }
+            Executor backoff = CompletableFuture.delayedExecutor(backoffNanos(attempt), TimeUnit.NANOSECONDS);
+            return CompletableFuture.supplyAsync(course::getCourseCode, backoff)
+                    .thenCompose(courses::findByCourseCodeAsync)
+                    .thenCompose(reloaded -> reloaded == null
+                            ? CompletableFuture.<Course>failedFuture(
+                                    new CourseNotFoundException("Course not found: " + course.getCourseCode()))
+                            : updateEnrolledCountAsync(courses, reloaded, delta, attempt + 1));
+        }).thenCompose(future -> future);
+    }
+
+    /**
+     * Validasi lengkap lalu reservasi kursi, keanggotaan dan SKS tanpa mengirim notifikasi
+     * Dipakai bersama oleh enrollCourse dan reserveCourse
+     */
+    private Reservation reserve(String studentId, String courseCode, String status, Trace trace) {
+        checkAdmission(studentId, courseCode);
+
+        Student student;
+        Course course;
+        long mark;
+        Executor executor = lookupExecutor;
+        if (executor == null) {
+            // Validate student
+            mark = trace.mark();
+            student = studentRepository.findById(studentId);
+            trace.stage(TraceStage.FIND_STUDENT, mark);
+            checkStudent(student, studentId);
+
+            // Validate course
+            mark = trace.mark();
+            course = courseRepository.findByCourseCode(courseCode);
+            trace.stage(TraceStage.FIND_COURSE, mark);
+            checkCourse(course, courseCode);
+
+            // Check prerequisites
+            mark = trace.mark();
+            boolean prerequisiteMet = courseRepository.isPrerequisiteMet(studentId, courseCode);
+            trace.stage(TraceStage.CHECK_PREREQUISITE, mark);
+            checkPrerequisite(prerequisiteMet);
+        } else {
+            // Ketiga pembacaan dikirim sekaligus; hasil tetap dicek dengan urutan yang sama
+            StudentRepository students = studentRepository;
+            CourseRepository courses = courseRepository;
+            CompletableFuture<Student> studentLookup =
+                    CompletableFuture.supplyAsync(() -> students.findById(studentId), executor);
+            CompletableFuture<Course> courseLookup =
+                    CompletableFuture.supplyAsync(() -> courses.findByCourseCode(courseCode), executor);
+            CompletableFuture<Boolean> prerequisiteLookup =
+                    CompletableFuture.supplyAsync(() -> courses.isPrerequisiteMet(studentId, courseCode), executor);
+            try {
+                // Setiap tahapan mencatat waktu tunggu tambahannya saja, bukan durasi pembacaan
+                mark = trace.mark();
+                student = await(studentLookup);
+                trace.stage(TraceStage.FIND_STUDENT, mark);
+                checkStudent(student, studentId);
+
+                mark = trace.mark();
+                course = await(courseLookup);
+                trace.stage(TraceStage.FIND_COURSE, mark);
+                checkCourse(course, courseCode);
+
+                mark = trace.mark();
+                boolean prerequisiteMet = await(prerequisiteLookup);
+                trace.stage(TraceStage.CHECK_PREREQUISITE, mark);
+                checkPrerequisite(prerequisiteMet);
+            } catch (RuntimeException | Error e) {
+                courseLookup.cancel(false);
+                prerequisiteLookup.cancel(false);
+                throw e;
+            }
+        }
+
+        Enrollment enrollment = newEnrollment(studentId, courseCode, status);
+
+        // Reserve seat and credits in one step per course
+        mark = trace.mark();
+        int maxCredits = gradeCalculator.calculateMaxCredits(student.getGpa());
+        trace.stage(TraceStage.CALCULATE_MAX_CREDITS, mark);
+
+        ReentrantLock lock = courseLock(courseCode);
+        mark = trace.mark();
+        lock.lock();
+        try {
+            trace.stage(TraceStage.SEAT_LOCK_WAIT, mark);
+            reserveSeat(studentId, course, maxCredits, trace);
+            // Roster dicatat di bawah lock agar cancelCourse melihat setiap kursi yang sudah terpakai
+            rosterIndex.add(enrollment);
+        } finally {
+            lock.unlock();
+        }
+
+        return new Reservation(enrollment, student.getEmail(), course.getCourseName());
+    }
+
+    /**
+     * Menolak percobaan sebelum slot registrasi dibuka dan retry yang sudah terdaftar,
+     * tanpa menyentuh repository
+     */
+    private void checkAdmission(String studentId, String courseCode) {
+        RegistrationScheduler scheduler = registrationScheduler;
+        if (scheduler != null && !scheduler.isOpen(studentId)) {
+            throw rejected(EnrollmentOutcome.TOO_EARLY, new AdmissionRejectedException(
+                    "Registration opens at " + scheduler.slotStart(studentId) + " for student: " + studentId));
+        }
+        if (membershipIndex.contains(studentId, courseCode)) {
+            throw rejected(EnrollmentOutcome.DUPLICATE,
+                    new EnrollmentException("Student already enrolled in course: " + courseCode));
+        }
+    }
+
+    private void checkStudent(Student student, String studentId) {
+        if (student == null) {
+            throw rejected(EnrollmentOutcome.NOT_FOUND,
+                    new StudentNotFoundException("Student not found: " + studentId));
+        }
         if ("SUSPENDED".equals(student.getAcademicStatus())) {
-            throw new EnrollmentException("Student is suspended");
+            throw rejected(EnrollmentOutcome.SUSPENDED, new EnrollmentException("Student is suspended"));
         }
+    }
 
-        // Validate course
-        Course course = courseRepository.findByCourseCode(courseCode);
+    private void checkCourse(Course course, String courseCode) {
         if (course == null) {
-            throw new CourseNotFoundException("Course not found: " + courseCode);
+            throw rejected(EnrollmentOutcome.NOT_FOUND,
+                    new CourseNotFoundException("Course not found: " + courseCode));
         }
-
-        // Check capacity
         if (course.getEnrolledCount() >= course.getCapacity()) {
-            throw new CourseFullException("Course is full");
+            throw rejected(EnrollmentOutcome.FULL, new CourseFullException("Course is full"));
         }
+    }
 
-        // Check prerequisites
-        if (!courseRepository.isPrerequisiteMet(studentId, courseCode)) {
-            throw new PrerequisiteNotMetException("Prerequisites not met");
+    private void checkPrerequisite(boolean prerequisiteMet) {
+        if (!prerequisiteMet) {
+            throw rejected(EnrollmentOutcome.PREREQUISITE,
+                    new PrerequisiteNotMetException("Prerequisites not met"));
         }
+    }
 
-        // Create enrollment
+    private Enrollment newEnrollment(String studentId, String courseCode, String status) {
         Enrollment enrollment = new Enrollment();
         enrollment.setEnrollmentId(generateEnrollmentId());
         enrollment.setStudentId(studentId);
         enrollment.setCourseCode(courseCode);
         enrollment.setEnrollmentDate(LocalDateTime.now());
-        enrollment.setStatus("APPROVED");
+        enrollment.setStatus(status);
+        return enrollment;
+    }
 
-        // Update course enrollment count
-        course.setEnrolledCount(course.getEnrolledCount() + 1);
-        courseRepository.update(course);
+    /**
+     * Memesan kursi tanpa langsung mengonfirmasi enrollment (tahap prepare)
+     * Kursi, keanggotaan dan SKS langsung terpakai, tetapi status masih PENDING dan
+     * notifikasi baru dikirim saat {@link #confirmReservation(String)}
+     *
+     * @param studentId ID mahasiswa
+     * @param courseCode Kode mata kuliah
+     * @return Enrollment dengan status PENDING
+     * @throws StudentNotFoundException jika mahasiswa tidak ditemukan
+     * @throws EnrollmentException jika mahasiswa di-suspend, sudah terdaftar, atau batas SKS terlampaui
+     * @throws CourseNotFoundException jika mata kuliah tidak ditemukan
+     * @throws CourseFullException jika mata kuliah sudah penuh
+     * @throws PrerequisiteNotMetException jika prasyarat tidak terpenuhi
+     */
+    public Enrollment reserveCourse(String studentId, String courseCode) {
+        Trace trace = traceRecorder.start("reserveCourse", studentId, courseCode);
+        try {
+            Reservation reservation = reserve(studentId, courseCode, "PENDING", trace);
+            reservations.put(reservation.enrollment.getEnrollmentId(), reservation);
+            return reservation.enrollment;
+        } catch (RuntimeException e) {
+            trace.fail(e);
+            throw e;
+        } finally {
+            traceRecorder.finish(trace);
+        }
+    }
 
-        // Send notification
-        notificationService.sendEmail(student.getEmail(),
-                "Enrollment Confirmation",
-                "You have been enrolled in: " + course.getCourseName());
+    /**
+     * Mengonfirmasi reservasi menjadi enrollment APPROVED dan mengirim notifikasi
+     *
+     * @param enrollmentId ID enrollment dari reserveCourse
+     * @return Enrollment dengan status APPROVED
+     * @throws EnrollmentException jika reservasi tidak ditemukan (sudah dikonfirmasi atau dibatalkan)
+     */
+    public Enrollment confirmReservation(String enrollmentId) {
+        Reservation reservation = approveReservation(enrollmentId);
+        // Reservasi yang dipulihkan untuk mahasiswa yang sudah tidak ada tidak punya email
+        if (reservation.email != null) {
+            notificationService.sendEmail(reservation.email,
+                    "Enrollment Confirmation",
+                    "You have been enrolled in: " + reservation.courseName);
+        }
+        return reservation.enrollment;
+    }
 
-        return enrollment;
+    /**
+     * Mengubah reservasi menjadi APPROVED tanpa notifikasi
+     */
+    private Reservation approveReservation(String enrollmentId) {
+        Reservation reservation = reservations.remove(enrollmentId);
+        if (reservation == null) {
+            throw new EnrollmentException("Reservation not found: " + enrollmentId);
+        }
+        reservation.enrollment.setStatus("APPROVED");
+        countOutcome(EnrollmentOutcome.SUCCESS);
+        return reservation;
+    }
+
+    /**
+     * Mengonfirmasi banyak reservasi sekaligus tanpa notifikasi per mata kuliah
+     * Tidak ada penulisan repository karena kursi sudah terhitung saat reserveCourse;
+     * pemanggil bertanggung jawab mengirim notifikasi (mis. satu digest per mahasiswa)
+     *
+     * @param enrollmentIds ID enrollment dari reserveCourse
+     * @param failures Penampung ID yang gagal -> exception
+     * @return Enrollment yang sudah APPROVED, sesuai urutan input
+     */
+    List<Enrollment> confirmReservations(Collection<String> enrollmentIds, Map<String, RuntimeException> failures) {
+        List<Enrollment> approved = new ArrayList<>(enrollmentIds.size());
+        for (String enrollmentId : enrollmentIds) {
+            try {
+                approved.add(approveReservation(enrollmentId).enrollment);
+            } catch (RuntimeException e) {
+                failures.put(enrollmentId, e);
+            }
+        }
+        return approved;
+    }
+
+    /**
+     * Membatalkan banyak reservasi sekaligus tanpa notifikasi
+     * Reservasi dikelompokkan per mata kuliah: satu pembacaan bulk mata kuliah, lalu satu update
+     * enrolledCount per mata kuliah. Jika update satu mata kuliah gagal, reservasinya tetap PENDING
+     *
+     * @param enrollmentIds ID enrollment dari reserveCourse
+     * @param failures Penampung ID yang gagal -> exception
+     * @return Enrollment yang sudah REJECTED
+     */
+    List<Enrollment> rejectReservations(Collection<String> enrollmentIds, Map<String, RuntimeException> failures) {
+        Map<String, List<Reservation>> byCourse = new TreeMap<>();
+        for (String enrollmentId : enrollmentIds) {
+            Reservation reservation = reservations.remove(enrollmentId);
+            if (reservation == null) {
+                failures.put(enrollmentId, new EnrollmentException("Reservation not found: " + enrollmentId));
+            } else {
+                byCourse.computeIfAbsent(reservation.enrollment.getCourseCode(), code -> new ArrayList<>())
+                        .add(reservation);
+            }
+        }
+        if (byCourse.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<String, Course> courses = courseRepository.findByCourseCodes(byCourse.keySet());
+        List<Enrollment> rejected = new ArrayList<>();
+        for (Map.Entry<String, List<Reservation>> group : byCourse.entrySet()) {
+            List<Reservation> batch = group.getValue();
+            List<String> studentIds = new ArrayList<>(batch.size());
+            for (Reservation reservation : batch) {
+                studentIds.add(reservation.enrollment.getStudentId());
+            }
+            ReentrantLock lock = courseLock(group.getKey());
+            lock.lock();
+            try {
+                Course course = courses.get(group.getKey());
+                if (course == null) {
+                    throw new CourseNotFoundException("Course not found: " + group.getKey());
+                }
+                releaseSeats(course, studentIds);
+            } catch (RuntimeException e) {
+                for (Reservation reservation : batch) {
+                    reservations.put(reservation.enrollment.getEnrollmentId(), reservation);
+                    failures.put(reservation.enrollment.getEnrollmentId(), e);
+                }
+                continue;
+            } finally {
+                lock.unlock();
+            }
+            for (Reservation reservation : batch) {
+                reservation.enrollment.setStatus("REJECTED");
+                rejected.add(reservation.enrollment);
+            }
+        }
+        return rejected;
+    }
+
+    /**
+     * Membatalkan reservasi dan mengembalikan kursi serta SKS tanpa notifikasi
+     * Jika pembacaan atau update mata kuliah gagal, reservasi tetap PENDING dan bisa dibatalkan ulang
+     *
+     * @param enrollmentId ID enrollment dari reserveCourse
+     * @throws EnrollmentException jika reservasi tidak ditemukan
+     * @throws CourseNotFoundException jika mata kuliah sudah tidak ada
+     */
+    public void cancelReservation(String enrollmentId) {
+        Reservation reservation = reservations.remove(enrollmentId);
+        if (reservation == null) {
+            throw new EnrollmentException("Reservation not found: " + enrollmentId);
+        }
+
+        Enrollment enrollment = reservation.enrollment;
+        try {
+            Course course = courseRepository.findByCourseCode(enrollment.getCourseCode());
+            if (course == null) {
+                throw new CourseNotFoundException("Course not found: " + enrollment.getCourseCode());
+            }
+            ReentrantLock lock = courseLock(course.getCourseCode());
+            lock.lock();
+            try {
+                releaseSeat(enrollment.getStudentId(), course, Trace.NOOP);
+            } finally {
+                lock.unlock();
+            }
+        } catch (RuntimeException e) {
+            reservations.put(enrollmentId, reservation);
+            throw e;
+        }
+        enrollment.setStatus("REJECTED");
+    }
+
+    /**
+     * Reservasi kursi, keanggotaan dan SKS; dipanggil saat memegang lock mata kuliah
+     * Jika salah satu langkah gagal, langkah sebelumnya dibatalkan
+     */
+    private void reserveSeat(String studentId, Course course, int maxCredits, Trace trace) {
+        claimSeat(studentId, course, maxCredits);
+        Course updated;
+        try {
+            updated = updateEnrolledCount(course, 1, trace, courseLock(course.getCourseCode()));
+        } catch (RuntimeException e) {
+            unclaimSeat(studentId, course);
+            throw e;
+        }
+        courseCatalogIndex.updateCourse(updated);
+    }
+
+    /**
+     * Memesan keanggotaan, SKS dan jadwal mahasiswa untuk satu mata kuliah (sebelum enrolledCount disimpan)
+     */
+    private void claimSeat(String studentId, Course course, int maxCredits) {
+        String courseCode = course.getCourseCode();
+        if (course.getEnrolledCount() >= course.getCapacity()) {
+            throw rejected(EnrollmentOutcome.FULL, new CourseFullException("Course is full"));
+        }
+        if (!membershipIndex.add(studentId, courseCode)) {
+            throw rejected(EnrollmentOutcome.DUPLICATE,
+                    new EnrollmentException("Student already enrolled in course: " + courseCode));
+        }
+        if (!creditLedger.tryReserve(studentId, course.getCredits(), maxCredits)) {
+            membershipIndex.remove(studentId, courseCode);
+            throw rejected(EnrollmentOutcome.CREDIT_LIMIT, new EnrollmentException("Credit limit exceeded"));
+        }
+        String conflict = scheduleIndex.tryReserve(studentId, courseCode, course.getMeetingTimes());
+        if (conflict != null) {
+            creditLedger.release(studentId, course.getCredits());
+            membershipIndex.remove(studentId, courseCode);
+            throw rejected(EnrollmentOutcome.SCHEDULE_CONFLICT,
+                    new ScheduleConflictException("Schedule conflict with course: " + conflict));
+        }
+    }
+
+    private void unclaimSeat(String studentId, Course course) {
+        scheduleIndex.release(studentId, course.getCourseCode());
+        creditLedger.release(studentId, course.getCredits());
+        membershipIndex.remove(studentId, course.getCourseCode());
+    }
+
+    /**
+     * Mengubah enrolledCount lewat update compare-and-set
+     * Jika versi bentrok (instance lain sudah mengubah mata kuliah), data dibaca ulang,
+     * kapasitas dicek lagi, lalu dicoba kembali dengan backoff acak yang dibatasi
+     * Pengurangan tidak pernah membuat enrolledCount negatif (data yang sudah tidak sinkron dijepit ke 0)
+     *
+     * @param course Course yang sudah dibaca; disinkronkan dengan hasil akhir jika berhasil
+     * @param delta Perubahan enrolledCount, mis. +1 untuk enroll, -1 untuk drop
+     * @param heldLock Lock mata kuliah yang dilepas selama backoff agar thread lain di instance ini
+     *                 tidak ikut menunggu; hanya untuk penambahan (keanggotaan sudah diklaim), null
+     *                 untuk pengurangan atau jika pemanggil memegang beberapa lock sekaligus
+     * @return Course yang berhasil disimpan
+     * @throws EnrollmentException jika mata kuliah dibatalkan selama lock dilepas
+     */
+    private Course updateEnrolledCount(Course course, int delta, Trace trace, ReentrantLock heldLock) {
+        Course current = course;
+        for (int attempt = 1; ; attempt++) {
+            if (delta > 0 && current.getEnrolledCount() + delta > current.getCapacity()) {
+                throw rejected(EnrollmentOutcome.FULL, new CourseFullException("Course is full"));
+            }
+
+            int applied = Math.max(delta, -current.getEnrolledCount());
+            current.setEnrolledCount(current.getEnrolledCount() + applied);
+            long mark = trace.mark();
+            try {
+                courseRepository.update(current);
+                if (current != course) {
+                    course.setEnrolledCount(current.getEnrolledCount());
+                    course.setVersion(current.getVersion());
+                }
+                return current;
+            } catch (ConcurrentUpdateException e) {
+                current.setEnrolledCount(current.getEnrolledCount() - applied);
+                updateConflicts.increment();
+                if (attempt >= MAX_UPDATE_ATTEMPTS) {
+                    throw rejected(EnrollmentOutcome.CONFLICT, new EnrollmentException(
+                            "Course update conflict, retries exhausted: " + course.getCourseCode(), e));
+                }
+            } catch (RuntimeException e) {
+                current.setEnrolledCount(current.getEnrolledCount() - applied);
+                throw e;
+            } finally {
+                trace.stage(TraceStage.UPDATE_COURSE, mark);
+            }
+
+            // Penambahan: keanggotaan dan SKS sudah diklaim, jadi aman melepas lock selama menunggu.
+            // Pengurangan tetap memegang lock, karena keanggotaan sudah dilepas dan bisa diklaim ulang
+            boolean unlocked = delta > 0 && heldLock != null && heldLock.getHoldCount() == 1;
+            Long epoch = cancellationEpochs.get(course.getCourseCode());
+            if (unlocked) {
+                heldLock.unlock();
+            }
+            try {
+                LockSupport.parkNanos(backoffNanos(attempt));
+                current = courseRepository.findByCourseCode(course.getCourseCode());
+            } finally {
+                if (unlocked) {
+                    heldLock.lock();
+                }
+            }
+            if (unlocked && !Objects.equals(epoch, cancellationEpochs.get(course.getCourseCode()))) {
+                throw new EnrollmentException("Course was cancelled: " + course.getCourseCode());
+            }
+            if (current == null) {
+                throw new CourseNotFoundException("Course not found: " + course.getCourseCode());
+            }
+        }
+    }
+
+    /**
+     * Batas SKS mahasiswa berdasarkan IPK
+     * @param studentId ID mahasiswa
+     * @return Maksimal SKS semester ini
+     * @throws StudentNotFoundException jika mahasiswa tidak ditemukan
+     */
+    public int getMaxCredits(String studentId) {
+        Student student = studentRepository.findById(studentId);
+        if (student == null) {
+            throw new StudentNotFoundException("Student not found: " + studentId);
+        }
+        return gradeCalculator.calculateMaxCredits(student.getGpa());
     }
 
     /**
      * Validasi batas SKS yang boleh diambil mahasiswa
+     * SKS yang sudah tercatat di CreditLedger ikut diperhitungkan
      * Method ini akan diuji dengan STUB
      *
      * @param studentId ID mahasiswa
-     * @param requestedCredits Jumlah SKS yang diminta
+     * @param requestedCredits Jumlah SKS tambahan yang diminta
      * @return true jika SKS masih dalam batas, false jika melebihi
      * @throws StudentNotFoundException jika mahasiswa tidak ditemukan
      */
     public boolean validateCreditLimit(String studentId, int requestedCredits) {
-        Student student = studentRepository.findById(studentId);
-        if (student == null) {
-            throw new StudentNotFoundException("Student not found");
-        }
+        Trace trace = traceRecorder.start("validateCreditLimit", studentId, null);
+        try {
+            long mark = trace.mark();
+            Student student = studentRepository.findById(studentId);
+            trace.stage(TraceStage.FIND_STUDENT, mark);
+            if (student == null) {
+                throw new StudentNotFoundException("Student not found");
+            }
 
-        int maxCredits = gradeCalculator.calculateMaxCredits(student.getGpa());
-        return requestedCredits <= maxCredits;
+            mark = trace.mark();
+            int maxCredits = gradeCalculator.calculateMaxCredits(student.getGpa());
+            trace.stage(TraceStage.CALCULATE_MAX_CREDITS, mark);
+            return creditLedger.getCredits(studentId) + requestedCredits <= maxCredits;
+        } catch (RuntimeException e) {
+            trace.fail(e);
+            throw e;
+        } finally {
+            traceRecorder.finish(trace);
+        }
     }
 
     /**
@@ -118,33 +806,581 @@ public class EnrollmentService {
      * @param courseCode Kode mata kuliah
      * @throws StudentNotFoundException jika mahasiswa tidak ditemukan
      * @throws CourseNotFoundException jika mata kuliah tidak ditemukan
+     * @throws EnrollmentException jika mahasiswa tidak terdaftar di mata kuliah
      */
     public void dropCourse(String studentId, String courseCode) {
+        Trace trace = traceRecorder.start("dropCourse", studentId, courseCode);
+        try {
+            dropCourse(studentId, courseCode, trace);
+        } catch (RuntimeException e) {
+            trace.fail(e);
+            throw e;
+        } finally {
+            traceRecorder.finish(trace);
+        }
+    }
+
+    /**
+     * dropCourse dengan idempotency key: retry dengan kunci yang sama tidak mengurangi enrolledCount lagi
+     * Tanpa IdempotencyStore atau dengan kunci null, sama dengan dropCourse biasa
+     *
+     * @param studentId ID mahasiswa
+     * @param courseCode Kode mata kuliah
+     * @param idempotencyKey Kunci unik per permintaan dari klien
+     * @throws EnrollmentException jika kunci sudah dipakai untuk permintaan lain
+     */
+    public void dropCourse(String studentId, String courseCode, String idempotencyKey) {
+        IdempotencyStore store = idempotencyStore;
+        if (store == null || idempotencyKey == null) {
+            dropCourse(studentId, courseCode);
+            return;
+        }
+        store.execute(idempotencyKey, "dropCourse:" + studentId + ":" + courseCode, () -> {
+            dropCourse(studentId, courseCode);
+            return null;
+        });
+    }
+
+    private void dropCourse(String studentId, String courseCode, Trace trace) {
+        long mark = trace.mark();
         Student student = studentRepository.findById(studentId);
+        trace.stage(TraceStage.FIND_STUDENT, mark);
         if (student == null) {
             throw new StudentNotFoundException("Student not found");
         }
 
+        mark = trace.mark();
         Course course = courseRepository.findByCourseCode(courseCode);
+        trace.stage(TraceStage.FIND_COURSE, mark);
         if (course == null) {
             throw new CourseNotFoundException("Course not found");
         }
 
-        // Update enrollment count
-        course.setEnrolledCount(course.getEnrolledCount() - 1);
-        courseRepository.update(course);
+        // Update enrollment count and release credits
+        ReentrantLock lock = courseLock(courseCode);
+        mark = trace.mark();
+        lock.lock();
+        try {
+            trace.stage(TraceStage.SEAT_LOCK_WAIT, mark);
+            releaseSeat(studentId, course, trace);
+        } finally {
+            lock.unlock();
+        }
 
         // Send notification
+        mark = trace.mark();
         notificationService.sendEmail(student.getEmail(),
                 "Course Drop Confirmation",
                 "You have dropped: " + course.getCourseName());
+        trace.stage(TraceStage.SEND_NOTIFICATION, mark);
+    }
+
+    /**
+     * Melepas kursi, keanggotaan dan SKS; dipanggil saat memegang lock mata kuliah
+     */
+    private void releaseSeat(String studentId, Course course, Trace trace) {
+        String courseCode = course.getCourseCode();
+        if (!membershipIndex.remove(studentId, courseCode)) {
+            throw new EnrollmentException("Student is not enrolled in course: " + courseCode);
+        }
+
+        Course updated;
+        try {
+            updated = updateEnrolledCount(course, -1, trace, null);
+        } catch (RuntimeException e) {
+            membershipIndex.add(studentId, courseCode);
+            throw e;
+        }
+        creditLedger.release(studentId, course.getCredits());
+        scheduleIndex.release(studentId, courseCode);
+        rosterIndex.remove(studentId, courseCode);
+        courseCatalogIndex.updateCourse(updated);
+    }
+
+    /**
+     * Membatalkan mata kuliah: semua mahasiswa di roster di-drop dalam satu lintasan
+     * Cukup satu pembacaan bulk mata kuliah, satu pembacaan bulk mahasiswa dan satu update
+     * enrolledCount per mata kuliah; SKS, jadwal dan keanggotaan dilepas dari index di memori.
+     * Jika ada mata kuliah pengganti, setiap mahasiswa dicoba didaftarkan ke sana dengan validasi
+     * yang sama seperti enrollCourse (kecuali pembacaan ulang). Notifikasi dikirim satu email
+     * per mahasiswa lewat NotificationService.sendEmails dalam batch; batch yang gagal dikirim
+     * dicatat di getNotificationFailures tanpa membatalkan hasil. Reservasi PENDING ikut
+     * dibatalkan (status REJECTED). Mata kuliah tidak dihapus dari repository
+     *
+     * @param courseCode Kode mata kuliah yang dibatalkan
+     * @param alternativeCourseCode Kode mata kuliah pengganti, atau null
+     * @return Ringkasan mahasiswa yang di-drop, dipindahkan dan gagal dipindahkan
+     * @throws CourseNotFoundException jika salah satu mata kuliah tidak ditemukan
+     * @throws EnrollmentException jika mata kuliah pengganti sama dengan yang dibatalkan
+     */
+    public CourseCancellation cancelCourse(String courseCode, String alternativeCourseCode) {
+        if (courseCode.equals(alternativeCourseCode)) {
+            throw new EnrollmentException("Alternative course must differ from cancelled course: " + courseCode);
+        }
+        List<String> codes = alternativeCourseCode == null
+                ? List.of(courseCode)
+                : List.of(courseCode, alternativeCourseCode);
+        // Lock diambil berurutan per kode agar dua pembatalan yang saling silang tidak deadlock
+        List<ReentrantLock> locks = new ArrayList<>();
+        for (String code : new TreeSet<>(codes)) {
+            locks.add(courseLock(code));
+        }
+        locks.forEach(ReentrantLock::lock);
+
+        Course course;
+        Course alternative;
+        CourseCancellation cancellation;
+        Map<String, Student> students;
+        try {
+            Map<String, Course> courses = courseRepository.findByCourseCodes(codes);
+            course = courses.get(courseCode);
+            if (course == null) {
+                throw new CourseNotFoundException("Course not found: " + courseCode);
+            }
+            alternative = alternativeCourseCode == null ? null : courses.get(alternativeCourseCode);
+            if (alternativeCourseCode != null && alternative == null) {
+                throw new CourseNotFoundException("Course not found: " + alternativeCourseCode);
+            }
+
+            List<Enrollment> roster = rosterIndex.getRoster(courseCode);
+            List<String> studentIds = new ArrayList<>(roster.size());
+            for (Enrollment enrollment : roster) {
+                studentIds.add(enrollment.getStudentId());
+            }
+            students = studentIds.isEmpty() ? Map.of() : studentRepository.findByIds(studentIds);
+
+            cancellationEpochs.merge(courseCode, 1L, Long::sum);
+            // Kedua lock tetap dipegang selama backoff agar pembatalan tetap atomik
+            releaseSeats(course, studentIds);
+            for (Enrollment enrollment : roster) {
+                if (reservations.remove(enrollment.getEnrollmentId()) != null) {
+                    enrollment.setStatus("REJECTED");
+                }
+            }
+
+            cancellation = new CourseCancellation(courseCode, alternativeCourseCode, studentIds);
+            if (alternative != null && !studentIds.isEmpty()) {
+                reassign(alternative, studentIds, students, cancellation);
+            }
+        } finally {
+            for (int i = locks.size() - 1; i >= 0; i--) {
+                locks.get(i).unlock();
+            }
+        }
+
+        notifyCancellation(course, alternative, cancellation, students);
+        return cancellation;
+    }
+
+    /**
+     * Melepas kursi banyak mahasiswa dari satu mata kuliah dengan satu update enrolledCount;
+     * dipanggil saat memegang lock mata kuliah. Index di memori hanya diubah jika update berhasil
+     */
+    private void releaseSeats(Course course, List<String> studentIds) {
+        if (studentIds.isEmpty()) {
+            return;
+        }
+        courseCatalogIndex.updateCourse(updateEnrolledCount(course, -studentIds.size(), Trace.NOOP, null));
+        String courseCode = course.getCourseCode();
+        for (String studentId : studentIds) {
+            membershipIndex.remove(studentId, courseCode);
+            creditLedger.release(studentId, course.getCredits());
+            scheduleIndex.release(studentId, courseCode);
+            rosterIndex.remove(studentId, courseCode);
+        }
+    }
+
+    /**
+     * Mendaftarkan mahasiswa mata kuliah yang dibatalkan ke mata kuliah pengganti
+     * Prasyarat semua mahasiswa dicek dengan satu arePrerequisitesMet, kursi diklaim satu per satu
+     * di memori lalu enrolledCount disimpan sekali;
+     * jika penyimpanan gagal semua klaim dibatalkan. Dipanggil saat memegang lock kedua mata kuliah
+     */
+    private void reassign(Course alternative, List<String> studentIds, Map<String, Student> students,
+                          CourseCancellation cancellation) {
+        String courseCode = alternative.getCourseCode();
+        Map<String, Boolean> prerequisites = courseRepository.arePrerequisitesMet(students.keySet(), courseCode);
+        int enrolledCount = alternative.getEnrolledCount();
+        List<Enrollment> admitted = new ArrayList<>();
+        for (String studentId : studentIds) {
+            try {
+                Student student = students.get(studentId);
+                checkStudent(student, studentId);
+                checkPrerequisite(Boolean.TRUE.equals(prerequisites.get(studentId)));
+                claimSeat(studentId, alternative, gradeCalculator.calculateMaxCredits(student.getGpa()));
+                alternative.setEnrolledCount(alternative.getEnrolledCount() + 1);
+                admitted.add(newEnrollment(studentId, courseCode, "APPROVED"));
+            } catch (RuntimeException e) {
+                cancellation.recordFailure(studentId, e);
+            }
+        }
+        alternative.setEnrolledCount(enrolledCount);
+        if (admitted.isEmpty()) {
+            return;
+        }
+
+        Course updated;
+        try {
+            updated = updateEnrolledCount(alternative, admitted.size(), Trace.NOOP, null);
+        } catch (RuntimeException e) {
+            for (Enrollment enrollment : admitted) {
+                unclaimSeat(enrollment.getStudentId(), alternative);
+                cancellation.recordFailure(enrollment.getStudentId(), e);
+            }
+            return;
+        }
+        courseCatalogIndex.updateCourse(updated);
+        for (Enrollment enrollment : admitted) {
+            rosterIndex.add(enrollment);
+            cancellation.recordReassignment(enrollment);
+            countOutcome(EnrollmentOutcome.SUCCESS);
+        }
+    }
+
+    /**
+     * Kegagalan pengiriman dicatat per batch di CourseCancellation; drop dan pemindahan sudah tersimpan
+     */
+    private void notifyCancellation(Course course, Course alternative, CourseCancellation cancellation,
+                                    Map<String, Student> students) {
+        Map<String, RuntimeException> failures = new LinkedHashMap<>();
+        EmailBatch batch = new EmailBatch(notificationService, failures);
+        for (String studentId : cancellation.getDroppedStudentIds()) {
+            Student student = students.get(studentId);
+            if (student == null) {
+                continue;
+            }
+            String message = "The course " + course.getCourseName() + " has been cancelled.";
+            if (cancellation.getReassigned().containsKey(studentId)) {
+                message += " You have been enrolled in: " + alternative.getCourseName();
+            }
+            batch.add(studentId, new EmailMessage(student.getEmail(), "Course Cancellation", message));
+        }
+        batch.flush();
+        failures.forEach(cancellation::recordNotificationFailure);
+    }
+
+    /**
+     * Memuat enrollment yang sudah tersimpan ke index di memori saat service mulai berjalan
+     * (restart atau instance kedua): keanggotaan, roster, jadwal dan SKS, agar drop, cek
+     * enrollment ganda dan batas SKS tetap benar untuk data sebelum restart
+     * SKS dibaca dari repository dengan satu findByCourseCodes; enrollment REJECTED diabaikan,
+     * begitu juga mata kuliah yang sudah tidak ada dan duplikat mahasiswa–mata kuliah.
+     * Enrollment PENDING didaftarkan ulang sebagai reservasi (confirmReservation/cancelReservation);
+     * antrian dosen pembimbing dibangun ulang lewat AdvisorApprovalService.loadPending
+     *
+     * @param enrollments Enrollment APPROVED/PENDING dari penyimpanan
+     * @return Jumlah enrollment yang dimuat
+     */
+    public int loadEnrollments(Collection<Enrollment> enrollments) {
+        Set<String> courseCodes = new TreeSet<>();
+        for (Enrollment enrollment : enrollments) {
+            courseCodes.add(enrollment.getCourseCode());
+        }
+        Map<String, Course> courses = courseCodes.isEmpty() ? Map.of() : courseRepository.findByCourseCodes(courseCodes);
+
+        Map<String, Integer> creditsByStudent = new HashMap<>();
+        List<Enrollment> pendingEnrollments = new ArrayList<>();
+        int loaded = 0;
+        for (Enrollment enrollment : enrollments) {
+            Course course = courses.get(enrollment.getCourseCode());
+            if (course == null || "REJECTED".equals(enrollment.getStatus())
+                    || !membershipIndex.add(enrollment.getStudentId(), course.getCourseCode())) {
+                continue;
+            }
+            // Data tersimpan sudah disetujui sebelumnya, jadwal bentrok tidak ditolak lagi
+            scheduleIndex.tryReserve(enrollment.getStudentId(), course.getCourseCode(), course.getMeetingTimes());
+            rosterIndex.add(enrollment);
+            creditsByStudent.merge(enrollment.getStudentId(), course.getCredits(), Integer::sum);
+            if ("PENDING".equals(enrollment.getStatus())) {
+                pendingEnrollments.add(enrollment);
+            }
+            loaded++;
+        }
+        creditsByStudent.forEach(creditLedger::seed);
+        restoreReservations(pendingEnrollments, courses);
+        return loaded;
+    }
+
+    /**
+     * Mendaftarkan ulang enrollment PENDING tersimpan sebagai reservasi, agar masih bisa
+     * dikonfirmasi atau dibatalkan setelah restart; email dibaca dengan satu findByIds
+     */
+    private void restoreReservations(List<Enrollment> pendingEnrollments, Map<String, Course> courses) {
+        if (pendingEnrollments.isEmpty()) {
+            return;
+        }
+        Set<String> studentIds = new TreeSet<>();
+        for (Enrollment enrollment : pendingEnrollments) {
+            studentIds.add(enrollment.getStudentId());
+        }
+        Map<String, Student> students = studentRepository.findByIds(studentIds);
+        for (Enrollment enrollment : pendingEnrollments) {
+            Student student = students.get(enrollment.getStudentId());
+            reservations.put(enrollment.getEnrollmentId(), new Reservation(enrollment,
+                    student == null ? null : student.getEmail(),
+                    courses.get(enrollment.getCourseCode()).getCourseName()));
+        }
+    }
+
+    /**
+     * Mengecek apakah enrollment masih berupa reservasi PENDING di service ini
+     * @param enrollmentId ID enrollment
+     * @return true jika reservasi masih menunggu konfirmasi atau pembatalan
+     */
+    public boolean isReserved(String enrollmentId) {
+        return reservations.containsKey(enrollmentId);
+    }
+
+    /**
+     * Mencari semua mata kuliah yang bisa diambil mahasiswa saat ini:
+     * kursi masih tersedia, prasyarat terpenuhi, dan SKS tidak melebihi batas
+     * Dihitung dari CourseCatalogIndex, tanpa validasi per mata kuliah ke repository
+     *
+     * @param studentId ID mahasiswa
+     * @return Daftar mata kuliah yang eligible (kosong jika mahasiswa di-suspend)
+     * @throws StudentNotFoundException jika mahasiswa tidak ditemukan
+     */
+    public List<Course> findEligibleCourses(String studentId) {
+        Student student = studentRepository.findById(studentId);
+        if (student == null) {
+            throw new StudentNotFoundException("Student not found: " + studentId);
+        }
+
+        if ("SUSPENDED".equals(student.getAcademicStatus())) {
+            return new ArrayList<>();
+        }
+
+        List<String> completedCodes = new ArrayList<>();
+        for (Course completed : studentRepository.getCompletedCourses(studentId)) {
+            completedCodes.add(completed.getCourseCode());
+        }
+
+        int maxCredits = gradeCalculator.calculateMaxCredits(student.getGpa());
+        return courseCatalogIndex.findEligible(completedCodes, membershipIndex.getCourses(studentId),
+                maxCredits - creditLedger.getCredits(studentId));
+    }
+
+    /**
+     * Memuat ulang CourseCatalogIndex dari repository dengan satu pembacaan bulk
+     * @param courseCodes Kode mata kuliah yang masuk katalog
+     * @return Jumlah mata kuliah yang ditemukan dan dimuat
+     */
+    public int reloadCatalogIndex(Collection<String> courseCodes) {
+        Map<String, Course> courses = courseRepository.findByCourseCodes(courseCodes);
+        courseCatalogIndex.rebuild(courses.values());
+        return courses.size();
+    }
+
+    public CourseCatalogIndex getCourseCatalogIndex() {
+        return courseCatalogIndex;
+    }
+
+    public void setCourseCatalogIndex(CourseCatalogIndex courseCatalogIndex) {
+        this.courseCatalogIndex = courseCatalogIndex;
+    }
+
+    public CreditLedger getCreditLedger() {
+        return creditLedger;
+    }
+
+    public EnrollmentMembershipIndex getMembershipIndex() {
+        return membershipIndex;
+    }
+
+    public ScheduleConflictIndex getScheduleIndex() {
+        return scheduleIndex;
+    }
+
+    public CourseRosterIndex getRosterIndex() {
+        return rosterIndex;
+    }
+
+    /**
+     * Mengekspor roster semua mata kuliah ke CSV secara bertahap (lihat RosterExporter)
+     * @param out Tujuan CSV; tidak ditutup oleh method ini
+     * @return Jumlah baris mahasiswa yang ditulis
+     * @throws IOException jika penulisan gagal
+     */
+    public long exportRosters(Writer out) throws IOException {
+        return new RosterExporter(rosterIndex, studentRepository, courseRepository).export(out);
+    }
+
+    /**
+     * Mengaktifkan metrik: repository dan NotificationService dibungkus decorator
+     * yang merekam latensi, dan hasil enrollment dihitung per kategori
+     * Selalu membungkus delegate asli dari constructor, sehingga pemanggilan berikutnya
+     * mengganti decorator lama alih-alih menumpuknya. Gauge contention lock mata kuliah
+     * yang sudah dibuat sebelumnya ikut didaftarkan ke registry baru
+     *
+     * @param metricsRegistry Registry tujuan metrik
+     */
+    public void setMetricsRegistry(MetricsRegistry metricsRegistry) {
+        this.metricsRegistry = metricsRegistry;
+        this.outcomeCounters = new Counter[0];
+        this.studentRepository = baseStudentRepository;
+        this.courseRepository = baseCourseRepository;
+        this.notificationService = baseNotificationService;
+        if (metricsRegistry.isEnabled()) {
+            Counter[] counters = new Counter[EnrollmentOutcome.values().length];
+            for (EnrollmentOutcome outcome : EnrollmentOutcome.values()) {
+                counters[outcome.ordinal()] = metricsRegistry.counter(outcome.metricName());
+            }
+            this.outcomeCounters = counters;
+            this.studentRepository = new InstrumentedStudentRepository(baseStudentRepository, metricsRegistry);
+            this.courseRepository = new InstrumentedCourseRepository(baseCourseRepository, metricsRegistry);
+            this.notificationService = new InstrumentedNotificationService(baseNotificationService, metricsRegistry);
+        }
+        courseLocks.forEach(this::registerContentionGauge);
+    }
+
+    public MetricsRegistry getMetricsRegistry() {
+        return metricsRegistry;
+    }
+
+    public TraceRecorder getTraceRecorder() {
+        return traceRecorder;
+    }
+
+    /**
+     * Mengaktifkan tracing per tahapan untuk enrollCourse, dropCourse dan validateCreditLimit
+     * @param traceRecorder Recorder tujuan trace
+     */
+    public void setTraceRecorder(TraceRecorder traceRecorder) {
+        this.traceRecorder = traceRecorder;
+    }
+
+    /**
+     * Mengaktifkan pembatasan slot registrasi; null untuk menonaktifkan
+     * @param registrationScheduler Scheduler dengan plan yang sudah dipasang
+     */
+    public void setRegistrationScheduler(RegistrationScheduler registrationScheduler) {
+        this.registrationScheduler = registrationScheduler;
+    }
+
+    public RegistrationScheduler getRegistrationScheduler() {
+        return registrationScheduler;
+    }
+
+    /**
+     * Mengaktifkan validasi paralel: findById, findByCourseCode dan isPrerequisiteMet pada
+     * enrollCourse/reserveCourse dijalankan bersamaan di executor ini, sehingga latensi validasi
+     * menjadi maksimum ketiganya, bukan jumlahnya. Urutan penolakan tidak berubah;
+     * null untuk kembali ke validasi berurutan
+     *
+     * @param lookupExecutor Executor pembacaan repository, mis. virtual thread per task
+     */
+    public void setLookupExecutor(Executor lookupExecutor) {
+        this.lookupExecutor = lookupExecutor;
+    }
+
+    public Executor getLookupExecutor() {
+        return lookupExecutor;
+    }
+
+    /**
+     * Mengaktifkan idempotency key pada enrollCourse dan dropCourse; null untuk mematikan
+     * @param idempotencyStore Tabel kunci yang dipakai bersama oleh kedua operasi
+     */
+    public void setIdempotencyStore(IdempotencyStore idempotencyStore) {
+        this.idempotencyStore = idempotencyStore;
+    }
+
+    public IdempotencyStore getIdempotencyStore() {
+        return idempotencyStore;
+    }
+
+    /**
+     * Jumlah update mata kuliah yang bentrok versi dan harus dicoba ulang
+     * @return Jumlah konflik
+     */
+    public long getUpdateConflictCount() {
+        return updateConflicts.sum();
+    }
+
+    private void countOutcome(EnrollmentOutcome outcome) {
+        Counter[] counters = outcomeCounters;
+        if (counters.length > 0) {
+            counters[outcome.ordinal()].increment();
+        }
+    }
+
+    private RuntimeException rejected(EnrollmentOutcome outcome, RuntimeException exception) {
+        countOutcome(outcome);
+        return exception;
+    }
+
+    /**
+     * Lock per mata kuliah untuk reservasi kursi (bukan lock global)
+     * Memakai ReentrantLock, bukan synchronized, agar virtual thread tidak ter-pin
+     * saat menunggu repository di dalam critical section
+     * Jumlah thread yang memegang/antre di lock diekspos sebagai gauge "course.contention.{kode}"
+     *
+     * @param courseCode Kode mata kuliah
+     * @return Lock mata kuliah
+     */
+    private ReentrantLock courseLock(String courseCode) {
+        return courseLocks.computeIfAbsent(courseCode, code -> {
+            ReentrantLock created = new ReentrantLock();
+            registerContentionGauge(code, created);
+            return created;
+        });
+    }
+
+    private void registerContentionGauge(String courseCode, ReentrantLock lock) {
+        metricsRegistry.gauge("course.contention." + courseCode,
+                () -> lock.getQueueLength() + (lock.isLocked() ? 1 : 0));
+    }
+
+    /**
+     * Kursi yang sudah dipesan beserta data untuk notifikasi
+     */
+    private static final class Reservation {
+        private final Enrollment enrollment;
+        private final String email;
+        private final String courseName;
+
+        private Reservation(Enrollment enrollment, String email, String courseName) {
+            this.enrollment = enrollment;
+            this.email = email;
+            this.courseName = courseName;
+        }
+    }
+
+    /**
+     * Full jitter: 0 .. BASE * 2^attempt, agar instance yang bentrok tidak mencoba bersamaan lagi
+     */
+    private static long backoffNanos(int attempt) {
+        return ThreadLocalRandom.current().nextLong(UPDATE_BACKOFF_NANOS << attempt) + 1;
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    /**
+     * Menunggu hasil pembacaan paralel dan melempar ulang exception aslinya dari repository
+     */
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = unwrap(e);
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
     }
 
     /**
      * Generate unique enrollment ID
+     * Nomor urut ditambahkan agar ID tetap unik untuk enrollment pada milidetik yang sama
      * @return Enrollment ID
      */
     private String generateEnrollmentId() {
-        return "ENR-" + System.currentTimeMillis();
+        return "ENR-" + System.currentTimeMillis() + "-" + enrollmentSequence.incrementAndGet();
     }
 }
\ No newline at end of file
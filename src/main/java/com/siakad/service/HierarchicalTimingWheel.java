@@ -0,0 +1,208 @@
+package com.siakad.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hierarchical timing wheel untuk kedaluwarsa dalam jumlah besar
+ * Level 0 berisi slot per tick; setiap level berikutnya mencakup rentang WHEEL_SIZE kali lebih lebar.
+ * Menjadwalkan dan membatalkan timer O(1) (list berantai ganda per slot); saat jarum level 0
+ * berputar penuh, satu slot level atas diturunkan (cascade) ke level bawah.
+ * Tidak ada pemindaian seluruh timer dan tidak ada satu scheduled task per timer
+ *
+ * @param <T> Tipe item yang kedaluwarsa
+ */
+
+class HierarchicalTimingWheel<T> {
+    private static final int WHEEL_BITS = 6;
+    private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    private static final int LEVELS = 4;
+    private static final long MAX_DELTA = (1L << (WHEEL_BITS * LEVELS)) - 1;
+
+    private final long tickNanos;
+    private final long originNanos;
+    private final Timer<T>[][] slots;
+    private final ReentrantLock lock = new ReentrantLock();
+    private long currentTick;
+    private int size;
+
+    /**
+     * Timer yang terjadwal; dipakai untuk membatalkan
+     * @param <T> Tipe item
+     */
+    static final class Timer<T> {
+        private final T item;
+        private final long deadlineTick;
+        private Timer<T> prev;
+        private Timer<T> next;
+        private int level = -1;
+        private int slot;
+
+        private Timer(T item, long deadlineTick) {
+            this.item = item;
+            this.deadlineTick = deadlineTick;
+        }
+
+        T item() {
+            return item;
+        }
+    }
+
+    /**
+     * @param tickNanos Resolusi satu tick dalam nanodetik
+     * @param originNanos Waktu awal jarum (nilai clock saat wheel dibuat)
+     * @throws IllegalArgumentException jika tickNanos < 1
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    HierarchicalTimingWheel(long tickNanos, long originNanos) {
+        if (tickNanos < 1) {
+            throw new IllegalArgumentException("Tick must be positive");
+        }
+        this.tickNanos = tickNanos;
+        this.originNanos = originNanos;
+        this.slots = new Timer[LEVELS][WHEEL_SIZE];
+    }
+
+    /**
+     * Menjadwalkan item untuk kedaluwarsa pada waktu tertentu (dibulatkan ke atas ke tick berikutnya)
+     * @param item Item yang dijadwalkan
+     * @param deadlineNanos Waktu kedaluwarsa pada clock yang sama dengan originNanos
+     * @return Timer untuk pembatalan
+     */
+    Timer<T> schedule(T item, long deadlineNanos) {
+        long elapsed = Math.max(0, deadlineNanos - originNanos);
+        long deadlineTick = (elapsed + tickNanos - 1) / tickNanos;
+        lock.lock();
+        try {
+            Timer<T> timer = new Timer<>(item, Math.max(deadlineTick, currentTick + 1));
+            place(timer);
+            size++;
+            return timer;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Membatalkan timer yang belum kedaluwarsa
+     * @param timer Timer dari schedule
+     * @return true jika dibatalkan, false jika sudah kedaluwarsa atau dibatalkan
+     */
+    boolean cancel(Timer<T> timer) {
+        lock.lock();
+        try {
+            if (timer.level < 0) {
+                return false;
+            }
+            unlink(timer);
+            size--;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Memajukan jarum sampai waktu sekarang dan mengambil semua item yang kedaluwarsa
+     * Biaya sebanding dengan jumlah tick yang dilewati ditambah timer yang diproses
+     *
+     * @param nowNanos Waktu sekarang
+     * @return Item yang kedaluwarsa, berurutan per tick
+     */
+    List<T> advance(long nowNanos) {
+        long targetTick = Math.max(0, nowNanos - originNanos) / tickNanos;
+        List<T> expired = new ArrayList<>();
+        lock.lock();
+        try {
+            while (currentTick < targetTick) {
+                currentTick++;
+                cascade(1);
+                Timer<T> timer = detach(0, (int) (currentTick & WHEEL_MASK));
+                while (timer != null) {
+                    Timer<T> next = timer.next;
+                    timer.prev = null;
+                    timer.next = null;
+                    timer.level = -1;
+                    expired.add(timer.item);
+                    size--;
+                    timer = next;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        return expired;
+    }
+
+    /**
+     * Jumlah timer yang masih terjadwal
+     * @return Jumlah timer
+     */
+    int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Saat jarum level di bawahnya kembali ke 0, slot level ini yang sedang ditunjuk
+     * diturunkan ke level yang sesuai dengan sisa waktunya
+     */
+    private void cascade(int level) {
+        if (level >= LEVELS || (currentTick & ((1L << (WHEEL_BITS * level)) - 1)) != 0) {
+            return;
+        }
+        cascade(level + 1);
+        Timer<T> timer = detach(level, (int) ((currentTick >>> (WHEEL_BITS * level)) & WHEEL_MASK));
+        while (timer != null) {
+            Timer<T> next = timer.next;
+            timer.prev = null;
+            timer.next = null;
+            place(timer);
+            timer = next;
+        }
+    }
+
+    private void place(Timer<T> timer) {
+        long delta = Math.min(Math.max(timer.deadlineTick - currentTick, 0), MAX_DELTA);
+        long tick = currentTick + delta;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= (1L << (WHEEL_BITS * (level + 1)))) {
+            level++;
+        }
+        int slot = (int) ((tick >>> (WHEEL_BITS * level)) & WHEEL_MASK);
+        timer.level = level;
+        timer.slot = slot;
+        Timer<T> head = slots[level][slot];
+        timer.next = head;
+        if (head != null) {
+            head.prev = timer;
+        }
+        slots[level][slot] = timer;
+    }
+
+    private void unlink(Timer<T> timer) {
+        if (timer.prev != null) {
+            timer.prev.next = timer.next;
+        } else {
+            slots[timer.level][timer.slot] = timer.next;
+        }
+        if (timer.next != null) {
+            timer.next.prev = timer.prev;
+        }
+        timer.prev = null;
+        timer.next = null;
+        timer.level = -1;
+    }
+
+    private Timer<T> detach(int level, int slot) {
+        Timer<T> head = slots[level][slot];
+        slots[level][slot] = null;
+        return head;
+    }
+}
@@ -0,0 +1,183 @@
+package com.siakad.service;
+
+import com.siakad.exception.EnrollmentException;
+import com.siakad.model.Enrollment;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Tabel idempotency key untuk retry enrollCourse dan dropCourse
+ * Kunci dibagi ke beberapa stripe dengan lock sendiri; setiap stripe punya kapasitas tetap sehingga
+ * memori terbatas pada maxKeys entri. TTL sama untuk semua kunci, jadi urutan sisip di setiap stripe
+ * juga urutan kedaluwarsa: entri kedaluwarsa dibuang dari kepala antrian saat stripe disentuh,
+ * dan jika stripe penuh entri tertua dibuang lebih awal
+ * Hanya hasil sukses yang disimpan; permintaan yang gagal boleh diulang dengan kunci yang sama
+ */
+
+public class IdempotencyStore {
+    private static final int STRIPES = 64;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final long ttlNanos;
+    private final LongSupplier clock;
+    private final LongAdder replays = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param maxKeys Jumlah kunci maksimal yang diingat
+     * @param ttl Lama kunci diingat sejak permintaan pertama
+     */
+    public IdempotencyStore(int maxKeys, Duration ttl) {
+        this(maxKeys, ttl, System::nanoTime);
+    }
+
+    IdempotencyStore(int maxKeys, Duration ttl, LongSupplier clock) {
+        if (maxKeys < STRIPES) {
+            throw new IllegalArgumentException("Max keys must be at least " + STRIPES);
+        }
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("TTL must be positive");
+        }
+        this.ttlNanos = ttl.toNanos();
+        this.clock = clock;
+        int perStripe = maxKeys / STRIPES;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(perStripe);
+        }
+    }
+
+    /**
+     * Satu kunci: sidik permintaan dan hasilnya (masih berjalan atau sudah selesai)
+     */
+    private static final class Entry {
+        private final String fingerprint;
+        private final CompletableFuture<Enrollment> result;
+        private final long expiresAt;
+
+        private Entry(String fingerprint, CompletableFuture<Enrollment> result, long expiresAt) {
+            this.fingerprint = fingerprint;
+            this.result = result;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private final class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final LinkedHashMap<String, Entry> entries;
+
+        private Stripe(int capacity) {
+            this.entries = new LinkedHashMap<>(16, 0.75f, false) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                    if (size() > capacity) {
+                        evictions.increment();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        private void expire(long now) {
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (iterator.hasNext() && now - iterator.next().expiresAt >= 0) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Menjalankan action sekali per kunci
+     * Duplikat mendapat hasil asli tanpa menjalankan action lagi; duplikat yang datang saat
+     * permintaan pertama masih berjalan menunggu hasilnya
+     *
+     * @param key Idempotency key dari klien
+     * @param fingerprint Identitas permintaan (operasi dan parameternya)
+     * @param action Operasi yang dijalankan untuk permintaan pertama
+     * @return Hasil permintaan pertama
+     * @throws EnrollmentException jika kunci sudah dipakai untuk permintaan lain
+     */
+    public Enrollment execute(String key, String fingerprint, Supplier<Enrollment> action) {
+        Stripe stripe = stripes[spread(key.hashCode()) & (STRIPES - 1)];
+        CompletableFuture<Enrollment> result = new CompletableFuture<>();
+        Entry existing;
+        Entry created = null;
+        stripe.lock.lock();
+        try {
+            long now = clock.getAsLong();
+            stripe.expire(now);
+            existing = stripe.entries.get(key);
+            if (existing == null) {
+                created = new Entry(fingerprint, result, now + ttlNanos);
+                stripe.entries.put(key, created);
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+
+        if (existing != null) {
+            if (!existing.fingerprint.equals(fingerprint)) {
+                throw new EnrollmentException("Idempotency key already used for a different request: " + key);
+            }
+            replays.increment();
+            try {
+                return existing.result.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+            }
+        }
+
+        try {
+            Enrollment enrollment = action.get();
+            result.complete(enrollment);
+            return enrollment;
+        } catch (RuntimeException | Error e) {
+            stripe.lock.lock();
+            try {
+                stripe.entries.remove(key, created);
+            } finally {
+                stripe.lock.unlock();
+            }
+            result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Jumlah kunci yang masih diingat (termasuk yang sudah kedaluwarsa tetapi belum dibuang)
+     * @return Jumlah kunci
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                size += stripe.entries.size();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    public long getReplayCount() {
+        return replays.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16) ^ (hash >>> 8);
+    }
+}
@@ -0,0 +1,204 @@
+package com.siakad.service;
+
+import com.siakad.exception.CourseFullException;
+import com.siakad.model.Enrollment;
+import com.siakad.model.Student;
+import com.siakad.repository.StudentRepository;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Alokasi kursi dengan undian berbobot sebagai alternatif first-come-first-served
+ * Permintaan dikumpulkan selama satu jendela (submit hanya mencatat), lalu allocate() mengundi
+ * setiap mata kuliah secara paralel: urutan acak berbobot (Efraimidis–Spirakis) dengan bobot dari
+ * semester dan IPK, kemudian kandidat diproses berurutan lewat EnrollmentService.enrollCourse
+ * sampai kursi habis, sehingga prasyarat dan batas SKS tetap divalidasi seperti biasa
+ */
+
+public class LotteryAllocator {
+    private static final Executor VIRTUAL_THREADS = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Bobot default: semester lebih tinggi dan IPK lebih tinggi lebih besar peluangnya
+     */
+    public static final ToDoubleFunction<Student> DEFAULT_WEIGHT =
+            student -> Math.max(1, student.getSemester()) * (1.0 + student.getGpa() / 4.0);
+
+    private final EnrollmentService enrollmentService;
+    private final StudentRepository studentRepository;
+    private final ToDoubleFunction<Student> weight;
+    private final long seed;
+    private final Executor executor;
+    private final ReentrantReadWriteLock windowLock = new ReentrantReadWriteLock();
+    private ConcurrentHashMap<String, ConcurrentHashMap<String, CompletableFuture<Enrollment>>> window =
+            new ConcurrentHashMap<>();
+
+    public LotteryAllocator(EnrollmentService enrollmentService, StudentRepository studentRepository, long seed) {
+        this(enrollmentService, studentRepository, DEFAULT_WEIGHT, seed, VIRTUAL_THREADS);
+    }
+
+    /**
+     * @param enrollmentService Service yang menjalankan enrollment pemenang
+     * @param studentRepository Repository untuk membaca bobot mahasiswa (bulk)
+     * @param weight Bobot undian per mahasiswa, harus positif
+     * @param seed Seed undian; seed dan permintaan yang sama menghasilkan urutan yang sama
+     * @param executor Executor untuk memproses mata kuliah secara paralel
+     */
+    public LotteryAllocator(EnrollmentService enrollmentService, StudentRepository studentRepository,
+                            ToDoubleFunction<Student> weight, long seed, Executor executor) {
+        this.enrollmentService = enrollmentService;
+        this.studentRepository = studentRepository;
+        this.weight = weight;
+        this.seed = seed;
+        this.executor = executor;
+    }
+
+    /**
+     * Mencatat permintaan ke jendela undian yang sedang dibuka (tanpa menyentuh repository)
+     * Permintaan ganda untuk mahasiswa dan mata kuliah yang sama mendapat future yang sama
+     *
+     * @param studentId ID mahasiswa
+     * @param courseCode Kode mata kuliah
+     * @return Future yang selesai saat allocate: Enrollment jika menang, atau exception
+     *         (CourseFullException jika tidak terpilih, atau exception validasi dari enrollCourse)
+     */
+    public CompletableFuture<Enrollment> submit(String studentId, String courseCode) {
+        windowLock.readLock().lock();
+        try {
+            return window.computeIfAbsent(courseCode, code -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(studentId, id -> new CompletableFuture<>());
+        } finally {
+            windowLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Jumlah permintaan di jendela yang sedang dibuka
+     * @return Jumlah permintaan
+     */
+    public int getPendingCount() {
+        windowLock.readLock().lock();
+        try {
+            int count = 0;
+            for (Map<String, CompletableFuture<Enrollment>> requests : window.values()) {
+                count += requests.size();
+            }
+            return count;
+        } finally {
+            windowLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Menutup jendela, mengundi semua mata kuliah secara paralel, lalu membuka jendela baru
+     * Jika pembacaan mahasiswa atau undian gagal, semua permintaan yang belum diputuskan ikut gagal
+     *
+     * @return Ringkasan hasil alokasi
+     */
+    public LotteryResult allocate() {
+        ConcurrentHashMap<String, ConcurrentHashMap<String, CompletableFuture<Enrollment>>> closed;
+        windowLock.writeLock().lock();
+        try {
+            closed = window;
+            window = new ConcurrentHashMap<>();
+        } finally {
+            windowLock.writeLock().unlock();
+        }
+
+        List<String> studentIds = new ArrayList<>();
+        for (Map<String, CompletableFuture<Enrollment>> requests : closed.values()) {
+            for (String studentId : requests.keySet()) {
+                studentIds.add(studentId);
+            }
+        }
+        ConcurrentHashMap<String, List<Enrollment>> admitted = new ConcurrentHashMap<>();
+        AtomicInteger rejected = new AtomicInteger();
+        try {
+            Map<String, Student> students = studentRepository.findByIds(studentIds);
+            List<CompletableFuture<Void>> courses = new ArrayList<>();
+            for (Map.Entry<String, ConcurrentHashMap<String, CompletableFuture<Enrollment>>> entry : closed.entrySet()) {
+                courses.add(CompletableFuture.runAsync(() -> {
+                    List<Enrollment> winners = allocateCourse(entry.getKey(), entry.getValue(), students, rejected);
+                    admitted.put(entry.getKey(), winners);
+                }, executor));
+            }
+            CompletableFuture.allOf(courses.toArray(new CompletableFuture<?>[0])).join();
+        } catch (RuntimeException e) {
+            // Permintaan yang belum diputuskan tidak boleh menggantung selamanya
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            for (Map<String, CompletableFuture<Enrollment>> requests : closed.values()) {
+                for (CompletableFuture<Enrollment> result : requests.values()) {
+                    result.completeExceptionally(cause);
+                }
+            }
+            throw e;
+        }
+        return new LotteryResult(admitted, studentIds.size(), rejected.get());
+    }
+
+    /**
+     * Mengundi satu mata kuliah: urutan acak berbobot, lalu enroll berurutan sampai penuh
+     */
+    private List<Enrollment> allocateCourse(String courseCode, Map<String, CompletableFuture<Enrollment>> requests,
+                                            Map<String, Student> students, AtomicInteger rejected) {
+        List<String> order = drawOrder(courseCode, requests.keySet(), students);
+        List<Enrollment> winners = new ArrayList<>();
+        boolean full = false;
+        for (String studentId : order) {
+            CompletableFuture<Enrollment> result = requests.get(studentId);
+            if (full) {
+                rejected.incrementAndGet();
+                result.completeExceptionally(new CourseFullException("Course is full"));
+                continue;
+            }
+            try {
+                Enrollment enrollment = enrollmentService.enrollCourse(studentId, courseCode);
+                winners.add(enrollment);
+                result.complete(enrollment);
+            } catch (CourseFullException e) {
+                full = true;
+                rejected.incrementAndGet();
+                result.completeExceptionally(e);
+            } catch (RuntimeException e) {
+                // Prasyarat, batas SKS, suspend: kursi diberikan ke kandidat berikutnya
+                rejected.incrementAndGet();
+                result.completeExceptionally(e);
+            }
+        }
+        return winners;
+    }
+
+    /**
+     * Urutan undian berbobot: kunci -ln(u)/bobot terkecil menang (Efraimidis–Spirakis)
+     * Random diturunkan dari seed dan kode mata kuliah agar hasil tidak bergantung urutan thread
+     */
+    List<String> drawOrder(String courseCode, Iterable<String> studentIds, Map<String, Student> students) {
+        List<String> sorted = new ArrayList<>();
+        studentIds.forEach(sorted::add);
+        sorted.sort(Comparator.naturalOrder());
+
+        Random random = new Random(seed * 31 + courseCode.hashCode());
+        Map<String, Double> keys = new HashMap<>();
+        for (String studentId : sorted) {
+            Student student = students.get(studentId);
+            double studentWeight = student == null ? 1.0 : Math.max(weight.applyAsDouble(student), Double.MIN_NORMAL);
+            double uniform = 1.0 - random.nextDouble();
+            keys.put(studentId, -Math.log(uniform) / studentWeight);
+        }
+        sorted.sort(Comparator.comparingDouble((String id) -> keys.get(id)).thenComparing(Comparator.naturalOrder()));
+        return sorted;
+    }
+}
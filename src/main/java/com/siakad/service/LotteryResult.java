@@ -0,0 +1,60 @@
+package com.siakad.service;
+
+import com.siakad.model.Enrollment;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Hasil satu putaran LotteryAllocator: pemenang per mata kuliah dan jumlah permintaan yang ditolak
+ */
+
+public class LotteryResult {
+    private final Map<String, List<Enrollment>> admitted;
+    private final int requestCount;
+    private final int rejectedCount;
+
+    LotteryResult(Map<String, List<Enrollment>> admitted, int requestCount, int rejectedCount) {
+        this.admitted = Collections.unmodifiableMap(new TreeMap<>(admitted));
+        this.requestCount = requestCount;
+        this.rejectedCount = rejectedCount;
+    }
+
+    /**
+     * Pemenang satu mata kuliah, sesuai urutan undian
+     * @param courseCode Kode mata kuliah
+     * @return Enrollment pemenang (kosong jika tidak ada)
+     */
+    public List<Enrollment> getAdmitted(String courseCode) {
+        List<Enrollment> winners = admitted.get(courseCode);
+        return winners == null ? new ArrayList<>() : Collections.unmodifiableList(winners);
+    }
+
+    /**
+     * Mata kuliah yang ikut diundi pada putaran ini, terurut
+     * @return Kode mata kuliah
+     */
+    public Set<String> getCourseCodes() {
+        return admitted.keySet();
+    }
+
+    public int getAdmittedCount() {
+        int count = 0;
+        for (List<Enrollment> winners : admitted.values()) {
+            count += winners.size();
+        }
+        return count;
+    }
+
+    public int getRequestCount() {
+        return requestCount;
+    }
+
+    public int getRejectedCount() {
+        return rejectedCount;
+    }
+}
@@ -1,5 +1,7 @@
 package com.siakad.service;
 
+import java.util.List;
+
 /**
  * Interface untuk service notifikasi
  * Interface ini akan di-mock dalam unit testing
@@ -21,4 +23,17 @@ public interface NotificationService {
      * @param message Isi pesan SMS
      */
     void sendSMS(String phone, String message);
-}
\ No newline at end of file
+
+    /**
+     * Mengirim banyak email sekaligus
+     * Implementasi default memanggil sendEmail satu per satu; implementasi yang mendukung
+     * pengiriman bulk sebaiknya meng-override agar cukup satu panggilan per batch
+     *
+     * @param messages Daftar email
+     */
+    default void sendEmails(List<EmailMessage> messages) {
+        for (EmailMessage message : messages) {
+            sendEmail(message.getEmail(), message.getSubject(), message.getMessage());
+        }
+    }
+}
@@ -0,0 +1,559 @@
+package com.siakad.service;
+
+import com.siakad.exception.*;
+import com.siakad.model.Course;
+import com.siakad.model.Enrollment;
+import com.siakad.model.Student;
+import com.siakad.repository.CourseRepository;
+import com.siakad.repository.StudentRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Mode eksekusi alternatif untuk enrollCourse/dropCourse dengan model single-writer
+ * Command dirutekan berdasarkan kode mata kuliah ke salah satu partisi; setiap partisi
+ * punya ring buffer sendiri dan satu thread yang memiliki jumlah kursi, daftar peserta,
+ * dan waitlist mata kuliahnya, sehingga mutasi kursi tidak butuh lock maupun CAS
+ *
+ * Validasi yang hanya membaca (mahasiswa, status, prasyarat, batas SKS) dijalankan di
+ * thread pemanggil; perubahan Course ditulis ke repository sekali per batch per mata kuliah
+ */
+
+public class PartitionedEnrollmentEngine implements AutoCloseable {
+    private static final int MAX_BATCH = 256;
+
+    private final StudentRepository studentRepository;
+    private final CourseRepository courseRepository;
+    private final NotificationService notificationService;
+    private final GradeCalculator gradeCalculator;
+    private final CreditLedger creditLedger = new CreditLedger();
+    private final Executor notificationExecutor;
+    private final int waitlistCapacity;
+    private final Partition[] partitions;
+    private final AtomicLong enrollmentSequence = new AtomicLong();
+    private final AtomicInteger activePublishers = new AtomicInteger();
+    private volatile boolean running = true;
+
+    /**
+     * @param studentRepository Repository mahasiswa
+     * @param courseRepository Repository mata kuliah
+     * @param notificationService Service notifikasi (dipanggil di luar thread partisi)
+     * @param gradeCalculator Kalkulator batas SKS
+     * @param partitionCount Jumlah partisi (thread writer)
+     * @param ringCapacity Kapasitas ring buffer per partisi, pangkat dua
+     * @param waitlistCapacity Panjang maksimal waitlist per mata kuliah, 0 untuk mematikan waitlist
+     * @throws IllegalArgumentException jika parameter tidak valid
+     */
+    public PartitionedEnrollmentEngine(StudentRepository studentRepository,
+                                       CourseRepository courseRepository,
+                                       NotificationService notificationService,
+                                       GradeCalculator gradeCalculator,
+                                       int partitionCount, int ringCapacity, int waitlistCapacity) {
+        if (partitionCount < 1) {
+            throw new IllegalArgumentException("Partition count must be positive");
+        }
+        if (waitlistCapacity < 0) {
+            throw new IllegalArgumentException("Waitlist capacity must not be negative");
+        }
+        this.studentRepository = studentRepository;
+        this.courseRepository = courseRepository;
+        this.notificationService = notificationService;
+        this.gradeCalculator = gradeCalculator;
+        this.notificationExecutor = ForkJoinPool.commonPool();
+        this.waitlistCapacity = waitlistCapacity;
+        this.partitions = new Partition[partitionCount];
+        for (int i = 0; i < partitionCount; i++) {
+            partitions[i] = new Partition(ringCapacity);
+            Thread thread = new Thread(partitions[i], "enrollment-partition-" + i);
+            thread.setDaemon(true);
+            partitions[i].thread = thread;
+            thread.start();
+        }
+    }
+
+    /**
+     * Mendaftarkan mahasiswa ke mata kuliah lewat partisi pemilik mata kuliah
+     * Jika mata kuliah penuh dan waitlist aktif, mahasiswa masuk waitlist dengan status PENDING
+     * dan otomatis dipromosikan menjadi peserta saat ada yang drop
+     *
+     * @param studentId ID mahasiswa
+     * @param courseCode Kode mata kuliah
+     * @return Future berisi Enrollment (APPROVED atau PENDING); gagal dengan exception
+     *         yang sama seperti EnrollmentService.enrollCourse, atau IllegalStateException
+     *         jika engine sudah ditutup
+     */
+    public CompletableFuture<Enrollment> enrollCourse(String studentId, String courseCode) {
+        CompletableFuture<Enrollment> result = new CompletableFuture<>();
+        Student student;
+        Course course;
+        int maxCredits;
+        try {
+            student = studentRepository.findById(studentId);
+            if (student == null) {
+                throw new StudentNotFoundException("Student not found: " + studentId);
+            }
+            if ("SUSPENDED".equals(student.getAcademicStatus())) {
+                throw new EnrollmentException("Student is suspended");
+            }
+            course = courseRepository.findByCourseCode(courseCode);
+            if (course == null) {
+                throw new CourseNotFoundException("Course not found: " + courseCode);
+            }
+            if (!courseRepository.isPrerequisiteMet(studentId, courseCode)) {
+                throw new PrerequisiteNotMetException("Prerequisites not met");
+            }
+            maxCredits = gradeCalculator.calculateMaxCredits(student.getGpa());
+        } catch (RuntimeException e) {
+            result.completeExceptionally(e);
+            return result;
+        }
+
+        // SKS dipesan sebelum masuk partisi; dikembalikan jika partisi menolak
+        if (!creditLedger.tryReserve(studentId, course.getCredits(), maxCredits)) {
+            result.completeExceptionally(new EnrollmentException("Credit limit exceeded"));
+            return result;
+        }
+
+        Command command = new Command(CommandType.ENROLL, studentId, courseCode, student.getEmail(),
+                course.getCredits(), result);
+        if (!publish(command)) {
+            creditLedger.release(studentId, course.getCredits());
+            result.completeExceptionally(closedError());
+        }
+        return result;
+    }
+
+    /**
+     * Membatalkan mata kuliah (atau keluar dari waitlist) lewat partisi pemilik mata kuliah
+     *
+     * @param studentId ID mahasiswa
+     * @param courseCode Kode mata kuliah
+     * @return Future yang gagal dengan StudentNotFoundException, CourseNotFoundException,
+     *         EnrollmentException jika mahasiswa tidak terdaftar, error repository,
+     *         atau IllegalStateException jika engine sudah ditutup
+     */
+    public CompletableFuture<Void> dropCourse(String studentId, String courseCode) {
+        CompletableFuture<Enrollment> result = new CompletableFuture<>();
+        Student student;
+        try {
+            student = studentRepository.findById(studentId);
+        } catch (RuntimeException e) {
+            result.completeExceptionally(e);
+            return result.thenApply(enrollment -> null);
+        }
+        if (student == null) {
+            result.completeExceptionally(new StudentNotFoundException("Student not found"));
+        } else {
+            Command command = new Command(CommandType.DROP, studentId, courseCode, student.getEmail(), 0, result);
+            if (!publish(command)) {
+                result.completeExceptionally(closedError());
+            }
+        }
+        return result.thenApply(enrollment -> null);
+    }
+
+    public CreditLedger getCreditLedger() {
+        return creditLedger;
+    }
+
+    public int getPartitionCount() {
+        return partitions.length;
+    }
+
+    /**
+     * Memproses semua command yang tersisa lalu menghentikan thread partisi
+     * Command yang di-publish bersamaan dengan close dan tidak sempat diproses
+     * digagalkan dengan IllegalStateException; pemanggilan setelahnya langsung ditolak
+     */
+    @Override
+    public void close() {
+        running = false;
+        for (Partition partition : partitions) {
+            LockSupport.unpark(partition.thread);
+        }
+        for (Partition partition : partitions) {
+            try {
+                partition.thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        // Producer yang sudah melihat running == true pasti menyelesaikan publish-nya dulu
+        while (activePublishers.get() > 0) {
+            Thread.onSpinWait();
+        }
+        for (Partition partition : partitions) {
+            while (partition.ring.drain(partition::reject, MAX_BATCH) > 0) {
+                // Lanjut sampai ring kosong
+            }
+        }
+    }
+
+    /**
+     * Menaruh command di ring partisi pemilik mata kuliah
+     * @return false jika engine sudah ditutup dan command tidak di-publish
+     */
+    private boolean publish(Command command) {
+        activePublishers.incrementAndGet();
+        try {
+            if (!running) {
+                return false;
+            }
+            partitionOf(command.courseCode).ring.publish(command);
+            return true;
+        } finally {
+            activePublishers.decrementAndGet();
+        }
+    }
+
+    private static IllegalStateException closedError() {
+        return new IllegalStateException("Enrollment engine is closed");
+    }
+
+    private Partition partitionOf(String courseCode) {
+        return partitions[Math.floorMod(courseCode.hashCode(), partitions.length)];
+    }
+
+    private Enrollment newEnrollment(String studentId, String courseCode, String status) {
+        Enrollment enrollment = new Enrollment();
+        enrollment.setEnrollmentId("ENR-" + System.currentTimeMillis() + "-" + enrollmentSequence.incrementAndGet());
+        enrollment.setStudentId(studentId);
+        enrollment.setCourseCode(courseCode);
+        enrollment.setEnrollmentDate(LocalDateTime.now());
+        enrollment.setStatus(status);
+        return enrollment;
+    }
+
+    private void notifyAsync(String email, String subject, String message) {
+        notificationExecutor.execute(() -> notificationService.sendEmail(email, subject, message));
+    }
+
+    private enum CommandType {
+        ENROLL,
+        DROP
+    }
+
+    /**
+     * Perubahan yang dibuat command pada CourseState, dipakai untuk membatalkan batch
+     * jika penulisan ke repository gagal
+     */
+    private enum Effect {
+        NONE,
+        SEATED,
+        WAITLISTED,
+        UNSEATED,
+        UNLISTED
+    }
+
+    /**
+     * Satu permintaan enroll/drop beserta future hasilnya
+     */
+    private static final class Command {
+        private final CommandType type;
+        private final String studentId;
+        private final String courseCode;
+        private final String email;
+        private int credits;
+        private final CompletableFuture<Enrollment> result;
+        private Enrollment enrollment;
+        private RuntimeException error;
+        private Effect effect = Effect.NONE;
+        private Command promoted;   // Peserta waitlist yang naik karena drop ini
+        private Command unlisted;   // Entri waitlist yang dihapus oleh drop ini
+        private int waitlistIndex;
+
+        private Command(CommandType type, String studentId, String courseCode, String email,
+                        int credits, CompletableFuture<Enrollment> result) {
+            this.type = type;
+            this.studentId = studentId;
+            this.courseCode = courseCode;
+            this.email = email;
+            this.credits = credits;
+            this.result = result;
+        }
+    }
+
+    /**
+     * State mata kuliah yang hanya disentuh oleh thread partisi pemiliknya
+     */
+    private static final class CourseState {
+        private final Course course;
+        private final Set<String> enrolled = new HashSet<>();
+        private final LinkedList<Command> waitlist = new LinkedList<>();
+        private final List<Command> pending = new ArrayList<>();
+        private boolean dirty;
+
+        private CourseState(Course course) {
+            this.course = course;
+        }
+    }
+
+    /**
+     * Partisi single-writer: satu ring buffer dan satu thread
+     */
+    private final class Partition implements Runnable {
+        private final CommandRingBuffer<Command> ring;
+        private final Map<String, CourseState> courses = new HashMap<>();
+        private final List<CourseState> touched = new ArrayList<>();
+        private Thread thread;
+
+        private Partition(int ringCapacity) {
+            this.ring = new CommandRingBuffer<>(ringCapacity);
+        }
+
+        @Override
+        public void run() {
+            int idleRounds = 0;
+            while (running || !ring.isEmpty()) {
+                int processed = ring.drain(this::handle, MAX_BATCH);
+                if (processed > 0) {
+                    endOfBatch();
+                    idleRounds = 0;
+                } else if (++idleRounds < 100) {
+                    Thread.onSpinWait();
+                } else {
+                    LockSupport.parkNanos(50_000);
+                }
+            }
+        }
+
+        private void handle(Command command) {
+            CourseState state = courses.get(command.courseCode);
+            if (state == null) {
+                Course course;
+                try {
+                    course = courseRepository.findByCourseCode(command.courseCode);
+                } catch (RuntimeException e) {
+                    fail(command, e);
+                    return;
+                }
+                if (course == null) {
+                    fail(command, new CourseNotFoundException("Course not found: " + command.courseCode));
+                    return;
+                }
+                state = new CourseState(course);
+                courses.put(command.courseCode, state);
+            }
+            if (state.pending.isEmpty()) {
+                touched.add(state);
+            }
+
+            if (command.type == CommandType.ENROLL) {
+                handleEnroll(state, command);
+            } else {
+                handleDrop(state, command);
+            }
+            state.pending.add(command);
+        }
+
+        private void handleEnroll(CourseState state, Command command) {
+            Course course = state.course;
+            if (state.enrolled.contains(command.studentId) || isWaitlisted(state, command.studentId)) {
+                command.error = new EnrollmentException("Student already enrolled in course: " + command.courseCode);
+            } else if (course.getEnrolledCount() < course.getCapacity()) {
+                course.setEnrolledCount(course.getEnrolledCount() + 1);
+                state.enrolled.add(command.studentId);
+                state.dirty = true;
+                command.effect = Effect.SEATED;
+                command.enrollment = newEnrollment(command.studentId, command.courseCode, "APPROVED");
+            } else if (state.waitlist.size() < waitlistCapacity) {
+                state.waitlist.addLast(command);
+                command.effect = Effect.WAITLISTED;
+                command.enrollment = newEnrollment(command.studentId, command.courseCode, "PENDING");
+            } else {
+                command.error = new CourseFullException("Course is full");
+            }
+        }
+
+        private void handleDrop(CourseState state, Command command) {
+            Course course = state.course;
+            if (state.enrolled.remove(command.studentId)) {
+                course.setEnrolledCount(course.getEnrolledCount() - 1);
+                state.dirty = true;
+                command.effect = Effect.UNSEATED;
+
+                // Kursi kosong langsung diisi peserta waitlist pertama; notifikasi dikirim setelah tersimpan
+                Command promoted = state.waitlist.pollFirst();
+                if (promoted != null) {
+                    course.setEnrolledCount(course.getEnrolledCount() + 1);
+                    state.enrolled.add(promoted.studentId);
+                    promoted.enrollment.setStatus("APPROVED");
+                    command.promoted = promoted;
+                }
+                // SKS dikembalikan setelah perubahan tersimpan
+                command.credits = course.getCredits();
+                return;
+            }
+
+            int index = 0;
+            for (Command waiting : state.waitlist) {
+                if (waiting.studentId.equals(command.studentId)) {
+                    state.waitlist.remove(index);
+                    command.effect = Effect.UNLISTED;
+                    command.unlisted = waiting;
+                    command.waitlistIndex = index;
+                    command.credits = waiting.credits;
+                    return;
+                }
+                index++;
+            }
+            command.error = new EnrollmentException("Student is not enrolled in course: " + command.courseCode);
+        }
+
+        private boolean isWaitlisted(CourseState state, String studentId) {
+            for (Command waiting : state.waitlist) {
+                if (waiting.studentId.equals(studentId)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Menulis setiap mata kuliah yang berubah sekali per batch, lalu menyelesaikan future
+         */
+        private void endOfBatch() {
+            List<Course> dirty = new ArrayList<>();
+            for (CourseState state : touched) {
+                if (state.dirty) {
+                    dirty.add(state.course);
+                }
+            }
+            Map<String, RuntimeException> flushErrors = flush(dirty);
+
+            for (CourseState state : touched) {
+                RuntimeException flushError = flushErrors.get(state.course.getCourseCode());
+                if (state.dirty) {
+                    if (flushError != null) {
+                        undo(state);
+                    }
+                    state.dirty = false;
+                }
+                for (Command command : state.pending) {
+                    complete(state, command, flushError);
+                }
+                state.pending.clear();
+            }
+            touched.clear();
+        }
+
+        /**
+         * Membatalkan perubahan batch ini pada satu mata kuliah (urutan terbalik) sehingga
+         * peserta, waitlist dan jumlah kursi kembali ke kondisi yang tersimpan terakhir;
+         * versi disegarkan dari repository agar konflik versi tidak berulang
+         */
+        private void undo(CourseState state) {
+            Course course = state.course;
+            for (int i = state.pending.size() - 1; i >= 0; i--) {
+                Command command = state.pending.get(i);
+                switch (command.effect) {
+                    case SEATED -> {
+                        state.enrolled.remove(command.studentId);
+                        course.setEnrolledCount(course.getEnrolledCount() - 1);
+                    }
+                    case WAITLISTED -> state.waitlist.remove(command);
+                    case UNSEATED -> {
+                        Command promoted = command.promoted;
+                        if (promoted != null) {
+                            state.enrolled.remove(promoted.studentId);
+                            course.setEnrolledCount(course.getEnrolledCount() - 1);
+                            promoted.enrollment.setStatus("PENDING");
+                            state.waitlist.addFirst(promoted);
+                        }
+                        state.enrolled.add(command.studentId);
+                        course.setEnrolledCount(course.getEnrolledCount() + 1);
+                    }
+                    case UNLISTED -> state.waitlist.add(command.waitlistIndex, command.unlisted);
+                    case NONE -> {
+                        // Command ditolak, tidak ada yang perlu dibatalkan
+                    }
+                }
+                command.effect = Effect.NONE;
+            }
+            try {
+                Course stored = courseRepository.findByCourseCode(course.getCourseCode());
+                if (stored != null) {
+                    course.setVersion(stored.getVersion());
+                }
+            } catch (RuntimeException e) {
+                // Versi lama dipakai lagi; batch berikutnya akan mencoba ulang
+            }
+        }
+
+        /**
+         * Menulis semua mata kuliah yang berubah dengan satu updateAll; jika gagal, diulang per
+         * mata kuliah agar hanya mata kuliah yang bermasalah yang ditolak
+         * @return Map kode mata kuliah -> error, kosong jika semua tersimpan
+         */
+        private Map<String, RuntimeException> flush(List<Course> dirty) {
+            if (dirty.isEmpty()) {
+                return Collections.emptyMap();
+            }
+            try {
+                courseRepository.updateAll(dirty);
+                return Collections.emptyMap();
+            } catch (RuntimeException bulkError) {
+                Map<String, RuntimeException> errors = new HashMap<>();
+                for (Course course : dirty) {
+                    try {
+                        courseRepository.update(course);
+                    } catch (RuntimeException e) {
+                        errors.put(course.getCourseCode(), e);
+                    }
+                }
+                return errors;
+            }
+        }
+
+        private void complete(CourseState state, Command command, RuntimeException flushError) {
+            RuntimeException error = command.error != null ? command.error : flushError;
+            if (error != null) {
+                fail(command, error);
+                return;
+            }
+            String courseName = state.course.getCourseName();
+            if (command.type == CommandType.DROP) {
+                creditLedger.release(command.studentId, command.credits);
+                if (command.promoted != null) {
+                    notifyAsync(command.promoted.email, "Enrollment Confirmation",
+                            "You have been enrolled in: " + courseName);
+                }
+                notifyAsync(command.email, "Course Drop Confirmation", "You have dropped: " + courseName);
+            } else if ("APPROVED".equals(command.enrollment.getStatus())) {
+                notifyAsync(command.email, "Enrollment Confirmation", "You have been enrolled in: " + courseName);
+            } else {
+                notifyAsync(command.email, "Waitlist Confirmation", "You are on the waitlist for: " + courseName);
+            }
+            command.result.complete(command.enrollment);
+        }
+
+        /**
+         * Menolak command yang tertinggal di ring setelah thread partisi berhenti
+         */
+        private void reject(Command command) {
+            fail(command, closedError());
+        }
+
+        private void fail(Command command, RuntimeException error) {
+            if (command.type == CommandType.ENROLL) {
+                creditLedger.release(command.studentId, command.credits);
+            }
+            command.result.completeExceptionally(error);
+        }
+    }
+}
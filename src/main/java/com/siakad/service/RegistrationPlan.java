@@ -0,0 +1,52 @@
+package com.siakad.service;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Hasil pembagian slot registrasi: slot setiap mahasiswa dan jumlah mahasiswa per slot
+ * Immutable, sehingga bisa dipasang ke RegistrationScheduler dan dibaca tanpa lock
+ */
+
+public class RegistrationPlan {
+    private final Map<String, Integer> slotByStudent;
+    private final int[] slotSizes;
+
+    RegistrationPlan(Map<String, Integer> slotByStudent, int[] slotSizes) {
+        this.slotByStudent = Collections.unmodifiableMap(slotByStudent);
+        this.slotSizes = slotSizes;
+    }
+
+    /**
+     * Mendapatkan slot seorang mahasiswa
+     * @param studentId ID mahasiswa
+     * @return Nomor slot (0 = paling awal), atau -1 jika tidak ada di plan
+     */
+    public int slotOf(String studentId) {
+        Integer slot = slotByStudent.get(studentId);
+        return slot == null ? -1 : slot;
+    }
+
+    /**
+     * Jumlah mahasiswa pada satu slot
+     * @param slot Nomor slot
+     * @return Jumlah mahasiswa
+     */
+    public int getSlotSize(int slot) {
+        return slotSizes[slot];
+    }
+
+    public int getSlotCount() {
+        return slotSizes.length;
+    }
+
+    public int getStudentCount() {
+        return slotByStudent.size();
+    }
+
+    @Override
+    public String toString() {
+        return "RegistrationPlan{students=" + slotByStudent.size() + ", slots=" + Arrays.toString(slotSizes) + "}";
+    }
+}
@@ -0,0 +1,152 @@
+package com.siakad.service;
+
+import com.siakad.model.Student;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Penjadwal registrasi bergelombang: mahasiswa semester tinggi dan IPK tinggi mendapat slot lebih awal
+ * Slot dibagi rata; pengecekan jendela waktu hanya lookup map dan perbandingan waktu (O(1)),
+ * sehingga percobaan terlalu awal ditolak sebelum menyentuh repository
+ */
+
+public class RegistrationScheduler {
+    private static final Comparator<Student> PRIORITY_ORDER = Comparator
+            .comparingInt(Student::getSemester).reversed()
+            .thenComparing(Comparator.comparingDouble(Student::getGpa).reversed())
+            .thenComparing(Student::getStudentId);
+
+    private final long openingMillis;
+    private final long slotMillis;
+    private final int slotCount;
+    private final Clock clock;
+    private volatile RegistrationPlan plan = new RegistrationPlan(new HashMap<>(), new int[0]);
+
+    /**
+     * @param opening Waktu slot pertama dibuka
+     * @param slotLength Panjang setiap slot, minimal satu menit
+     * @param slotCount Jumlah slot
+     * @throws IllegalArgumentException jika slotLength kurang dari satu menit atau slotCount < 1
+     */
+    public RegistrationScheduler(Instant opening, Duration slotLength, int slotCount) {
+        this(opening, slotLength, slotCount, Clock.systemUTC());
+    }
+
+    RegistrationScheduler(Instant opening, Duration slotLength, int slotCount, Clock clock) {
+        if (slotLength.toMinutes() < 1) {
+            throw new IllegalArgumentException("Slot length must be at least one minute");
+        }
+        if (slotCount < 1) {
+            throw new IllegalArgumentException("Slot count must be positive");
+        }
+        this.openingMillis = opening.toEpochMilli();
+        this.slotMillis = slotLength.toMillis();
+        this.slotCount = slotCount;
+        this.clock = clock;
+    }
+
+    /**
+     * Menghitung plan slot tanpa memasangnya
+     * Mahasiswa diurutkan berdasarkan semester (menurun), IPK (menurun), lalu ID,
+     * kemudian dibagi rata ke setiap slot secara berurutan
+     *
+     * @param students Semua mahasiswa yang akan registrasi
+     * @return RegistrationPlan object
+     */
+    public RegistrationPlan plan(Collection<Student> students) {
+        List<Student> ordered = new ArrayList<>(students);
+        ordered.sort(PRIORITY_ORDER);
+
+        Map<String, Integer> slotByStudent = new HashMap<>(ordered.size() * 2);
+        int[] slotSizes = new int[slotCount];
+        int perSlot = Math.max(1, (ordered.size() + slotCount - 1) / slotCount);
+        for (int i = 0; i < ordered.size(); i++) {
+            int slot = Math.min(slotCount - 1, i / perSlot);
+            slotByStudent.put(ordered.get(i).getStudentId(), slot);
+            slotSizes[slot]++;
+        }
+        return new RegistrationPlan(slotByStudent, slotSizes);
+    }
+
+    /**
+     * Memasang plan yang dipakai untuk pengecekan jendela waktu
+     * @param plan Plan dari {@link #plan(Collection)}
+     */
+    public void install(RegistrationPlan plan) {
+        this.plan = plan;
+    }
+
+    public RegistrationPlan getPlan() {
+        return plan;
+    }
+
+    /**
+     * Waktu slot seorang mahasiswa dibuka
+     * Mahasiswa yang tidak ada di plan mendapat slot terakhir
+     *
+     * @param studentId ID mahasiswa
+     * @return Waktu mulai slot
+     */
+    public Instant slotStart(String studentId) {
+        return Instant.ofEpochMilli(slotStartMillis(studentId));
+    }
+
+    /**
+     * Mengecek apakah slot registrasi mahasiswa sudah dibuka
+     * @param studentId ID mahasiswa
+     * @return true jika mahasiswa sudah boleh registrasi
+     */
+    public boolean isOpen(String studentId) {
+        return clock.millis() >= slotStartMillis(studentId);
+    }
+
+    /**
+     * Mensimulasikan perkiraan jumlah request per menit sejak pembukaan untuk sebuah plan
+     * Kedatangan mahasiswa dalam slotnya dimodelkan meluruh eksponensial dengan half-life tertentu
+     * (sebagian besar datang tepat saat slot dibuka), dan yang terlambat tetap dihitung di menit aslinya
+     *
+     * @param plan Plan yang disimulasikan
+     * @param requestsPerStudent Rata-rata request per mahasiswa (enroll, retry, drop)
+     * @param arrivalHalfLife Half-life kedatangan setelah slot dibuka
+     * @return Perkiraan request per menit, indeks 0 = menit pertama setelah pembukaan
+     */
+    public double[] simulateLoad(RegistrationPlan plan, double requestsPerStudent, Duration arrivalHalfLife) {
+        double halfLifeMinutes = Math.max(1e-9, arrivalHalfLife.toMillis() / 60_000.0);
+        long slotMinutes = slotMillis / 60_000;
+        // Ekor kedatangan dipotong setelah 10 half-life (< 0.1% tersisa)
+        int tailMinutes = (int) Math.ceil(halfLifeMinutes * 10);
+        int horizon = (int) (plan.getSlotCount() * slotMinutes) + tailMinutes;
+
+        double[] arrivalShare = new double[tailMinutes + 1];
+        for (int minute = 0; minute < arrivalShare.length; minute++) {
+            arrivalShare[minute] = Math.pow(2, -minute / halfLifeMinutes)
+                    - Math.pow(2, -(minute + 1) / halfLifeMinutes);
+        }
+
+        double[] load = new double[horizon];
+        for (int slot = 0; slot < plan.getSlotCount(); slot++) {
+            double requests = plan.getSlotSize(slot) * requestsPerStudent;
+            int start = (int) (slot * slotMinutes);
+            for (int minute = 0; minute < arrivalShare.length && start + minute < horizon; minute++) {
+                load[start + minute] += requests * arrivalShare[minute];
+            }
+        }
+        return load;
+    }
+
+    private long slotStartMillis(String studentId) {
+        int slot = plan.slotOf(studentId);
+        if (slot < 0) {
+            slot = slotCount - 1;
+        }
+        return openingMillis + slot * slotMillis;
+    }
+}
@@ -0,0 +1,175 @@
+package com.siakad.service;
+
+import com.siakad.model.Course;
+import com.siakad.model.Enrollment;
+import com.siakad.model.Student;
+import com.siakad.repository.CourseRepository;
+import com.siakad.repository.StudentRepository;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ekspor roster semua mata kuliah ke CSV dalam satu lintasan
+ * Baris ditulis bertahap per batch: data mata kuliah dibaca bulk per kelompok kecil dan data
+ * mahasiswa dibaca bulk per batch roster, sehingga memori yang dipakai sebatas ukuran batch,
+ * bukan seluruh roster
+ */
+
+public class RosterExporter {
+    static final String HEADER = "course_code,course_name,lecturer,student_id,student_name,email,enrollment_id,status";
+    private static final int COURSE_CHUNK_SIZE = 64;
+    private static final int STUDENT_BATCH_SIZE = 256;
+
+    private final CourseRosterIndex rosterIndex;
+    private final StudentRepository studentRepository;
+    private final CourseRepository courseRepository;
+
+    public RosterExporter(CourseRosterIndex rosterIndex, StudentRepository studentRepository,
+                          CourseRepository courseRepository) {
+        this.rosterIndex = rosterIndex;
+        this.studentRepository = studentRepository;
+        this.courseRepository = courseRepository;
+    }
+
+    /**
+     * Mengekspor roster semua mata kuliah, terurut per kode mata kuliah lalu ID mahasiswa
+     * @param out Tujuan CSV; tidak ditutup oleh method ini
+     * @return Jumlah baris mahasiswa yang ditulis
+     * @throws IOException jika penulisan gagal
+     */
+    public long export(Writer out) throws IOException {
+        return export(rosterIndex.getCourseCodes(), out);
+    }
+
+    /**
+     * Mengekspor roster mata kuliah tertentu; mata kuliah tanpa mahasiswa dilewati
+     * @param courseCodes Kode mata kuliah, diekspor sesuai urutan iterasi
+     * @param out Tujuan CSV; tidak ditutup oleh method ini
+     * @return Jumlah baris mahasiswa yang ditulis
+     * @throws IOException jika penulisan gagal
+     */
+    public long export(Iterable<String> courseCodes, Writer out) throws IOException {
+        out.write(HEADER);
+        out.write('\n');
+        long rows = 0;
+        Iterator<String> codes = courseCodes.iterator();
+        List<String> chunk = new ArrayList<>(COURSE_CHUNK_SIZE);
+        while (codes.hasNext()) {
+            chunk.clear();
+            while (codes.hasNext() && chunk.size() < COURSE_CHUNK_SIZE) {
+                String courseCode = codes.next();
+                if (rosterIndex.size(courseCode) > 0) {
+                    chunk.add(courseCode);
+                }
+            }
+            Map<String, Course> courses = courseRepository.findByCourseCodes(chunk);
+            for (String courseCode : chunk) {
+                rows += exportCourse(courseCode, courses.get(courseCode), out);
+            }
+        }
+        out.flush();
+        return rows;
+    }
+
+    /**
+     * Mengekspor semua roster ke file (UTF-8), menimpa isi sebelumnya
+     * @param file Path file tujuan
+     * @return Jumlah baris mahasiswa yang ditulis
+     * @throws IOException jika file tidak bisa ditulis
+     */
+    public long export(Path file) throws IOException {
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            return export(out);
+        }
+    }
+
+    /**
+     * Mengekspor semua roster ke stream (UTF-8); stream di-flush tetapi tidak ditutup
+     * @param out Stream tujuan
+     * @return Jumlah baris mahasiswa yang ditulis
+     * @throws IOException jika penulisan gagal
+     */
+    public long export(OutputStream out) throws IOException {
+        return export(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)));
+    }
+
+    private long exportCourse(String courseCode, Course course, Writer out) throws IOException {
+        String[] courseFields = {
+                courseCode,
+                course == null ? "" : course.getCourseName(),
+                course == null ? "" : course.getLecturer()
+        };
+        List<Enrollment> batch = new ArrayList<>(STUDENT_BATCH_SIZE);
+        long[] rows = {0};
+        try {
+            rosterIndex.forEach(courseCode, enrollment -> {
+                batch.add(enrollment);
+                if (batch.size() == STUDENT_BATCH_SIZE) {
+                    rows[0] += writeBatch(courseFields, batch, out);
+                    batch.clear();
+                }
+            });
+            rows[0] += writeBatch(courseFields, batch, out);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return rows[0];
+    }
+
+    private int writeBatch(String[] courseFields, List<Enrollment> batch, Writer out) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        List<String> studentIds = new ArrayList<>(batch.size());
+        for (Enrollment enrollment : batch) {
+            studentIds.add(enrollment.getStudentId());
+        }
+        Map<String, Student> students = studentRepository.findByIds(studentIds);
+        StringBuilder line = new StringBuilder(128);
+        try {
+            for (Enrollment enrollment : batch) {
+                Student student = students.get(enrollment.getStudentId());
+                line.setLength(0);
+                for (String field : courseFields) {
+                    appendField(line, field).append(',');
+                }
+                appendField(line, enrollment.getStudentId()).append(',');
+                appendField(line, student == null ? "" : student.getName()).append(',');
+                appendField(line, student == null ? "" : student.getEmail()).append(',');
+                appendField(line, enrollment.getEnrollmentId()).append(',');
+                appendField(line, enrollment.getStatus()).append('\n');
+                out.append(line);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return batch.size();
+    }
+
+    /**
+     * Menulis satu kolom CSV; kolom yang berisi koma, kutip atau baris baru diberi tanda kutip
+     */
+    private static StringBuilder appendField(StringBuilder line, String value) {
+        if (value == null) {
+            return line;
+        }
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            return line.append(value);
+        }
+        return line.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+}
@@ -0,0 +1,140 @@
+package com.siakad.service;
+
+import com.siakad.model.MeetingTime;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Index jadwal per mahasiswa berupa bitmap hari x waktu (slot 5 menit, 7 x 288 bit)
+ * Cek bentrok cukup AND bitmap jadwal mata kuliah dengan bitmap mahasiswa, O(jumlah slot),
+ * tanpa membaca mata kuliah lain dari repository. Operasi per mahasiswa bersifat atomic
+ * Jam yang tidak tepat kelipatan 5 menit dibulatkan melebar (mulai ke bawah, selesai ke atas)
+ */
+
+public class ScheduleConflictIndex {
+    static final int SLOT_MINUTES = 5;
+    private static final int SLOTS_PER_DAY = 24 * 60 / SLOT_MINUTES;
+    private static final int WORDS = (7 * SLOTS_PER_DAY + 63) / 64;
+
+    private final ConcurrentHashMap<String, StudentSchedule> schedules = new ConcurrentHashMap<>();
+
+    /**
+     * Jadwal satu mahasiswa: gabungan bitmap dan bitmap per mata kuliah (untuk pesan bentrok)
+     */
+    private static final class StudentSchedule {
+        private final long[] occupied = new long[WORDS];
+        private final Map<String, long[]> courses = new LinkedHashMap<>();
+    }
+
+    /**
+     * Mencatat jadwal mata kuliah untuk mahasiswa jika tidak bentrok
+     *
+     * @param studentId ID mahasiswa
+     * @param courseCode Kode mata kuliah
+     * @param meetingTimes Jadwal mata kuliah (boleh kosong: tidak pernah bentrok)
+     * @return null jika berhasil dicatat, atau kode mata kuliah yang bentrok
+     */
+    public String tryReserve(String studentId, String courseCode, List<MeetingTime> meetingTimes) {
+        long[] mask = maskOf(meetingTimes);
+        if (mask == null) {
+            return null;
+        }
+        String[] conflict = new String[1];
+        schedules.compute(studentId, (id, schedule) -> {
+            StudentSchedule current = schedule == null ? new StudentSchedule() : schedule;
+            if (intersects(current.occupied, mask)) {
+                conflict[0] = conflictingCourse(current, mask);
+                return schedule;
+            }
+            for (int i = 0; i < WORDS; i++) {
+                current.occupied[i] |= mask[i];
+            }
+            current.courses.put(courseCode, mask);
+            return current;
+        });
+        return conflict[0];
+    }
+
+    /**
+     * Menghapus jadwal mata kuliah dari mahasiswa (drop atau pembatalan)
+     * @param studentId ID mahasiswa
+     * @param courseCode Kode mata kuliah
+     */
+    public void release(String studentId, String courseCode) {
+        schedules.computeIfPresent(studentId, (id, schedule) -> {
+            long[] mask = schedule.courses.remove(courseCode);
+            if (mask != null) {
+                // Jadwal mahasiswa tidak pernah beririsan, jadi bit mata kuliah ini bisa langsung dihapus
+                for (int i = 0; i < WORDS; i++) {
+                    schedule.occupied[i] &= ~mask[i];
+                }
+            }
+            return schedule.courses.isEmpty() ? null : schedule;
+        });
+    }
+
+    /**
+     * Mencari mata kuliah mahasiswa yang bentrok dengan jadwal tertentu tanpa mencatat apa pun
+     * @param studentId ID mahasiswa
+     * @param meetingTimes Jadwal yang dicek
+     * @return Kode mata kuliah yang bentrok, atau null
+     */
+    public String findConflict(String studentId, List<MeetingTime> meetingTimes) {
+        long[] mask = maskOf(meetingTimes);
+        if (mask == null) {
+            return null;
+        }
+        String[] conflict = new String[1];
+        schedules.computeIfPresent(studentId, (id, schedule) -> {
+            if (intersects(schedule.occupied, mask)) {
+                conflict[0] = conflictingCourse(schedule, mask);
+            }
+            return schedule;
+        });
+        return conflict[0];
+    }
+
+    /**
+     * Bitmap mingguan dari daftar pertemuan
+     * @return Bitmap, atau null jika tidak ada pertemuan
+     */
+    static long[] maskOf(List<MeetingTime> meetingTimes) {
+        if (meetingTimes == null || meetingTimes.isEmpty()) {
+            return null;
+        }
+        long[] mask = new long[WORDS];
+        for (MeetingTime meeting : meetingTimes) {
+            int dayOffset = (meeting.getDay().getValue() - 1) * SLOTS_PER_DAY;
+            int startMinute = meeting.getStart().getHour() * 60 + meeting.getStart().getMinute();
+            int endMinute = meeting.getEnd().getHour() * 60 + meeting.getEnd().getMinute()
+                    + (meeting.getEnd().getSecond() > 0 || meeting.getEnd().getNano() > 0 ? 1 : 0);
+            int from = dayOffset + startMinute / SLOT_MINUTES;
+            int to = dayOffset + (endMinute + SLOT_MINUTES - 1) / SLOT_MINUTES;
+            for (int bit = from; bit < to; bit++) {
+                mask[bit >>> 6] |= 1L << (bit & 63);
+            }
+        }
+        return mask;
+    }
+
+    private static boolean intersects(long[] occupied, long[] mask) {
+        for (int i = 0; i < WORDS; i++) {
+            if ((occupied[i] & mask[i]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String conflictingCourse(StudentSchedule schedule, long[] mask) {
+        for (Map.Entry<String, long[]> entry : schedule.courses.entrySet()) {
+            if (intersects(entry.getValue(), mask)) {
+                return entry.getKey();
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,204 @@
+package com.siakad.service;
+
+import com.siakad.exception.CourseNotFoundException;
+import com.siakad.exception.EnrollmentException;
+import com.siakad.model.Enrollment;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Hold kursi sementara di atas reservasi EnrollmentService
+ * hold() langsung memotong kapasitas (reservasi PENDING), confirm() menjadikannya APPROVED,
+ * release() mengembalikan kursi. Hold yang tidak dikonfirmasi dalam TTL dilepas otomatis;
+ * kedaluwarsa dilacak dengan HierarchicalTimingWheel yang dimajukan oleh satu thread tick
+ */
+
+public class SeatHoldManager implements AutoCloseable {
+    // Hold yang gagal dilepas (mis. repository sementara tidak tersedia) dicoba lagi beberapa tick kemudian
+    static final int RETRY_TICKS = 5;
+
+    private final EnrollmentService enrollmentService;
+    private final long ttlNanos;
+    private final long tickNanos;
+    private final LongSupplier clock;
+    private final HierarchicalTimingWheel<String> wheel;
+    private final ConcurrentHashMap<String, HierarchicalTimingWheel.Timer<String>> holds = new ConcurrentHashMap<>();
+    private final LongAdder expiredHolds = new LongAdder();
+    private final LongAdder releaseFailures = new LongAdder();
+    private ScheduledExecutorService ticker;
+
+    /**
+     * @param enrollmentService Service tempat reservasi dibuat
+     * @param ttl Lama hold sebelum dilepas otomatis
+     * @param tick Resolusi kedaluwarsa (hold bisa bertahan paling lama satu tick setelah TTL)
+     * @throws IllegalArgumentException jika ttl atau tick tidak positif
+     */
+    public SeatHoldManager(EnrollmentService enrollmentService, Duration ttl, Duration tick) {
+        this(enrollmentService, ttl, tick, System::nanoTime);
+    }
+
+    /**
+     * @param enrollmentService Service tempat reservasi dibuat
+     * @param ttl Lama hold sebelum dilepas otomatis
+     * @param tick Resolusi kedaluwarsa
+     * @param clock Sumber waktu dalam nanodetik (untuk pengujian)
+     * @throws IllegalArgumentException jika ttl atau tick tidak positif
+     */
+    public SeatHoldManager(EnrollmentService enrollmentService, Duration ttl, Duration tick, LongSupplier clock) {
+        if (ttl.isNegative() || ttl.isZero() || tick.isNegative() || tick.isZero()) {
+            throw new IllegalArgumentException("Hold TTL and tick must be positive");
+        }
+        this.enrollmentService = enrollmentService;
+        this.ttlNanos = ttl.toNanos();
+        this.tickNanos = tick.toNanos();
+        this.clock = clock;
+        this.wheel = new HierarchicalTimingWheel<>(tickNanos, clock.getAsLong());
+    }
+
+    /**
+     * Menahan kursi untuk mahasiswa; kapasitas langsung berkurang
+     *
+     * @param studentId ID mahasiswa
+     * @param courseCode Kode mata kuliah
+     * @return Enrollment PENDING; ID-nya dipakai untuk confirm/release
+     * @throws RuntimeException exception validasi yang sama dengan EnrollmentService.reserveCourse
+     */
+    public Enrollment hold(String studentId, String courseCode) {
+        Enrollment enrollment = enrollmentService.reserveCourse(studentId, courseCode);
+        String enrollmentId = enrollment.getEnrollmentId();
+        long deadline = clock.getAsLong() + ttlNanos;
+        // Dijadwalkan di dalam compute agar expireDue tidak bisa mengambil ID ini sebelum tercatat
+        holds.compute(enrollmentId, (id, previous) -> wheel.schedule(id, deadline));
+        return enrollment;
+    }
+
+    /**
+     * Mengonfirmasi hold menjadi enrollment APPROVED
+     * @param enrollmentId ID enrollment dari hold
+     * @return Enrollment APPROVED
+     * @throws EnrollmentException jika hold tidak ada, sudah dilepas, atau sudah kedaluwarsa
+     */
+    public Enrollment confirm(String enrollmentId) {
+        takeHold(enrollmentId);
+        return enrollmentService.confirmReservation(enrollmentId);
+    }
+
+    /**
+     * Melepas hold dan mengembalikan kursi
+     * Jika pelepasan gagal karena error repository, hold dipertahankan dan dicoba lagi oleh expireDue
+     *
+     * @param enrollmentId ID enrollment dari hold
+     * @throws EnrollmentException jika hold tidak ada, sudah dilepas, atau sudah kedaluwarsa
+     */
+    public void release(String enrollmentId) {
+        takeHold(enrollmentId);
+        try {
+            enrollmentService.cancelReservation(enrollmentId);
+        } catch (CourseNotFoundException | EnrollmentException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            retryLater(enrollmentId);
+            throw e;
+        }
+    }
+
+    /**
+     * Melepas semua hold yang sudah melewati TTL
+     * Dipanggil berkala oleh thread tick (lihat start) atau langsung oleh pemanggil
+     *
+     * @return Jumlah hold yang dilepas
+     */
+    public int expireDue() {
+        int released = 0;
+        for (String enrollmentId : wheel.advance(clock.getAsLong())) {
+            // Hold yang sedang dikonfirmasi/dilepas bersamaan sudah diambil lebih dulu
+            if (holds.remove(enrollmentId) == null) {
+                continue;
+            }
+            try {
+                enrollmentService.cancelReservation(enrollmentId);
+                released++;
+            } catch (CourseNotFoundException | EnrollmentException e) {
+                // Mata kuliah sudah dihapus atau reservasi sudah selesai: kursi tidak perlu dikembalikan
+            } catch (RuntimeException e) {
+                retryLater(enrollmentId);
+            }
+        }
+        expiredHolds.add(released);
+        return released;
+    }
+
+    /**
+     * Menjalankan expireDue setiap tick di satu thread daemon
+     */
+    public synchronized void start() {
+        if (ticker != null) {
+            return;
+        }
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "seat-hold-expiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(this::expireDue, tickNanos, tickNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Menghentikan thread tick; hold yang tersisa tetap aktif sampai expireDue dipanggil
+     */
+    @Override
+    public synchronized void close() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+            ticker = null;
+        }
+    }
+
+    public EnrollmentService getEnrollmentService() {
+        return enrollmentService;
+    }
+
+    /**
+     * Jumlah hold yang masih aktif
+     * @return Jumlah hold
+     */
+    public int getActiveHoldCount() {
+        return holds.size();
+    }
+
+    /**
+     * Jumlah hold yang dilepas karena kedaluwarsa
+     * @return Jumlah hold kedaluwarsa
+     */
+    public long getExpiredCount() {
+        return expiredHolds.sum();
+    }
+
+    /**
+     * Jumlah percobaan pelepasan hold yang gagal dan dijadwalkan ulang
+     * @return Jumlah kegagalan
+     */
+    public long getReleaseFailureCount() {
+        return releaseFailures.sum();
+    }
+
+    private void retryLater(String enrollmentId) {
+        releaseFailures.increment();
+        long retryAt = clock.getAsLong() + RETRY_TICKS * tickNanos;
+        holds.compute(enrollmentId, (id, previous) -> wheel.schedule(id, retryAt));
+    }
+
+    private void takeHold(String enrollmentId) {
+        HierarchicalTimingWheel.Timer<String> timer = holds.remove(enrollmentId);
+        if (timer == null) {
+            throw new EnrollmentException("Seat hold not found or expired: " + enrollmentId);
+        }
+        wheel.cancel(timer);
+    }
+}
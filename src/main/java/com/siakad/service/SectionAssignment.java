@@ -0,0 +1,89 @@
+package com.siakad.service;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hasil SectionAssignmentOptimizer: section setiap mahasiswa, peringkat preferensi yang didapat,
+ * mahasiswa yang tidak kebagian kelas, dan enrollment yang gagal saat diterapkan
+ */
+
+public class SectionAssignment {
+    private final Map<String, String> assignments;
+    private final Map<String, Integer> ranks;
+    private final List<String> unassigned;
+    private final long totalRank;
+    private final Map<String, RuntimeException> failures = new LinkedHashMap<>();
+
+    SectionAssignment(Map<String, String> assignments, Map<String, Integer> ranks,
+                      List<String> unassigned, long totalRank) {
+        this.assignments = Collections.unmodifiableMap(assignments);
+        this.ranks = ranks;
+        this.unassigned = Collections.unmodifiableList(unassigned);
+        this.totalRank = totalRank;
+    }
+
+    /**
+     * Section yang didapat mahasiswa
+     * @param studentId ID mahasiswa
+     * @return Kode section, atau null jika tidak kebagian
+     */
+    public String getSection(String studentId) {
+        return assignments.get(studentId);
+    }
+
+    /**
+     * Peringkat preferensi section yang didapat (0 = pilihan pertama)
+     * @param studentId ID mahasiswa
+     * @return Peringkat, atau -1 jika tidak kebagian
+     */
+    public int getRank(String studentId) {
+        Integer rank = ranks.get(studentId);
+        return rank == null ? -1 : rank;
+    }
+
+    /**
+     * Jumlah mahasiswa per peringkat preferensi yang didapat
+     * @param maxRank Peringkat terbesar yang dihitung
+     * @return Array dengan indeks peringkat
+     */
+    public int[] getRankHistogram(int maxRank) {
+        int[] histogram = new int[maxRank + 1];
+        for (int rank : ranks.values()) {
+            if (rank <= maxRank) {
+                histogram[rank]++;
+            }
+        }
+        return histogram;
+    }
+
+    public Map<String, String> getAssignments() {
+        return assignments;
+    }
+
+    public List<String> getUnassigned() {
+        return unassigned;
+    }
+
+    /**
+     * Jumlah peringkat seluruh mahasiswa yang kebagian (nilai yang diminimalkan)
+     * @return Total peringkat
+     */
+    public long getTotalRank() {
+        return totalRank;
+    }
+
+    /**
+     * Enrollment yang ditolak EnrollmentService saat pembagian diterapkan (prasyarat, SKS, dll.)
+     * @return ID mahasiswa -> exception
+     */
+    public Map<String, RuntimeException> getFailures() {
+        return Collections.unmodifiableMap(failures);
+    }
+
+    void recordFailure(String studentId, RuntimeException failure) {
+        failures.put(studentId, failure);
+    }
+}
@@ -0,0 +1,250 @@
+package com.siakad.service;
+
+import com.siakad.model.Course;
+import com.siakad.repository.CourseRepository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+/**
+ * Pembagian mahasiswa ke kelas paralel (section) satu mata kuliah setelah jendela registrasi
+ * Setiap section disimpan sebagai Course sendiri (mis. "KRIP101-A"); mahasiswa memberi urutan
+ * preferensi section. Pembagian diselesaikan sebagai min-cost flow:
+ * sumber -> mahasiswa (1) -> section pilihan (biaya = peringkat) -> tujuan (kapasitas sisa),
+ * sehingga sebanyak mungkin mahasiswa mendapat kelas, lalu total peringkat sekecil mungkin
+ */
+
+public class SectionAssignmentOptimizer {
+    private final EnrollmentService enrollmentService;
+    private final CourseRepository courseRepository;
+
+    public SectionAssignmentOptimizer(EnrollmentService enrollmentService, CourseRepository courseRepository) {
+        this.enrollmentService = enrollmentService;
+        this.courseRepository = courseRepository;
+    }
+
+    /**
+     * Menghitung pembagian section lalu mendaftarkan setiap mahasiswa lewat enrollCourse
+     * Kapasitas yang dipakai adalah sisa kursi (capacity - enrolledCount) saat ini
+     *
+     * @param sectionCodes Kode Course untuk setiap section
+     * @param preferences ID mahasiswa -> kode section terurut dari yang paling diinginkan
+     * @return Hasil pembagian beserta enrollment yang gagal divalidasi
+     */
+    public SectionAssignment assign(Collection<String> sectionCodes, Map<String, List<String>> preferences) {
+        Map<String, Integer> capacities = new LinkedHashMap<>();
+        Map<String, Course> sections = courseRepository.findByCourseCodes(sectionCodes);
+        for (String sectionCode : sectionCodes) {
+            Course section = sections.get(sectionCode);
+            if (section != null) {
+                capacities.put(sectionCode, Math.max(0, section.getCapacity() - section.getEnrolledCount()));
+            }
+        }
+
+        SectionAssignment assignment = solve(capacities, preferences);
+        for (Map.Entry<String, String> entry : assignment.getAssignments().entrySet()) {
+            try {
+                enrollmentService.enrollCourse(entry.getKey(), entry.getValue());
+            } catch (RuntimeException e) {
+                assignment.recordFailure(entry.getKey(), e);
+            }
+        }
+        return assignment;
+    }
+
+    /**
+     * Menghitung pembagian section tanpa menyentuh repository
+     * Section yang tidak ada di capacities diabaikan dari preferensi
+     *
+     * @param capacities Kode section -> jumlah kursi yang boleh diisi
+     * @param preferences ID mahasiswa -> kode section terurut dari yang paling diinginkan
+     * @return Pembagian dengan jumlah mahasiswa terbanyak dan total peringkat terkecil
+     */
+    public static SectionAssignment solve(Map<String, Integer> capacities, Map<String, List<String>> preferences) {
+        List<String> sections = new ArrayList<>(capacities.keySet());
+        Map<String, Integer> sectionIndex = new HashMap<>();
+        for (int i = 0; i < sections.size(); i++) {
+            sectionIndex.put(sections.get(i), i);
+        }
+        // Urutan mahasiswa dibuat tetap agar hasil deterministik
+        List<String> students = new ArrayList<>(new TreeMap<>(preferences).keySet());
+        int studentCount = students.size();
+        int sectionCount = sections.size();
+        int source = 0;
+        int sink = studentCount + sectionCount + 1;
+
+        MinCostFlow flow = new MinCostFlow(sink + 1, studentCount * 4 + sectionCount);
+        int[] sourceEdges = new int[studentCount];
+        int[] sectionEdges = new int[sectionCount];
+        int[] remaining = new int[sectionCount];
+        for (int j = 0; j < sectionCount; j++) {
+            remaining[j] = Math.max(0, capacities.get(sections.get(j)));
+            sectionEdges[j] = flow.addEdge(1 + studentCount + j, sink, remaining[j], 0);
+        }
+        List<int[]> choiceEdges = new ArrayList<>(studentCount);
+        for (int i = 0; i < studentCount; i++) {
+            sourceEdges[i] = flow.addEdge(source, 1 + i, 1, 0);
+            List<String> ranked = preferences.get(students.get(i));
+            int[] edges = new int[ranked == null ? 0 : ranked.size()];
+            int count = 0;
+            for (int rank = 0; ranked != null && rank < ranked.size(); rank++) {
+                Integer section = sectionIndex.get(ranked.get(rank));
+                if (section != null) {
+                    edges[count++] = flow.addEdge(1 + i, 1 + studentCount + section, 1, rank);
+                }
+            }
+            choiceEdges.add(Arrays.copyOf(edges, count));
+        }
+
+        // Awal: pilihan pertama yang masih muat. Flow ini sudah minimum untuk nilainya
+        // (setiap mahasiswa di edge biaya terkecilnya), jadi potensial nol tetap valid
+        for (int i = 0; i < studentCount; i++) {
+            int[] edges = choiceEdges.get(i);
+            if (edges.length == 0 || flow.cost[edges[0]] != 0) {
+                continue;
+            }
+            int section = flow.to[edges[0]] - 1 - studentCount;
+            if (remaining[section] > 0) {
+                remaining[section]--;
+                flow.push(sourceEdges[i], 1);
+                flow.push(edges[0], 1);
+                flow.push(sectionEdges[section], 1);
+            }
+        }
+        flow.run(source, sink);
+
+        Map<String, String> assignments = new LinkedHashMap<>();
+        Map<String, Integer> ranks = new HashMap<>();
+        List<String> unassigned = new ArrayList<>();
+        long totalRank = 0;
+        for (int i = 0; i < studentCount; i++) {
+            String studentId = students.get(i);
+            String assigned = null;
+            for (int edge : choiceEdges.get(i)) {
+                if (flow.capacity[edge] == 0) {
+                    assigned = sections.get(flow.to[edge] - 1 - studentCount);
+                    ranks.put(studentId, flow.cost[edge]);
+                    totalRank += flow.cost[edge];
+                    break;
+                }
+            }
+            if (assigned == null) {
+                unassigned.add(studentId);
+            } else {
+                assignments.put(studentId, assigned);
+            }
+        }
+        return new SectionAssignment(assignments, ranks, unassigned, totalRank);
+    }
+
+    /**
+     * Min-cost flow dengan successive shortest path (Dijkstra + potensial Johnson)
+     * Edge disimpan dalam array paralel; edge e dan e^1 adalah pasangan maju/balik
+     */
+    private static final class MinCostFlow {
+        private final int[] head;
+        private int[] to;
+        private int[] next;
+        private int[] capacity;
+        private int[] cost;
+        private int edgeCount;
+
+        private MinCostFlow(int nodes, int expectedEdges) {
+            head = new int[nodes];
+            Arrays.fill(head, -1);
+            int size = Math.max(2, expectedEdges * 2);
+            to = new int[size];
+            next = new int[size];
+            capacity = new int[size];
+            cost = new int[size];
+        }
+
+        private int addEdge(int from, int target, int edgeCapacity, int edgeCost) {
+            if (edgeCount + 2 > to.length) {
+                int size = to.length * 2;
+                to = Arrays.copyOf(to, size);
+                next = Arrays.copyOf(next, size);
+                capacity = Arrays.copyOf(capacity, size);
+                cost = Arrays.copyOf(cost, size);
+            }
+            int edge = edgeCount;
+            link(edge, from, target, edgeCapacity, edgeCost);
+            link(edge + 1, target, from, 0, -edgeCost);
+            edgeCount += 2;
+            return edge;
+        }
+
+        private void link(int edge, int from, int target, int edgeCapacity, int edgeCost) {
+            to[edge] = target;
+            capacity[edge] = edgeCapacity;
+            cost[edge] = edgeCost;
+            next[edge] = head[from];
+            head[from] = edge;
+        }
+
+        private void push(int edge, int amount) {
+            capacity[edge] -= amount;
+            capacity[edge ^ 1] += amount;
+        }
+
+        /**
+         * Menambah flow satu jalur terpendek per iterasi sampai tujuan tidak terjangkau
+         */
+        private void run(int source, int sink) {
+            int nodes = head.length;
+            long[] potential = new long[nodes];
+            long[] distance = new long[nodes];
+            int[] parentEdge = new int[nodes];
+            PriorityQueue<long[]> queue = new PriorityQueue<>((a, b) -> Long.compare(a[0], b[0]));
+            while (true) {
+                Arrays.fill(distance, Long.MAX_VALUE);
+                Arrays.fill(parentEdge, -1);
+                distance[source] = 0;
+                queue.add(new long[]{0, source});
+                while (!queue.isEmpty()) {
+                    long[] top = queue.poll();
+                    int node = (int) top[1];
+                    if (top[0] > distance[node]) {
+                        continue;
+                    }
+                    if (node == sink) {
+                        // Jalur terpendek sudah pasti; simpul lain tidak perlu difinalisasi
+                        queue.clear();
+                        break;
+                    }
+                    for (int edge = head[node]; edge != -1; edge = next[edge]) {
+                        if (capacity[edge] == 0) {
+                            continue;
+                        }
+                        int target = to[edge];
+                        long candidate = distance[node] + cost[edge] + potential[node] - potential[target];
+                        if (candidate < distance[target]) {
+                            distance[target] = candidate;
+                            parentEdge[target] = edge;
+                            queue.add(new long[]{candidate, target});
+                        }
+                    }
+                }
+                if (distance[sink] == Long.MAX_VALUE) {
+                    return;
+                }
+                // Simpul yang belum final dibatasi ke jarak tujuan agar reduced cost tetap >= 0
+                long sinkDistance = distance[sink];
+                for (int node = 0; node < nodes; node++) {
+                    potential[node] += Math.min(distance[node], sinkDistance);
+                }
+                // Kapasitas sumber -> mahasiswa selalu 1, jadi setiap jalur membawa 1 unit
+                for (int node = sink; node != source; node = to[parentEdge[node] ^ 1]) {
+                    push(parentEdge[node], 1);
+                }
+            }
+        }
+    }
+}
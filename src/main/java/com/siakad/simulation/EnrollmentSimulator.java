@@ -0,0 +1,310 @@
+package com.siakad.simulation;
+
+import com.siakad.metrics.LatencyHistogram;
+import com.siakad.model.Course;
+import com.siakad.model.Student;
+import com.siakad.repository.InMemoryCourseRepository;
+import com.siakad.repository.InMemoryStudentRepository;
+import com.siakad.service.EnrollmentService;
+import com.siakad.service.GradeCalculator;
+import com.siakad.service.NotificationService;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Simulator registrasi deterministik untuk capacity planning
+ * Dari satu seed dibangkitkan mahasiswa (jurusan, semester, IPK), katalog mata kuliah dengan
+ * prasyarat dan kapasitas, serta beban enroll/drop dengan permintaan berdistribusi Zipf.
+ * Beban dijalankan ke EnrollmentService dengan beberapa thread dan laju yang bisa diatur
+ */
+
+public class EnrollmentSimulator {
+    private static final String[] MAJORS = {
+            "Informatika", "Rekayasa Keamanan Siber", "Teknik Elektronika", "Sistem Informasi"
+    };
+    private static final int LEVELS = 4;
+
+    private final SimulationConfig config;
+
+    public EnrollmentSimulator(SimulationConfig config) {
+        if (config.getThreads() < 1) {
+            throw new IllegalArgumentException("Thread count must be positive");
+        }
+        if (config.getMinCapacity() < 1 || config.getMinCapacity() > config.getMaxCapacity()) {
+            throw new IllegalArgumentException("Capacity range is invalid");
+        }
+        this.config = config;
+    }
+
+    /**
+     * Satu operasi pada beban simulasi
+     */
+    static final class Operation {
+        final String studentId;
+        final String courseCode;
+        final boolean drop;
+
+        Operation(String studentId, String courseCode, boolean drop) {
+            this.studentId = studentId;
+            this.courseCode = courseCode;
+            this.drop = drop;
+        }
+    }
+
+    /**
+     * Membangkitkan katalog mata kuliah; mata kuliah tingkat lebih tinggi bisa punya prasyarat
+     * dari tingkat sebelumnya
+     * @return List Course dengan kode MK000, MK001, ...
+     */
+    public List<Course> generateCatalog() {
+        Random random = new Random(config.getSeed());
+        int count = config.getCourseCount();
+        List<Course> catalog = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int capacity = config.getMinCapacity()
+                    + random.nextInt(config.getMaxCapacity() - config.getMinCapacity() + 1);
+            Course course = new Course(courseCode(i), "Mata Kuliah " + i, 2 + random.nextInt(3),
+                    capacity, 0, "Dosen " + (i % 40));
+            int level = levelOf(i);
+            if (level > 0 && random.nextDouble() < config.getPrerequisiteRatio()) {
+                int lowerStart = count * (level - 1) / LEVELS;
+                int lowerEnd = count * level / LEVELS;
+                course.addPrerequisite(courseCode(lowerStart + random.nextInt(lowerEnd - lowerStart)));
+            }
+            catalog.add(course);
+        }
+        return catalog;
+    }
+
+    /**
+     * Membangkitkan mahasiswa dengan jurusan, semester 1-8 dan IPK 2.00-4.00 (sekitar 2% di-suspend)
+     * @return List Student dengan ID SIM00000, SIM00001, ...
+     */
+    public List<Student> generateStudents() {
+        Random random = new Random(config.getSeed() + 1);
+        List<Student> students = new ArrayList<>(config.getStudentCount());
+        for (int i = 0; i < config.getStudentCount(); i++) {
+            double gpa = 2.0 + random.nextInt(201) / 100.0;
+            String status = random.nextDouble() < 0.02 ? "SUSPENDED" : "ACTIVE";
+            students.add(new Student(String.format("SIM%05d", i), "Mahasiswa " + i,
+                    "sim" + i + "@pnc.ac.id", MAJORS[random.nextInt(MAJORS.length)],
+                    1 + random.nextInt(8), gpa, status));
+        }
+        return students;
+    }
+
+    /**
+     * Mengisi repository dengan mahasiswa, katalog, dan riwayat mata kuliah prasyarat yang sudah lulus
+     * (mahasiswa semester lebih tinggi lebih mungkin sudah menyelesaikan prasyarat tingkat bawah)
+     *
+     * @param studentRepository Repository mahasiswa tujuan
+     * @param courseRepository Repository mata kuliah tujuan
+     */
+    public void populate(InMemoryStudentRepository studentRepository, InMemoryCourseRepository courseRepository) {
+        List<Course> catalog = generateCatalog();
+        Map<String, Course> prerequisites = new HashMap<>();
+        for (Course course : catalog) {
+            courseRepository.save(course);
+            for (String code : course.getPrerequisites()) {
+                prerequisites.put(code, catalog.get(Integer.parseInt(code.substring(2))));
+            }
+        }
+
+        Random random = new Random(config.getSeed() + 2);
+        for (Student student : generateStudents()) {
+            studentRepository.save(student);
+            for (Course course : prerequisites.values()) {
+                int level = levelOf(Integer.parseInt(course.getCourseCode().substring(2)));
+                if (student.getSemester() > 2 * (level + 1) && random.nextDouble() < 0.85) {
+                    studentRepository.addCompletedCourse(student.getStudentId(), course);
+                }
+            }
+        }
+    }
+
+    /**
+     * Membangkitkan beban enroll/drop; mata kuliah dipilih dengan distribusi Zipf
+     * dan urutan operasi diacak agar permintaan mahasiswa saling berselang-seling
+     */
+    List<Operation> generateWorkload() {
+        Random random = new Random(config.getSeed() + 3);
+        ZipfDistribution demand = new ZipfDistribution(config.getCourseCount(), config.getZipfExponent());
+        // Peringkat popularitas tidak sama dengan urutan kode
+        List<Integer> popularity = new ArrayList<>();
+        for (int i = 0; i < config.getCourseCount(); i++) {
+            popularity.add(i);
+        }
+        Collections.shuffle(popularity, random);
+
+        List<Operation> operations = new ArrayList<>(config.getStudentCount() * config.getRequestsPerStudent());
+        List<String> requested = new ArrayList<>();
+        for (int s = 0; s < config.getStudentCount(); s++) {
+            String studentId = String.format("SIM%05d", s);
+            requested.clear();
+            for (int r = 0; r < config.getRequestsPerStudent(); r++) {
+                if (!requested.isEmpty() && random.nextDouble() < config.getDropRatio()) {
+                    operations.add(new Operation(studentId,
+                            requested.remove(random.nextInt(requested.size())), true));
+                } else {
+                    String courseCode = courseCode(popularity.get(demand.sample(random)));
+                    requested.add(courseCode);
+                    operations.add(new Operation(studentId, courseCode, false));
+                }
+            }
+        }
+        Collections.shuffle(operations, random);
+        return operations;
+    }
+
+    /**
+     * Menjalankan simulasi lengkap terhadap EnrollmentService baru di atas repository in-memory
+     * @return SimulationReport object
+     */
+    public SimulationReport run() {
+        InMemoryStudentRepository studentRepository = new InMemoryStudentRepository();
+        InMemoryCourseRepository courseRepository = new InMemoryCourseRepository(studentRepository);
+        populate(studentRepository, courseRepository);
+        EnrollmentService service = new EnrollmentService(studentRepository, courseRepository,
+                new SilentNotificationService(), new GradeCalculator());
+        return run(service, studentRepository, courseRepository);
+    }
+
+    /**
+     * Menjalankan beban simulasi terhadap service yang sudah disiapkan
+     * Jika laju target diatur, latensi diukur dari jadwal seharusnya (bukan saat request benar-benar
+     * dikirim) agar antrean di sisi klien tidak tersembunyi (coordinated omission)
+     *
+     * @param service Service yang diuji; repository-nya harus sudah diisi lewat {@link #populate}
+     * @param studentRepository Repository mahasiswa milik service
+     * @param courseRepository Repository mata kuliah milik service
+     * @return SimulationReport object
+     */
+    public SimulationReport run(EnrollmentService service, InMemoryStudentRepository studentRepository,
+                                InMemoryCourseRepository courseRepository) {
+        List<Operation> operations = generateWorkload();
+        int threads = config.getThreads();
+        long intervalNanos = config.getTargetRatePerSecond() > 0
+                ? 1_000_000_000L * threads / config.getTargetRatePerSecond()
+                : 0;
+
+        LatencyHistogram latency = new LatencyHistogram();
+        LongAdder successes = new LongAdder();
+        ConcurrentHashMap<String, LongAdder> rejections = new ConcurrentHashMap<>();
+        CountDownLatch ready = new CountDownLatch(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        long[] startedAt = new long[1];
+
+        List<Thread> workers = new ArrayList<>(threads);
+        for (int t = 0; t < threads; t++) {
+            int worker = t;
+            Thread thread = new Thread(() -> {
+                ready.countDown();
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                long base = startedAt[0];
+                int sent = 0;
+                for (int i = worker; i < operations.size(); i += threads, sent++) {
+                    long scheduled = intervalNanos == 0 ? System.nanoTime() : base + sent * intervalNanos;
+                    long wait = scheduled - System.nanoTime();
+                    if (wait > 0) {
+                        LockSupport.parkNanos(wait);
+                    }
+                    Operation operation = operations.get(i);
+                    try {
+                        if (operation.drop) {
+                            service.dropCourse(operation.studentId, operation.courseCode);
+                        } else {
+                            service.enrollCourse(operation.studentId, operation.courseCode);
+                        }
+                        successes.increment();
+                    } catch (RuntimeException e) {
+                        rejections.computeIfAbsent(e.getClass().getSimpleName(), name -> new LongAdder())
+                                .increment();
+                    }
+                    latency.recordSince(scheduled);
+                }
+            }, "enrollment-sim-" + t);
+            workers.add(thread);
+            thread.start();
+        }
+
+        try {
+            ready.await();
+            startedAt[0] = System.nanoTime();
+            start.countDown();
+            for (Thread worker : workers) {
+                worker.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Simulation interrupted", e);
+        }
+        long elapsed = System.nanoTime() - startedAt[0];
+
+        Map<String, Long> rejectionCounts = new HashMap<>();
+        rejections.forEach((name, count) -> rejectionCounts.put(name, count.sum()));
+        return new SimulationReport(operations.size(), successes.sum(), elapsed, latency, rejectionCounts,
+                checkConsistency(service, studentRepository, courseRepository));
+    }
+
+    /**
+     * Mengecek oversell kursi, kecocokan jumlah peserta, dan batas SKS setelah simulasi
+     */
+    private List<String> checkConsistency(EnrollmentService service, InMemoryStudentRepository studentRepository,
+                                          InMemoryCourseRepository courseRepository) {
+        List<String> violations = new ArrayList<>();
+        for (Course course : courseRepository.findAll()) {
+            if (course.getEnrolledCount() > course.getCapacity()) {
+                violations.add("Oversold " + course.getCourseCode() + ": "
+                        + course.getEnrolledCount() + "/" + course.getCapacity());
+            }
+            int members = service.getMembershipIndex().countStudents(course.getCourseCode());
+            if (members != course.getEnrolledCount()) {
+                violations.add("Enrolled count mismatch " + course.getCourseCode() + ": "
+                        + course.getEnrolledCount() + " vs " + members + " members");
+            }
+        }
+        GradeCalculator gradeCalculator = new GradeCalculator();
+        for (Student student : studentRepository.findAll()) {
+            int credits = service.getCreditLedger().getCredits(student.getStudentId());
+            if (credits > gradeCalculator.calculateMaxCredits(student.getGpa())) {
+                violations.add("Credit limit exceeded " + student.getStudentId() + ": " + credits);
+            }
+        }
+        return violations;
+    }
+
+    private int levelOf(int index) {
+        return index * LEVELS / config.getCourseCount();
+    }
+
+    private static String courseCode(int index) {
+        return String.format("MK%03d", index);
+    }
+
+    /**
+     * Notifikasi yang dibuang; simulasi hanya mengukur jalur enrollment
+     */
+    private static final class SilentNotificationService implements NotificationService {
+        @Override
+        public void sendEmail(String email, String subject, String message) {
+        }
+
+        @Override
+        public void sendSMS(String phone, String message) {
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.siakad.simulation;
+
+/**
+ * Parameter simulasi registrasi; setter mengembalikan object yang sama agar mudah dirangkai
+ */
+
+public class SimulationConfig {
+    private long seed = 42;
+    private int studentCount = 10_000;
+    private int courseCount = 200;
+    private int minCapacity = 20;
+    private int maxCapacity = 60;
+    private double prerequisiteRatio = 0.3;
+    private double zipfExponent = 1.0;
+    private int requestsPerStudent = 6;
+    private double dropRatio = 0.1;
+    private int threads = 8;
+    private int targetRatePerSecond = 0;   // 0 = secepat mungkin
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public SimulationConfig setSeed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    public int getStudentCount() {
+        return studentCount;
+    }
+
+    public SimulationConfig setStudentCount(int studentCount) {
+        this.studentCount = studentCount;
+        return this;
+    }
+
+    public int getCourseCount() {
+        return courseCount;
+    }
+
+    public SimulationConfig setCourseCount(int courseCount) {
+        this.courseCount = courseCount;
+        return this;
+    }
+
+    public int getMinCapacity() {
+        return minCapacity;
+    }
+
+    public SimulationConfig setMinCapacity(int minCapacity) {
+        this.minCapacity = minCapacity;
+        return this;
+    }
+
+    public int getMaxCapacity() {
+        return maxCapacity;
+    }
+
+    public SimulationConfig setMaxCapacity(int maxCapacity) {
+        this.maxCapacity = maxCapacity;
+        return this;
+    }
+
+    public double getPrerequisiteRatio() {
+        return prerequisiteRatio;
+    }
+
+    public SimulationConfig setPrerequisiteRatio(double prerequisiteRatio) {
+        this.prerequisiteRatio = prerequisiteRatio;
+        return this;
+    }
+
+    public double getZipfExponent() {
+        return zipfExponent;
+    }
+
+    public SimulationConfig setZipfExponent(double zipfExponent) {
+        this.zipfExponent = zipfExponent;
+        return this;
+    }
+
+    public int getRequestsPerStudent() {
+        return requestsPerStudent;
+    }
+
+    public SimulationConfig setRequestsPerStudent(int requestsPerStudent) {
+        this.requestsPerStudent = requestsPerStudent;
+        return this;
+    }
+
+    public double getDropRatio() {
+        return dropRatio;
+    }
+
+    public SimulationConfig setDropRatio(double dropRatio) {
+        this.dropRatio = dropRatio;
+        return this;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public SimulationConfig setThreads(int threads) {
+        this.threads = threads;
+        return this;
+    }
+
+    public int getTargetRatePerSecond() {
+        return targetRatePerSecond;
+    }
+
+    public SimulationConfig setTargetRatePerSecond(int targetRatePerSecond) {
+        this.targetRatePerSecond = targetRatePerSecond;
+        return this;
+    }
+}
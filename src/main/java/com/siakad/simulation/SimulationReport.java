@@ -0,0 +1,81 @@
+package com.siakad.simulation;
+
+import com.siakad.metrics.LatencyHistogram;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Hasil satu kali simulasi: throughput, persentil latensi, rincian penolakan dan pengecekan oversell
+ */
+
+public class SimulationReport {
+    private final long requests;
+    private final long successes;
+    private final long elapsedNanos;
+    private final LatencyHistogram latency;
+    private final Map<String, Long> rejections;
+    private final List<String> violations;
+
+    SimulationReport(long requests, long successes, long elapsedNanos, LatencyHistogram latency,
+                     Map<String, Long> rejections, List<String> violations) {
+        this.requests = requests;
+        this.successes = successes;
+        this.elapsedNanos = elapsedNanos;
+        this.latency = latency;
+        this.rejections = Collections.unmodifiableMap(new TreeMap<>(rejections));
+        this.violations = Collections.unmodifiableList(violations);
+    }
+
+    public long getRequests() {
+        return requests;
+    }
+
+    public long getSuccesses() {
+        return successes;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Throughput seluruh simulasi
+     * @return Request per detik
+     */
+    public double getThroughputPerSecond() {
+        return elapsedNanos == 0 ? 0.0 : requests / (elapsedNanos / 1e9);
+    }
+
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    /**
+     * Jumlah penolakan per jenis exception
+     * @return Map nama exception -> jumlah
+     */
+    public Map<String, Long> getRejections() {
+        return rejections;
+    }
+
+    /**
+     * Pelanggaran konsistensi yang ditemukan setelah simulasi (oversell, hitungan tidak cocok)
+     * @return List deskripsi pelanggaran, kosong jika konsisten
+     */
+    public List<String> getViolations() {
+        return violations;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("requests=%d success=%d throughput=%.0f/s p50=%dus p99=%dus p999=%dus max=%dus "
+                        + "rejections=%s violations=%d",
+                requests, successes, getThroughputPerSecond(),
+                latency.getPercentileNanos(50) / 1_000, latency.getPercentileNanos(99) / 1_000,
+                latency.getPercentileNanos(99.9) / 1_000, latency.getMaxNanos() / 1_000,
+                rejections, violations.size());
+    }
+}
@@ -0,0 +1,61 @@
+package com.siakad.simulation;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Distribusi Zipf untuk memodelkan permintaan mata kuliah populer
+ * Peringkat k (0-based) dipilih dengan peluang sebanding 1 / (k + 1)^exponent;
+ * sampling memakai CDF yang dihitung sekali lalu binary search (O(log n))
+ */
+
+public class ZipfDistribution {
+    private final double[] cumulative;
+
+    /**
+     * @param size Jumlah peringkat
+     * @param exponent Kemiringan distribusi (0 = seragam, ~1 = tipikal popularitas)
+     * @throws IllegalArgumentException jika size < 1 atau exponent negatif
+     */
+    public ZipfDistribution(int size, double exponent) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Size must be positive");
+        }
+        if (exponent < 0) {
+            throw new IllegalArgumentException("Exponent must not be negative");
+        }
+        cumulative = new double[size];
+        double total = 0;
+        for (int k = 0; k < size; k++) {
+            total += 1.0 / Math.pow(k + 1, exponent);
+            cumulative[k] = total;
+        }
+        for (int k = 0; k < size; k++) {
+            cumulative[k] /= total;
+        }
+    }
+
+    /**
+     * Mengambil satu peringkat acak
+     * @param random Sumber angka acak (dipakai ulang agar hasil deterministik)
+     * @return Peringkat 0 .. size-1
+     */
+    public int sample(Random random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        int rank = index >= 0 ? index : -index - 1;
+        return Math.min(rank, cumulative.length - 1);
+    }
+
+    /**
+     * Peluang sebuah peringkat terpilih
+     * @param rank Peringkat
+     * @return Peluang 0.0 - 1.0
+     */
+    public double probability(int rank) {
+        return rank == 0 ? cumulative[0] : cumulative[rank] - cumulative[rank - 1];
+    }
+
+    public int size() {
+        return cumulative.length;
+    }
+}
@@ -0,0 +1,123 @@
+package com.siakad.tracing;
+
+/**
+ * Rekaman durasi setiap tahapan dari satu pemanggilan EnrollmentService
+ * Durasi disimpan di array primitif per TraceStage, jadi satu trace hanya butuh dua alokasi
+ * Request yang tidak di-sample memakai {@link #NOOP} sehingga tidak ada alokasi sama sekali
+ */
+
+public class Trace {
+    /**
+     * Trace kosong untuk request yang tidak di-sample; semua method tidak melakukan apa pun
+     */
+    public static final Trace NOOP = new Trace(null, null, null, false);
+
+    private static final TraceStage[] STAGES = TraceStage.values();
+
+    private final String operation;
+    private final String studentId;
+    private final String courseCode;
+    private final boolean sampled;
+    private final long[] stageNanos;
+    private final long startNanos;
+    private long totalNanos;
+    private String error;
+
+    Trace(String operation, String studentId, String courseCode, boolean sampled) {
+        this.operation = operation;
+        this.studentId = studentId;
+        this.courseCode = courseCode;
+        this.sampled = sampled;
+        this.stageNanos = sampled ? new long[STAGES.length] : null;
+        this.startNanos = sampled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Mengambil waktu mulai sebuah tahapan
+     * @return System.nanoTime() jika di-sample, 0 jika tidak
+     */
+    public long mark() {
+        return sampled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Menambahkan durasi tahapan sejak mark tertentu
+     * @param stage Tahapan yang direkam
+     * @param markNanos Hasil {@link #mark()} saat tahapan dimulai
+     */
+    public void stage(TraceStage stage, long markNanos) {
+        if (sampled) {
+            stageNanos[stage.ordinal()] += System.nanoTime() - markNanos;
+        }
+    }
+
+    /**
+     * Menandai trace gagal dengan exception tertentu
+     * @param exception Exception yang dilempar
+     */
+    public void fail(RuntimeException exception) {
+        if (sampled) {
+            this.error = exception.getClass().getSimpleName();
+        }
+    }
+
+    void finish() {
+        this.totalNanos = System.nanoTime() - startNanos;
+    }
+
+    public boolean isSampled() {
+        return sampled;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public String getStudentId() {
+        return studentId;
+    }
+
+    public String getCourseCode() {
+        return courseCode;
+    }
+
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    public long getStageNanos(TraceStage stage) {
+        return sampled ? stageNanos[stage.ordinal()] : 0;
+    }
+
+    /**
+     * Nama exception jika trace gagal
+     * @return Nama class exception atau null jika berhasil
+     */
+    public String getError() {
+        return error;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append(operation).append(' ').append(studentId);
+        if (courseCode != null) {
+            builder.append(' ').append(courseCode);
+        }
+        builder.append(" total=").append(formatMillis(totalNanos));
+        for (TraceStage stage : STAGES) {
+            long nanos = getStageNanos(stage);
+            if (nanos > 0) {
+                builder.append(' ').append(stage).append('=').append(formatMillis(nanos));
+            }
+        }
+        if (error != null) {
+            builder.append(" error=").append(error);
+        }
+        return builder.toString();
+    }
+
+    private static String formatMillis(long nanos) {
+        return String.format("%.3fms", nanos / 1_000_000.0);
+    }
+}
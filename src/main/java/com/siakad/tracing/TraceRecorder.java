@@ -0,0 +1,106 @@
+package com.siakad.tracing;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Perekam trace dengan sampling dan ring buffer berukuran tetap
+ * Trace yang selesai ditulis ke slot berikutnya (menimpa yang paling lama),
+ * sehingga memori tetap konstan tanpa backend tracing eksternal
+ */
+
+public class TraceRecorder {
+    /**
+     * Recorder yang tidak pernah men-sample (default saat tracing dimatikan)
+     */
+    public static final TraceRecorder DISABLED = new TraceRecorder(0, 1);
+
+    private final int sampleEvery;
+    private final AtomicReferenceArray<Trace> buffer;
+    private final AtomicLong cursor = new AtomicLong();
+
+    /**
+     * @param sampleEvery Rata-rata 1 dari N request di-sample (1 = semua, 0 = tidak ada)
+     * @param capacity Jumlah trace terakhir yang disimpan
+     * @throws IllegalArgumentException jika sampleEvery negatif atau capacity < 1
+     */
+    public TraceRecorder(int sampleEvery, int capacity) {
+        if (sampleEvery < 0) {
+            throw new IllegalArgumentException("Sample rate must not be negative");
+        }
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.sampleEvery = sampleEvery;
+        this.buffer = new AtomicReferenceArray<>(capacity);
+    }
+
+    /**
+     * Memulai trace untuk satu pemanggilan
+     * @param operation Nama operasi (misal "enrollCourse")
+     * @param studentId ID mahasiswa
+     * @param courseCode Kode mata kuliah, boleh null
+     * @return Trace baru jika di-sample, {@link Trace#NOOP} jika tidak
+     */
+    public Trace start(String operation, String studentId, String courseCode) {
+        if (sampleEvery == 0 || (sampleEvery > 1 && ThreadLocalRandom.current().nextInt(sampleEvery) != 0)) {
+            return Trace.NOOP;
+        }
+        return new Trace(operation, studentId, courseCode, true);
+    }
+
+    /**
+     * Menyelesaikan trace dan menyimpannya ke ring buffer
+     * @param trace Trace dari {@link #start}
+     */
+    public void finish(Trace trace) {
+        if (!trace.isSampled()) {
+            return;
+        }
+        trace.finish();
+        int slot = (int) (cursor.getAndIncrement() % buffer.length());
+        buffer.set(slot, trace);
+    }
+
+    /**
+     * Jumlah trace yang pernah direkam (termasuk yang sudah tertimpa)
+     * @return Jumlah trace
+     */
+    public long getRecordedCount() {
+        return cursor.get();
+    }
+
+    /**
+     * Mengambil N trace paling lambat yang masih ada di ring buffer
+     * @param n Jumlah trace
+     * @return Trace urut dari yang paling lambat
+     */
+    public List<Trace> slowest(int n) {
+        List<Trace> traces = new ArrayList<>();
+        for (int i = 0; i < buffer.length(); i++) {
+            Trace trace = buffer.get(i);
+            if (trace != null) {
+                traces.add(trace);
+            }
+        }
+        traces.sort(Comparator.comparingLong(Trace::getTotalNanos).reversed());
+        return traces.size() > n ? new ArrayList<>(traces.subList(0, n)) : traces;
+    }
+
+    /**
+     * Dump teks N trace paling lambat, satu trace per baris
+     * @param n Jumlah trace
+     * @return Teks dump
+     */
+    public String dumpSlowest(int n) {
+        StringBuilder builder = new StringBuilder();
+        for (Trace trace : slowest(n)) {
+            builder.append(trace).append(System.lineSeparator());
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,15 @@
+package com.siakad.tracing;
+
+/**
+ * Tahapan yang direkam dalam satu trace enrollment
+ */
+
+public enum TraceStage {
+    FIND_STUDENT,
+    FIND_COURSE,
+    CHECK_PREREQUISITE,
+    CALCULATE_MAX_CREDITS,
+    SEAT_LOCK_WAIT,
+    UPDATE_COURSE,
+    SEND_NOTIFICATION
+}
@@ -0,0 +1,193 @@
+package com.siakad.admission;
+
+import com.siakad.exception.AdmissionRejectedException;
+import com.siakad.exception.CourseFullException;
+import com.siakad.model.Course;
+import com.siakad.model.Student;
+import com.siakad.repository.InMemoryCourseRepository;
+import com.siakad.repository.InMemoryStudentRepository;
+import com.siakad.service.EnrollmentService;
+import com.siakad.service.GradeCalculator;
+import com.siakad.service.StubNotificationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionControllerTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+    private InMemoryStudentRepository studentRepository;
+    private InMemoryCourseRepository courseRepository;
+    private EnrollmentService enrollmentService;
+
+    @BeforeEach
+    void setUp() {
+        studentRepository = new InMemoryStudentRepository();
+        courseRepository = new InMemoryCourseRepository(studentRepository);
+        studentRepository.save(new Student("S1", "Amanda", "amanda@pnc.ac.id", "Informatika", 3, 3.5, "ACTIVE"));
+        studentRepository.save(new Student("S8", "Budi", "budi@pnc.ac.id", "Informatika", 8, 3.0, "ACTIVE"));
+        courseRepository.save(new Course("KRIP101", "Kriptografi", 3, 1, 0, "Dr. Smith"));
+        courseRepository.save(new Course("JARK201", "Jaringan", 3, 30, 0, "Dr. Smith"));
+        enrollmentService = new EnrollmentService(studentRepository, courseRepository,
+                new StubNotificationService(), new GradeCalculator());
+    }
+
+    @Test
+    void testRateLimiter_BurstThenRefill() {
+        StudentRateLimiter limiter = new StudentRateLimiter(3, Duration.ofSeconds(1), clock::get);
+
+        assertTrue(limiter.tryAcquire("S1"));
+        assertTrue(limiter.tryAcquire("S1"));
+        assertTrue(limiter.tryAcquire("S1"));
+        assertFalse(limiter.tryAcquire("S1"));
+        // Mahasiswa lain punya bucket sendiri
+        assertTrue(limiter.tryAcquire("S8"));
+
+        clock.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertTrue(limiter.tryAcquire("S1"));
+        assertFalse(limiter.tryAcquire("S1"));
+
+        clock.addAndGet(Duration.ofSeconds(10).toNanos());
+        assertEquals(2, limiter.evictIdle());
+        assertEquals(0, limiter.size());
+        assertThrows(IllegalArgumentException.class, () -> new StudentRateLimiter(0, Duration.ofSeconds(1)));
+    }
+
+    @Test
+    void testConcurrencyLimit_AdditiveIncreaseMultiplicativeDecrease() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 2, 20,
+                Duration.ofMillis(50), clock::get);
+        long fast = Duration.ofMillis(5).toNanos();
+        long slow = Duration.ofMillis(500).toNanos();
+
+        // ~10 request cepat (satu "putaran") menaikkan batas satu
+        for (int i = 0; i < 11; i++) {
+            assertTrue(limit.tryAcquire(1.0));
+            limit.release(fast);
+        }
+        assertEquals(11, limit.getLimit());
+
+        // Lonjakan latensi menurunkan batas sekali per jendela target
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limit.tryAcquire(1.0));
+            limit.release(slow);
+        }
+        assertEquals(9, limit.getLimit());
+        clock.addAndGet(Duration.ofMillis(50).toNanos());
+        assertTrue(limit.tryAcquire(1.0));
+        limit.release(slow);
+        assertEquals(8, limit.getLimit());
+        assertEquals(0, limit.getInFlight());
+
+        for (int i = 0; i < 100; i++) {
+            clock.addAndGet(Duration.ofMillis(50).toNanos());
+            limit.release(slow);
+        }
+        assertEquals(2, limit.getLimit());
+        assertThrows(IllegalArgumentException.class,
+                () -> new AdaptiveConcurrencyLimit(1, 2, 20, Duration.ofMillis(50)));
+    }
+
+    @Test
+    void testEnrollCourse_RateLimitedBeforeService() {
+        AdmissionController controller = new AdmissionController(enrollmentService, studentRepository,
+                new StudentRateLimiter(1, Duration.ofSeconds(5), clock::get),
+                new AdaptiveConcurrencyLimit(10, 1, 100, Duration.ofSeconds(1)), 7);
+
+        assertEquals("APPROVED", controller.enrollCourse("S1", "JARK201").getStatus());
+        AdmissionRejectedException exception = assertThrows(AdmissionRejectedException.class,
+                () -> controller.enrollCourse("S1", "KRIP101"));
+        assertEquals("Too many requests from student: S1", exception.getMessage());
+        assertEquals(0, courseRepository.findByCourseCode("KRIP101").getEnrolledCount());
+        assertEquals(1, controller.getRateLimitedCount());
+    }
+
+    @Test
+    void testEnrollCourse_PriorityLaneKeepsReservedCapacity() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 1, 100, Duration.ofSeconds(1));
+        AdmissionController controller = new AdmissionController(enrollmentService, studentRepository,
+                new StudentRateLimiter(100, Duration.ofMillis(1), clock::get), limit, 7);
+
+        // 8 dari 10 slot sudah terpakai: jalur standar (80%) penuh, jalur prioritas masih ada
+        for (int i = 0; i < 8; i++) {
+            assertTrue(limit.tryAcquire(1.0));
+        }
+        assertThrows(AdmissionRejectedException.class, () -> controller.enrollCourse("S1", "JARK201"));
+        assertEquals(1, controller.getOverloadedCount());
+        assertTrue(controller.isPriority("S8"));
+        assertEquals("APPROVED", controller.enrollCourse("S8", "JARK201").getStatus());
+        assertEquals(8, limit.getInFlight());
+    }
+
+    @Test
+    void testEnrollCourse_ReleasesSlotWhenServiceRejects() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 1, 100, Duration.ofSeconds(1));
+        AdmissionController controller = new AdmissionController(enrollmentService, studentRepository,
+                new StudentRateLimiter(100, Duration.ofMillis(1), clock::get), limit, 7);
+
+        controller.enrollCourse("S1", "KRIP101");
+        assertThrows(CourseFullException.class, () -> controller.enrollCourse("S8", "KRIP101"));
+        assertEquals(0, limit.getInFlight());
+        assertFalse(controller.isPriority("UNKNOWN"));
+    }
+
+    @Test
+    void testEnrollCourse_NoPriorityLookupWhileStandardLaneHasRoom() {
+        AtomicInteger lookups = new AtomicInteger();
+        InMemoryStudentRepository counting = new InMemoryStudentRepository() {
+            @Override
+            public Student findById(String studentId) {
+                lookups.incrementAndGet();
+                return studentRepository.findById(studentId);
+            }
+        };
+        AdmissionController controller = new AdmissionController(enrollmentService, counting,
+                new StudentRateLimiter(100, Duration.ofMillis(1), clock::get),
+                new AdaptiveConcurrencyLimit(10, 1, 100, Duration.ofSeconds(1)), 7);
+
+        controller.enrollCourse("S8", "JARK201");
+        assertEquals(0, lookups.get());
+        assertEquals(0, controller.getPriorityCacheSize());
+    }
+
+    @Test
+    void testIsPriority_CacheIsBoundedAndExpires() {
+        AtomicInteger lookups = new AtomicInteger();
+        InMemoryStudentRepository counting = new InMemoryStudentRepository() {
+            @Override
+            public Student findById(String studentId) {
+                lookups.incrementAndGet();
+                return studentRepository.findById(studentId);
+            }
+        };
+        AdmissionController controller = new AdmissionController(enrollmentService, counting,
+                new StudentRateLimiter(100, Duration.ofMillis(1), clock::get),
+                new AdaptiveConcurrencyLimit(10, 1, 100, Duration.ofSeconds(1)), 7,
+                1, Duration.ofMinutes(1), clock::get);
+
+        assertTrue(controller.isPriority("S8"));
+        assertTrue(controller.isPriority("S8"));
+        assertEquals(1, lookups.get());
+
+        // Kapasitas 1: S1 menggeser S8
+        assertFalse(controller.isPriority("S1"));
+        assertEquals(1, controller.getPriorityCacheSize());
+        assertTrue(controller.isPriority("S8"));
+        assertEquals(3, lookups.get());
+
+        // Setelah TTL, perubahan semester ikut terbaca
+        Student demoted = new Student("S8", "Budi", "budi@pnc.ac.id", "Informatika", 5, 3.0, "ACTIVE");
+        studentRepository.save(demoted);
+        assertTrue(controller.isPriority("S8"));
+        clock.addAndGet(Duration.ofMinutes(1).toNanos());
+        assertFalse(controller.isPriority("S8"));
+        assertThrows(IllegalArgumentException.class, () -> new AdmissionController(enrollmentService,
+                counting, new StudentRateLimiter(1, Duration.ofSeconds(1)),
+                new AdaptiveConcurrencyLimit(10, 1, 100, Duration.ofSeconds(1)), 7, 0, Duration.ofMinutes(1)));
+    }
+}
@@ -0,0 +1,324 @@
+package com.siakad.cluster;
+
+import com.siakad.exception.CourseFullException;
+import com.siakad.exception.EnrollmentException;
+import com.siakad.exception.PartialCommitException;
+import com.siakad.model.Course;
+import com.siakad.model.Enrollment;
+import com.siakad.model.Student;
+import com.siakad.repository.InMemoryCourseRepository;
+import com.siakad.repository.InMemoryStudentRepository;
+import com.siakad.service.EnrollmentService;
+import com.siakad.service.GradeCalculator;
+import com.siakad.service.SeatHoldManager;
+import com.siakad.service.StubNotificationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardedEnrollmentCoordinatorTest {
+
+    private static final String[] NODES = {"node-a", "node-b", "node-c"};
+
+    private InMemoryStudentRepository studentRepository;
+    private Map<String, InMemoryCourseRepository> courseRepositories;
+    private Map<String, StubNotificationService> notifiers;
+    private LocalShardTransport transport;
+    private ConsistentHashRing ring;
+    private ShardedEnrollmentCoordinator coordinator;
+
+    @BeforeEach
+    void setUp() {
+        studentRepository = new InMemoryStudentRepository();
+        studentRepository.save(new Student("230209003", "Amanda", "amanda@pnc.ac.id",
+                "Rekayasa Keamanan Siber", 5, 3.5, "ACTIVE"));
+        studentRepository.save(new Student("230209004", "Budi", "budi@pnc.ac.id",
+                "Rekayasa Keamanan Siber", 5, 3.5, "ACTIVE"));
+
+        ring = new ConsistentHashRing(64);
+        transport = new LocalShardTransport();
+        courseRepositories = new HashMap<>();
+        notifiers = new HashMap<>();
+        for (String nodeId : NODES) {
+            ring.addNode(nodeId);
+            InMemoryCourseRepository courses = new InMemoryCourseRepository(studentRepository);
+            StubNotificationService notifier = new StubNotificationService();
+            courseRepositories.put(nodeId, courses);
+            notifiers.put(nodeId, notifier);
+            transport.register(nodeId, new ShardNode(nodeId, new EnrollmentService(studentRepository,
+                    courses, notifier, new GradeCalculator())));
+        }
+        coordinator = new ShardedEnrollmentCoordinator(ring, transport);
+    }
+
+    /**
+     * Menyimpan mata kuliah di node pemiliknya
+     */
+    private Course addCourse(String code, int capacity) {
+        return addCourse(code, capacity, 3);
+    }
+
+    private Course addCourse(String code, int capacity, int credits) {
+        Course course = new Course(code, "Mata Kuliah " + code, credits, capacity, 0, "Dr. Smith");
+        courseRepositories.get(ring.nodeFor(code)).save(course);
+        return course;
+    }
+
+    /**
+     * Mencari kode mata kuliah yang tersebar di minimal dua node berbeda
+     */
+    private List<String> codesOnDistinctNodes(int count) {
+        List<String> codes = new ArrayList<>();
+        List<String> owners = new ArrayList<>();
+        for (int i = 0; codes.size() < count; i++) {
+            String code = "MK" + i;
+            String owner = ring.nodeFor(code);
+            if (!owners.contains(owner) || owners.size() == NODES.length) {
+                codes.add(code);
+                owners.add(owner);
+            }
+        }
+        return codes;
+    }
+
+    @Test
+    void testRing_DistributesAndMovesFewKeys() {
+        Map<String, Integer> load = new HashMap<>();
+        Map<String, String> before = new HashMap<>();
+        for (int i = 0; i < 3000; i++) {
+            String owner = ring.nodeFor("MK" + i);
+            load.merge(owner, 1, Integer::sum);
+            before.put("MK" + i, owner);
+        }
+        for (String nodeId : NODES) {
+            assertTrue(load.get(nodeId) > 600, "Unbalanced ring: " + load);
+        }
+
+        ring.addNode("node-d");
+        int moved = 0;
+        for (Map.Entry<String, String> entry : before.entrySet()) {
+            String owner = ring.nodeFor(entry.getKey());
+            if (!owner.equals(entry.getValue())) {
+                assertEquals("node-d", owner);
+                moved++;
+            }
+        }
+        assertTrue(moved > 0 && moved < 1500);
+        assertThrows(IllegalArgumentException.class, () -> new ConsistentHashRing(0));
+        assertThrows(IllegalStateException.class, () -> new ConsistentHashRing(1).nodeFor("MK1"));
+    }
+
+    @Test
+    void testEnrollAndDrop_RoutedToOwningShard() {
+        addCourse("KRIP101", 30);
+        String owner = coordinator.ownerOf("KRIP101");
+
+        Enrollment enrollment = coordinator.enrollCourse("230209003", "KRIP101");
+
+        assertEquals("APPROVED", enrollment.getStatus());
+        assertEquals(1, courseRepositories.get(owner).findByCourseCode("KRIP101").getEnrolledCount());
+        assertEquals(1, notifiers.get(owner).getSentEmails().size());
+
+        coordinator.dropCourse("230209003", "KRIP101");
+        assertEquals(0, courseRepositories.get(owner).findByCourseCode("KRIP101").getEnrolledCount());
+    }
+
+    @Test
+    void testSubmitKrs_CommitsAcrossShards() {
+        List<String> codes = codesOnDistinctNodes(3);
+        for (String code : codes) {
+            addCourse(code, 30);
+        }
+
+        List<Enrollment> enrollments = coordinator.submitKrs("230209003", codes);
+
+        assertEquals(3, enrollments.size());
+        for (int i = 0; i < codes.size(); i++) {
+            assertEquals(codes.get(i), enrollments.get(i).getCourseCode());
+            assertEquals("APPROVED", enrollments.get(i).getStatus());
+            assertEquals(1, courseRepositories.get(ring.nodeFor(codes.get(i)))
+                    .findByCourseCode(codes.get(i)).getEnrolledCount());
+        }
+        int emails = 0;
+        for (StubNotificationService notifier : notifiers.values()) {
+            emails += notifier.getSentEmails().size();
+        }
+        assertEquals(3, emails);
+    }
+
+    @Test
+    void testSubmitKrs_FailureAbortsPreparedSeats() {
+        List<String> codes = codesOnDistinctNodes(3);
+        addCourse(codes.get(0), 30);
+        addCourse(codes.get(1), 30);
+        Course full = addCourse(codes.get(2), 1);
+        coordinator.enrollCourse("230209004", full.getCourseCode());
+
+        assertThrows(CourseFullException.class, () -> coordinator.submitKrs("230209003", codes));
+
+        for (String code : codes.subList(0, 2)) {
+            String owner = ring.nodeFor(code);
+            assertEquals(0, courseRepositories.get(owner).findByCourseCode(code).getEnrolledCount());
+            EnrollmentService service = ((ShardNode) transport.shard(owner)).getEnrollmentService();
+            assertEquals(0, service.getCreditLedger().getCredits("230209003"));
+            assertFalse(service.getMembershipIndex().contains("230209003", code));
+        }
+        // Reservasi yang dibatalkan tidak mengirim email ke mahasiswa
+        for (StubNotificationService notifier : notifiers.values()) {
+            assertTrue(notifier.getSentEmails().stream().noneMatch(email -> email.startsWith("amanda")));
+        }
+
+        // Setelah abort, KRS yang sama bisa diulang tanpa dianggap duplikat
+        assertEquals(2, coordinator.submitKrs("230209003", codes.subList(0, 2)).size());
+    }
+
+    @Test
+    void testSubmitKrs_CreditLimitEnforcedAcrossShards() {
+        List<String> codes = codesOnDistinctNodes(3);
+        for (String code : codes) {
+            addCourse(code, 30, 9);
+        }
+
+        // Setiap node hanya melihat 9 SKS, tetapi totalnya 27 > 24
+        EnrollmentException exception = assertThrows(EnrollmentException.class,
+                () -> coordinator.submitKrs("230209003", codes));
+        assertEquals("Credit limit exceeded across shards: 27 > 24", exception.getMessage());
+        for (String code : codes) {
+            String owner = ring.nodeFor(code);
+            assertEquals(0, courseRepositories.get(owner).findByCourseCode(code).getEnrolledCount());
+            assertEquals(0, transport.shard(owner).getCredits("230209003"));
+        }
+
+        // KRS sebelumnya ikut dihitung untuk enroll satu mata kuliah berikutnya
+        assertEquals(2, coordinator.submitKrs("230209003", codes.subList(0, 2)).size());
+        assertThrows(EnrollmentException.class, () -> coordinator.enrollCourse("230209003", codes.get(2)));
+        assertEquals(0, courseRepositories.get(ring.nodeFor(codes.get(2)))
+                .findByCourseCode(codes.get(2)).getEnrolledCount());
+    }
+
+    @Test
+    void testSubmitKrs_PartialCommitReportsCommittedCourses() {
+        List<String> codes = codesOnDistinctNodes(2);
+        addCourse(codes.get(0), 30);
+        addCourse(codes.get(1), 30);
+        String expiringNode = ring.nodeFor(codes.get(1));
+        ShardNode node = (ShardNode) transport.shard(expiringNode);
+        AtomicLong now = new AtomicLong();
+        SeatHoldManager holds = new SeatHoldManager(node.getEnrollmentService(), Duration.ofSeconds(30),
+                Duration.ofSeconds(1), now::get);
+        node.setSeatHoldManager(holds);
+        // Hold di node kedua kedaluwarsa di antara prepare dan commit
+        transport.register(expiringNode, new ShardNode(expiringNode, node.getEnrollmentService()) {
+            @Override
+            public String prepare(String studentId, String courseCode) {
+                String reservationId = node.prepare(studentId, courseCode);
+                now.addAndGet(Duration.ofSeconds(32).toNanos());
+                holds.expireDue();
+                return reservationId;
+            }
+
+            @Override
+            public Enrollment commit(String reservationId) {
+                return node.commit(reservationId);
+            }
+        });
+
+        PartialCommitException exception = assertThrows(PartialCommitException.class,
+                () -> coordinator.submitKrs("230209003", codes));
+
+        assertEquals(1, exception.getCommitted().size());
+        assertEquals(codes.get(0), exception.getCommitted().get(0).getCourseCode());
+        assertEquals("APPROVED", exception.getCommitted().get(0).getStatus());
+        assertEquals(List.of(codes.get(1)), new ArrayList<>(exception.getFailures().keySet()));
+        assertEquals(0, courseRepositories.get(expiringNode).findByCourseCode(codes.get(1)).getEnrolledCount());
+    }
+
+    @Test
+    void testSubmitKrs_UnavailableNodeAbortsPreparedSeats() {
+        List<String> codes = codesOnDistinctNodes(2);
+        addCourse(codes.get(0), 30);
+        addCourse(codes.get(1), 30);
+        String downNode = ring.nodeFor(codes.get(1));
+        transport.setAvailable(downNode, false);
+
+        EnrollmentException exception = assertThrows(EnrollmentException.class,
+                () -> coordinator.submitKrs("230209003", codes));
+        assertEquals("Shard node unavailable: " + downNode, exception.getMessage());
+        assertEquals(0, courseRepositories.get(ring.nodeFor(codes.get(0)))
+                .findByCourseCode(codes.get(0)).getEnrolledCount());
+
+        transport.setAvailable(downNode, true);
+        assertEquals(2, coordinator.submitKrs("230209003", codes).size());
+    }
+
+    @Test
+    void testReservation_ConfirmOrCancelOnlyOnce() {
+        addCourse("KRIP101", 30);
+        EnrollmentShard shard = transport.shard(coordinator.ownerOf("KRIP101"));
+
+        String reservationId = shard.prepare("230209003", "KRIP101");
+        assertEquals("APPROVED", shard.commit(reservationId).getStatus());
+        assertThrows(EnrollmentException.class, () -> shard.commit(reservationId));
+        assertThrows(EnrollmentException.class, () -> shard.abort(reservationId));
+    }
+
+    @Test
+    void testAbort_RepositoryFailureKeepsReservation() {
+        AtomicBoolean unavailable = new AtomicBoolean();
+        InMemoryCourseRepository courses = new InMemoryCourseRepository(studentRepository) {
+            @Override
+            public Course findByCourseCode(String courseCode) {
+                if (unavailable.get()) {
+                    throw new IllegalStateException("Database unavailable");
+                }
+                return super.findByCourseCode(courseCode);
+            }
+        };
+        courses.save(new Course("KRIP101", "Kriptografi", 3, 30, 0, "Dr. Smith"));
+        ShardNode node = new ShardNode("node-x", new EnrollmentService(studentRepository, courses,
+                new StubNotificationService(), new GradeCalculator()));
+
+        String reservationId = node.prepare("230209003", "KRIP101");
+        unavailable.set(true);
+        assertThrows(IllegalStateException.class, () -> node.abort(reservationId));
+
+        // Reservasi dikembalikan sehingga abort bisa diulang
+        unavailable.set(false);
+        node.abort(reservationId);
+        assertEquals(0, courses.findByCourseCode("KRIP101").getEnrolledCount());
+    }
+
+    @Test
+    void testPrepare_ExpiresWithSeatHoldManager() {
+        InMemoryCourseRepository courses = new InMemoryCourseRepository(studentRepository);
+        courses.save(new Course("KRIP101", "Kriptografi", 3, 30, 0, "Dr. Smith"));
+        EnrollmentService service = new EnrollmentService(studentRepository, courses,
+                new StubNotificationService(), new GradeCalculator());
+        AtomicLong now = new AtomicLong();
+        SeatHoldManager holds = new SeatHoldManager(service, Duration.ofSeconds(30), Duration.ofSeconds(1), now::get);
+        ShardNode node = new ShardNode("node-x", service);
+        node.setSeatHoldManager(holds);
+
+        String reservationId = node.prepare("230209003", "KRIP101");
+        assertEquals(1, courses.findByCourseCode("KRIP101").getEnrolledCount());
+
+        // Coordinator tidak pernah mengirim commit/abort: kursi dilepas setelah TTL
+        now.addAndGet(Duration.ofSeconds(32).toNanos());
+        assertEquals(1, holds.expireDue());
+        assertEquals(0, courses.findByCourseCode("KRIP101").getEnrolledCount());
+        assertThrows(EnrollmentException.class, () -> node.commit(reservationId));
+
+        assertThrows(IllegalArgumentException.class, () -> node.setSeatHoldManager(new SeatHoldManager(
+                new EnrollmentService(studentRepository, courses, new StubNotificationService(),
+                        new GradeCalculator()), Duration.ofSeconds(30), Duration.ofSeconds(1))));
+    }
+}
@@ -97,6 +97,40 @@ class ExceptionTest {
         assertTrue(exception.getCause() instanceof NullPointerException);
     }
 
+    // Test untuk AdmissionRejectedException
+    @Test
+    void testAdmissionRejectedException_StringConstructor() {
+        AdmissionRejectedException exception = new AdmissionRejectedException("Too many requests");
+        assertEquals("Too many requests", exception.getMessage());
+        assertNull(exception.getCause());
+    }
+
+    @Test
+    void testAdmissionRejectedException_StringAndThrowableConstructor() {
+        RuntimeException cause = new RuntimeException("Overloaded");
+        AdmissionRejectedException exception = new AdmissionRejectedException("Too many requests", cause);
+
+        assertEquals("Too many requests", exception.getMessage());
+        assertEquals("Overloaded", exception.getCause().getMessage());
+    }
+
+    // Test untuk ScheduleConflictException
+    @Test
+    void testScheduleConflictException_StringConstructor() {
+        ScheduleConflictException exception = new ScheduleConflictException("Schedule conflict with course: CS101");
+        assertEquals("Schedule conflict with course: CS101", exception.getMessage());
+        assertNull(exception.getCause());
+    }
+
+    @Test
+    void testScheduleConflictException_StringAndThrowableConstructor() {
+        RuntimeException cause = new RuntimeException("Overlap");
+        ScheduleConflictException exception = new ScheduleConflictException("Schedule conflict", cause);
+
+        assertEquals("Schedule conflict", exception.getMessage());
+        assertEquals("Overlap", exception.getCause().getMessage());
+    }
+
     // Test inheritance hierarchy
     @Test
     void testExceptionInheritance() {
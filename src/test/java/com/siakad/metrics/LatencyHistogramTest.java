@@ -0,0 +1,63 @@
+package com.siakad.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    @Test
+    void testEmptyHistogram() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getPercentileNanos(99));
+        assertEquals(0.0, histogram.getMeanNanos(), 0.001);
+    }
+
+    @Test
+    void testPercentiles_WithinRelativeError() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long i = 1; i <= 10_000; i++) {
+            histogram.record(i * 1_000);   // 1 us - 10 ms
+        }
+
+        assertEquals(10_000, histogram.getCount());
+        assertEquals(10_000_000, histogram.getMaxNanos());
+        assertEquals(5_000_000, histogram.getPercentileNanos(50), 5_000_000 * 0.07);
+        assertEquals(9_900_000, histogram.getPercentileNanos(99), 9_900_000 * 0.07);
+        assertEquals(10_000_000, histogram.getPercentileNanos(100));
+        assertEquals(5_000_500, histogram.getMeanNanos(), 1.0);
+    }
+
+    @Test
+    void testSmallValuesAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(3);
+        histogram.record(7);
+        histogram.record(-5);   // Dianggap 0
+
+        assertEquals(0, histogram.getPercentileNanos(0));
+        assertEquals(3, histogram.getPercentileNanos(50));
+        assertEquals(7, histogram.getPercentileNanos(100));
+    }
+
+    @Test
+    void testBucketBoundsCoverEveryValue() {
+        long[] samples = {0, 15, 16, 17, 31, 32, 33, 1_000, 123_456_789L, Long.MAX_VALUE};
+        for (long value : samples) {
+            int index = LatencyHistogram.indexOf(value);
+            assertTrue(LatencyHistogram.upperBoundOf(index) >= value, "value " + value);
+            if (index > 0) {
+                assertTrue(LatencyHistogram.upperBoundOf(index - 1) < value, "value " + value);
+            }
+        }
+    }
+
+    @Test
+    void testInvalidPercentile() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertThrows(IllegalArgumentException.class, () -> histogram.getPercentileNanos(101));
+        assertThrows(IllegalArgumentException.class, () -> histogram.getPercentileNanos(-1));
+    }
+}
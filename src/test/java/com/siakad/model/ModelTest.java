@@ -1,7 +1,9 @@
 package com.siakad.model;
 
 import org.junit.jupiter.api.Test;
+import java.time.DayOfWeek;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -39,6 +41,76 @@ class ModelTest {
         assertTrue(course.getPrerequisites().isEmpty());
     }
 
+    @Test
+    void testCourse_CopyConstructor() {
+        Course course = new Course("CS101", "Pemrograman", 3, 30, 25, "Dr. Smith");
+        course.addPrerequisite("CS100");
+        course.setVersion(7);
+
+        Course copy = new Course(course);
+        copy.addPrerequisite("MATH100");
+        copy.setEnrolledCount(26);
+
+        assertEquals("CS101", copy.getCourseCode());
+        assertEquals(7, copy.getVersion());
+        assertEquals(25, course.getEnrolledCount());
+        assertEquals(1, course.getPrerequisites().size());
+        assertEquals(2, copy.getPrerequisites().size());
+    }
+
+    @Test
+    void testCourse_MeetingTimes() {
+        Course course = new Course("CS101", "Pemrograman", 3, 30, 25, "Dr. Smith");
+        assertTrue(course.getMeetingTimes().isEmpty());
+        assertTrue(new Course().getMeetingTimes().isEmpty());
+
+        MeetingTime monday = new MeetingTime(DayOfWeek.MONDAY, LocalTime.of(8, 0), LocalTime.of(9, 40));
+        course.addMeetingTime(monday);
+        Course copy = new Course(course);
+        copy.addMeetingTime(new MeetingTime(DayOfWeek.WEDNESDAY, LocalTime.of(8, 0), LocalTime.of(9, 40)));
+
+        assertEquals(1, course.getMeetingTimes().size());
+        assertEquals(2, copy.getMeetingTimes().size());
+        assertEquals(monday, copy.getMeetingTimes().get(0));
+
+        course.setMeetingTimes(null);
+        course.addMeetingTime(monday);
+        assertEquals(1, course.getMeetingTimes().size());
+    }
+
+    // ===== TEST MEETING TIME CLASS =====
+    @Test
+    void testMeetingTime_Overlaps() {
+        MeetingTime first = new MeetingTime(DayOfWeek.MONDAY, LocalTime.of(8, 0), LocalTime.of(9, 40));
+        MeetingTime overlapping = new MeetingTime(DayOfWeek.MONDAY, LocalTime.of(9, 30), LocalTime.of(11, 0));
+        MeetingTime adjacent = new MeetingTime(DayOfWeek.MONDAY, LocalTime.of(9, 40), LocalTime.of(11, 0));
+        MeetingTime otherDay = new MeetingTime(DayOfWeek.TUESDAY, LocalTime.of(8, 0), LocalTime.of(9, 40));
+
+        assertTrue(first.overlaps(overlapping));
+        assertTrue(overlapping.overlaps(first));
+        assertFalse(first.overlaps(adjacent));
+        assertFalse(first.overlaps(otherDay));
+        assertEquals(DayOfWeek.MONDAY, first.getDay());
+        assertEquals(LocalTime.of(8, 0), first.getStart());
+        assertEquals(LocalTime.of(9, 40), first.getEnd());
+        assertEquals("MONDAY 08:00-09:40", first.toString());
+    }
+
+    @Test
+    void testMeetingTime_EqualsAndValidation() {
+        MeetingTime meeting = new MeetingTime(DayOfWeek.FRIDAY, LocalTime.of(13, 0), LocalTime.of(15, 30));
+        MeetingTime same = new MeetingTime(DayOfWeek.FRIDAY, LocalTime.of(13, 0), LocalTime.of(15, 30));
+
+        assertEquals(meeting, same);
+        assertEquals(meeting.hashCode(), same.hashCode());
+        assertNotEquals(meeting, new MeetingTime(DayOfWeek.FRIDAY, LocalTime.of(13, 0), LocalTime.of(15, 0)));
+        assertNotEquals(meeting, "FRIDAY");
+        assertThrows(IllegalArgumentException.class,
+                () -> new MeetingTime(DayOfWeek.FRIDAY, LocalTime.of(13, 0), LocalTime.of(13, 0)));
+        assertThrows(IllegalArgumentException.class,
+                () -> new MeetingTime(null, LocalTime.of(13, 0), LocalTime.of(14, 0)));
+    }
+
     @Test
     void testCourse_SettersAndGetters() {
         Course course = new Course();
@@ -200,6 +272,7 @@ class ModelTest {
         assertEquals(0, student.getSemester());
         assertEquals(0.0, student.getGpa(), 0.01);
         assertNull(student.getAcademicStatus());
+        assertNull(student.getAdvisorId());
     }
 
     @Test
@@ -227,6 +300,7 @@ class ModelTest {
         student.setSemester(5);
         student.setGpa(3.25);
         student.setAcademicStatus("PROBATION");
+        student.setAdvisorId("DSN-01");
 
         assertEquals("STU-456", student.getStudentId());
         assertEquals("Jane Smith", student.getName());
@@ -235,6 +309,7 @@ class ModelTest {
         assertEquals(5, student.getSemester());
         assertEquals(3.25, student.getGpa(), 0.01);
         assertEquals("PROBATION", student.getAcademicStatus());
+        assertEquals("DSN-01", student.getAdvisorId());
     }
 
     // ===== TEST INTEGRATION BETWEEN CLASSES =====
@@ -0,0 +1,173 @@
+package com.siakad.repository;
+
+import com.siakad.exception.CourseNotFoundException;
+import com.siakad.exception.StudentNotFoundException;
+import com.siakad.model.Course;
+import com.siakad.model.Student;
+import com.siakad.service.EnrollmentService;
+import com.siakad.service.GradeCalculator;
+import com.siakad.service.StubNotificationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KnownKeyFilterTest {
+
+    private final AtomicInteger studentLookups = new AtomicInteger();
+    private final AtomicInteger courseLookups = new AtomicInteger();
+    private final AtomicLong clock = new AtomicLong();
+    private StubStudentRepository studentStore;
+    private StubCourseRepository courseStore;
+    private FilteredStudentRepository students;
+    private FilteredCourseRepository courses;
+
+    @BeforeEach
+    void setUp() {
+        studentStore = new StubStudentRepository() {
+            @Override
+            public Student findById(String studentId) {
+                studentLookups.incrementAndGet();
+                return super.findById(studentId);
+            }
+        };
+        courseStore = new StubCourseRepository() {
+            @Override
+            public Course findByCourseCode(String courseCode) {
+                courseLookups.incrementAndGet();
+                return super.findByCourseCode(courseCode);
+            }
+        };
+        studentStore.addStudent(new Student("230209003", "Amanda", "amanda@pnc.ac.id",
+                "Rekayasa Keamanan Siber", 5, 3.5, "ACTIVE"));
+        courseStore.addCourse(new Course("KRIP101", "Kriptografi", 3, 30, 0, "Dr. Smith"));
+        courseStore.setPrerequisiteResult("230209003", "KRIP101", true);
+
+        KnownKeyFilter studentFilter = new KnownKeyFilter(1000, 0.01, 100, Duration.ofMinutes(5), clock::get);
+        studentFilter.rebuild(List.of("230209003"));
+        KnownKeyFilter courseFilter = new KnownKeyFilter(1000, 0.01, 100, Duration.ofMinutes(5), clock::get);
+        courseFilter.rebuild(List.of("KRIP101"));
+        students = new FilteredStudentRepository(studentStore, studentFilter);
+        courses = new FilteredCourseRepository(courseStore, courseFilter);
+    }
+
+    @Test
+    void testBloomFilter_NoFalseNegativesAndBoundedFalsePositives() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add("2302" + i);
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("2302" + i));
+            if (filter.mightContain("9999" + i)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+        assertEquals(7, filter.getHashCount());
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(10, 0));
+    }
+
+    @Test
+    void testEnrollCourse_UnknownIdsRejectedWithoutRepositoryRoundTrip() {
+        EnrollmentService service = new EnrollmentService(students, courses,
+                new StubNotificationService(), new GradeCalculator());
+
+        StudentNotFoundException studentMissing = assertThrows(StudentNotFoundException.class,
+                () -> service.enrollCourse("BOT-0001", "KRIP101"));
+        assertEquals("Student not found: BOT-0001", studentMissing.getMessage());
+        assertThrows(CourseNotFoundException.class, () -> service.enrollCourse("230209003", "KRIPP101"));
+
+        assertEquals(1, studentLookups.get());   // hanya mahasiswa valid pada percobaan kedua
+        assertEquals(0, courseLookups.get());
+        assertEquals(1, students.getKeyFilter().getBloomRejectionCount());
+        assertEquals(1, courses.getKeyFilter().getBloomRejectionCount());
+
+        assertEquals("APPROVED", service.enrollCourse("230209003", "KRIP101").getStatus());
+    }
+
+    @Test
+    void testNegativeCache_RemembersMissesUntilInsertOrExpiry() {
+        // Kunci yang lolos Bloom filter (mis. sudah dihapus dari repository) hanya dicari sekali
+        students.getKeyFilter().add("230209999");
+        assertNull(students.findById("230209999"));
+        assertNull(students.findById("230209999"));
+        assertEquals(1, studentLookups.get());
+        assertEquals(1, students.getKeyFilter().getNegativeCacheHitCount());
+
+        clock.addAndGet(Duration.ofMinutes(5).toNanos());
+        assertNull(students.findById("230209999"));
+        assertEquals(2, studentLookups.get());
+
+        // Insert lewat repository menghapus entri negatif
+        students.update(new Student("230209999", "Budi", "budi@pnc.ac.id", "Informatika", 3, 3.0, "ACTIVE"));
+        assertEquals("Budi", students.findById("230209999").getName());
+        assertEquals(0, students.getKeyFilter().getNegativeCacheSize());
+    }
+
+    @Test
+    void testNegativeCache_BoundedAndClearedOnRebuild() {
+        KnownKeyFilter filter = new KnownKeyFilter(100, 0.01, 3, Duration.ofMinutes(5), clock::get);
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            keys.add("K" + i);
+        }
+        filter.rebuild(keys);
+        keys.forEach(filter::recordMissing);
+        assertEquals(3, filter.getNegativeCacheSize());
+        assertTrue(filter.mightExist("K0"));     // entri tertua sudah dibuang
+        assertFalse(filter.mightExist("K4"));
+
+        filter.rebuild(keys);
+        assertEquals(0, filter.getNegativeCacheSize());
+        assertTrue(filter.mightExist("K4"));
+        assertTrue(filter.mightExist(null));
+    }
+
+    @Test
+    void testRebuild_KeepsKeysAddedWhileReadingKeys() {
+        KnownKeyFilter filter = new KnownKeyFilter(100, 0.01, 3, Duration.ofMinutes(5), clock::get);
+        filter.rebuild(() -> {
+            // Insert yang terjadi setelah snapshot kunci diambil
+            List<String> snapshot = List.of("K0", "K1");
+            filter.add("K2");
+            return snapshot;
+        });
+
+        assertTrue(filter.mightExist("K0"));
+        assertTrue(filter.mightExist("K2"));
+        assertEquals(0, filter.getBloomRejectionCount());
+    }
+
+    @Test
+    void testRecordMissing_SkippedWhenKeyAddedDuringLookup() {
+        KnownKeyFilter filter = new KnownKeyFilter(100, 0.01, 3, Duration.ofMinutes(5), clock::get);
+        filter.rebuild(List.of("K0"));
+        long stamp = filter.lookupStamp();
+        // Pembaca tidak menemukan K1, lalu insert K1 selesai sebelum miss dicatat
+        filter.add("K1");
+        filter.recordMissing("K1", stamp);
+
+        assertTrue(filter.mightExist("K1"));
+        assertEquals(0, filter.getNegativeCacheSize());
+
+        filter.recordMissing("K0", filter.lookupStamp());
+        assertFalse(filter.mightExist("K0"));
+    }
+
+    @Test
+    void testFindByIds_SkipsUnknownKeys() {
+        assertEquals(List.of("230209003"),
+                new ArrayList<>(students.findByIds(List.of("BOT-1", "230209003", "BOT-2")).keySet()));
+        assertTrue(courses.findByCourseCodes(List.of("NOPE101")).isEmpty());
+        assertEquals(0, courseLookups.get());
+        assertEquals(1, courses.findByCourseCodes(List.of("KRIP101", "NOPE101")).size());
+    }
+}
@@ -0,0 +1,206 @@
+package com.siakad.search;
+
+import com.siakad.model.Course;
+import com.siakad.model.Student;
+import com.siakad.repository.InMemoryCourseRepository;
+import com.siakad.repository.InMemoryStudentRepository;
+import com.siakad.service.EnrollmentService;
+import com.siakad.service.GradeCalculator;
+import com.siakad.service.NotificationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CourseSearchIndexTest {
+
+    private CourseSearchIndex index;
+
+    private static List<String> codes(List<CourseSearchHit> hits) {
+        return hits.stream().map(CourseSearchHit::getCourseCode).collect(Collectors.toList());
+    }
+
+    @BeforeEach
+    void setUp() {
+        index = new CourseSearchIndex();
+        index.rebuild(List.of(
+                new Course("KRIP101", "Kriptografi Dasar", 3, 30, 0, "Dr. Smith"),
+                new Course("KRIP201", "Kriptografi Lanjut", 3, 30, 0, "Dr. Smith"),
+                new Course("JARK101", "Jaringan Komputer", 3, 30, 0, "Prof. Budi Santoso"),
+                new Course("BASD101", "Basis Data", 3, 30, 0, "Dr. Sinta Dewi"),
+                new Course("ETIK101", "Etika Profesi", 2, 30, 0, "Budiman")));
+    }
+
+    @Test
+    void testSearch_CodePrefixRanksExactMatchFirst() {
+        assertEquals(List.of("KRIP101", "KRIP201"), codes(index.search("krip", 10)));
+        assertEquals("KRIP101", index.search("KRIP101", 10).get(0).getCourseCode());
+        // Kode KRIP201 tidak diawali "KRIP1", tetapi trigramnya masih cocok dengan nama "Kriptografi"
+        List<CourseSearchHit> hits = index.search("KRIP1", 10);
+        assertEquals("KRIP101", hits.get(0).getCourseCode());
+        assertTrue(hits.get(0).getScore() > hits.get(1).getScore());
+    }
+
+    @Test
+    void testSearch_MatchesNameAndLecturerTrigrams() {
+        assertEquals(List.of("JARK101"), codes(index.search("jaringan", 10)));
+        // Kata terakhir dianggap belum selesai diketik
+        assertEquals(List.of("BASD101"), codes(index.search("basis da", 10)));
+        // Nama dosen berbobot lebih rendah daripada nama mata kuliah, hasil seri diurutkan per kode
+        assertEquals(List.of("ETIK101", "JARK101"), codes(index.search("budi", 10)));
+        assertEquals(List.of("KRIP101", "KRIP201"), codes(index.search("smith", 10)));
+        // Salah ketik tetap cocok selama sebagian besar trigram cocok
+        assertEquals(List.of("KRIP101", "KRIP201"), codes(index.search("kriptograpi", 10)));
+        assertTrue(index.search("zzzz", 10).isEmpty());
+        assertTrue(index.search("  ", 10).isEmpty());
+    }
+
+    @Test
+    void testSearch_LimitKeepsTopResults() {
+        List<CourseSearchHit> hits = index.search("kriptografi lanjut", 1);
+        assertEquals(1, hits.size());
+        assertEquals("KRIP201", hits.get(0).getCourseCode());
+        assertTrue(index.search("kriptografi", 0).isEmpty());
+    }
+
+    @Test
+    void testIndex_UpdatesAndRemovesIncrementally() {
+        index.index(new Course("KRIP101", "Keamanan Informasi", 3, 30, 0, "Dr. Smith"));
+        index.index(new Course("MOBI101", "Pemrograman Mobile", 3, 30, 0, "Ir. Rahma"));
+
+        assertEquals(List.of("KRIP201"), codes(index.search("kriptografi", 10)));
+        assertEquals(List.of("KRIP101"), codes(index.search("keamanan", 10)));
+        assertEquals(List.of("MOBI101"), codes(index.search("mob", 10)));
+        assertEquals(6, index.size());
+
+        assertTrue(index.remove("krip201"));
+        assertFalse(index.remove("KRIP201"));
+        assertTrue(index.search("kriptografi", 10).isEmpty());
+        assertEquals(List.of("KRIP101"), codes(index.search("KRIP", 10)));
+        assertEquals(5, index.size());
+    }
+
+    @Test
+    void testIndex_IgnoresOlderVersions() {
+        Course renamed = new Course("KRIP101", "Keamanan Informasi", 3, 30, 0, "Dr. Smith");
+        renamed.setVersion(3);
+        Course stale = new Course("KRIP101", "Kriptografi Terapan", 3, 30, 0, "Dr. Smith");
+        stale.setVersion(2);
+        index.index(renamed);
+        index.index(stale);
+        assertEquals(List.of("KRIP101"), codes(index.search("keamanan", 10)));
+        assertTrue(index.search("terapan", 10).isEmpty());
+
+        // Versi baru tanpa perubahan teks tetap dicatat, sehingga versi 4 yang tertinggal juga ditolak
+        Course counted = new Course("KRIP101", "Keamanan Informasi", 3, 30, 1, "Dr. Smith");
+        counted.setVersion(5);
+        Course lagging = new Course("KRIP101", "Kriptografi Terapan", 3, 30, 0, "Dr. Smith");
+        lagging.setVersion(4);
+        index.index(counted);
+        index.index(lagging);
+        assertEquals(List.of("KRIP101"), codes(index.search("keamanan", 10)));
+        assertTrue(index.search("terapan", 10).isEmpty());
+    }
+
+    @Test
+    void testPostings_RoundTripDeltaVarint() {
+        byte[] posting = null;
+        int[] ids = {0, 5, 127, 128, 300, 16384, 2_000_000};
+        for (int i = ids.length - 1; i >= 0; i--) {
+            posting = CourseSearchIndex.Postings.add(posting, ids[i]);
+        }
+        assertArrayEquals(ids, CourseSearchIndex.Postings.decode(posting));
+        posting = CourseSearchIndex.Postings.remove(posting, 128);
+        assertArrayEquals(new int[]{0, 5, 127, 300, 16384, 2_000_000}, CourseSearchIndex.Postings.decode(posting));
+        assertNull(CourseSearchIndex.Postings.remove(CourseSearchIndex.Postings.add(null, 7), 7));
+    }
+
+    @Test
+    void testIndexedRepository_ReindexesOnlyOnTextChange() {
+        InMemoryStudentRepository students = new InMemoryStudentRepository();
+        students.save(new Student("230209003", "Amanda", "amanda@pnc.ac.id",
+                "Rekayasa Keamanan Siber", 5, 3.5, "ACTIVE"));
+        InMemoryCourseRepository courses = new InMemoryCourseRepository(students);
+        courses.save(new Course("KRIP101", "Kriptografi Dasar", 3, 30, 0, "Dr. Smith"));
+        CourseSearchIndex searchIndex = new CourseSearchIndex();
+        searchIndex.rebuild(courses.findAll());
+        IndexedCourseRepository repository = new IndexedCourseRepository(courses, searchIndex);
+
+        EnrollmentService service = new EnrollmentService(students, repository,
+                new NotificationService() {
+                    @Override
+                    public void sendEmail(String email, String subject, String body) {
+                    }
+
+                    @Override
+                    public void sendSMS(String phone, String message) {
+                    }
+                }, new GradeCalculator());
+        service.enrollCourse("230209003", "KRIP101");
+        assertEquals(List.of("KRIP101"), codes(searchIndex.search("kripto", 10)));
+
+        Course renamed = repository.findByCourseCode("KRIP101");
+        renamed.setCourseName("Kriptografi Terapan");
+        repository.update(renamed);
+        assertEquals(List.of("KRIP101"), codes(searchIndex.search("terapan", 10)));
+        assertTrue(searchIndex.search("dasar", 10).isEmpty());
+    }
+
+    @Test
+    void testSearch_FiveThousandCoursesUnderConcurrentReads() throws Exception {
+        String[] subjects = {"Kriptografi", "Jaringan", "Basis", "Data", "Keamanan", "Sistem", "Operasi",
+                "Algoritma", "Struktur", "Pemrograman", "Mobile", "Web", "Forensik", "Digital", "Etika"};
+        String[] lecturers = {"Dr. Smith", "Prof. Budi", "Dr. Sinta", "Ir. Rahma", "Dr. Andi", "Prof. Wati"};
+        Random random = new Random(42);
+        List<Course> catalog = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            String name = subjects[random.nextInt(subjects.length)] + " " + subjects[random.nextInt(subjects.length)]
+                    + " " + (i % 7 + 1);
+            catalog.add(new Course(String.format("MK%04d", i), name, 3, 30, 0, lecturers[i % lecturers.length]));
+        }
+        CourseSearchIndex large = new CourseSearchIndex();
+        large.rebuild(catalog);
+        String[] queries = {"kripto", "jaringan komp", "MK12", "basis data", "smith", "forensik dig", "MK0042"};
+
+        // Pemanasan JIT sebelum mengukur
+        for (int i = 0; i < 2000; i++) {
+            large.search(queries[i % queries.length], 10);
+        }
+        int threads = 8;
+        int perThread = 500;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            long start = System.nanoTime();
+            List<Future<?>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                results.add(executor.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        assertFalse(large.search(queries[i % queries.length], 10).isEmpty());
+                    }
+                }));
+            }
+            // Satu penulis mengganti nama mata kuliah selama pembacaan berlangsung
+            for (int i = 0; i < 200; i++) {
+                large.index(new Course(String.format("MK%04d", i), "Kriptografi Terapan " + i, 3, 30, 0, "Dr. Smith"));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+            // Diukur dari throughput agar tidak bergantung pada jumlah core (waktu antre thread tidak dihitung)
+            double averageMicros = (System.nanoTime() - start) / 1000.0 / (threads * perThread);
+            assertTrue(averageMicros < 1000, "average search latency " + averageMicros + "us");
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals("MK0042", large.search("MK0042", 1).get(0).getCourseCode());
+        assertEquals(List.of("MK0199"), codes(large.search("kriptografi terapan 199", 1)));
+    }
+}
@@ -0,0 +1,230 @@
+package com.siakad.service;
+
+import com.siakad.exception.EnrollmentException;
+import com.siakad.metrics.InMemoryMetricsRegistry;
+import com.siakad.model.Course;
+import com.siakad.model.Enrollment;
+import com.siakad.model.Student;
+import com.siakad.repository.InMemoryCourseRepository;
+import com.siakad.repository.InMemoryStudentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdvisorApprovalServiceTest {
+
+    private InMemoryStudentRepository studentRepository;
+    private InMemoryCourseRepository courseRepository;
+    private StubNotificationService notificationService;
+    private final List<Integer> batchSizes = new ArrayList<>();
+    private EnrollmentService enrollmentService;
+    private AdvisorApprovalService approvals;
+
+    private static String studentId(int i) {
+        return String.format("2302%05d", i);
+    }
+
+    private static List<String> ids(List<Enrollment> enrollments) {
+        return enrollments.stream().map(Enrollment::getEnrollmentId).collect(Collectors.toList());
+    }
+
+    @BeforeEach
+    void setUp() {
+        studentRepository = new InMemoryStudentRepository();
+        courseRepository = new InMemoryCourseRepository(studentRepository);
+        for (int i = 0; i < 200; i++) {
+            Student student = new Student(studentId(i), "Mahasiswa " + i, "m" + i + "@pnc.ac.id",
+                    "Rekayasa Keamanan Siber", 5, 3.5, "ACTIVE");
+            student.setAdvisorId(i < 150 ? "DSN-01" : "DSN-02");
+            studentRepository.save(student);
+        }
+        studentRepository.save(new Student("230299999", "Citra", "citra@pnc.ac.id",
+                "Rekayasa Keamanan Siber", 5, 3.5, "ACTIVE"));
+        courseRepository.save(new Course("KRIP101", "Kriptografi", 3, 300, 0, "Dr. Smith"));
+        courseRepository.save(new Course("JARK101", "Jaringan", 3, 300, 0, "Dr. Smith"));
+        notificationService = new StubNotificationService() {
+            @Override
+            public void sendEmails(List<EmailMessage> messages) {
+                batchSizes.add(messages.size());
+                super.sendEmails(messages);
+            }
+        };
+        enrollmentService = new EnrollmentService(studentRepository, courseRepository,
+                notificationService, new GradeCalculator());
+        approvals = new AdvisorApprovalService(enrollmentService, studentRepository, notificationService);
+    }
+
+    @Test
+    void testSubmit_HoldsSeatAsPendingInAdvisorQueue() {
+        Enrollment first = approvals.submit(studentId(0), "KRIP101");
+        Enrollment second = approvals.submit(studentId(1), "JARK101");
+        approvals.submit(studentId(150), "KRIP101");
+
+        assertEquals("PENDING", first.getStatus());
+        assertEquals(2, courseRepository.findByCourseCode("KRIP101").getEnrolledCount());
+        assertEquals(3, enrollmentService.getCreditLedger().getCredits(studentId(0)));
+        assertEquals(List.of(first, second), approvals.getPendingQueue("DSN-01"));
+        assertEquals(1, approvals.getPendingCount("DSN-02"));
+        assertEquals(0, approvals.getPendingCount("DSN-03"));
+        assertTrue(notificationService.getSentEmails().isEmpty());
+
+        EnrollmentException exception = assertThrows(EnrollmentException.class,
+                () -> approvals.submit("230299999", "KRIP101"));
+        assertEquals("Student has no academic advisor: 230299999", exception.getMessage());
+    }
+
+    @Test
+    void testProcess_BulkApproveAndRejectWithOneDigestPerStudent() {
+        for (int i = 0; i < 150; i++) {
+            approvals.submit(studentId(i), "KRIP101");
+            approvals.submit(studentId(i), "JARK101");
+        }
+        List<Enrollment> queue = approvals.getPendingQueue("DSN-01");
+        assertEquals(300, queue.size());
+        List<String> approve = new ArrayList<>();
+        List<String> reject = new ArrayList<>();
+        for (Enrollment enrollment : queue) {
+            boolean rejectIt = enrollment.getCourseCode().equals("JARK101")
+                    && enrollment.getStudentId().compareTo(studentId(50)) < 0;
+            (rejectIt ? reject : approve).add(enrollment.getEnrollmentId());
+        }
+        InMemoryMetricsRegistry registry = new InMemoryMetricsRegistry();
+        enrollmentService.setMetricsRegistry(registry);
+
+        ApprovalResult result = approvals.process("DSN-01", approve, reject);
+
+        assertEquals(250, result.getApproved().size());
+        assertEquals(50, result.getRejected().size());
+        assertTrue(result.getFailures().isEmpty());
+        assertTrue(result.getApproved().stream().allMatch(e -> "APPROVED".equals(e.getStatus())));
+        assertTrue(result.getRejected().stream().allMatch(e -> "REJECTED".equals(e.getStatus())));
+        assertEquals(0, approvals.getPendingCount("DSN-01"));
+
+        // Penolakan disimpan dengan satu update untuk JARK101
+        assertEquals(1, registry.histogram("repository.course.findByCourseCodes").getCount());
+        assertEquals(1, registry.histogram("repository.course.update").getCount());
+        assertEquals(100, courseRepository.findByCourseCode("JARK101").getEnrolledCount());
+        assertEquals(150, courseRepository.findByCourseCode("KRIP101").getEnrolledCount());
+        assertEquals(3, enrollmentService.getCreditLedger().getCredits(studentId(0)));
+        assertFalse(enrollmentService.getMembershipIndex().contains(studentId(0), "JARK101"));
+
+        // Satu email ringkasan per mahasiswa, dikirim dalam batch
+        assertEquals(150, notificationService.getSentEmails().size());
+        assertEquals(List.of(100, 50), batchSizes);
+        assertTrue(notificationService.getSentEmails().contains(
+                "m0@pnc.ac.id|Advisor Approval Result|Approved: KRIP101\nRejected: JARK101"));
+        assertTrue(notificationService.getSentEmails().contains(
+                "m60@pnc.ac.id|Advisor Approval Result|Approved: KRIP101, JARK101"));
+        assertEquals(250, registry.getCount("enrollment.success"));
+    }
+
+    @Test
+    void testProcess_RejectsEnrollmentsOutsideAdvisorQueue() {
+        Enrollment other = approvals.submit(studentId(150), "KRIP101");
+        Enrollment mine = approvals.submit(studentId(0), "KRIP101");
+
+        ApprovalResult result = approvals.approve("DSN-01", List.of(other.getEnrollmentId(), mine.getEnrollmentId()));
+
+        assertEquals(List.of(mine), result.getApproved());
+        assertEquals("Enrollment is not pending for advisor DSN-01: " + other.getEnrollmentId(),
+                result.getFailures().get(other.getEnrollmentId()).getMessage());
+        assertEquals("PENDING", other.getStatus());
+        assertEquals(ids(List.of(other)), ids(approvals.getPendingQueue("DSN-02")));
+
+        // Sudah diproses: panggilan ulang dicatat gagal tanpa efek samping
+        assertEquals(1, approvals.reject("DSN-01", List.of(mine.getEnrollmentId())).getFailures().size());
+        assertEquals("APPROVED", mine.getStatus());
+    }
+
+    @Test
+    void testPendingQueue_SkipsReservationsCancelledElsewhere() {
+        Enrollment kept = approvals.submit(studentId(0), "KRIP101");
+        Enrollment cancelled = approvals.submit(studentId(0), "JARK101");
+        enrollmentService.cancelCourse("JARK101", null);
+
+        assertEquals(List.of(kept), approvals.getPendingQueue("DSN-01"));
+        // Entri yang sudah tidak PENDING dibuang dari antrian saat dibaca
+        ApprovalResult result = approvals.approve("DSN-01", List.of(cancelled.getEnrollmentId()));
+        assertEquals("Enrollment is not pending for advisor DSN-01: " + cancelled.getEnrollmentId(),
+                result.getFailures().get(cancelled.getEnrollmentId()).getMessage());
+        assertEquals("REJECTED", cancelled.getStatus());
+    }
+
+    @Test
+    void testProcess_DigestFailureIsReportedNotThrown() {
+        AdvisorApprovalService failingDigests = new AdvisorApprovalService(enrollmentService, studentRepository,
+                new StubNotificationService() {
+                    @Override
+                    public void sendEmails(List<EmailMessage> messages) {
+                        throw new IllegalStateException("Mail server unavailable");
+                    }
+                });
+        Enrollment enrollment = failingDigests.submit(studentId(0), "KRIP101");
+
+        ApprovalResult result = failingDigests.approve("DSN-01", List.of(enrollment.getEnrollmentId()));
+
+        assertEquals(List.of(enrollment), result.getApproved());
+        assertEquals("APPROVED", enrollment.getStatus());
+        assertEquals("Mail server unavailable",
+                result.getNotificationFailures().get(studentId(0)).getMessage());
+        assertEquals(0, failingDigests.getPendingCount("DSN-01"));
+    }
+
+    @Test
+    void testRefreshAdvisor_MovesPendingAndUsesNewAdvisor() {
+        Enrollment before = approvals.submit(studentId(0), "KRIP101");
+        approvals.submit(studentId(1), "KRIP101");
+        Student student = studentRepository.findById(studentId(0));
+        student.setAdvisorId("DSN-03");
+        studentRepository.update(student);
+
+        assertEquals("DSN-03", approvals.refreshAdvisor(studentId(0)));
+        Enrollment after = approvals.submit(studentId(0), "JARK101");
+
+        assertEquals(List.of(before, after), approvals.getPendingQueue("DSN-03"));
+        assertEquals(1, approvals.getPendingCount("DSN-01"));
+        assertEquals(1, approvals.approve("DSN-01", List.of(before.getEnrollmentId())).getFailures().size());
+        assertEquals(List.of(before), approvals.approve("DSN-03", List.of(before.getEnrollmentId())).getApproved());
+    }
+
+    @Test
+    void testLoadPending_RestoresReservationsAndQueuesAfterRestart() {
+        Enrollment first = approvals.submit(studentId(0), "KRIP101");
+        Enrollment second = approvals.submit(studentId(150), "JARK101");
+        Enrollment third = approvals.submit(studentId(1), "JARK101");
+        LocalDateTime submittedAt = LocalDateTime.of(2026, 8, 1, 8, 0);
+        first.setEnrollmentDate(submittedAt);
+        second.setEnrollmentDate(submittedAt.plusMinutes(1));
+        third.setEnrollmentDate(submittedAt.plusMinutes(2));
+        List<Enrollment> stored = List.of(third, first, second);
+
+        // Instance baru membaca enrollment tersimpan
+        EnrollmentService restarted = new EnrollmentService(studentRepository, courseRepository,
+                notificationService, new GradeCalculator());
+        AdvisorApprovalService restored = new AdvisorApprovalService(restarted, studentRepository, notificationService);
+        assertEquals(3, restarted.loadEnrollments(stored));
+        assertTrue(restarted.isReserved(first.getEnrollmentId()));
+        assertEquals(3, restored.loadPending(stored));
+        assertEquals(0, restored.loadPending(stored));
+
+        assertEquals(List.of(first, third), restored.getPendingQueue("DSN-01"));
+        assertEquals(List.of(second), restored.getPendingQueue("DSN-02"));
+        ApprovalResult result = restored.process("DSN-01", List.of(first.getEnrollmentId()),
+                List.of(third.getEnrollmentId()));
+        assertTrue(result.getFailures().isEmpty());
+        assertEquals("APPROVED", first.getStatus());
+        assertEquals("REJECTED", third.getStatus());
+        assertEquals(1, courseRepository.findByCourseCode("JARK101").getEnrolledCount());
+        assertEquals(0, restarted.getCreditLedger().getCredits(studentId(1)));
+
+        restarted.cancelReservation(second.getEnrollmentId());
+        assertEquals(0, courseRepository.findByCourseCode("JARK101").getEnrolledCount());
+        assertEquals(0, restarted.getCreditLedger().getCredits(studentId(150)));
+    }
+}
@@ -0,0 +1,167 @@
+package com.siakad.service;
+
+import com.siakad.exception.ConcurrentUpdateException;
+import com.siakad.metrics.InMemoryMetricsRegistry;
+import com.siakad.metrics.InstrumentedCourseRepository;
+import com.siakad.model.Course;
+import com.siakad.model.Student;
+import com.siakad.repository.CourseRepository;
+import com.siakad.repository.InMemoryCourseRepository;
+import com.siakad.repository.InMemoryStudentRepository;
+import com.siakad.repository.StubCourseRepository;
+import com.siakad.repository.StubStudentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkRepositoryTest {
+
+    private InMemoryStudentRepository studentRepository;
+    private InMemoryCourseRepository courseRepository;
+    private List<String> courseCodes;
+
+    @BeforeEach
+    void setUp() {
+        studentRepository = new InMemoryStudentRepository();
+        courseRepository = new InMemoryCourseRepository(studentRepository);
+        courseCodes = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            courseRepository.save(new Course("MK" + i, "Mata Kuliah " + i, 3, 40, 0, "Dosen " + i));
+            courseCodes.add("MK" + i);
+        }
+        for (int s = 0; s < 50; s++) {
+            studentRepository.save(new Student("S" + s, "Mahasiswa " + s, "s" + s + "@pnc.ac.id",
+                    "Informatika", 3, 3.5, "ACTIVE"));
+        }
+    }
+
+    /**
+     * Repository yang hanya punya operasi satuan, sehingga memakai implementasi default bulk
+     */
+    private CourseRepository singleRecordOnly(CourseRepository delegate) {
+        return new CourseRepository() {
+            @Override
+            public Course findByCourseCode(String courseCode) {
+                return delegate.findByCourseCode(courseCode);
+            }
+
+            @Override
+            public void update(Course course) {
+                delegate.update(course);
+            }
+
+            @Override
+            public boolean isPrerequisiteMet(String studentId, String courseCode) {
+                return delegate.isPrerequisiteMet(studentId, courseCode);
+            }
+        };
+    }
+
+    @Test
+    void testDefaultImplementations_FallBackToLoops() {
+        StubStudentRepository students = new StubStudentRepository();
+        students.addStudent(new Student("S1", "Amanda", "amanda@pnc.ac.id", "Informatika", 3, 3.5, "ACTIVE"));
+        StubCourseRepository courses = new StubCourseRepository();
+        courses.addCourse(new Course("KRIP101", "Kriptografi", 3, 30, 0, "Dr. Smith"));
+
+        assertEquals(List.of("S1"), new ArrayList<>(students.findByIds(List.of("S1", "MISSING")).keySet()));
+        Map<String, Course> found = courses.findByCourseCodes(List.of("MISSING", "KRIP101"));
+        assertEquals(1, found.size());
+
+        Course course = found.get("KRIP101");
+        course.setEnrolledCount(5);
+        courses.updateAll(List.of(course));
+        assertEquals(5, courses.findByCourseCode("KRIP101").getEnrolledCount());
+    }
+
+    @Test
+    void testFindByCourseCodes_PreservesInputOrder() {
+        Map<String, Course> found = courseRepository.findByCourseCodes(List.of("MK7", "MK3", "NOPE", "MK5"));
+
+        assertEquals(List.of("MK7", "MK3", "MK5"), new ArrayList<>(found.keySet()));
+        assertEquals(3, studentRepository.findByIds(List.of("S1", "S2", "S3")).size());
+    }
+
+    @Test
+    void testUpdateAll_AllOrNothingOnConflict() {
+        Course first = courseRepository.findByCourseCode("MK1");
+        Course second = courseRepository.findByCourseCode("MK2");
+        Course stale = courseRepository.findByCourseCode("MK2");
+        second.setEnrolledCount(1);
+        courseRepository.update(second);
+
+        first.setEnrolledCount(10);
+        stale.setEnrolledCount(10);
+        assertThrows(ConcurrentUpdateException.class, () -> courseRepository.updateAll(List.of(first, stale)));
+
+        assertEquals(0, courseRepository.findByCourseCode("MK1").getEnrolledCount());
+        assertEquals(0, courseRepository.findByCourseCode("MK1").getVersion());
+        assertEquals(0, first.getVersion());
+        assertEquals(1, courseRepository.findByCourseCode("MK2").getEnrolledCount());
+
+        // Setelah berhasil, versi semua course naik satu
+        Course fresh = courseRepository.findByCourseCode("MK2");
+        fresh.setEnrolledCount(2);
+        courseRepository.updateAll(List.of(first, fresh));
+        assertEquals(1, first.getVersion());
+        assertEquals(2, fresh.getVersion());
+        assertEquals(10, courseRepository.findByCourseCode("MK1").getEnrolledCount());
+    }
+
+    @Test
+    void testReloadCatalogIndex_OneRoundTripWithLatency() {
+        courseRepository.setLatency(Duration.ofMillis(2));
+        InMemoryMetricsRegistry registry = new InMemoryMetricsRegistry();
+
+        EnrollmentService looping = new EnrollmentService(studentRepository,
+                singleRecordOnly(new InstrumentedCourseRepository(courseRepository, registry)),
+                new StubNotificationService(), new GradeCalculator());
+        assertEquals(100, looping.reloadCatalogIndex(courseCodes));
+        long singleCalls = registry.histogram("repository.course.findByCourseCode").getCount();
+
+        InMemoryMetricsRegistry bulkRegistry = new InMemoryMetricsRegistry();
+        EnrollmentService bulk = new EnrollmentService(studentRepository,
+                new InstrumentedCourseRepository(courseRepository, bulkRegistry),
+                new StubNotificationService(), new GradeCalculator());
+        assertEquals(100, bulk.reloadCatalogIndex(courseCodes));
+
+        assertEquals(100, singleCalls);
+        assertEquals(1, bulkRegistry.histogram("repository.course.findByCourseCodes").getCount());
+        assertEquals(0, bulkRegistry.histogram("repository.course.findByCourseCode").getCount());
+        assertEquals(100, bulk.getCourseCatalogIndex().size());
+    }
+
+    @Test
+    void testPartitionedEngine_FlushesBatchWithUpdateAll() {
+        courseRepository.setLatency(Duration.ofMillis(1));
+        InMemoryMetricsRegistry registry = new InMemoryMetricsRegistry();
+        InstrumentedCourseRepository instrumented = new InstrumentedCourseRepository(courseRepository, registry);
+
+        try (PartitionedEnrollmentEngine engine = new PartitionedEnrollmentEngine(studentRepository, instrumented,
+                new StubNotificationService(), new GradeCalculator(), 1, 1024, 0)) {
+            List<CompletableFuture<?>> futures = new ArrayList<>();
+            for (int s = 0; s < 50; s++) {
+                for (int c = 0; c < 4; c++) {
+                    futures.add(engine.enrollCourse("S" + s, "MK" + (s + c * 7) % 100));
+                }
+            }
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        }
+
+        int seats = 0;
+        for (Course course : courseRepository.findAll()) {
+            seats += course.getEnrolledCount();
+        }
+        long bulkWrites = registry.histogram("repository.course.updateAll").getCount();
+        assertEquals(200, seats);
+        assertEquals(0, registry.histogram("repository.course.update").getCount());
+        assertTrue(bulkWrites >= 1 && bulkWrites < 200);
+    }
+}
@@ -0,0 +1,175 @@
+package com.siakad.service;
+
+import com.siakad.exception.CourseFullException;
+import com.siakad.exception.CourseNotFoundException;
+import com.siakad.exception.EnrollmentException;
+import com.siakad.exception.PrerequisiteNotMetException;
+import com.siakad.exception.ScheduleConflictException;
+import com.siakad.metrics.InMemoryMetricsRegistry;
+import com.siakad.model.Course;
+import com.siakad.model.Enrollment;
+import com.siakad.model.MeetingTime;
+import com.siakad.model.Student;
+import com.siakad.repository.InMemoryCourseRepository;
+import com.siakad.repository.InMemoryStudentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CourseCancellationTest {
+
+    private InMemoryStudentRepository studentRepository;
+    private InMemoryCourseRepository courseRepository;
+    private final List<Integer> batchSizes = new ArrayList<>();
+    private int failingBatch;
+    private StubNotificationService notificationService;
+    private EnrollmentService service;
+
+    private static String studentId(int i) {
+        return String.format("2302%05d", i);
+    }
+
+    @BeforeEach
+    void setUp() {
+        studentRepository = new InMemoryStudentRepository();
+        courseRepository = new InMemoryCourseRepository(studentRepository);
+        for (int i = 0; i < 300; i++) {
+            studentRepository.save(new Student(studentId(i), "Mahasiswa " + i, "m" + i + "@pnc.ac.id",
+                    "Rekayasa Keamanan Siber", 5, 3.5, "ACTIVE"));
+        }
+        courseRepository.save(new Course("KRIP101", "Kriptografi", 3, 300, 0, "Dr. Smith"));
+        courseRepository.save(new Course("KRIP102", "Kriptografi Terapan", 3, 250, 0, "Dr. Smith"));
+        notificationService = new StubNotificationService() {
+            @Override
+            public void sendEmails(List<EmailMessage> messages) {
+                batchSizes.add(messages.size());
+                if (batchSizes.size() == failingBatch) {
+                    throw new IllegalStateException("Mail server unavailable");
+                }
+                super.sendEmails(messages);
+            }
+        };
+        service = new EnrollmentService(studentRepository, courseRepository, notificationService, new GradeCalculator());
+        for (int i = 0; i < 300; i++) {
+            service.enrollCourse(studentId(i), "KRIP101");
+        }
+    }
+
+    @Test
+    void testCancelCourse_DropsEveryStudentInOneBulkPass() {
+        InMemoryMetricsRegistry registry = new InMemoryMetricsRegistry();
+        service.setMetricsRegistry(registry);
+
+        CourseCancellation cancellation = service.cancelCourse("KRIP101", null);
+
+        assertEquals(300, cancellation.getDroppedStudentIds().size());
+        assertTrue(cancellation.getReassigned().isEmpty());
+        assertEquals(0, courseRepository.findByCourseCode("KRIP101").getEnrolledCount());
+        assertEquals(0, service.getCreditLedger().getCredits(studentId(7)));
+        assertFalse(service.getMembershipIndex().contains(studentId(7), "KRIP101"));
+        assertTrue(service.getRosterIndex().getRoster("KRIP101").isEmpty());
+
+        assertEquals(1, registry.histogram("repository.course.findByCourseCodes").getCount());
+        assertEquals(1, registry.histogram("repository.student.findByIds").getCount());
+        assertEquals(1, registry.histogram("repository.course.update").getCount());
+        assertEquals(0, registry.histogram("repository.student.findById").getCount());
+        assertEquals(0, registry.histogram("repository.course.findByCourseCode").getCount());
+
+        // 300 email pendaftaran + 300 email pembatalan dalam batch 100
+        assertEquals(List.of(100, 100, 100), batchSizes);
+        assertEquals(600, notificationService.getSentEmails().size());
+        assertEquals("APPROVED", service.enrollCourse(studentId(7), "KRIP101").getStatus());
+    }
+
+    @Test
+    void testCancelCourse_ReassignsToAlternativeUntilFull() {
+        Course alternative = courseRepository.findByCourseCode("KRIP102");
+        alternative.addPrerequisite("BASD101");
+        courseRepository.save(alternative);
+        for (int i = 0; i < 300; i++) {
+            if (i != 1) {
+                studentRepository.addCompletedCourse(studentId(i), new Course("BASD101", "Basis Data", 3, 30, 0, "Dr. X"));
+            }
+        }
+        service.enrollCourse(studentId(0), "KRIP102");
+        InMemoryMetricsRegistry registry = new InMemoryMetricsRegistry();
+        service.setMetricsRegistry(registry);
+
+        CourseCancellation cancellation = service.cancelCourse("KRIP101", "KRIP102");
+
+        // Prasyarat 300 mahasiswa dicek dengan satu pembacaan bulk, bukan per mahasiswa
+        assertEquals(1, registry.histogram("repository.course.arePrerequisitesMet").getCount());
+        assertEquals(0, registry.histogram("repository.course.isPrerequisiteMet").getCount());
+        assertEquals(249, cancellation.getReassigned().size());
+        assertEquals(51, cancellation.getFailures().size());
+        assertInstanceOf(EnrollmentException.class, cancellation.getFailures().get(studentId(0)));
+        assertInstanceOf(PrerequisiteNotMetException.class, cancellation.getFailures().get(studentId(1)));
+        assertInstanceOf(CourseFullException.class, cancellation.getFailures().get(studentId(299)));
+        assertEquals(250, courseRepository.findByCourseCode("KRIP102").getEnrolledCount());
+        assertEquals(0, courseRepository.findByCourseCode("KRIP101").getEnrolledCount());
+
+        Enrollment moved = cancellation.getReassigned().get(studentId(2));
+        assertEquals("KRIP102", moved.getCourseCode());
+        assertEquals("APPROVED", moved.getStatus());
+        assertEquals(3, service.getCreditLedger().getCredits(studentId(2)));
+        assertEquals(0, service.getCreditLedger().getCredits(studentId(299)));
+        assertEquals(250, service.getRosterIndex().size("KRIP102"));
+        assertTrue(notificationService.getSentEmails().stream()
+                .anyMatch(email -> email.contains("You have been enrolled in: Kriptografi Terapan")));
+    }
+
+    @Test
+    void testCancelCourse_ReassignmentHonoursScheduleAndPendingReservations() {
+        Course alternative = courseRepository.findByCourseCode("KRIP102");
+        alternative.addMeetingTime(new MeetingTime(DayOfWeek.MONDAY, LocalTime.of(8, 0), LocalTime.of(9, 40)));
+        courseRepository.save(alternative);
+        Course clash = new Course("JARK101", "Jaringan", 3, 30, 0, "Dr. Smith");
+        clash.addMeetingTime(new MeetingTime(DayOfWeek.MONDAY, LocalTime.of(9, 0), LocalTime.of(10, 0)));
+        courseRepository.save(clash);
+        service.enrollCourse(studentId(5), "JARK101");
+        studentRepository.save(new Student("230299999", "Citra", "citra@pnc.ac.id",
+                "Rekayasa Keamanan Siber", 5, 3.5, "ACTIVE"));
+        courseRepository.save(new Course("KRIP101", "Kriptografi", 3, 301, 300, "Dr. Smith"));
+        Enrollment pending = service.reserveCourse("230299999", "KRIP101");
+
+        CourseCancellation cancellation = service.cancelCourse("KRIP101", "KRIP102");
+
+        assertInstanceOf(ScheduleConflictException.class, cancellation.getFailures().get(studentId(5)));
+        assertEquals("REJECTED", pending.getStatus());
+        assertThrows(EnrollmentException.class, () -> service.confirmReservation(pending.getEnrollmentId()));
+        assertEquals(301, cancellation.getDroppedStudentIds().size());
+    }
+
+    @Test
+    void testCancelCourse_NotificationFailureDoesNotAbortCancellation() {
+        failingBatch = 2;
+
+        CourseCancellation cancellation = service.cancelCourse("KRIP101", "KRIP102");
+
+        // Batch kedua gagal, batch lain tetap dikirim dan pemindahan tetap tersimpan
+        assertEquals(List.of(100, 100, 100), batchSizes);
+        assertEquals(100, cancellation.getNotificationFailures().size());
+        assertTrue(cancellation.getNotificationFailures().containsKey(studentId(100)));
+        assertFalse(cancellation.getNotificationFailures().containsKey(studentId(0)));
+        assertEquals("Mail server unavailable",
+                cancellation.getNotificationFailures().get(studentId(199)).getMessage());
+        assertEquals(500, notificationService.getSentEmails().size());
+        assertEquals(250, cancellation.getReassigned().size());
+        assertEquals(0, courseRepository.findByCourseCode("KRIP101").getEnrolledCount());
+        assertEquals(250, courseRepository.findByCourseCode("KRIP102").getEnrolledCount());
+    }
+
+    @Test
+    void testCancelCourse_RejectsUnknownOrSameCourse() {
+        assertThrows(CourseNotFoundException.class, () -> service.cancelCourse("X999", null));
+        assertThrows(CourseNotFoundException.class, () -> service.cancelCourse("KRIP101", "X999"));
+        assertThrows(EnrollmentException.class, () -> service.cancelCourse("KRIP101", "KRIP101"));
+        assertEquals(300, courseRepository.findByCourseCode("KRIP101").getEnrolledCount());
+    }
+}
@@ -0,0 +1,212 @@
+package com.siakad.service;
+
+import com.siakad.exception.StudentNotFoundException;
+import com.siakad.model.Course;
+import com.siakad.model.Student;
+import com.siakad.repository.StubCourseRepository;
+import com.siakad.repository.StubStudentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CourseCatalogIndexTest {
+
+    private StubStudentRepository studentRepository;
+    private StubCourseRepository courseRepository;
+    private EnrollmentService enrollmentService;
+
+    @BeforeEach
+    void setUp() {
+        studentRepository = new StubStudentRepository();
+        courseRepository = new StubCourseRepository();
+        enrollmentService = new EnrollmentService(studentRepository, courseRepository,
+                new StubNotificationService(), new GradeCalculator());
+    }
+
+    private Course course(String code, int credits, int capacity, int enrolled, String... prerequisites) {
+        Course course = new Course(code, "Mata Kuliah " + code, credits, capacity, enrolled, "Dr. Smith");
+        for (String prerequisite : prerequisites) {
+            course.addPrerequisite(prerequisite);
+        }
+        courseRepository.addCourse(course);
+        return course;
+    }
+
+    private List<String> codes(List<Course> courses) {
+        List<String> codes = new ArrayList<>();
+        for (Course course : courses) {
+            codes.add(course.getCourseCode());
+        }
+        return codes;
+    }
+
+    // ===== TESTS UNTUK findEligible() =====
+
+    @Test
+    void testFindEligible_FiltersCapacityPrerequisitesAndCredits() {
+        CourseCatalogIndex index = new CourseCatalogIndex();
+        index.rebuild(Arrays.asList(
+                course("KRIP101", 3, 30, 10),
+                course("KRIP201", 3, 30, 10, "KRIP101"),
+                course("KRIP202", 3, 30, 30),                 // Penuh
+                course("KRIP301", 3, 30, 0, "KRIP201"),      // Prasyarat belum
+                course("TA401", 6, 30, 0)                     // Melebihi budget
+        ));
+
+        List<Course> eligible = index.findEligible(Arrays.asList("KRIP101"), null, 4);
+
+        // KRIP101 sudah selesai sehingga tidak ditawarkan lagi
+        assertEquals(Arrays.asList("KRIP201"), codes(eligible));
+    }
+
+    @Test
+    void testFindEligible_PrerequisiteOutsideCatalog() {
+        CourseCatalogIndex index = new CourseCatalogIndex();
+        index.rebuild(Arrays.asList(course("KRIP201", 3, 30, 0, "MAT100")));
+
+        assertTrue(index.findEligible(new ArrayList<>(), null, 24).isEmpty());
+        assertEquals(1, index.findEligible(Arrays.asList("MAT100"), null, 24).size());
+    }
+
+    @Test
+    void testFindEligible_ExcludedCodes() {
+        CourseCatalogIndex index = new CourseCatalogIndex();
+        index.rebuild(Arrays.asList(course("KRIP101", 3, 30, 0), course("KRIP102", 3, 30, 0)));
+
+        assertEquals(Arrays.asList("KRIP102"),
+                codes(index.findEligible(null, Arrays.asList("KRIP101"), 24)));
+    }
+
+    @Test
+    void testUpdateCourse_ReflectsSeatChanges() {
+        CourseCatalogIndex index = new CourseCatalogIndex();
+        Course course = course("KRIP101", 3, 1, 0);
+        index.rebuild(Arrays.asList(course));
+
+        course.setEnrolledCount(1);
+        index.updateCourse(course);
+        assertTrue(index.findEligible(null, null, 24).isEmpty());
+
+        course.setEnrolledCount(0);
+        index.updateCourse(course);
+        assertEquals(1, index.findEligible(null, null, 24).size());
+
+        // Mata kuliah di luar katalog diabaikan
+        assertDoesNotThrow(() -> index.updateCourse(new Course("X999", "X", 3, 1, 1, "-")));
+    }
+
+    @Test
+    void testFindEligible_ReturnsCopiesWithLatestSeats() {
+        CourseCatalogIndex index = new CourseCatalogIndex();
+        Course course = course("KRIP101", 3, 30, 0);
+        index.rebuild(Arrays.asList(course));
+        course.setCapacity(0);      // perubahan pada objek asli tidak masuk index
+
+        Course updated = new Course(course);
+        updated.setCapacity(30);
+        updated.setEnrolledCount(5);
+        updated.setVersion(1);
+        index.updateCourse(updated);
+        Course stale = new Course(updated);
+        stale.setEnrolledCount(30);
+        stale.setVersion(0);
+        index.updateCourse(stale);  // versi lama diabaikan
+
+        Course found = index.findEligible(null, null, 24).get(0);
+        assertEquals(5, found.getEnrolledCount());
+        assertEquals(1, found.getVersion());
+        found.setEnrolledCount(30);
+        assertEquals(5, index.findEligible(null, null, 24).get(0).getEnrolledCount());
+    }
+
+    @Test
+    void testFindEligible_SamePrerequisiteRuleAsRepository() {
+        Course course = course("KRIP301", 3, 30, 0, "KRIP101", "KRIP201");
+        CourseCatalogIndex index = new CourseCatalogIndex();
+        index.rebuild(Arrays.asList(course));
+
+        for (List<String> completed : Arrays.asList(List.<String>of(), List.of("KRIP101"),
+                List.of("KRIP101", "KRIP201"))) {
+            assertEquals(course.isPrerequisiteMet(completed), !index.findEligible(completed, null, 24).isEmpty());
+        }
+    }
+
+    // ===== TESTS UNTUK EnrollmentService.findEligibleCourses() =====
+
+    @Test
+    void testFindEligibleCourses_UsesCompletedCoursesAndMaxCredits() {
+        Course dasar = course("KRIP101", 3, 30, 0);
+        Course lanjut = course("KRIP201", 3, 30, 0, "KRIP101");
+        Course skripsi = course("TA401", 16, 30, 0);
+        enrollmentService.getCourseCatalogIndex().rebuild(Arrays.asList(dasar, lanjut, skripsi));
+
+        studentRepository.addStudent(new Student("230209003", "Amanda", "amanda@pnc.ac.id",
+                "Rekayasa Keamanan Siber", 5, 1.8, "PROBATION"));
+        studentRepository.addCompletedCourse("230209003", dasar);
+
+        // IPK < 2.0 -> maksimal 15 SKS, sehingga TA401 (16 SKS) tidak masuk
+        assertEquals(Arrays.asList("KRIP201"), codes(enrollmentService.findEligibleCourses("230209003")));
+    }
+
+    @Test
+    void testFindEligibleCourses_SuspendedStudent() {
+        enrollmentService.getCourseCatalogIndex().rebuild(Arrays.asList(course("KRIP101", 3, 30, 0)));
+        studentRepository.addStudent(new Student("230209003", "Amanda", "amanda@pnc.ac.id",
+                "Rekayasa Keamanan Siber", 5, 1.5, "SUSPENDED"));
+
+        assertTrue(enrollmentService.findEligibleCourses("230209003").isEmpty());
+    }
+
+    @Test
+    void testFindEligibleCourses_StudentNotFound() {
+        assertThrows(StudentNotFoundException.class, () -> enrollmentService.findEligibleCourses("999"));
+    }
+
+    @Test
+    void testFindEligibleCourses_FullCourseDisappearsAfterEnroll() {
+        enrollmentService.getCourseCatalogIndex().rebuild(Arrays.asList(course("KRIP101", 3, 1, 0)));
+        studentRepository.addStudent(new Student("230209003", "Amanda", "amanda@pnc.ac.id",
+                "Rekayasa Keamanan Siber", 5, 3.5, "ACTIVE"));
+        studentRepository.addStudent(new Student("230209004", "Budi", "budi@pnc.ac.id",
+                "Rekayasa Keamanan Siber", 5, 3.5, "ACTIVE"));
+
+        enrollmentService.enrollCourse("230209003", "KRIP101");
+
+        assertTrue(enrollmentService.findEligibleCourses("230209004").isEmpty());
+    }
+
+    @Test
+    void testFindEligible_LargeCatalogPerformance() {
+        List<Course> catalog = new ArrayList<>();
+        List<String> completed = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            Course course = new Course("MK" + i, "Mata Kuliah " + i, 2 + i % 3, 40, i % 50, "Dosen " + i % 200);
+            if (i >= 100) {
+                course.addPrerequisite("MK" + (i % 100));
+                course.addPrerequisite("MK" + (i % 37));
+            }
+            catalog.add(course);
+            if (i % 2 == 0 && i < 100) {
+                completed.add("MK" + i);
+            }
+        }
+        CourseCatalogIndex index = new CourseCatalogIndex();
+        index.rebuild(catalog);
+
+        // Warm-up JIT, lalu ambil waktu terbaik
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < 200; round++) {
+            long start = System.nanoTime();
+            index.findEligible(completed, null, 21);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+
+        assertFalse(index.findEligible(completed, null, 21).isEmpty());
+        assertTrue(best < 5_000_000L, "Eligible query took " + best + " ns");
+    }
+}
@@ -0,0 +1,199 @@
+package com.siakad.service;
+
+import com.siakad.model.Course;
+import com.siakad.model.Enrollment;
+import com.siakad.model.Student;
+import com.siakad.repository.InMemoryCourseRepository;
+import com.siakad.repository.InMemoryStudentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CourseRosterIndexTest {
+
+    private CountingStudentRepository studentRepository;
+    private InMemoryCourseRepository courseRepository;
+    private EnrollmentService service;
+
+    /**
+     * Repository yang menghitung pembacaan per record dan bulk
+     */
+    static class CountingStudentRepository extends InMemoryStudentRepository {
+        final AtomicInteger singleReads = new AtomicInteger();
+        final AtomicInteger bulkReads = new AtomicInteger();
+        final AtomicInteger largestBulk = new AtomicInteger();
+
+        @Override
+        public Student findById(String studentId) {
+            singleReads.incrementAndGet();
+            return super.findById(studentId);
+        }
+
+        @Override
+        public Map<String, Student> findByIds(Collection<String> studentIds) {
+            bulkReads.incrementAndGet();
+            largestBulk.accumulateAndGet(studentIds.size(), Math::max);
+            return super.findByIds(studentIds);
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        studentRepository = new CountingStudentRepository();
+        courseRepository = new InMemoryCourseRepository(studentRepository);
+        studentRepository.save(new Student("230209003", "Amanda", "amanda@pnc.ac.id",
+                "Rekayasa Keamanan Siber", 5, 3.5, "ACTIVE"));
+        studentRepository.save(new Student("230209001", "Rizky, S.", "rizky@pnc.ac.id",
+                "Rekayasa Keamanan Siber", 5, 3.5, "ACTIVE"));
+        courseRepository.save(new Course("KRIP101", "Kriptografi", 3, 30, 0, "Dr. Smith"));
+        courseRepository.save(new Course("JARK101", "Jaringan \"Dasar\"", 3, 30, 0, "Dr. Jones"));
+        service = new EnrollmentService(studentRepository, courseRepository,
+                new StubNotificationService(), new GradeCalculator());
+    }
+
+    @Test
+    void testRosterIndex_AddRemoveSortedByStudent() {
+        CourseRosterIndex index = new CourseRosterIndex();
+        index.add(new Enrollment("E2", "S2", "KRIP101", LocalDateTime.now(), "APPROVED"));
+        index.add(new Enrollment("E1", "S1", "KRIP101", LocalDateTime.now(), "PENDING"));
+
+        assertEquals(2, index.size("KRIP101"));
+        assertEquals("S1", index.getRoster("KRIP101").get(0).getStudentId());
+        assertEquals("E2", index.remove("S2", "KRIP101").getEnrollmentId());
+        assertNull(index.remove("S2", "KRIP101"));
+        assertNull(index.remove("S1", "X999"));
+        assertTrue(index.getRoster("X999").isEmpty());
+        assertEquals(0, index.size("X999"));
+        assertThrows(UnsupportedOperationException.class, () -> index.getCourseCodes().clear());
+    }
+
+    @Test
+    void testRoster_MaintainedOnEnrollDropAndReservation() {
+        service.enrollCourse("230209003", "KRIP101");
+        Enrollment pending = service.reserveCourse("230209001", "KRIP101");
+
+        List<Enrollment> roster = service.getRosterIndex().getRoster("KRIP101");
+        assertEquals(2, roster.size());
+        assertEquals("230209001", roster.get(0).getStudentId());
+        assertEquals("PENDING", roster.get(0).getStatus());
+
+        service.confirmReservation(pending.getEnrollmentId());
+        assertEquals("APPROVED", service.getRosterIndex().getRoster("KRIP101").get(0).getStatus());
+
+        service.dropCourse("230209003", "KRIP101");
+        assertEquals(1, service.getRosterIndex().size("KRIP101"));
+
+        Enrollment hold = service.reserveCourse("230209003", "JARK101");
+        service.cancelReservation(hold.getEnrollmentId());
+        assertEquals(0, service.getRosterIndex().size("JARK101"));
+    }
+
+    @Test
+    void testRoster_AsyncEnrollment() {
+        service.enrollCourseAsync("230209003", "KRIP101").join();
+        assertEquals("230209003", service.getRosterIndex().getRoster("KRIP101").get(0).getStudentId());
+    }
+
+    @Test
+    void testExport_WritesCsvSortedAndQuoted() throws IOException {
+        service.enrollCourse("230209003", "KRIP101");
+        service.enrollCourse("230209001", "KRIP101");
+        service.enrollCourse("230209003", "JARK101");
+
+        StringWriter out = new StringWriter();
+        assertEquals(3, service.exportRosters(out));
+
+        String[] lines = out.toString().split("\n");
+        assertEquals(4, lines.length);
+        assertEquals(RosterExporter.HEADER, lines[0]);
+        assertTrue(lines[1].startsWith("JARK101,\"Jaringan \"\"Dasar\"\"\",Dr. Jones,230209003,Amanda,amanda@pnc.ac.id,ENR-"));
+        assertTrue(lines[2].startsWith("KRIP101,Kriptografi,Dr. Smith,230209001,\"Rizky, S.\",rizky@pnc.ac.id,"));
+        assertTrue(lines[3].startsWith("KRIP101,Kriptografi,Dr. Smith,230209003,Amanda,"));
+        assertTrue(lines[3].endsWith(",APPROVED"));
+    }
+
+    @Test
+    void testExport_SkipsEmptyRostersAndWritesToFileAndStream(@TempDir Path dir) throws IOException {
+        service.enrollCourse("230209003", "KRIP101");
+        service.enrollCourse("230209003", "JARK101");
+        service.dropCourse("230209003", "JARK101");
+        RosterExporter exporter = new RosterExporter(service.getRosterIndex(), studentRepository, courseRepository);
+
+        Path file = dir.resolve("rosters.csv");
+        assertEquals(1, exporter.export(file));
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(1).startsWith("KRIP101,"));
+
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        assertEquals(1, exporter.export(stream));
+        assertEquals(String.join("\n", lines) + "\n", stream.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testExport_StreamsInBoundedBatches() throws IOException {
+        int sections = 150;
+        int perSection = 600;
+        for (int c = 0; c < sections; c++) {
+            courseRepository.save(new Course(String.format("MK%03d", c), "Mata Kuliah " + c, 2,
+                    perSection, 0, "Dosen " + c));
+        }
+        for (int s = 0; s < perSection; s++) {
+            studentRepository.save(new Student("B" + s, "Mahasiswa " + s, "b" + s + "@pnc.ac.id",
+                    "Informatika", 3, 3.5, "ACTIVE"));
+        }
+        CourseRosterIndex index = new CourseRosterIndex();
+        for (int c = 0; c < sections; c++) {
+            for (int s = 0; s < perSection; s++) {
+                index.add(new Enrollment("E" + c + "-" + s, "B" + s, String.format("MK%03d", c),
+                        LocalDateTime.now(), "APPROVED"));
+            }
+        }
+        studentRepository.singleReads.set(0);
+
+        // Writer yang hanya menghitung baris: tidak ada hasil ekspor yang disimpan
+        AtomicInteger newlines = new AtomicInteger();
+        Writer counting = new Writer() {
+            @Override
+            public void write(char[] buffer, int offset, int length) {
+                for (int i = offset; i < offset + length; i++) {
+                    if (buffer[i] == '\n') {
+                        newlines.incrementAndGet();
+                    }
+                }
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+
+        long rows = new RosterExporter(index, studentRepository, courseRepository).export(counting);
+
+        assertEquals((long) sections * perSection, rows);
+        assertEquals(rows + 1, newlines.get());
+        assertEquals(0, studentRepository.singleReads.get());
+        assertTrue(studentRepository.largestBulk.get() <= 256);
+        // 600 mahasiswa per section -> 3 batch per section
+        assertEquals(sections * 3, studentRepository.bulkReads.get());
+    }
+}
@@ -0,0 +1,188 @@
+package com.siakad.service;
+
+import com.siakad.exception.EnrollmentException;
+import com.siakad.model.Course;
+import com.siakad.model.Enrollment;
+import com.siakad.model.Student;
+import com.siakad.repository.StubCourseRepository;
+import com.siakad.repository.StubStudentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CreditLedgerTest {
+
+    private CreditLedger ledger;
+
+    @BeforeEach
+    void setUp() {
+        ledger = new CreditLedger();
+    }
+
+    // ===== TESTS UNTUK CreditLedger =====
+
+    @Test
+    void testTryReserve_WithinLimit() {
+        assertTrue(ledger.tryReserve("230209003", 20, 24));
+        assertTrue(ledger.tryReserve("230209003", 4, 24));
+        assertEquals(24, ledger.getCredits("230209003"));
+    }
+
+    @Test
+    void testTryReserve_ExceedLimit() {
+        assertTrue(ledger.tryReserve("230209003", 20, 24));
+        assertFalse(ledger.tryReserve("230209003", 5, 24));
+        assertEquals(20, ledger.getCredits("230209003"));
+    }
+
+    @Test
+    void testRelease_NeverBelowZero() {
+        ledger.tryReserve("230209003", 3, 24);
+        ledger.release("230209003", 6);
+        ledger.release("999", 3);
+
+        assertEquals(0, ledger.getCredits("230209003"));
+        assertEquals(0, ledger.getCredits("999"));
+    }
+
+    @Test
+    void testTryReserve_ConcurrentReservationsNeverExceedLimit() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            for (int round = 0; round < 50; round++) {
+                CreditLedger roundLedger = new CreditLedger();
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<Boolean>> results = new ArrayList<>();
+                for (int i = 0; i < 32; i++) {
+                    results.add(executor.submit(() -> {
+                        start.await();
+                        return roundLedger.tryReserve("230209003", 3, 24);
+                    }));
+                }
+                start.countDown();
+
+                int reserved = 0;
+                for (Future<Boolean> result : results) {
+                    if (result.get()) {
+                        reserved++;
+                    }
+                }
+                assertEquals(8, reserved);
+                assertEquals(24, roundLedger.getCredits("230209003"));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // ===== TESTS UNTUK EnrollmentService DENGAN CreditLedger =====
+
+    @Test
+    void testEnrollCourse_ConcurrentTabsCannotExceedCreditCap() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            for (int round = 0; round < 20; round++) {
+                StubStudentRepository studentRepository = new StubStudentRepository();
+                StubCourseRepository courseRepository = new StubCourseRepository();
+                studentRepository.addStudent(new Student("230209003", "Amanda", "amanda@pnc.ac.id",
+                        "Rekayasa Keamanan Siber", 5, 3.5, "ACTIVE"));
+                for (int i = 0; i < 20; i++) {
+                    courseRepository.addCourse(new Course("KRIP" + i, "Kriptografi " + i, 3, 30, 0, "Dr. Smith"));
+                }
+                EnrollmentService service = new EnrollmentService(studentRepository, courseRepository,
+                        new StubNotificationService(), new GradeCalculator());
+
+                CountDownLatch start = new CountDownLatch(1);
+                AtomicInteger enrolled = new AtomicInteger();
+                AtomicInteger rejected = new AtomicInteger();
+                List<Future<?>> futures = new ArrayList<>();
+                for (int i = 0; i < 20; i++) {
+                    String courseCode = "KRIP" + i;
+                    futures.add(executor.submit(() -> {
+                        start.await();
+                        try {
+                            service.enrollCourse("230209003", courseCode);
+                            enrolled.incrementAndGet();
+                        } catch (EnrollmentException e) {
+                            rejected.incrementAndGet();
+                        }
+                        return null;
+                    }));
+                }
+                start.countDown();
+                for (Future<?> future : futures) {
+                    future.get(10, TimeUnit.SECONDS);
+                }
+
+                // IPK 3.5 -> maksimal 24 SKS = 8 mata kuliah @3 SKS
+                assertEquals(8, enrolled.get());
+                assertEquals(12, rejected.get());
+                assertEquals(24, service.getCreditLedger().getCredits("230209003"));
+                assertFalse(service.validateCreditLimit("230209003", 1));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testDropCourse_ReleasesCredits() {
+        StubStudentRepository studentRepository = new StubStudentRepository();
+        StubCourseRepository courseRepository = new StubCourseRepository();
+        studentRepository.addStudent(new Student("230209003", "Amanda", "amanda@pnc.ac.id",
+                "Rekayasa Keamanan Siber", 5, 3.5, "ACTIVE"));
+        courseRepository.addCourse(new Course("KRIP101", "Kriptografi", 3, 30, 0, "Dr. Smith"));
+        EnrollmentService service = new EnrollmentService(studentRepository, courseRepository,
+                new StubNotificationService(), new GradeCalculator());
+
+        service.enrollCourse("230209003", "KRIP101");
+        assertEquals(3, service.getCreditLedger().getCredits("230209003"));
+
+        service.dropCourse("230209003", "KRIP101");
+        assertEquals(0, service.getCreditLedger().getCredits("230209003"));
+    }
+
+    @Test
+    void testLoadEnrollments_SeedsCreditsAfterRestart() {
+        StubStudentRepository studentRepository = new StubStudentRepository();
+        StubCourseRepository courseRepository = new StubCourseRepository();
+        studentRepository.addStudent(new Student("230209003", "Amanda", "amanda@pnc.ac.id",
+                "Rekayasa Keamanan Siber", 5, 1.8, "PROBATION"));
+        for (int i = 0; i < 6; i++) {
+            courseRepository.addCourse(new Course("KRIP" + i, "Kriptografi " + i, 3, 30, 1, "Dr. Smith"));
+        }
+        EnrollmentService service = new EnrollmentService(studentRepository, courseRepository,
+                new StubNotificationService(), new GradeCalculator());
+
+        List<Enrollment> stored = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            stored.add(new Enrollment("ENR-" + i, "230209003", "KRIP" + i, LocalDateTime.now(), "APPROVED"));
+        }
+        stored.add(new Enrollment("ENR-X", "230209003", "KRIP5", LocalDateTime.now(), "REJECTED"));
+        stored.add(new Enrollment("ENR-Y", "230209003", "GONE101", LocalDateTime.now(), "APPROVED"));
+        assertEquals(5, service.loadEnrollments(stored));
+
+        // IPK < 2.0 -> maksimal 15 SKS, sudah terpakai 15 dari data tersimpan
+        assertEquals(15, service.getCreditLedger().getCredits("230209003"));
+        assertThrows(EnrollmentException.class, () -> service.enrollCourse("230209003", "KRIP5"));
+    }
+
+    @Test
+    void testSeed_ReplacesTakenCredits() {
+        ledger.tryReserve("230209003", 6, 24);
+        ledger.seed("230209003", 12);
+        assertEquals(12, ledger.getCredits("230209003"));
+        assertFalse(ledger.tryReserve("230209003", 13, 24));
+    }
+}
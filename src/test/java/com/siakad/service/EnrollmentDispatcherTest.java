@@ -0,0 +1,148 @@
+package com.siakad.service;
+
+import com.siakad.exception.CourseNotFoundException;
+import com.siakad.model.Course;
+import com.siakad.model.Enrollment;
+import com.siakad.model.Student;
+import com.siakad.repository.InMemoryCourseRepository;
+import com.siakad.repository.InMemoryStudentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EnrollmentDispatcherTest {
+
+    private InMemoryStudentRepository studentRepository;
+    private ConcurrencyTrackingCourseRepository courseRepository;
+    private EnrollmentService enrollmentService;
+
+    /**
+     * Repository yang mencatat jumlah permintaan paralel tertinggi per mata kuliah
+     */
+    static class ConcurrencyTrackingCourseRepository extends InMemoryCourseRepository {
+        private final ConcurrentHashMap<String, AtomicInteger> active = new ConcurrentHashMap<>();
+        private final ConcurrentHashMap<String, AtomicInteger> peak = new ConcurrentHashMap<>();
+
+        ConcurrencyTrackingCourseRepository(InMemoryStudentRepository studentRepository) {
+            super(studentRepository);
+        }
+
+        @Override
+        public boolean isPrerequisiteMet(String studentId, String courseCode) {
+            int now = active.computeIfAbsent(courseCode, code -> new AtomicInteger()).incrementAndGet();
+            peak.computeIfAbsent(courseCode, code -> new AtomicInteger()).accumulateAndGet(now, Math::max);
+            try {
+                return super.isPrerequisiteMet(studentId, courseCode);
+            } finally {
+                active.get(courseCode).decrementAndGet();
+            }
+        }
+
+        int peakConcurrency() {
+            int max = 0;
+            for (AtomicInteger value : peak.values()) {
+                max = Math.max(max, value.get());
+            }
+            return max;
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        studentRepository = new InMemoryStudentRepository();
+        courseRepository = new ConcurrencyTrackingCourseRepository(studentRepository);
+        enrollmentService = new EnrollmentService(studentRepository, courseRepository,
+                new StubNotificationService(), new GradeCalculator());
+    }
+
+    @Test
+    void testEnrollCourse_CompletesFuture() throws Exception {
+        studentRepository.save(new Student("230209003", "Amanda", "amanda@pnc.ac.id",
+                "Rekayasa Keamanan Siber", 5, 3.5, "ACTIVE"));
+        courseRepository.save(new Course("KRIP101", "Kriptografi", 3, 30, 0, "Dr. Smith"));
+
+        try (EnrollmentDispatcher dispatcher = new EnrollmentDispatcher(enrollmentService, 4)) {
+            Enrollment enrollment = dispatcher.enrollCourse("230209003", "KRIP101").get(5, TimeUnit.SECONDS);
+            assertEquals("APPROVED", enrollment.getStatus());
+
+            dispatcher.dropCourse("230209003", "KRIP101").get(5, TimeUnit.SECONDS);
+            assertEquals(0, courseRepository.findByCourseCode("KRIP101").getEnrolledCount());
+            assertEquals(0, dispatcher.getActiveRequests("KRIP101"));
+        }
+    }
+
+    @Test
+    void testEnrollCourse_PropagatesException() {
+        studentRepository.save(new Student("230209003", "Amanda", "amanda@pnc.ac.id",
+                "Rekayasa Keamanan Siber", 5, 3.5, "ACTIVE"));
+
+        try (EnrollmentDispatcher dispatcher = new EnrollmentDispatcher(enrollmentService, 4)) {
+            CompletionException exception = assertThrows(CompletionException.class,
+                    () -> dispatcher.enrollCourse("230209003", "X999").join());
+            assertTrue(exception.getCause() instanceof CourseNotFoundException);
+        }
+    }
+
+    @Test
+    void testInvalidConcurrency() {
+        assertThrows(IllegalArgumentException.class, () -> new EnrollmentDispatcher(enrollmentService, 0));
+    }
+
+    @Test
+    void testLoad_100kStudentsAgainstSlowRepository() {
+        int studentCount = 100_000;
+        int courseCount = 200;
+        int capacity = 450;          // 90k kursi untuk 100k mahasiswa -> sebagian harus ditolak
+        int perCourseLimit = 32;
+
+        for (int c = 0; c < courseCount; c++) {
+            courseRepository.save(new Course("MK" + c, "Mata Kuliah " + c, 3, capacity, 0, "Dosen " + c));
+        }
+        for (int s = 0; s < studentCount; s++) {
+            studentRepository.save(new Student("S" + s, "Mahasiswa " + s, "s" + s + "@pnc.ac.id",
+                    "Informatika", 1 + s % 8, 3.0, "ACTIVE"));
+        }
+        studentRepository.setLatency(Duration.ofMillis(1));
+        courseRepository.setLatency(Duration.ofMillis(1));
+
+        AtomicInteger enrolled = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        try (EnrollmentDispatcher dispatcher = new EnrollmentDispatcher(enrollmentService, perCourseLimit)) {
+            List<CompletableFuture<Enrollment>> futures = new ArrayList<>(studentCount);
+            for (int s = 0; s < studentCount; s++) {
+                futures.add(dispatcher.enrollCourse("S" + s, "MK" + (s % courseCount))
+                        .whenComplete((enrollment, error) -> {
+                            if (error == null) {
+                                enrolled.incrementAndGet();
+                            } else {
+                                rejected.incrementAndGet();
+                            }
+                        }));
+            }
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                    .exceptionally(error -> null)
+                    .orTimeout(2, TimeUnit.MINUTES)
+                    .join();
+        }
+
+        int seats = 0;
+        for (Course course : courseRepository.findAll()) {
+            assertTrue(course.getEnrolledCount() <= capacity, "Oversold " + course.getCourseCode());
+            seats += course.getEnrolledCount();
+        }
+        assertEquals(studentCount, enrolled.get() + rejected.get());
+        assertEquals(courseCount * capacity, enrolled.get());
+        assertEquals(enrolled.get(), seats);
+        assertTrue(courseRepository.peakConcurrency() <= perCourseLimit);
+    }
+}
@@ -0,0 +1,143 @@
+package com.siakad.service;
+
+import com.siakad.exception.EnrollmentException;
+import com.siakad.model.Course;
+import com.siakad.model.Enrollment;
+import com.siakad.model.Student;
+import com.siakad.repository.StubCourseRepository;
+import com.siakad.repository.StubStudentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EnrollmentMembershipIndexTest {
+
+    private EnrollmentMembershipIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new EnrollmentMembershipIndex();
+    }
+
+    @Test
+    void testAdd_RejectsDuplicate() {
+        assertTrue(index.add("230209003", "KRIP101"));
+        assertFalse(index.add("230209003", "KRIP101"));
+
+        assertTrue(index.contains("230209003", "KRIP101"));
+        assertEquals(1, index.countStudents("KRIP101"));
+        assertEquals(1, index.getCourses("230209003").size());
+    }
+
+    @Test
+    void testRemove_OnlyEnrolledStudent() {
+        index.add("230209003", "KRIP101");
+
+        assertFalse(index.remove("999", "KRIP101"));
+        assertFalse(index.remove("230209003", "KRIP999"));
+        assertTrue(index.remove("230209003", "KRIP101"));
+        assertFalse(index.remove("230209003", "KRIP101"));
+
+        assertFalse(index.contains("230209003", "KRIP101"));
+        assertTrue(index.getCourses("230209003").isEmpty());
+    }
+
+    @Test
+    void testAdd_ConcurrentRetriesClaimOnce() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            AtomicInteger claimed = new AtomicInteger();
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    if (index.add("230209003", "KRIP101")) {
+                        claimed.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+
+            assertEquals(1, claimed.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testEnrollCourse_ConcurrentRetriesConsumeOneSeat() throws Exception {
+        StubStudentRepository studentRepository = new StubStudentRepository();
+        StubCourseRepository courseRepository = new StubCourseRepository();
+        studentRepository.addStudent(new Student("230209003", "Amanda", "amanda@pnc.ac.id",
+                "Rekayasa Keamanan Siber", 5, 3.5, "ACTIVE"));
+        Course course = new Course("KRIP101", "Kriptografi", 3, 30, 0, "Dr. Smith");
+        courseRepository.addCourse(course);
+        EnrollmentService service = new EnrollmentService(studentRepository, courseRepository,
+                new StubNotificationService(), new GradeCalculator());
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        service.enrollCourse("230209003", "KRIP101");
+                    } catch (RuntimeException ignored) {
+                        // Retry ditolak
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, course.getEnrolledCount());
+        assertEquals(3, service.getCreditLedger().getCredits("230209003"));
+    }
+
+    @Test
+    void testLoadEnrollments_RestoresMembershipAfterRestart() {
+        StubStudentRepository studentRepository = new StubStudentRepository();
+        StubCourseRepository courseRepository = new StubCourseRepository();
+        studentRepository.addStudent(new Student("230209003", "Amanda", "amanda@pnc.ac.id",
+                "Rekayasa Keamanan Siber", 5, 3.5, "ACTIVE"));
+        courseRepository.addCourse(new Course("KRIP101", "Kriptografi", 3, 30, 1, "Dr. Smith"));
+        EnrollmentService service = new EnrollmentService(studentRepository, courseRepository,
+                new StubNotificationService(), new GradeCalculator());
+
+        Enrollment stored = new Enrollment("ENR-1", "230209003", "KRIP101", LocalDateTime.now(), "APPROVED");
+        assertEquals(1, service.loadEnrollments(List.of(stored, stored)));
+
+        assertTrue(service.getMembershipIndex().contains("230209003", "KRIP101"));
+        assertEquals(1, service.getRosterIndex().size("KRIP101"));
+        assertThrows(EnrollmentException.class, () -> service.enrollCourse("230209003", "KRIP101"));
+
+        // Drop atas enrollment sebelum restart berhasil dan mengembalikan kursi
+        service.dropCourse("230209003", "KRIP101");
+        assertEquals(0, courseRepository.findByCourseCode("KRIP101").getEnrolledCount());
+        assertEquals(0, service.getCreditLedger().getCredits("230209003"));
+    }
+}
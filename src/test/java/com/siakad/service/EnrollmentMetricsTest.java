@@ -0,0 +1,127 @@
+package com.siakad.service;
+
+import com.siakad.exception.*;
+import com.siakad.metrics.InMemoryMetricsRegistry;
+import com.siakad.metrics.NoopMetricsRegistry;
+import com.siakad.model.Course;
+import com.siakad.model.Student;
+import com.siakad.repository.StubCourseRepository;
+import com.siakad.repository.StubStudentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EnrollmentMetricsTest {
+
+    private StubStudentRepository studentRepository;
+    private StubCourseRepository courseRepository;
+    private EnrollmentService enrollmentService;
+    private InMemoryMetricsRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        studentRepository = new StubStudentRepository();
+        courseRepository = new StubCourseRepository();
+        studentRepository.addStudent(new Student("230209003", "Amanda", "amanda@pnc.ac.id",
+                "Rekayasa Keamanan Siber", 5, 3.5, "ACTIVE"));
+        studentRepository.addStudent(new Student("230209004", "Budi", "budi@pnc.ac.id",
+                "Rekayasa Keamanan Siber", 5, 1.5, "SUSPENDED"));
+        courseRepository.addCourse(new Course("KRIP101", "Kriptografi", 3, 1, 0, "Dr. Smith"));
+        courseRepository.addCourse(new Course("KRIP201", "Kriptografi Lanjut", 3, 30, 0, "Dr. Smith"));
+        courseRepository.setPrerequisiteResult("230209003", "KRIP201", false);
+
+        enrollmentService = new EnrollmentService(studentRepository, courseRepository,
+                new StubNotificationService(), new GradeCalculator());
+        registry = new InMemoryMetricsRegistry();
+        enrollmentService.setMetricsRegistry(registry);
+    }
+
+    @Test
+    void testOutcomeCounters() {
+        enrollmentService.enrollCourse("230209003", "KRIP101");
+        assertThrows(EnrollmentException.class, () -> enrollmentService.enrollCourse("230209003", "KRIP101"));
+        assertThrows(StudentNotFoundException.class, () -> enrollmentService.enrollCourse("999", "KRIP101"));
+        assertThrows(CourseNotFoundException.class, () -> enrollmentService.enrollCourse("230209003", "X999"));
+        assertThrows(EnrollmentException.class, () -> enrollmentService.enrollCourse("230209004", "KRIP101"));
+        assertThrows(PrerequisiteNotMetException.class,
+                () -> enrollmentService.enrollCourse("230209003", "KRIP201"));
+
+        studentRepository.addStudent(new Student("230209005", "Citra", "citra@pnc.ac.id",
+                "Rekayasa Keamanan Siber", 5, 3.5, "ACTIVE"));
+        assertThrows(CourseFullException.class, () -> enrollmentService.enrollCourse("230209005", "KRIP101"));
+
+        assertEquals(1, registry.getCount("enrollment.success"));
+        assertEquals(1, registry.getCount("enrollment.duplicate"));
+        assertEquals(2, registry.getCount("enrollment.not_found"));
+        assertEquals(1, registry.getCount("enrollment.suspended"));
+        assertEquals(1, registry.getCount("enrollment.prerequisite"));
+        assertEquals(1, registry.getCount("enrollment.full"));
+        assertEquals(0, registry.getCount("enrollment.credit_limit"));
+    }
+
+    @Test
+    void testRepositoryAndNotificationLatencies() {
+        enrollmentService.enrollCourse("230209003", "KRIP101");
+        enrollmentService.dropCourse("230209003", "KRIP101");
+
+        assertEquals(2, registry.histogram("repository.student.findById").getCount());
+        assertEquals(2, registry.histogram("repository.course.findByCourseCode").getCount());
+        assertEquals(1, registry.histogram("repository.course.isPrerequisiteMet").getCount());
+        assertEquals(2, registry.histogram("repository.course.update").getCount());
+        assertEquals(2, registry.histogram("notification.sendEmail").getCount());
+    }
+
+    @Test
+    void testSeatContentionGauge() {
+        enrollmentService.enrollCourse("230209003", "KRIP101");
+
+        // Tidak ada thread yang sedang menunggu setelah enrollment selesai
+        assertEquals(0, registry.getGaugeValue("course.contention.KRIP101"));
+
+        Map<String, Long> snapshot = registry.snapshot();
+        assertTrue(snapshot.containsKey("course.contention.KRIP101"));
+        assertEquals(1L, snapshot.get("enrollment.success"));
+        assertTrue(snapshot.containsKey("repository.course.update.p99"));
+    }
+
+    @Test
+    void testSeatContentionGauge_RegisteredForLocksCreatedBeforeRegistry() {
+        EnrollmentService service = new EnrollmentService(studentRepository, courseRepository,
+                new StubNotificationService(), new GradeCalculator());
+        service.enrollCourse("230209003", "KRIP101");
+
+        InMemoryMetricsRegistry late = new InMemoryMetricsRegistry();
+        service.setMetricsRegistry(late);
+
+        assertTrue(late.snapshot().containsKey("course.contention.KRIP101"));
+        assertEquals(0, late.getGaugeValue("course.contention.KRIP101"));
+    }
+
+    @Test
+    void testDisabledMetricsDoNotWrapRepositories() {
+        EnrollmentService service = new EnrollmentService(studentRepository, courseRepository,
+                new StubNotificationService(), new GradeCalculator());
+        service.setMetricsRegistry(NoopMetricsRegistry.INSTANCE);
+
+        assertNotNull(service.enrollCourse("230209003", "KRIP101"));
+        assertFalse(service.getMetricsRegistry().isEnabled());
+    }
+
+    @Test
+    void testSetMetricsRegistryTwiceDoesNotStackDecorators() {
+        InMemoryMetricsRegistry second = new InMemoryMetricsRegistry();
+        enrollmentService.setMetricsRegistry(second);
+        enrollmentService.enrollCourse("230209003", "KRIP101");
+
+        // Hanya registry terakhir yang merekam, tepat satu kali per panggilan
+        assertEquals(1, second.histogram("repository.student.findById").getCount());
+        assertEquals(0, registry.histogram("repository.student.findById").getCount());
+
+        enrollmentService.setMetricsRegistry(NoopMetricsRegistry.INSTANCE);
+        enrollmentService.dropCourse("230209003", "KRIP101");
+        assertEquals(1, second.histogram("repository.student.findById").getCount());
+    }
+}
@@ -0,0 +1,204 @@
+package com.siakad.service;
+
+import com.siakad.exception.CourseFullException;
+import com.siakad.exception.CourseNotFoundException;
+import com.siakad.exception.EnrollmentException;
+import com.siakad.exception.PrerequisiteNotMetException;
+import com.siakad.exception.StudentNotFoundException;
+import com.siakad.model.Course;
+import com.siakad.model.Enrollment;
+import com.siakad.model.Student;
+import com.siakad.repository.AsyncCourseRepository;
+import com.siakad.repository.AsyncStudentRepository;
+import com.siakad.repository.InMemoryCourseRepository;
+import com.siakad.repository.InMemoryStudentRepository;
+import com.siakad.repository.StubCourseRepository;
+import com.siakad.repository.StubStudentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EnrollmentServiceAsyncTest {
+
+    private InMemoryStudentRepository studentRepository;
+    private InMemoryCourseRepository courseRepository;
+    private StubNotificationService notificationService;
+    private EnrollmentService service;
+
+    @BeforeEach
+    void setUp() {
+        studentRepository = new InMemoryStudentRepository();
+        courseRepository = new InMemoryCourseRepository(studentRepository);
+        notificationService = new StubNotificationService();
+        studentRepository.save(new Student("230209003", "Amanda", "amanda@pnc.ac.id",
+                "Rekayasa Keamanan Siber", 5, 3.5, "ACTIVE"));
+        studentRepository.save(new Student("230209009", "Budi", "budi@pnc.ac.id",
+                "Rekayasa Keamanan Siber", 5, 3.5, "SUSPENDED"));
+        courseRepository.save(new Course("KRIP101", "Kriptografi", 3, 30, 0, "Dr. Smith"));
+        service = new EnrollmentService(studentRepository, courseRepository, notificationService,
+                new GradeCalculator());
+    }
+
+    private Throwable failureOf(CompletableFuture<?> future) {
+        CompletionException exception = assertThrows(CompletionException.class, future::join);
+        return exception.getCause();
+    }
+
+    @Test
+    void testEnrollCourseAsync_Success() {
+        Enrollment enrollment = service.enrollCourseAsync("230209003", "KRIP101").join();
+
+        assertEquals("APPROVED", enrollment.getStatus());
+        assertEquals(1, courseRepository.findByCourseCode("KRIP101").getEnrolledCount());
+        assertEquals(3, service.getCreditLedger().getCredits("230209003"));
+        assertEquals(1, notificationService.getSentEmails().size());
+        assertTrue(failureOf(service.enrollCourseAsync("230209003", "KRIP101")) instanceof EnrollmentException);
+    }
+
+    @Test
+    void testEnrollCourseAsync_RejectionPrecedenceMatchesSync() {
+        Course full = new Course("FULL101", "Penuh", 3, 1, 1, "Dr. Smith");
+        Course advanced = new Course("KRIP201", "Kriptografi Lanjut", 3, 30, 0, "Dr. Smith");
+        advanced.addPrerequisite("KRIP101");
+        courseRepository.save(full);
+        courseRepository.save(advanced);
+
+        // Mahasiswa dicek sebelum mata kuliah walaupun keduanya dicari paralel
+        assertTrue(failureOf(service.enrollCourseAsync("999", "X999")) instanceof StudentNotFoundException);
+        assertEquals("Student is suspended",
+                failureOf(service.enrollCourseAsync("230209009", "X999")).getMessage());
+        assertTrue(failureOf(service.enrollCourseAsync("230209003", "X999")) instanceof CourseNotFoundException);
+        assertTrue(failureOf(service.enrollCourseAsync("230209003", "FULL101")) instanceof CourseFullException);
+        assertTrue(failureOf(service.enrollCourseAsync("230209003", "KRIP201"))
+                instanceof PrerequisiteNotMetException);
+        assertEquals(0, service.getCreditLedger().getCredits("230209003"));
+    }
+
+    @Test
+    void testEnrollCourseAsync_BlockingRepositoriesUseAdapter() {
+        StubStudentRepository students = new StubStudentRepository();
+        students.addStudent(new Student("230209003", "Amanda", "amanda@pnc.ac.id",
+                "Rekayasa Keamanan Siber", 5, 3.5, "ACTIVE"));
+        StubCourseRepository courses = new StubCourseRepository();
+        courses.addCourse(new Course("KRIP101", "Kriptografi", 3, 30, 0, "Dr. Smith"));
+        EnrollmentService blocking = new EnrollmentService(students, courses, notificationService,
+                new GradeCalculator());
+
+        assertEquals("APPROVED", blocking.enrollCourseAsync("230209003", "KRIP101").join().getStatus());
+        assertEquals(1, courses.findByCourseCode("KRIP101").getEnrolledCount());
+    }
+
+    @Test
+    void testEnrollCourseAsync_RetriesOnVersionConflict() {
+        studentRepository.save(new Student("230209004", "Citra", "citra@pnc.ac.id",
+                "Rekayasa Keamanan Siber", 5, 3.5, "ACTIVE"));
+        studentRepository.setLatency(Duration.ofMillis(5));
+        courseRepository.setLatency(Duration.ofMillis(5));
+
+        // Dua instance service membaca versi yang sama; salah satunya harus mencoba ulang
+        EnrollmentService otherInstance = new EnrollmentService(studentRepository, courseRepository,
+                notificationService, new GradeCalculator());
+        CompletableFuture<Enrollment> first = service.enrollCourseAsync("230209003", "KRIP101");
+        CompletableFuture<Enrollment> second = otherInstance.enrollCourseAsync("230209004", "KRIP101");
+        CompletableFuture.allOf(first, second).join();
+
+        assertEquals(2, courseRepository.findByCourseCode("KRIP101").getEnrolledCount());
+        assertTrue(service.getUpdateConflictCount() + otherInstance.getUpdateConflictCount() >= 1);
+    }
+
+    @Test
+    void testCriticalPath_CourseLookupDoesNotWaitForStudent() {
+        CompletableFuture<Student> pendingStudent = new CompletableFuture<>();
+        List<String> courseCalls = new CopyOnWriteArrayList<>();
+        AsyncStudentRepository students = new AsyncStudentRepository() {
+            @Override
+            public CompletableFuture<Student> findByIdAsync(String studentId) {
+                return pendingStudent;
+            }
+
+            @Override
+            public CompletableFuture<Void> updateAsync(Student student) {
+                return studentRepository.updateAsync(student);
+            }
+
+            @Override
+            public CompletableFuture<List<Course>> getCompletedCoursesAsync(String studentId) {
+                return studentRepository.getCompletedCoursesAsync(studentId);
+            }
+        };
+        AsyncCourseRepository courses = new AsyncCourseRepository() {
+            @Override
+            public CompletableFuture<Course> findByCourseCodeAsync(String courseCode) {
+                courseCalls.add("findByCourseCode");
+                return courseRepository.findByCourseCodeAsync(courseCode);
+            }
+
+            @Override
+            public CompletableFuture<Void> updateAsync(Course course) {
+                courseCalls.add("update");
+                return courseRepository.updateAsync(course);
+            }
+
+            @Override
+            public CompletableFuture<Boolean> isPrerequisiteMetAsync(String studentId, String courseCode) {
+                courseCalls.add("isPrerequisiteMet");
+                return courseRepository.isPrerequisiteMetAsync(studentId, courseCode);
+            }
+        };
+        service.setAsyncRepositories(students, courses);
+
+        CompletableFuture<Enrollment> future = service.enrollCourseAsync("230209003", "KRIP101");
+
+        // Lookup mata kuliah sudah berjalan walaupun lookup mahasiswa belum selesai
+        assertEquals(List.of("findByCourseCode"), courseCalls);
+        assertFalse(future.isDone());
+
+        // Sisa jalur kritis: prasyarat lalu update, masing-masing satu round trip
+        pendingStudent.complete(studentRepository.findById("230209003"));
+        assertEquals("APPROVED", future.join().getStatus());
+        assertEquals(List.of("findByCourseCode", "isPrerequisiteMet", "update"), courseCalls);
+        assertEquals(1, courseRepository.findByCourseCode("KRIP101").getEnrolledCount());
+    }
+
+    @Test
+    void testManyInFlight_WithoutThreadPerRequest() {
+        int studentCount = 2_000;
+        for (int c = 0; c < 20; c++) {
+            courseRepository.save(new Course("MK" + c, "Mata Kuliah " + c, 3, 80, 0, "Dosen " + c));
+        }
+        for (int s = 0; s < studentCount; s++) {
+            studentRepository.save(new Student("B" + s, "Mahasiswa " + s, "b" + s + "@pnc.ac.id",
+                    "Informatika", 3, 3.5, "ACTIVE"));
+        }
+        studentRepository.setLatency(Duration.ofMillis(10));
+        courseRepository.setLatency(Duration.ofMillis(10));
+
+        List<CompletableFuture<Enrollment>> futures = new ArrayList<>();
+        for (int s = 0; s < studentCount; s++) {
+            futures.add(service.enrollCourseAsync("B" + s, "MK" + (s % 20)));
+        }
+        long succeeded = futures.stream()
+                .map(future -> future.handle((enrollment, error) -> error == null))
+                .map(CompletableFuture::join)
+                .filter(Boolean::booleanValue)
+                .count();
+
+        int seats = 0;
+        for (Course course : courseRepository.findAll()) {
+            if (course.getCourseCode().startsWith("MK")) {
+                assertTrue(course.getEnrolledCount() <= 80);
+                seats += course.getEnrolledCount();
+            }
+        }
+        assertEquals(1_600, succeeded);
+        assertEquals(succeeded, seats);
+    }
+}
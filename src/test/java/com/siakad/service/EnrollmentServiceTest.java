@@ -223,6 +223,7 @@ class EnrollmentServiceTest {
         when(studentRepository.findById("230209003")).thenReturn(student);
         when(courseRepository.findByCourseCode("KRIP101")).thenReturn(course);
         when(courseRepository.isPrerequisiteMet("230209003", "KRIP101")).thenReturn(true);
+        when(gradeCalculator.calculateMaxCredits(3.5)).thenReturn(24);
 
         // Untuk void method update(), gunakan doNothing()
         doNothing().when(courseRepository).update(any(Course.class));
@@ -330,10 +331,13 @@ class EnrollmentServiceTest {
         when(studentRepository.findById("230209003")).thenReturn(student);
         when(courseRepository.findByCourseCode("KRIP101")).thenReturn(course);
         doNothing().when(courseRepository).update(any(Course.class));
+        // Mahasiswa harus sudah terdaftar sebelum bisa drop
+        enrollmentService.getMembershipIndex().add("230209003", "KRIP101");
 
         assertDoesNotThrow(() -> {
             enrollmentService.dropCourse("230209003", "KRIP101");
         });
+        assertEquals(24, course.getEnrolledCount());
 
         verify(studentRepository, times(1)).findById("230209003");
         verify(courseRepository, times(1)).findByCourseCode("KRIP101");
@@ -364,6 +368,7 @@ class EnrollmentServiceTest {
         // Mock untuk dependencies lain
         NotificationService mockNotification = mock(NotificationService.class);
         GradeCalculator mockGradeCalculator = mock(GradeCalculator.class);
+        when(mockGradeCalculator.calculateMaxCredits(3.5)).thenReturn(24);
 
         // Create service dengan manual stubs
         EnrollmentService manualService = new EnrollmentService(
@@ -419,4 +424,93 @@ class EnrollmentServiceTest {
         // Verify no notification sent for suspended student
         verify(mockNotification, never()).sendEmail(anyString(), anyString(), anyString());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testEnrollCourse_CreditLimitExceeded() {
+
+        Student student = createStudent("230209003", "Amanda Bunga Lestari", "amandabunga@pnc.ac.id",
+                "Rekayasa Keamanan Siber", 5, 1.5, "ACTIVE");
+        Course course = createCourse("TA401", "Tugas Akhir", 16, 30,
+                25, "Dr. Smith");
+
+        when(studentRepository.findById("230209003")).thenReturn(student);
+        when(courseRepository.findByCourseCode("TA401")).thenReturn(course);
+        when(courseRepository.isPrerequisiteMet("230209003", "TA401")).thenReturn(true);
+        when(gradeCalculator.calculateMaxCredits(1.5)).thenReturn(15);
+
+        assertThrows(EnrollmentException.class, () -> {
+            enrollmentService.enrollCourse("230209003", "TA401");
+        });
+
+        assertEquals(25, course.getEnrolledCount());
+        verify(courseRepository, never()).update(any(Course.class));
+        verify(notificationService, never()).sendEmail(anyString(), anyString(), anyString());
+    }
+
+    @Test
+    void testEnrollCourse_UpdateFailureReleasesCredits() {
+
+        Student student = createStudent("230209003", "Amanda Bunga Lestari", "amandabunga@pnc.ac.id",
+                "Rekayasa Keamanan Siber", 5, 3.5, "ACTIVE");
+        Course course = createCourse("KRIP101", "Kriptografi Lanjut", 3, 30,
+                25, "Dr. Smith");
+
+        when(studentRepository.findById("230209003")).thenReturn(student);
+        when(courseRepository.findByCourseCode("KRIP101")).thenReturn(course);
+        when(courseRepository.isPrerequisiteMet("230209003", "KRIP101")).thenReturn(true);
+        when(gradeCalculator.calculateMaxCredits(3.5)).thenReturn(24);
+        doThrow(new RuntimeException("Database down")).when(courseRepository).update(any(Course.class));
+
+        assertThrows(RuntimeException.class, () -> {
+            enrollmentService.enrollCourse("230209003", "KRIP101");
+        });
+
+        assertEquals(25, course.getEnrolledCount());
+        assertEquals(0, enrollmentService.getCreditLedger().getCredits("230209003"));
+    }
+
+    @Test
+    void testEnrollCourse_DuplicateEnrollmentRejected() {
+
+        Student student = createStudent("230209003", "Amanda Bunga Lestari", "amandabunga@pnc.ac.id",
+                "Rekayasa Keamanan Siber", 5, 3.5, "ACTIVE");
+        Course course = createCourse("KRIP101", "Kriptografi Lanjut", 3, 30,
+                25, "Dr. Smith");
+
+        when(studentRepository.findById("230209003")).thenReturn(student);
+        when(courseRepository.findByCourseCode("KRIP101")).thenReturn(course);
+        when(courseRepository.isPrerequisiteMet("230209003", "KRIP101")).thenReturn(true);
+        when(gradeCalculator.calculateMaxCredits(3.5)).thenReturn(24);
+
+        enrollmentService.enrollCourse("230209003", "KRIP101");
+
+        // Retry tidak boleh memakan kursi lagi dan tidak menyentuh repository
+        assertThrows(EnrollmentException.class, () -> {
+            enrollmentService.enrollCourse("230209003", "KRIP101");
+        });
+
+        assertEquals(26, course.getEnrolledCount());
+        verify(studentRepository, times(1)).findById("230209003");
+        verify(courseRepository, times(1)).update(any(Course.class));
+    }
+
+    @Test
+    void testDropCourse_NotEnrolled() {
+
+        Student student = createStudent("230209003", "Amanda Bunga Lestari", "amandabunga@pnc.ac.id",
+                "Rekayasa Keamanan Siber", 5, 3.5, "ACTIVE");
+        Course course = createCourse("KRIP101", "Kriptografi Lanjut", 3, 30,
+                25, "Dr. Smith");
+
+        when(studentRepository.findById("230209003")).thenReturn(student);
+        when(courseRepository.findByCourseCode("KRIP101")).thenReturn(course);
+
+        assertThrows(EnrollmentException.class, () -> {
+            enrollmentService.dropCourse("230209003", "KRIP101");
+        });
+
+        assertEquals(25, course.getEnrolledCount());
+        verify(courseRepository, never()).update(any(Course.class));
+        verify(notificationService, never()).sendEmail(anyString(), anyString(), anyString());
+    }
+}
@@ -0,0 +1,89 @@
+package com.siakad.service;
+
+import com.siakad.exception.StudentNotFoundException;
+import com.siakad.model.Course;
+import com.siakad.model.Student;
+import com.siakad.repository.StubCourseRepository;
+import com.siakad.repository.StubStudentRepository;
+import com.siakad.tracing.Trace;
+import com.siakad.tracing.TraceRecorder;
+import com.siakad.tracing.TraceStage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EnrollmentTracingTest {
+
+    private EnrollmentService enrollmentService;
+    private TraceRecorder recorder;
+
+    @BeforeEach
+    void setUp() {
+        StubStudentRepository studentRepository = new StubStudentRepository();
+        StubCourseRepository courseRepository = new StubCourseRepository() {
+            @Override
+            public boolean isPrerequisiteMet(String studentId, String courseCode) {
+                sleep(3);   // Simulasi query prasyarat yang lambat
+                return super.isPrerequisiteMet(studentId, courseCode);
+            }
+        };
+        studentRepository.addStudent(new Student("230209003", "Amanda", "amanda@pnc.ac.id",
+                "Rekayasa Keamanan Siber", 5, 3.5, "ACTIVE"));
+        courseRepository.addCourse(new Course("KRIP101", "Kriptografi", 3, 30, 0, "Dr. Smith"));
+
+        enrollmentService = new EnrollmentService(studentRepository, courseRepository,
+                new StubNotificationService(), new GradeCalculator());
+        recorder = new TraceRecorder(1, 16);
+        enrollmentService.setTraceRecorder(recorder);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    void testEnrollCourse_RecordsEveryStage() {
+        enrollmentService.enrollCourse("230209003", "KRIP101");
+
+        Trace trace = recorder.slowest(1).get(0);
+        assertEquals("enrollCourse", trace.getOperation());
+        assertNull(trace.getError());
+        assertTrue(trace.getStageNanos(TraceStage.FIND_STUDENT) > 0);
+        assertTrue(trace.getStageNanos(TraceStage.FIND_COURSE) > 0);
+        assertTrue(trace.getStageNanos(TraceStage.UPDATE_COURSE) > 0);
+        assertTrue(trace.getStageNanos(TraceStage.SEND_NOTIFICATION) > 0);
+
+        // Tahapan paling lambat bisa langsung terlihat
+        assertTrue(trace.getStageNanos(TraceStage.CHECK_PREREQUISITE) >= 3_000_000);
+    }
+
+    @Test
+    void testDropAndValidate_AreTraced() {
+        enrollmentService.enrollCourse("230209003", "KRIP101");
+        enrollmentService.dropCourse("230209003", "KRIP101");
+        enrollmentService.validateCreditLimit("230209003", 3);
+
+        List<Trace> traces = recorder.slowest(10);
+        assertEquals(3, traces.size());
+        // enrollCourse paling lambat karena cek prasyarat
+        assertEquals("enrollCourse", traces.get(0).getOperation());
+        assertTrue(recorder.dumpSlowest(3).contains("dropCourse"));
+        assertTrue(recorder.dumpSlowest(3).contains("validateCreditLimit"));
+    }
+
+    @Test
+    void testFailedCall_RecordsError() {
+        assertThrows(StudentNotFoundException.class, () -> enrollmentService.enrollCourse("999", "KRIP101"));
+
+        Trace trace = recorder.slowest(1).get(0);
+        assertEquals("StudentNotFoundException", trace.getError());
+        assertEquals(0, trace.getStageNanos(TraceStage.FIND_COURSE));
+    }
+}
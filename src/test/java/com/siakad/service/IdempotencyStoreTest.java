@@ -0,0 +1,157 @@
+package com.siakad.service;
+
+import com.siakad.exception.CourseFullException;
+import com.siakad.exception.EnrollmentException;
+import com.siakad.model.Course;
+import com.siakad.model.Enrollment;
+import com.siakad.model.Student;
+import com.siakad.repository.InMemoryCourseRepository;
+import com.siakad.repository.InMemoryStudentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyStoreTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private InMemoryStudentRepository studentRepository;
+    private InMemoryCourseRepository courseRepository;
+    private StubNotificationService notificationService;
+    private EnrollmentService service;
+
+    @BeforeEach
+    void setUp() {
+        studentRepository = new InMemoryStudentRepository();
+        courseRepository = new InMemoryCourseRepository(studentRepository);
+        notificationService = new StubNotificationService();
+        studentRepository.save(new Student("230209003", "Amanda", "amanda@pnc.ac.id",
+                "Rekayasa Keamanan Siber", 5, 3.5, "ACTIVE"));
+        studentRepository.save(new Student("230209004", "Budi", "budi@pnc.ac.id",
+                "Rekayasa Keamanan Siber", 5, 3.0, "ACTIVE"));
+        courseRepository.save(new Course("KRIP101", "Kriptografi", 3, 1, 0, "Dr. Smith"));
+        service = new EnrollmentService(studentRepository, courseRepository, notificationService, new GradeCalculator());
+        service.setIdempotencyStore(new IdempotencyStore(1024, Duration.ofMinutes(30), clock::get));
+    }
+
+    @Test
+    void testEnrollCourse_RetryReturnsOriginalEnrollment() {
+        Enrollment first = service.enrollCourse("230209003", "KRIP101", "req-1");
+        Enrollment retry = service.enrollCourse("230209003", "KRIP101", "req-1");
+
+        assertSame(first, retry);
+        assertEquals(1, courseRepository.findByCourseCode("KRIP101").getEnrolledCount());
+        assertEquals(1, notificationService.getSentEmails().size());
+        assertEquals(1, service.getIdempotencyStore().getReplayCount());
+
+        // Kunci baru berarti permintaan baru
+        assertThrows(EnrollmentException.class, () -> service.enrollCourse("230209003", "KRIP101", "req-2"));
+    }
+
+    @Test
+    void testDropCourse_RetryDoesNotDecrementAgain() {
+        courseRepository.save(new Course("JARK101", "Jaringan", 3, 30, 0, "Dr. Smith"));
+        service.enrollCourse("230209003", "JARK101");
+        service.enrollCourse("230209004", "JARK101");
+
+        service.dropCourse("230209003", "JARK101", "drop-1");
+        service.dropCourse("230209003", "JARK101", "drop-1");
+
+        assertEquals(1, courseRepository.findByCourseCode("JARK101").getEnrolledCount());
+        assertTrue(service.getMembershipIndex().contains("230209004", "JARK101"));
+    }
+
+    @Test
+    void testExecute_FailuresAreNotRemembered() {
+        service.enrollCourse("230209004", "KRIP101");
+        assertThrows(CourseFullException.class, () -> service.enrollCourse("230209003", "KRIP101", "req-1"));
+
+        Course course = courseRepository.findByCourseCode("KRIP101");
+        course.setCapacity(2);
+        courseRepository.save(course);
+        assertEquals("APPROVED", service.enrollCourse("230209003", "KRIP101", "req-1").getStatus());
+    }
+
+    @Test
+    void testExecute_RejectsKeyReusedForDifferentRequest() {
+        courseRepository.save(new Course("JARK101", "Jaringan", 3, 30, 0, "Dr. Smith"));
+        service.enrollCourse("230209003", "KRIP101", "req-1");
+
+        EnrollmentException exception = assertThrows(EnrollmentException.class,
+                () -> service.enrollCourse("230209003", "JARK101", "req-1"));
+        assertEquals("Idempotency key already used for a different request: req-1", exception.getMessage());
+        assertEquals(0, courseRepository.findByCourseCode("JARK101").getEnrolledCount());
+    }
+
+    @Test
+    void testExecute_ExpiresAfterTtlAndStaysBounded() {
+        IdempotencyStore store = new IdempotencyStore(64, Duration.ofSeconds(10), clock::get);
+        AtomicInteger runs = new AtomicInteger();
+        store.execute("k", "op", () -> {
+            runs.incrementAndGet();
+            return null;
+        });
+        clock.addAndGet(Duration.ofSeconds(9).toNanos());
+        store.execute("k", "op", () -> {
+            runs.incrementAndGet();
+            return null;
+        });
+        assertEquals(1, runs.get());
+
+        clock.addAndGet(Duration.ofSeconds(1).toNanos());
+        store.execute("k", "op", () -> {
+            runs.incrementAndGet();
+            return null;
+        });
+        assertEquals(2, runs.get());
+
+        for (int i = 0; i < 10_000; i++) {
+            store.execute("key-" + i, "op", () -> null);
+        }
+        assertTrue(store.size() <= 64);
+        assertTrue(store.getEvictionCount() > 0);
+        assertThrows(IllegalArgumentException.class, () -> new IdempotencyStore(10, Duration.ofSeconds(1)));
+    }
+
+    @Test
+    void testExecute_ConcurrentDuplicatesRunOnce() throws Exception {
+        IdempotencyStore store = new IdempotencyStore(1024, Duration.ofMinutes(1));
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        Enrollment original = new Enrollment();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Enrollment>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> store.execute("req", "op", () -> {
+                    runs.incrementAndGet();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return original;
+                })));
+            }
+            Thread.sleep(50);
+            release.countDown();
+            for (Future<Enrollment> result : results) {
+                assertSame(original, result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(1, runs.get());
+        assertEquals(7, store.getReplayCount());
+    }
+}
@@ -0,0 +1,240 @@
+package com.siakad.service;
+
+import com.siakad.exception.CourseFullException;
+import com.siakad.exception.EnrollmentException;
+import com.siakad.exception.PrerequisiteNotMetException;
+import com.siakad.model.Course;
+import com.siakad.model.Enrollment;
+import com.siakad.model.Student;
+import com.siakad.repository.InMemoryCourseRepository;
+import com.siakad.repository.InMemoryStudentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LotteryAllocatorTest {
+
+    private InMemoryStudentRepository studentRepository;
+    private InMemoryCourseRepository courseRepository;
+    private EnrollmentService service;
+
+    @BeforeEach
+    void setUp() {
+        studentRepository = new InMemoryStudentRepository();
+        courseRepository = new InMemoryCourseRepository(studentRepository);
+        service = new EnrollmentService(studentRepository, courseRepository,
+                new StubNotificationService(), new GradeCalculator());
+    }
+
+    private void addStudents(String prefix, int count, int semester, double gpa) {
+        for (int s = 0; s < count; s++) {
+            studentRepository.save(new Student(prefix + s, "Mahasiswa " + prefix + s, prefix + s + "@pnc.ac.id",
+                    "Informatika", semester, gpa, "ACTIVE"));
+        }
+    }
+
+    private Throwable failureOf(CompletableFuture<Enrollment> future) {
+        return assertThrows(CompletionException.class, future::join).getCause();
+    }
+
+    @Test
+    void testAllocate_OversubscribedCourseFilledOnce() {
+        addStudents("S", 100, 3, 3.0);
+        courseRepository.save(new Course("KRIP101", "Kriptografi", 3, 10, 0, "Dr. Smith"));
+        LotteryAllocator lottery = new LotteryAllocator(service, studentRepository, 7L);
+
+        List<CompletableFuture<Enrollment>> futures = new ArrayList<>();
+        for (int s = 0; s < 100; s++) {
+            futures.add(lottery.submit("S" + s, "KRIP101"));
+        }
+        assertSame(futures.get(0), lottery.submit("S0", "KRIP101"));
+        assertEquals(100, lottery.getPendingCount());
+        // Selama jendela terbuka tidak ada kursi yang diambil
+        assertEquals(0, courseRepository.findByCourseCode("KRIP101").getEnrolledCount());
+
+        LotteryResult result = lottery.allocate();
+
+        assertEquals(100, result.getRequestCount());
+        assertEquals(10, result.getAdmittedCount());
+        assertEquals(90, result.getRejectedCount());
+        assertEquals(10, courseRepository.findByCourseCode("KRIP101").getEnrolledCount());
+        assertEquals(0, lottery.getPendingCount());
+        int won = 0;
+        for (CompletableFuture<Enrollment> future : futures) {
+            assertTrue(future.isDone());
+            if (future.isCompletedExceptionally()) {
+                assertTrue(failureOf(future) instanceof CourseFullException);
+            } else {
+                won++;
+            }
+        }
+        assertEquals(10, won);
+    }
+
+    @Test
+    void testAllocate_FailureCompletesPendingRequests() {
+        addStudents("S", 3, 3, 3.0);
+        courseRepository.save(new Course("KRIP101", "Kriptografi", 3, 10, 0, "Dr. Smith"));
+        InMemoryStudentRepository failing = new InMemoryStudentRepository() {
+            @Override
+            public Map<String, Student> findByIds(Collection<String> studentIds) {
+                throw new IllegalStateException("Student store unavailable");
+            }
+        };
+        LotteryAllocator lottery = new LotteryAllocator(service, failing, 7L);
+        List<CompletableFuture<Enrollment>> futures = new ArrayList<>();
+        for (int s = 0; s < 3; s++) {
+            futures.add(lottery.submit("S" + s, "KRIP101"));
+        }
+
+        assertThrows(IllegalStateException.class, lottery::allocate);
+
+        for (CompletableFuture<Enrollment> future : futures) {
+            assertEquals("Student store unavailable", failureOf(future).getMessage());
+        }
+        assertEquals(0, courseRepository.findByCourseCode("KRIP101").getEnrolledCount());
+    }
+
+    @Test
+    void testAllocate_DrawFailureCompletesPendingRequests() {
+        addStudents("S", 3, 3, 3.0);
+        courseRepository.save(new Course("KRIP101", "Kriptografi", 3, 10, 0, "Dr. Smith"));
+        LotteryAllocator lottery = new LotteryAllocator(service, studentRepository, student -> {
+            throw new IllegalArgumentException("Weight unavailable");
+        }, 7L, Runnable::run);
+        CompletableFuture<Enrollment> future = lottery.submit("S0", "KRIP101");
+
+        assertThrows(CompletionException.class, lottery::allocate);
+        assertEquals("Weight unavailable", failureOf(future).getMessage());
+    }
+
+    @Test
+    void testDrawOrder_DeterministicForSeed() {
+        addStudents("S", 50, 3, 3.0);
+        LotteryAllocator first = new LotteryAllocator(service, studentRepository, 99L);
+        LotteryAllocator second = new LotteryAllocator(service, studentRepository, 99L);
+        LotteryAllocator other = new LotteryAllocator(service, studentRepository, 100L);
+        List<String> ids = new ArrayList<>();
+        for (int s = 0; s < 50; s++) {
+            ids.add("S" + s);
+        }
+        List<String> reversed = new ArrayList<>(ids);
+        Collections.reverse(reversed);
+
+        List<String> order = first.drawOrder("KRIP101", ids, studentRepository.findByIds(ids));
+        assertEquals(order, second.drawOrder("KRIP101", reversed, studentRepository.findByIds(ids)));
+        assertNotEquals(order, other.drawOrder("KRIP101", ids, studentRepository.findByIds(ids)));
+    }
+
+    @Test
+    void testAllocate_PrioritizesSeniorAndHighGpaStudents() {
+        addStudents("SR", 200, 8, 4.0);   // bobot 16
+        addStudents("JR", 200, 1, 0.0);   // bobot 1
+        courseRepository.save(new Course("KRIP101", "Kriptografi", 3, 40, 0, "Dr. Smith"));
+        LotteryAllocator lottery = new LotteryAllocator(service, studentRepository, 3L);
+        for (int s = 0; s < 200; s++) {
+            lottery.submit("JR" + s, "KRIP101");
+            lottery.submit("SR" + s, "KRIP101");
+        }
+
+        LotteryResult result = lottery.allocate();
+
+        int seniors = 0;
+        for (Enrollment enrollment : result.getAdmitted("KRIP101")) {
+            if (enrollment.getStudentId().startsWith("SR")) {
+                seniors++;
+            }
+        }
+        assertEquals(40, result.getAdmittedCount());
+        assertTrue(seniors >= 34, "Seniors admitted: " + seniors);
+    }
+
+    @Test
+    void testAllocate_RespectsPrerequisitesAndCreditLimits() {
+        addStudents("S", 4, 3, 3.0);
+        studentRepository.save(new Student("LOW", "Mahasiswa Low", "low@pnc.ac.id",
+                "Informatika", 3, 1.5, "ACTIVE"));                // maksimal 15 SKS
+        studentRepository.save(new Student("SUS", "Mahasiswa Sus", "sus@pnc.ac.id",
+                "Informatika", 8, 4.0, "SUSPENDED"));
+        Course advanced = new Course("KRIP201", "Kriptografi Lanjut", 3, 2, 0, "Dr. Smith");
+        advanced.addPrerequisite("KRIP101");
+        courseRepository.save(advanced);
+        studentRepository.addCompletedCourse("S0", new Course("KRIP101", "Kriptografi", 3, 30, 0, "Dr. Smith"));
+        studentRepository.addCompletedCourse("S1", new Course("KRIP101", "Kriptografi", 3, 30, 0, "Dr. Smith"));
+        for (int c = 0; c < 6; c++) {
+            courseRepository.save(new Course("MK" + c, "Mata Kuliah " + c, 3, 10, 0, "Dosen " + c));
+        }
+
+        LotteryAllocator lottery = new LotteryAllocator(service, studentRepository, 11L);
+        List<CompletableFuture<Enrollment>> advancedRequests = new ArrayList<>();
+        for (String studentId : List.of("S0", "S1", "S2", "S3", "SUS")) {
+            advancedRequests.add(lottery.submit(studentId, "KRIP201"));
+        }
+        List<CompletableFuture<Enrollment>> lowRequests = new ArrayList<>();
+        for (int c = 0; c < 6; c++) {
+            lowRequests.add(lottery.submit("LOW", "MK" + c));
+        }
+
+        LotteryResult result = lottery.allocate();
+
+        // Hanya S0 dan S1 yang memenuhi prasyarat; kursi tidak hilang karena kandidat yang gagal
+        List<String> winners = new ArrayList<>();
+        for (Enrollment enrollment : result.getAdmitted("KRIP201")) {
+            winners.add(enrollment.getStudentId());
+        }
+        winners.sort(null);
+        assertEquals(List.of("S0", "S1"), winners);
+        assertTrue(failureOf(advancedRequests.get(2)) instanceof PrerequisiteNotMetException);
+        assertEquals("Student is suspended", failureOf(advancedRequests.get(4)).getMessage());
+
+        // 6 x 3 SKS = 18 > 15: tepat satu permintaan ditolak karena batas SKS
+        int creditRejections = 0;
+        for (CompletableFuture<Enrollment> future : lowRequests) {
+            if (future.isCompletedExceptionally()) {
+                Throwable failure = failureOf(future);
+                assertTrue(failure instanceof EnrollmentException);
+                assertEquals("Credit limit exceeded", failure.getMessage());
+                creditRejections++;
+            }
+        }
+        assertEquals(1, creditRejections);
+        assertEquals(15, service.getCreditLedger().getCredits("LOW"));
+        assertEquals(result.getRequestCount(), result.getAdmittedCount() + result.getRejectedCount());
+    }
+
+    @Test
+    void testAllocate_ParallelAcrossManyCourses() {
+        int courseCount = 50;
+        addStudents("B", 2_000, 4, 3.2);
+        for (int c = 0; c < courseCount; c++) {
+            courseRepository.save(new Course("MK" + c, "Mata Kuliah " + c, 2, 30, 0, "Dosen " + c));
+        }
+        LotteryAllocator lottery = new LotteryAllocator(service, studentRepository, 5L);
+        for (int s = 0; s < 2_000; s++) {
+            // Setiap mahasiswa mendaftar ke 3 mata kuliah (6 SKS)
+            for (int k = 0; k < 3; k++) {
+                lottery.submit("B" + s, "MK" + ((s + k * 17) % courseCount));
+            }
+        }
+
+        LotteryResult result = lottery.allocate();
+
+        assertEquals(6_000, result.getRequestCount());
+        assertEquals(courseCount * 30, result.getAdmittedCount());
+        assertEquals(courseCount, result.getCourseCodes().size());
+        for (int c = 0; c < courseCount; c++) {
+            assertEquals(30, courseRepository.findByCourseCode("MK" + c).getEnrolledCount());
+            assertEquals(30, result.getAdmitted("MK" + c).size());
+        }
+        assertTrue(result.getAdmitted("X999").isEmpty());
+    }
+}
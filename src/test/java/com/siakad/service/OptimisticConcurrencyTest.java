@@ -0,0 +1,374 @@
+package com.siakad.service;
+
+import com.siakad.exception.ConcurrentUpdateException;
+import com.siakad.exception.EnrollmentException;
+import com.siakad.model.Course;
+import com.siakad.model.Enrollment;
+import com.siakad.model.Student;
+import com.siakad.repository.CourseRepository;
+import com.siakad.repository.InMemoryCourseRepository;
+import com.siakad.repository.InMemoryStudentRepository;
+import com.siakad.repository.StudentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class OptimisticConcurrencyTest {
+
+    private InMemoryStudentRepository studentRepository;
+    private InMemoryCourseRepository courseRepository;
+
+    @BeforeEach
+    void setUp() {
+        studentRepository = new InMemoryStudentRepository();
+        courseRepository = new InMemoryCourseRepository(studentRepository);
+    }
+
+    private void addStudents(int count) {
+        for (int s = 0; s < count; s++) {
+            studentRepository.save(new Student("S" + s, "Mahasiswa " + s, "s" + s + "@pnc.ac.id",
+                    "Informatika", 3, 3.5, "ACTIVE"));
+        }
+    }
+
+    @Test
+    void testUpdate_RejectsStaleVersion() {
+        courseRepository.save(new Course("KRIP101", "Kriptografi", 3, 30, 0, "Dr. Smith"));
+        Course first = courseRepository.findByCourseCode("KRIP101");
+        Course second = courseRepository.findByCourseCode("KRIP101");
+
+        first.setEnrolledCount(1);
+        courseRepository.update(first);
+        assertEquals(1, first.getVersion());
+
+        // Salinan kedua dibaca sebelum update pertama: tidak boleh menimpa
+        second.setEnrolledCount(1);
+        ConcurrentUpdateException exception = assertThrows(ConcurrentUpdateException.class,
+                () -> courseRepository.update(second));
+        assertEquals("Course was modified concurrently: KRIP101 (expected version 0, found 1)",
+                exception.getMessage());
+        assertEquals(0, second.getVersion());
+
+        // Mengubah salinan tanpa update tidak mengubah repository
+        first.setEnrolledCount(99);
+        assertEquals(1, courseRepository.findByCourseCode("KRIP101").getEnrolledCount());
+    }
+
+    @Test
+    void testEnrollCourse_RetriesAfterConflict() {
+        addStudents(1);
+        courseRepository.save(new Course("KRIP101", "Kriptografi", 3, 30, 5, "Dr. Smith"));
+        EnrollmentService service = new EnrollmentService(studentRepository, courseRepository,
+                new StubNotificationService(), new GradeCalculator());
+
+        // Instance lain mengubah mata kuliah tepat setelah service membacanya
+        CourseRepository racing = spy(courseRepository);
+        AtomicInteger reads = new AtomicInteger();
+        doAnswer(invocation -> {
+            Course read = courseRepository.findByCourseCode(invocation.getArgument(0));
+            if (reads.getAndIncrement() == 0) {
+                Course other = courseRepository.findByCourseCode(invocation.getArgument(0));
+                other.setEnrolledCount(other.getEnrolledCount() + 1);
+                courseRepository.update(other);
+            }
+            return read;
+        }).when(racing).findByCourseCode(any());
+        EnrollmentService racingService = new EnrollmentService(studentRepository, racing,
+                new StubNotificationService(), new GradeCalculator());
+
+        racingService.enrollCourse("S0", "KRIP101");
+
+        Course stored = courseRepository.findByCourseCode("KRIP101");
+        assertEquals(7, stored.getEnrolledCount());
+        assertEquals(2, stored.getVersion());
+        assertEquals(1, racingService.getUpdateConflictCount());
+        assertEquals(0, service.getUpdateConflictCount());
+    }
+
+    @Test
+    void testEnrollCourse_RetriesExhaustedReleasesReservation() {
+        addStudents(1);
+        Course course = new Course("KRIP101", "Kriptografi", 3, 30, 0, "Dr. Smith");
+        CourseRepository conflicting = mock(CourseRepository.class);
+        when(conflicting.findByCourseCode("KRIP101")).thenAnswer(invocation -> new Course(course));
+        when(conflicting.isPrerequisiteMet("S0", "KRIP101")).thenReturn(true);
+        doThrow(new ConcurrentUpdateException("Course was modified concurrently: KRIP101"))
+                .when(conflicting).update(any(Course.class));
+        EnrollmentService service = new EnrollmentService(studentRepository, conflicting,
+                new StubNotificationService(), new GradeCalculator());
+
+        EnrollmentException exception = assertThrows(EnrollmentException.class,
+                () -> service.enrollCourse("S0", "KRIP101"));
+
+        assertEquals("Course update conflict, retries exhausted: KRIP101", exception.getMessage());
+        assertTrue(exception.getCause() instanceof ConcurrentUpdateException);
+        assertEquals(8, service.getUpdateConflictCount());
+        assertEquals(0, service.getCreditLedger().getCredits("S0"));
+        assertFalse(service.getMembershipIndex().contains("S0", "KRIP101"));
+    }
+
+    @Test
+    void testContention_MultipleInstancesSharedStore() throws Exception {
+        int studentCount = 4_000;
+        int hotCourses = 4;
+        int capacity = 600;
+        addStudents(studentCount);
+
+        Map<Integer, Double> retryRates = new LinkedHashMap<>();
+        for (int instances : new int[]{1, 2, 4}) {
+            InMemoryCourseRepository shared = new InMemoryCourseRepository(studentRepository);
+            for (int c = 0; c < hotCourses; c++) {
+                shared.save(new Course("HOT" + c, "Hot Course " + c, 3, capacity, 0, "Dosen " + c));
+            }
+            List<EnrollmentService> services = new ArrayList<>();
+            for (int i = 0; i < instances; i++) {
+                services.add(new EnrollmentService(studentRepository, shared,
+                        new StubNotificationService(), new GradeCalculator()));
+            }
+
+            AtomicInteger enrolled = new AtomicInteger();
+            ExecutorService pool = Executors.newFixedThreadPool(16);
+            try {
+                CountDownLatch go = new CountDownLatch(1);
+                List<Future<?>> futures = new ArrayList<>();
+                for (int s = 0; s < studentCount; s++) {
+                    // Mahasiswa yang sama selalu ke instance yang sama (SKS dilacak per instance)
+                    EnrollmentService service = services.get(s % instances);
+                    String studentId = "S" + s;
+                    String courseCode = "HOT" + (s % hotCourses);
+                    futures.add(pool.submit(() -> {
+                        go.await();
+                        try {
+                            service.enrollCourse(studentId, courseCode);
+                            enrolled.incrementAndGet();
+                        } catch (RuntimeException ignored) {
+                            // Penuh atau konflik berulang
+                        }
+                        return null;
+                    }));
+                }
+                go.countDown();
+                for (Future<?> future : futures) {
+                    future.get(1, TimeUnit.MINUTES);
+                }
+            } finally {
+                pool.shutdownNow();
+            }
+
+            long conflicts = services.stream().mapToLong(EnrollmentService::getUpdateConflictCount).sum();
+
+            // Tidak ada lost update: jumlah tersimpan sama dengan enrollment yang berhasil
+            int seats = 0;
+            for (Course course : shared.findAll()) {
+                assertTrue(course.getEnrolledCount() <= capacity, "Oversold " + course.getCourseCode());
+                seats += course.getEnrolledCount();
+            }
+            assertEquals(enrolled.get(), seats);
+            retryRates.put(instances, (double) conflicts / enrolled.get());
+        }
+
+        // Retry per enrollment berhasil; satu instance pun bisa bentrok karena mata kuliah dibaca
+        // sebelum lock diambil, beberapa instance pasti bentrok di store bersama
+        assertTrue(retryRates.get(2) > 0 && retryRates.get(4) > 0, "Retry rates " + retryRates);
+        for (double rate : retryRates.values()) {
+            assertTrue(rate < 8, "Retry rates " + retryRates);
+        }
+    }
+
+    @Test
+    void testDropCourse_NeverStoresNegativeCount() {
+        addStudents(1);
+        // Data tidak sinkron: mahasiswa terdaftar tetapi enrolledCount tersimpan sudah 0
+        courseRepository.save(new Course("KRIP101", "Kriptografi", 3, 30, 0, "Dr. Smith"));
+        EnrollmentService service = new EnrollmentService(studentRepository, courseRepository,
+                new StubNotificationService(), new GradeCalculator());
+        service.loadEnrollments(List.of(new Enrollment("ENR-1", "S0", "KRIP101", LocalDateTime.now(), "APPROVED")));
+
+        service.dropCourse("S0", "KRIP101");
+        assertEquals(0, courseRepository.findByCourseCode("KRIP101").getEnrolledCount());
+    }
+
+    @Test
+    void testDropBackoff_KeepsCourseLockAgainstReEnroll() throws Exception {
+        addStudents(1);
+        AtomicInteger updates = new AtomicInteger();
+        AtomicBoolean reEnrollBlocked = new AtomicBoolean();
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        EnrollmentService[] service = new EnrollmentService[1];
+        Thread[] dropping = new Thread[1];
+        InMemoryCourseRepository conflicting = new InMemoryCourseRepository(studentRepository) {
+            @Override
+            public void update(Course course) {
+                if (updates.incrementAndGet() == 2) {
+                    throw new ConcurrentUpdateException("Simulated conflict: " + course.getCourseCode());
+                }
+                super.update(course);
+            }
+
+            @Override
+            public Course findByCourseCode(String courseCode) {
+                if (Thread.currentThread() == dropping[0] && updates.get() == 2) {
+                    // Selama backoff drop, enroll ulang mahasiswa yang sama harus menunggu lock
+                    Future<?> reEnroll = pool.submit(() -> service[0].enrollCourse("S0", courseCode));
+                    try {
+                        reEnroll.get(200, TimeUnit.MILLISECONDS);
+                    } catch (TimeoutException e) {
+                        reEnrollBlocked.set(true);
+                    } catch (Exception e) {
+                        // Enroll ulang tidak boleh selesai selama drop masih berjalan
+                    }
+                }
+                return super.findByCourseCode(courseCode);
+            }
+        };
+        conflicting.save(new Course("KRIP101", "Kriptografi", 3, 30, 0, "Dr. Smith"));
+        service[0] = new EnrollmentService(studentRepository, conflicting,
+                new StubNotificationService(), new GradeCalculator());
+        service[0].enrollCourse("S0", "KRIP101");
+
+        try {
+            pool.submit(() -> {
+                dropping[0] = Thread.currentThread();
+                service[0].dropCourse("S0", "KRIP101");
+                return null;
+            }).get(10, TimeUnit.SECONDS);
+            pool.shutdown();
+            assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+        } finally {
+            pool.shutdownNow();
+        }
+
+        // Drop selesai lebih dulu, lalu enroll ulang mendapat kursi dan index yang konsisten
+        assertTrue(reEnrollBlocked.get());
+        assertEquals(1, conflicting.findByCourseCode("KRIP101").getEnrolledCount());
+        assertTrue(service[0].getMembershipIndex().contains("S0", "KRIP101"));
+        assertEquals(3, service[0].getCreditLedger().getCredits("S0"));
+        assertEquals(1, service[0].getRosterIndex().getRoster("KRIP101").size());
+    }
+
+    @Test
+    void testEnrollBackoff_AbortsWhenCourseCancelled() throws Exception {
+        addStudents(2);
+        AtomicInteger updates = new AtomicInteger();
+        EnrollmentService[] service = new EnrollmentService[1];
+        Thread[] enrolling = new Thread[1];
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        InMemoryCourseRepository conflicting = new InMemoryCourseRepository(studentRepository) {
+            @Override
+            public void update(Course course) {
+                if (updates.incrementAndGet() == 2) {
+                    throw new ConcurrentUpdateException("Simulated conflict: " + course.getCourseCode());
+                }
+                super.update(course);
+            }
+
+            @Override
+            public Course findByCourseCode(String courseCode) {
+                if (Thread.currentThread() == enrolling[0] && updates.get() == 2) {
+                    // Lock dilepas selama backoff enroll, sehingga pembatalan bisa berjalan
+                    try {
+                        pool.submit(() -> service[0].cancelCourse(courseCode, null)).get(5, TimeUnit.SECONDS);
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+                return super.findByCourseCode(courseCode);
+            }
+        };
+        conflicting.save(new Course("KRIP101", "Kriptografi", 3, 30, 0, "Dr. Smith"));
+        service[0] = new EnrollmentService(studentRepository, conflicting,
+                new StubNotificationService(), new GradeCalculator());
+        service[0].enrollCourse("S0", "KRIP101");
+
+        Future<Enrollment> enroll;
+        try {
+            enroll = pool.submit(() -> {
+                enrolling[0] = Thread.currentThread();
+                return service[0].enrollCourse("S1", "KRIP101");
+            });
+            ExecutionException failure = assertThrows(ExecutionException.class, () -> enroll.get(10, TimeUnit.SECONDS));
+            assertEquals("Course was cancelled: KRIP101", failure.getCause().getMessage());
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(0, conflicting.findByCourseCode("KRIP101").getEnrolledCount());
+        assertFalse(service[0].getMembershipIndex().contains("S1", "KRIP101"));
+        assertEquals(0, service[0].getCreditLedger().getCredits("S1"));
+        assertTrue(service[0].getRosterIndex().getRoster("KRIP101").isEmpty());
+    }
+
+    @Test
+    void testConflictBackoff_ReleasesCourseLock() throws Exception {
+        addStudents(2);
+        AtomicInteger updates = new AtomicInteger();
+        CountDownLatch otherEnrolled = new CountDownLatch(1);
+        AtomicBoolean lockReleased = new AtomicBoolean();
+        Thread[] first = new Thread[1];
+        InMemoryCourseRepository conflicting = new InMemoryCourseRepository(studentRepository) {
+            @Override
+            public void update(Course course) {
+                if (updates.incrementAndGet() == 1) {
+                    throw new ConcurrentUpdateException("Simulated conflict: " + course.getCourseCode());
+                }
+                super.update(course);
+            }
+
+            @Override
+            public Course findByCourseCode(String courseCode) {
+                if (Thread.currentThread() == first[0] && updates.get() == 1) {
+                    // Saat backoff, permintaan lain untuk mata kuliah yang sama harus bisa lewat
+                    try {
+                        lockReleased.set(otherEnrolled.await(5, TimeUnit.SECONDS));
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return super.findByCourseCode(courseCode);
+            }
+        };
+        conflicting.save(new Course("KRIP101", "Kriptografi", 3, 30, 0, "Dr. Smith"));
+        EnrollmentService service = new EnrollmentService(studentRepository, conflicting,
+                new StubNotificationService(), new GradeCalculator());
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> firstEnroll = pool.submit(() -> {
+                first[0] = Thread.currentThread();
+                return service.enrollCourse("S0", "KRIP101");
+            });
+            while (updates.get() == 0) {
+                Thread.onSpinWait();
+            }
+            pool.submit(() -> {
+                service.enrollCourse("S1", "KRIP101");
+                otherEnrolled.countDown();
+                return null;
+            }).get(10, TimeUnit.SECONDS);
+            firstEnroll.get(10, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertTrue(lockReleased.get());
+        assertEquals(2, conflicting.findByCourseCode("KRIP101").getEnrolledCount());
+    }
+}
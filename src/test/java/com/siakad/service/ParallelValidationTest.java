@@ -0,0 +1,135 @@
+package com.siakad.service;
+
+import com.siakad.exception.CourseFullException;
+import com.siakad.exception.CourseNotFoundException;
+import com.siakad.exception.EnrollmentException;
+import com.siakad.exception.PrerequisiteNotMetException;
+import com.siakad.exception.StudentNotFoundException;
+import com.siakad.model.Course;
+import com.siakad.model.Student;
+import com.siakad.repository.InMemoryCourseRepository;
+import com.siakad.repository.InMemoryStudentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelValidationTest {
+
+    private InMemoryStudentRepository studentRepository;
+    private InMemoryCourseRepository courseRepository;
+    private EnrollmentService service;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        studentRepository = new InMemoryStudentRepository();
+        courseRepository = new InMemoryCourseRepository(studentRepository);
+        studentRepository.save(new Student("230209003", "Amanda", "amanda@pnc.ac.id",
+                "Rekayasa Keamanan Siber", 5, 3.5, "ACTIVE"));
+        studentRepository.save(new Student("230209099", "Budi", "budi@pnc.ac.id",
+                "Rekayasa Keamanan Siber", 5, 3.5, "SUSPENDED"));
+        courseRepository.save(new Course("KRIP101", "Kriptografi", 3, 30, 0, "Dr. Smith"));
+        courseRepository.save(new Course("FULL101", "Penuh", 3, 1, 1, "Dr. Smith"));
+        Course advanced = new Course("KRIP201", "Kriptografi Lanjut", 3, 30, 0, "Dr. Smith");
+        advanced.addPrerequisite("KRIP101");
+        courseRepository.save(advanced);
+        Course advancedFull = new Course("KRIP202", "Kriptografi Terapan", 3, 1, 1, "Dr. Smith");
+        advancedFull.addPrerequisite("KRIP101");
+        courseRepository.save(advancedFull);
+
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        service = new EnrollmentService(studentRepository, courseRepository,
+                new StubNotificationService(), new GradeCalculator());
+        service.setLookupExecutor(executor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testParallelValidation_KeepsRejectionPrecedence() {
+        // Mahasiswa tidak ada dan mata kuliah tidak ada: mahasiswa tetap dilaporkan lebih dulu
+        assertThrows(StudentNotFoundException.class, () -> service.enrollCourse("999", "X999"));
+        EnrollmentException suspended = assertThrows(EnrollmentException.class,
+                () -> service.enrollCourse("230209099", "X999"));
+        assertEquals("Student is suspended", suspended.getMessage());
+        assertThrows(CourseNotFoundException.class, () -> service.enrollCourse("230209003", "X999"));
+        // Penuh dan prasyarat tidak terpenuhi: penuh lebih dulu
+        assertThrows(CourseFullException.class, () -> service.enrollCourse("230209003", "KRIP202"));
+        assertThrows(PrerequisiteNotMetException.class, () -> service.enrollCourse("230209003", "KRIP201"));
+
+        assertEquals("APPROVED", service.enrollCourse("230209003", "KRIP101").getStatus());
+        assertEquals(1, courseRepository.findByCourseCode("KRIP101").getEnrolledCount());
+    }
+
+    @Test
+    void testParallelValidation_PropagatesRepositoryException() {
+        InMemoryCourseRepository failing = new InMemoryCourseRepository(studentRepository) {
+            @Override
+            public Course findByCourseCode(String courseCode) {
+                throw new IllegalStateException("Course store unavailable");
+            }
+        };
+        EnrollmentService failingService = new EnrollmentService(studentRepository, failing,
+                new StubNotificationService(), new GradeCalculator());
+        failingService.setLookupExecutor(executor);
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> failingService.enrollCourse("230209003", "KRIP101"));
+        assertEquals("Course store unavailable", exception.getMessage());
+        // Mahasiswa yang tidak ada tetap didahulukan walaupun pembacaan mata kuliah gagal
+        assertThrows(StudentNotFoundException.class, () -> failingService.enrollCourse("999", "KRIP101"));
+    }
+
+    @Test
+    void testParallelValidation_LookupsOverlap() {
+        CountDownLatch courseLookupStarted = new CountDownLatch(1);
+        AtomicBoolean overlapped = new AtomicBoolean();
+        InMemoryStudentRepository students = new InMemoryStudentRepository() {
+            @Override
+            public Student findById(String studentId) {
+                // Pembacaan mahasiswa baru selesai setelah pembacaan mata kuliah dimulai
+                try {
+                    overlapped.set(courseLookupStarted.await(5, TimeUnit.SECONDS));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.findById(studentId);
+            }
+        };
+        students.save(new Student("230209003", "Amanda", "amanda@pnc.ac.id",
+                "Rekayasa Keamanan Siber", 5, 3.5, "ACTIVE"));
+        InMemoryCourseRepository courses = new InMemoryCourseRepository(students) {
+            @Override
+            public Course findByCourseCode(String courseCode) {
+                courseLookupStarted.countDown();
+                return super.findByCourseCode(courseCode);
+            }
+        };
+        courses.save(new Course("KRIP101", "Kriptografi", 3, 30, 0, "Dr. Smith"));
+        EnrollmentService parallel = new EnrollmentService(students, courses,
+                new StubNotificationService(), new GradeCalculator());
+        parallel.setLookupExecutor(executor);
+
+        assertEquals("APPROVED", parallel.enrollCourse("230209003", "KRIP101").getStatus());
+        assertTrue(overlapped.get());
+    }
+
+    @Test
+    void testSetLookupExecutor_NullRestoresSequential() {
+        assertSame(executor, service.getLookupExecutor());
+        service.setLookupExecutor(null);
+        assertNull(service.getLookupExecutor());
+        assertThrows(StudentNotFoundException.class, () -> service.enrollCourse("999", "X999"));
+    }
+}
@@ -0,0 +1,289 @@
+package com.siakad.service;
+
+import com.siakad.exception.CourseFullException;
+import com.siakad.exception.CourseNotFoundException;
+import com.siakad.exception.EnrollmentException;
+import com.siakad.exception.StudentNotFoundException;
+import com.siakad.model.Course;
+import com.siakad.model.Enrollment;
+import com.siakad.model.Student;
+import com.siakad.repository.InMemoryCourseRepository;
+import com.siakad.repository.InMemoryStudentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PartitionedEnrollmentEngineTest {
+
+    private InMemoryStudentRepository studentRepository;
+    private InMemoryCourseRepository courseRepository;
+    private PartitionedEnrollmentEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        studentRepository = new InMemoryStudentRepository();
+        courseRepository = new InMemoryCourseRepository(studentRepository);
+        for (int s = 0; s < 5; s++) {
+            studentRepository.save(new Student("S" + s, "Mahasiswa " + s, "s" + s + "@pnc.ac.id",
+                    "Informatika", 3, 3.5, "ACTIVE"));
+        }
+        courseRepository.save(new Course("KRIP101", "Kriptografi", 3, 2, 0, "Dr. Smith"));
+        engine = new PartitionedEnrollmentEngine(studentRepository, courseRepository,
+                new StubNotificationService(), new GradeCalculator(), 4, 1024, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        engine.close();
+    }
+
+    private <T> Throwable failureOf(CompletableFuture<T> future) {
+        CompletionException exception = assertThrows(CompletionException.class, future::join);
+        return exception.getCause();
+    }
+
+    @Test
+    void testEnrollCourse_Success() {
+        Enrollment enrollment = engine.enrollCourse("S0", "KRIP101").join();
+
+        assertEquals("APPROVED", enrollment.getStatus());
+        assertEquals(1, courseRepository.findByCourseCode("KRIP101").getEnrolledCount());
+        assertEquals(3, engine.getCreditLedger().getCredits("S0"));
+    }
+
+    @Test
+    void testEnrollCourse_ValidationFailures() {
+        assertTrue(failureOf(engine.enrollCourse("999", "KRIP101")) instanceof StudentNotFoundException);
+        assertTrue(failureOf(engine.enrollCourse("S0", "X999")) instanceof CourseNotFoundException);
+
+        engine.enrollCourse("S0", "KRIP101").join();
+        assertTrue(failureOf(engine.enrollCourse("S0", "KRIP101")) instanceof EnrollmentException);
+        assertEquals(3, engine.getCreditLedger().getCredits("S0"));
+    }
+
+    @Test
+    void testWaitlist_PromotedOnDrop() {
+        engine.enrollCourse("S0", "KRIP101").join();
+        engine.enrollCourse("S1", "KRIP101").join();
+        Enrollment waiting = engine.enrollCourse("S2", "KRIP101").join();
+        engine.enrollCourse("S3", "KRIP101").join();
+
+        assertEquals("PENDING", waiting.getStatus());
+        // Waitlist (kapasitas 2) sudah penuh
+        assertTrue(failureOf(engine.enrollCourse("S4", "KRIP101")) instanceof CourseFullException);
+        assertEquals(0, engine.getCreditLedger().getCredits("S4"));
+
+        engine.dropCourse("S0", "KRIP101").join();
+
+        assertEquals("APPROVED", waiting.getStatus());
+        assertEquals(2, courseRepository.findByCourseCode("KRIP101").getEnrolledCount());
+        assertEquals(0, engine.getCreditLedger().getCredits("S0"));
+    }
+
+    @Test
+    void testDropCourse_WaitlistedAndNotEnrolled() {
+        engine.enrollCourse("S0", "KRIP101").join();
+        engine.enrollCourse("S1", "KRIP101").join();
+        engine.enrollCourse("S2", "KRIP101").join();   // Waitlist
+
+        engine.dropCourse("S2", "KRIP101").join();
+        assertEquals(0, engine.getCreditLedger().getCredits("S2"));
+
+        assertTrue(failureOf(engine.dropCourse("S4", "KRIP101")) instanceof EnrollmentException);
+        assertTrue(failureOf(engine.dropCourse("999", "KRIP101")) instanceof StudentNotFoundException);
+        assertEquals(2, courseRepository.findByCourseCode("KRIP101").getEnrolledCount());
+    }
+
+    @Test
+    void testFlushFailure_KeepsMembershipAndWaitlist() {
+        AtomicInteger failures = new AtomicInteger();
+        InMemoryCourseRepository flaky = new InMemoryCourseRepository(studentRepository) {
+            @Override
+            public void update(Course course) {
+                if (failures.getAndDecrement() > 0) {
+                    throw new IllegalStateException("Database unavailable");
+                }
+                super.update(course);
+            }
+
+            @Override
+            public void updateAll(Collection<Course> batch) {
+                if (failures.get() > 0) {
+                    throw new IllegalStateException("Database unavailable");
+                }
+                super.updateAll(batch);
+            }
+        };
+        flaky.save(new Course("KRIP101", "Kriptografi", 3, 2, 0, "Dr. Smith"));
+        StubNotificationService notifications = new StubNotificationService();
+        try (PartitionedEnrollmentEngine flakyEngine = new PartitionedEnrollmentEngine(studentRepository,
+                flaky, notifications, new GradeCalculator(), 1, 64, 2)) {
+            flakyEngine.enrollCourse("S0", "KRIP101").join();
+            flakyEngine.enrollCourse("S1", "KRIP101").join();
+            Enrollment waiting = flakyEngine.enrollCourse("S2", "KRIP101").join();
+
+            failures.set(1);
+            assertTrue(failureOf(flakyEngine.dropCourse("S0", "KRIP101")) instanceof IllegalStateException);
+
+            // Batch yang gagal dibatalkan: S0 tetap peserta, S2 tetap di waitlist tanpa notifikasi
+            assertEquals("PENDING", waiting.getStatus());
+            assertEquals(3, flakyEngine.getCreditLedger().getCredits("S0"));
+            assertTrue(failureOf(flakyEngine.enrollCourse("S0", "KRIP101")) instanceof EnrollmentException);
+            assertTrue(failureOf(flakyEngine.enrollCourse("S2", "KRIP101")) instanceof EnrollmentException);
+
+            flakyEngine.dropCourse("S0", "KRIP101").join();
+            assertEquals("APPROVED", waiting.getStatus());
+            assertEquals(2, flaky.findByCourseCode("KRIP101").getEnrolledCount());
+        }
+        long promotions = notifications.getSentEmails().stream()
+                .filter(email -> email.startsWith("s2@pnc.ac.id|Enrollment Confirmation")).count();
+        assertTrue(promotions <= 1);
+    }
+
+    @Test
+    void testClose_RejectsLaterCommands() {
+        engine.close();
+
+        assertTrue(failureOf(engine.enrollCourse("S0", "KRIP101")) instanceof IllegalStateException);
+        assertEquals(0, engine.getCreditLedger().getCredits("S0"));
+        assertTrue(failureOf(engine.dropCourse("S0", "KRIP101")) instanceof IllegalStateException);
+    }
+
+    @Test
+    void testDropCourse_LookupErrorReturnedAsFailedFuture() {
+        InMemoryStudentRepository broken = new InMemoryStudentRepository() {
+            @Override
+            public Student findById(String studentId) {
+                throw new IllegalStateException("Database unavailable");
+            }
+        };
+        try (PartitionedEnrollmentEngine brokenEngine = new PartitionedEnrollmentEngine(broken,
+                courseRepository, new StubNotificationService(), new GradeCalculator(), 1, 64, 0)) {
+            CompletableFuture<Void> result = assertDoesNotThrow(() -> brokenEngine.dropCourse("S0", "KRIP101"));
+            assertTrue(failureOf(result) instanceof IllegalStateException);
+        }
+    }
+
+    @Test
+    void testRingBuffer_PublishAndDrainInOrder() {
+        CommandRingBuffer<Integer> ring = new CommandRingBuffer<>(8);
+        for (int i = 0; i < 6; i++) {
+            ring.publish(i);
+        }
+        List<Integer> drained = new ArrayList<>();
+        assertEquals(4, ring.drain(drained::add, 4));
+        assertEquals(2, ring.drain(drained::add, 10));
+        assertEquals(List.of(0, 1, 2, 3, 4, 5), drained);
+        assertTrue(ring.isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> new CommandRingBuffer<Integer>(6));
+    }
+
+    @Test
+    void testThroughput_ComparedToSharedStateMode(TestReporter reporter) throws Exception {
+        int studentCount = 40_000;
+        int hotCourses = 8;
+        int capacity = 4_000;
+
+        InMemoryStudentRepository students = new InMemoryStudentRepository();
+        for (int s = 0; s < studentCount; s++) {
+            students.save(new Student("B" + s, "Mahasiswa " + s, "b" + s + "@pnc.ac.id",
+                    "Informatika", 3, 3.5, "ACTIVE"));
+        }
+
+        // Shared-state: EnrollmentService dengan lock per mata kuliah
+        InMemoryCourseRepository sharedCourses = hotCatalog(students, hotCourses, capacity);
+        EnrollmentService service = new EnrollmentService(students, sharedCourses,
+                new StubNotificationService(), new GradeCalculator());
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        AtomicInteger sharedEnrolled = new AtomicInteger();
+        long sharedStart = System.nanoTime();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int s = 0; s < studentCount; s++) {
+                String studentId = "B" + s;
+                String courseCode = "HOT" + (s % hotCourses);
+                futures.add(pool.submit(() -> {
+                    try {
+                        service.enrollCourse(studentId, courseCode);
+                        sharedEnrolled.incrementAndGet();
+                    } catch (RuntimeException ignored) {
+                        // Penuh
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        long sharedNanos = System.nanoTime() - sharedStart;
+
+        // Single-writer: partisi per mata kuliah
+        InMemoryCourseRepository partitionedCourses = hotCatalog(students, hotCourses, capacity);
+        AtomicInteger partitionedEnrolled = new AtomicInteger();
+        long partitionedStart = System.nanoTime();
+        try (PartitionedEnrollmentEngine partitioned = new PartitionedEnrollmentEngine(students,
+                partitionedCourses, new StubNotificationService(), new GradeCalculator(), 4, 4096, 0)) {
+            ExecutorService producers = Executors.newFixedThreadPool(16);
+            try {
+                List<Future<CompletableFuture<Enrollment>>> submitted = new ArrayList<>();
+                for (int s = 0; s < studentCount; s++) {
+                    String studentId = "B" + s;
+                    String courseCode = "HOT" + (s % hotCourses);
+                    submitted.add(producers.submit(() -> partitioned.enrollCourse(studentId, courseCode)));
+                }
+                for (Future<CompletableFuture<Enrollment>> future : submitted) {
+                    future.get(1, TimeUnit.MINUTES).handle((enrollment, error) -> {
+                        if (error == null) {
+                            partitionedEnrolled.incrementAndGet();
+                        }
+                        return null;
+                    }).get(1, TimeUnit.MINUTES);
+                }
+            } finally {
+                producers.shutdownNow();
+            }
+        }
+        long partitionedNanos = System.nanoTime() - partitionedStart;
+
+        // Throughput (permintaan per detik) dilaporkan ke hasil test, bukan ke console
+        long sharedThroughput = studentCount * 1_000_000_000L / Math.max(1, sharedNanos);
+        long partitionedThroughput = studentCount * 1_000_000_000L / Math.max(1, partitionedNanos);
+        reporter.publishEntry("sharedStateRequestsPerSecond", String.valueOf(sharedThroughput));
+        reporter.publishEntry("partitionedRequestsPerSecond", String.valueOf(partitionedThroughput));
+        // Batas longgar agar tidak flaky di CI yang sibuk; hanya menangkap regresi besar
+        assertTrue(partitionedThroughput * 10 >= sharedThroughput,
+                "Partitioned " + partitionedThroughput + " req/s vs shared " + sharedThroughput + " req/s");
+
+        // Kedua mode harus mengisi kursi yang sama persis tanpa oversell
+        assertEquals(hotCourses * capacity, sharedEnrolled.get());
+        assertEquals(hotCourses * capacity, partitionedEnrolled.get());
+        for (int c = 0; c < hotCourses; c++) {
+            assertEquals(capacity, sharedCourses.findByCourseCode("HOT" + c).getEnrolledCount());
+            assertEquals(capacity, partitionedCourses.findByCourseCode("HOT" + c).getEnrolledCount());
+        }
+    }
+
+    private InMemoryCourseRepository hotCatalog(InMemoryStudentRepository students, int count, int capacity) {
+        InMemoryCourseRepository courses = new InMemoryCourseRepository(students);
+        for (int c = 0; c < count; c++) {
+            courses.save(new Course("HOT" + c, "Hot Course " + c, 3, capacity, 0, "Dosen " + c));
+        }
+        return courses;
+    }
+}
@@ -0,0 +1,146 @@
+package com.siakad.service;
+
+import com.siakad.exception.AdmissionRejectedException;
+import com.siakad.model.Course;
+import com.siakad.model.Student;
+import com.siakad.repository.CourseRepository;
+import com.siakad.repository.InMemoryCourseRepository;
+import com.siakad.repository.InMemoryStudentRepository;
+import com.siakad.repository.StudentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RegistrationSchedulerTest {
+
+    private static final Instant OPENING = Instant.parse("2026-08-01T08:00:00Z");
+
+    private List<Student> students;
+
+    @BeforeEach
+    void setUp() {
+        students = new ArrayList<>();
+        students.add(new Student("S-JUNIOR", "Junior", "junior@pnc.ac.id", "Informatika", 1, 4.0, "ACTIVE"));
+        students.add(new Student("S-SENIOR-LOW", "Senior Low", "sl@pnc.ac.id", "Informatika", 7, 2.5, "ACTIVE"));
+        students.add(new Student("S-SENIOR-HIGH", "Senior High", "sh@pnc.ac.id", "Informatika", 7, 3.9, "ACTIVE"));
+        students.add(new Student("S-MID", "Mid", "mid@pnc.ac.id", "Informatika", 4, 3.0, "ACTIVE"));
+    }
+
+    private RegistrationScheduler schedulerAt(Instant now, int slots) {
+        return new RegistrationScheduler(OPENING, Duration.ofMinutes(30), slots,
+                Clock.fixed(now, ZoneOffset.UTC));
+    }
+
+    @Test
+    void testPlan_OrdersBySemesterThenGpa() {
+        RegistrationPlan plan = schedulerAt(OPENING, 4).plan(students);
+
+        assertEquals(0, plan.slotOf("S-SENIOR-HIGH"));
+        assertEquals(1, plan.slotOf("S-SENIOR-LOW"));
+        assertEquals(2, plan.slotOf("S-MID"));
+        assertEquals(3, plan.slotOf("S-JUNIOR"));
+        assertEquals(-1, plan.slotOf("UNKNOWN"));
+        assertEquals(4, plan.getStudentCount());
+    }
+
+    @Test
+    void testIsOpen_BySlotStart() {
+        RegistrationScheduler scheduler = schedulerAt(OPENING.plus(Duration.ofMinutes(45)), 4);
+        scheduler.install(scheduler.plan(students));
+
+        assertTrue(scheduler.isOpen("S-SENIOR-HIGH"));
+        assertTrue(scheduler.isOpen("S-SENIOR-LOW"));
+        assertFalse(scheduler.isOpen("S-MID"));
+        assertEquals(OPENING.plus(Duration.ofMinutes(60)), scheduler.slotStart("S-MID"));
+        // Mahasiswa di luar plan mendapat slot terakhir
+        assertEquals(OPENING.plus(Duration.ofMinutes(90)), scheduler.slotStart("UNKNOWN"));
+        assertThrows(IllegalArgumentException.class,
+                () -> new RegistrationScheduler(OPENING, Duration.ofSeconds(30), 4));
+    }
+
+    @Test
+    void testEnrollCourse_EarlyAttemptRejectedBeforeRepository() {
+        StudentRepository studentRepository = mock(StudentRepository.class);
+        CourseRepository courseRepository = mock(CourseRepository.class);
+        EnrollmentService service = new EnrollmentService(studentRepository, courseRepository,
+                new StubNotificationService(), new GradeCalculator());
+        RegistrationScheduler scheduler = schedulerAt(OPENING, 4);
+        scheduler.install(scheduler.plan(students));
+        service.setRegistrationScheduler(scheduler);
+
+        AdmissionRejectedException exception = assertThrows(AdmissionRejectedException.class,
+                () -> service.enrollCourse("S-JUNIOR", "KRIP101"));
+        assertEquals("Registration opens at 2026-08-01T09:30:00Z for student: S-JUNIOR",
+                exception.getMessage());
+        verifyNoInteractions(studentRepository, courseRepository);
+    }
+
+    @Test
+    void testEnrollCourse_AllowedOnceSlotOpens() {
+        InMemoryStudentRepository studentRepository = new InMemoryStudentRepository();
+        students.forEach(studentRepository::save);
+        InMemoryCourseRepository courseRepository = new InMemoryCourseRepository(studentRepository);
+        courseRepository.save(new Course("KRIP101", "Kriptografi", 3, 30, 0, "Dr. Smith"));
+        EnrollmentService service = new EnrollmentService(studentRepository, courseRepository,
+                new StubNotificationService(), new GradeCalculator());
+        RegistrationScheduler scheduler = schedulerAt(OPENING, 4);
+        scheduler.install(scheduler.plan(students));
+        service.setRegistrationScheduler(scheduler);
+
+        assertEquals("APPROVED", service.enrollCourse("S-SENIOR-HIGH", "KRIP101").getStatus());
+        assertThrows(AdmissionRejectedException.class, () -> service.reserveCourse("S-MID", "KRIP101"));
+    }
+
+    @Test
+    void testSimulateLoad_50kStudentsFlattensPeak() {
+        List<Student> cohort = new ArrayList<>(50_000);
+        Random random = new Random(42);
+        for (int i = 0; i < 50_000; i++) {
+            cohort.add(new Student("S" + i, "Mahasiswa " + i, "s" + i + "@pnc.ac.id", "Informatika",
+                    1 + random.nextInt(8), 2.0 + random.nextInt(201) / 100.0, "ACTIVE"));
+        }
+
+        RegistrationScheduler waves = schedulerAt(OPENING, 10);
+        RegistrationPlan plan = waves.plan(cohort);
+        RegistrationScheduler bigBang = schedulerAt(OPENING, 1);
+
+        double[] waveLoad = waves.simulateLoad(plan, 4, Duration.ofMinutes(2));
+        double[] bigBangLoad = bigBang.simulateLoad(bigBang.plan(cohort), 4, Duration.ofMinutes(2));
+        double wavePeak = peak(waveLoad);
+        double bigBangPeak = peak(bigBangLoad);
+
+        for (int slot = 0; slot < 10; slot++) {
+            assertEquals(5_000, plan.getSlotSize(slot));
+        }
+        // Total request tetap sama, tetapi puncaknya turun sebanding jumlah slot
+        assertEquals(sum(bigBangLoad), sum(waveLoad), 1.0);
+        assertEquals(200_000, sum(waveLoad), 300);
+        assertEquals(bigBangPeak / 10, wavePeak, bigBangPeak * 0.01);
+    }
+
+    private double peak(double[] load) {
+        double max = 0;
+        for (double value : load) {
+            max = Math.max(max, value);
+        }
+        return max;
+    }
+
+    private double sum(double[] load) {
+        double total = 0;
+        for (double value : load) {
+            total += value;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,124 @@
+package com.siakad.service;
+
+import com.siakad.exception.ScheduleConflictException;
+import com.siakad.metrics.InMemoryMetricsRegistry;
+import com.siakad.model.Course;
+import com.siakad.model.MeetingTime;
+import com.siakad.model.Student;
+import com.siakad.repository.InMemoryCourseRepository;
+import com.siakad.repository.InMemoryStudentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScheduleConflictIndexTest {
+
+    private InMemoryStudentRepository studentRepository;
+    private InMemoryCourseRepository courseRepository;
+    private EnrollmentService service;
+
+    private static MeetingTime meeting(DayOfWeek day, int startHour, int startMinute, int endHour, int endMinute) {
+        return new MeetingTime(day, LocalTime.of(startHour, startMinute), LocalTime.of(endHour, endMinute));
+    }
+
+    private Course course(String code, MeetingTime... meetings) {
+        Course course = new Course(code, "Mata Kuliah " + code, 3, 30, 0, "Dr. Smith");
+        for (MeetingTime meeting : meetings) {
+            course.addMeetingTime(meeting);
+        }
+        courseRepository.save(course);
+        return course;
+    }
+
+    @BeforeEach
+    void setUp() {
+        studentRepository = new InMemoryStudentRepository();
+        courseRepository = new InMemoryCourseRepository(studentRepository);
+        studentRepository.save(new Student("230209003", "Amanda", "amanda@pnc.ac.id",
+                "Rekayasa Keamanan Siber", 5, 3.5, "ACTIVE"));
+        course("KRIP101", meeting(DayOfWeek.MONDAY, 8, 0, 9, 40), meeting(DayOfWeek.WEDNESDAY, 8, 0, 9, 40));
+        course("JARK101", meeting(DayOfWeek.WEDNESDAY, 9, 30, 11, 10));
+        course("BASD101", meeting(DayOfWeek.MONDAY, 9, 40, 11, 20));
+        course("ETIK101");
+        service = new EnrollmentService(studentRepository, courseRepository,
+                new StubNotificationService(), new GradeCalculator());
+    }
+
+    @Test
+    void testEnrollCourse_RejectsOverlappingSchedule() {
+        service.enrollCourse("230209003", "KRIP101");
+
+        ScheduleConflictException exception = assertThrows(ScheduleConflictException.class,
+                () -> service.enrollCourse("230209003", "JARK101"));
+        assertEquals("Schedule conflict with course: KRIP101", exception.getMessage());
+
+        // Rollback penuh: kursi, keanggotaan dan SKS tidak berubah
+        assertEquals(0, courseRepository.findByCourseCode("JARK101").getEnrolledCount());
+        assertFalse(service.getMembershipIndex().contains("230209003", "JARK101"));
+        assertEquals(3, service.getCreditLedger().getCredits("230209003"));
+    }
+
+    @Test
+    void testEnrollCourse_AdjacentAndUnscheduledCoursesAllowed() {
+        service.enrollCourse("230209003", "KRIP101");
+        service.enrollCourse("230209003", "BASD101");     // mulai tepat saat KRIP101 selesai
+        service.enrollCourse("230209003", "ETIK101");     // tanpa jadwal
+
+        assertEquals(9, service.getCreditLedger().getCredits("230209003"));
+    }
+
+    @Test
+    void testDropCourse_FreesScheduleSlots() {
+        service.enrollCourse("230209003", "KRIP101");
+        service.dropCourse("230209003", "KRIP101");
+
+        assertEquals("APPROVED", service.enrollCourse("230209003", "JARK101").getStatus());
+        assertNull(service.getScheduleIndex().findConflict("230209003",
+                List.of(meeting(DayOfWeek.MONDAY, 8, 0, 9, 40))));
+    }
+
+    @Test
+    void testCancelReservation_FreesScheduleSlots() {
+        String enrollmentId = service.reserveCourse("230209003", "KRIP101").getEnrollmentId();
+        assertThrows(ScheduleConflictException.class, () -> service.reserveCourse("230209003", "JARK101"));
+
+        service.cancelReservation(enrollmentId);
+        service.enrollCourse("230209003", "JARK101");
+    }
+
+    @Test
+    void testScheduleConflict_CountedAsOutcome() {
+        InMemoryMetricsRegistry registry = new InMemoryMetricsRegistry();
+        service.setMetricsRegistry(registry);
+        service.enrollCourse("230209003", "KRIP101");
+        assertThrows(ScheduleConflictException.class, () -> service.enrollCourse("230209003", "JARK101"));
+
+        assertEquals(1, registry.getCount("enrollment.schedule_conflict"));
+    }
+
+    @Test
+    void testIndex_ConflictDetectionMatchesMeetingOverlap() {
+        ScheduleConflictIndex index = new ScheduleConflictIndex();
+        assertNull(index.tryReserve("S1", "A", List.of(meeting(DayOfWeek.TUESDAY, 13, 0, 14, 40))));
+        assertNull(index.tryReserve("S1", "B", List.of(meeting(DayOfWeek.TUESDAY, 14, 40, 16, 20))));
+        assertNull(index.tryReserve("S1", "C", null));
+
+        assertEquals("A", index.findConflict("S1", List.of(meeting(DayOfWeek.TUESDAY, 14, 0, 14, 10))));
+        assertEquals("B", index.tryReserve("S1", "D", List.of(meeting(DayOfWeek.TUESDAY, 16, 0, 17, 0))));
+        // Jam di luar kelipatan 5 menit dibulatkan melebar: E selesai 11:02 menempati slot sampai 11:05
+        assertNull(index.tryReserve("S1", "E", List.of(meeting(DayOfWeek.THURSDAY, 10, 0, 11, 2))));
+        assertEquals("E", index.findConflict("S1", List.of(meeting(DayOfWeek.THURSDAY, 11, 3, 12, 0))));
+        assertNull(index.findConflict("S1", List.of(meeting(DayOfWeek.THURSDAY, 11, 5, 12, 0))));
+        assertNull(index.findConflict("S1", List.of(meeting(DayOfWeek.SUNDAY, 13, 0, 23, 55))));
+        assertNull(index.findConflict("S2", List.of(meeting(DayOfWeek.TUESDAY, 13, 0, 14, 40))));
+
+        index.release("S1", "A");
+        index.release("S1", "X");
+        assertNull(index.tryReserve("S1", "D", List.of(meeting(DayOfWeek.TUESDAY, 13, 30, 14, 30))));
+    }
+}
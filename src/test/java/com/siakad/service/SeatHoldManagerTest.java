@@ -0,0 +1,249 @@
+package com.siakad.service;
+
+import com.siakad.exception.CourseFullException;
+import com.siakad.exception.EnrollmentException;
+import com.siakad.model.Course;
+import com.siakad.model.Enrollment;
+import com.siakad.model.Student;
+import com.siakad.repository.InMemoryCourseRepository;
+import com.siakad.repository.InMemoryStudentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SeatHoldManagerTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    private InMemoryStudentRepository studentRepository;
+    private InMemoryCourseRepository courseRepository;
+    private EnrollmentService service;
+    private AtomicLong now;
+    private SeatHoldManager holds;
+
+    @BeforeEach
+    void setUp() {
+        studentRepository = new InMemoryStudentRepository();
+        courseRepository = new InMemoryCourseRepository(studentRepository);
+        for (int s = 0; s < 3; s++) {
+            studentRepository.save(new Student("S" + s, "Mahasiswa " + s, "s" + s + "@pnc.ac.id",
+                    "Informatika", 3, 3.5, "ACTIVE"));
+        }
+        courseRepository.save(new Course("KRIP101", "Kriptografi", 3, 2, 0, "Dr. Smith"));
+        service = new EnrollmentService(studentRepository, courseRepository,
+                new StubNotificationService(), new GradeCalculator());
+        now = new AtomicLong(1_000 * SECOND);
+        holds = new SeatHoldManager(service, Duration.ofMinutes(10), Duration.ofSeconds(1), now::get);
+    }
+
+    private int enrolled() {
+        return courseRepository.findByCourseCode("KRIP101").getEnrolledCount();
+    }
+
+    @Test
+    void testHold_TakesCapacityImmediately() {
+        Enrollment first = holds.hold("S0", "KRIP101");
+        holds.hold("S1", "KRIP101");
+
+        assertEquals("PENDING", first.getStatus());
+        assertEquals(2, enrolled());
+        assertThrows(CourseFullException.class, () -> holds.hold("S2", "KRIP101"));
+        assertEquals(2, holds.getActiveHoldCount());
+    }
+
+    @Test
+    void testConfirmAndRelease() {
+        Enrollment confirmed = holds.hold("S0", "KRIP101");
+        Enrollment released = holds.hold("S1", "KRIP101");
+
+        assertEquals("APPROVED", holds.confirm(confirmed.getEnrollmentId()).getStatus());
+        holds.release(released.getEnrollmentId());
+
+        assertEquals(1, enrolled());
+        assertEquals(0, holds.getActiveHoldCount());
+        assertThrows(EnrollmentException.class, () -> holds.confirm(released.getEnrollmentId()));
+        assertThrows(EnrollmentException.class, () -> holds.release("ENR-unknown"));
+
+        // Hold yang sudah dikonfirmasi tidak ikut kedaluwarsa
+        now.addAndGet(3_600 * SECOND);
+        assertEquals(0, holds.expireDue());
+        assertEquals(1, enrolled());
+    }
+
+    @Test
+    void testExpiry_ReleasesSeatAfterTtl() {
+        Enrollment hold = holds.hold("S0", "KRIP101");
+        now.addAndGet(300 * SECOND);
+        holds.hold("S1", "KRIP101");
+
+        now.addAndGet(299 * SECOND);
+        assertEquals(0, holds.expireDue());
+        now.addAndGet(2 * SECOND);
+        assertEquals(1, holds.expireDue());
+
+        assertEquals("REJECTED", hold.getStatus());
+        assertEquals(1, enrolled());
+        assertThrows(EnrollmentException.class, () -> holds.confirm(hold.getEnrollmentId()));
+
+        now.addAndGet(300 * SECOND);
+        assertEquals(1, holds.expireDue());
+        assertEquals(0, enrolled());
+        assertEquals(2, holds.getExpiredCount());
+        assertEquals(0, service.getCreditLedger().getCredits("S0"));
+    }
+
+    @Test
+    void testExpiry_RetriesWhenRepositoryFails() {
+        AtomicBoolean unavailable = new AtomicBoolean();
+        InMemoryCourseRepository flaky = new InMemoryCourseRepository(studentRepository) {
+            @Override
+            public Course findByCourseCode(String courseCode) {
+                if (unavailable.get()) {
+                    throw new IllegalStateException("Course store unavailable");
+                }
+                return super.findByCourseCode(courseCode);
+            }
+        };
+        flaky.save(new Course("KRIP101", "Kriptografi", 3, 2, 0, "Dr. Smith"));
+        EnrollmentService flakyService = new EnrollmentService(studentRepository, flaky,
+                new StubNotificationService(), new GradeCalculator());
+        SeatHoldManager flakyHolds = new SeatHoldManager(flakyService, Duration.ofMinutes(10),
+                Duration.ofSeconds(1), now::get);
+        Enrollment expiring = flakyHolds.hold("S0", "KRIP101");
+        Enrollment released = flakyHolds.hold("S1", "KRIP101");
+
+        unavailable.set(true);
+        assertThrows(IllegalStateException.class, () -> flakyHolds.release(released.getEnrollmentId()));
+        now.addAndGet(601 * SECOND);
+        assertEquals(0, flakyHolds.expireDue());
+        // Kedua hold tetap tercatat dan dijadwalkan ulang, kursi belum dikembalikan
+        assertEquals(2, flakyHolds.getActiveHoldCount());
+        assertEquals(3, flakyHolds.getReleaseFailureCount());
+
+        unavailable.set(false);
+        now.addAndGet(SeatHoldManager.RETRY_TICKS * SECOND);
+        assertEquals(2, flakyHolds.expireDue());
+        assertEquals(0, flakyHolds.getActiveHoldCount());
+        assertEquals("REJECTED", expiring.getStatus());
+        assertEquals("REJECTED", released.getStatus());
+        assertEquals(0, flaky.findByCourseCode("KRIP101").getEnrolledCount());
+    }
+
+    @Test
+    void testExpiry_ManyHoldsAcrossCourses() {
+        int courseCount = 100;
+        int studentCount = 50_000;
+        for (int c = 0; c < courseCount; c++) {
+            courseRepository.save(new Course("MK" + c, "Mata Kuliah " + c, 2, 1_000, 0, "Dosen " + c));
+        }
+        for (int s = 0; s < studentCount; s++) {
+            studentRepository.save(new Student("B" + s, "Mahasiswa " + s, "b" + s + "@pnc.ac.id",
+                    "Informatika", 3, 3.5, "ACTIVE"));
+        }
+        List<String> confirmLater = new ArrayList<>();
+        for (int s = 0; s < studentCount; s++) {
+            // Hold dibuat tersebar selama 10 menit
+            now.addAndGet(SECOND / 100);
+            Enrollment hold = holds.hold("B" + s, "MK" + (s % courseCount));
+            if (s % 10 == 0) {
+                confirmLater.add(hold.getEnrollmentId());
+            }
+        }
+        for (String enrollmentId : confirmLater) {
+            holds.confirm(enrollmentId);
+        }
+
+        int expired = 0;
+        for (int step = 0; step < 25; step++) {
+            now.addAndGet(60 * SECOND);
+            expired += holds.expireDue();
+        }
+
+        assertEquals(studentCount - confirmLater.size(), expired);
+        assertEquals(0, holds.getActiveHoldCount());
+        int seats = 0;
+        for (int c = 0; c < courseCount; c++) {
+            seats += courseRepository.findByCourseCode("MK" + c).getEnrolledCount();
+        }
+        assertEquals(confirmLater.size(), seats);
+    }
+
+    @Test
+    void testTicker_ExpiresWithoutManualCalls() throws InterruptedException {
+        try (SeatHoldManager ticking = new SeatHoldManager(service, Duration.ofMillis(50), Duration.ofMillis(10))) {
+            ticking.start();
+            ticking.hold("S0", "KRIP101");
+            long deadline = System.nanoTime() + 5 * SECOND;
+            while (ticking.getActiveHoldCount() > 0 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(0, ticking.getActiveHoldCount());
+            assertEquals(0, enrolled());
+        }
+    }
+
+    @Test
+    void testInvalidConfiguration() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new SeatHoldManager(service, Duration.ZERO, Duration.ofSeconds(1)));
+        assertThrows(IllegalArgumentException.class,
+                () -> new SeatHoldManager(service, Duration.ofMinutes(1), Duration.ofSeconds(-1)));
+    }
+
+    @Test
+    void testTimingWheel_ExpiresEachTimerAtItsTickAcrossLevels() {
+        HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(1, 0);
+        Random random = new Random(42);
+        List<HierarchicalTimingWheel.Timer<Long>> cancelled = new ArrayList<>();
+        int scheduled = 0;
+        for (int i = 0; i < 100_000; i++) {
+            // Sampai 300k tick: melewati level 0, 1, 2 dan 3 (64, 4096, 262144)
+            long deadline = 1 + (i % 4 == 0 ? random.nextInt(64) : random.nextInt(300_000));
+            HierarchicalTimingWheel.Timer<Long> timer = wheel.schedule(deadline, deadline);
+            if (i % 7 == 0) {
+                cancelled.add(timer);
+            } else {
+                scheduled++;
+            }
+        }
+        for (HierarchicalTimingWheel.Timer<Long> timer : cancelled) {
+            assertTrue(wheel.cancel(timer));
+            assertFalse(wheel.cancel(timer));
+        }
+        assertEquals(scheduled, wheel.size());
+
+        int expired = 0;
+        for (long tick = 1; tick <= 300_000; tick++) {
+            for (Long deadline : wheel.advance(tick)) {
+                assertEquals(tick, deadline);
+                expired++;
+            }
+        }
+        assertEquals(scheduled, expired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void testTimingWheel_LateScheduleAndBeyondRange() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(10, 100);
+        assertTrue(wheel.advance(1_000).isEmpty());
+        // Deadline yang sudah lewat kedaluwarsa pada tick berikutnya
+        wheel.schedule("past", 50);
+        // Di luar jangkauan 64^4 tick: ditahan di level teratas lalu dijadwalkan ulang
+        long far = 100 + 10L * (1L << 24) * 3;
+        wheel.schedule("far", far);
+
+        assertEquals(List.of("past"), wheel.advance(1_010));
+        assertTrue(wheel.advance(far - 10).isEmpty());
+        assertEquals(List.of("far"), wheel.advance(far));
+        assertThrows(IllegalArgumentException.class, () -> new HierarchicalTimingWheel<String>(0, 0));
+    }
+}
@@ -0,0 +1,190 @@
+package com.siakad.service;
+
+import com.siakad.exception.PrerequisiteNotMetException;
+import com.siakad.model.Course;
+import com.siakad.model.Student;
+import com.siakad.repository.InMemoryCourseRepository;
+import com.siakad.repository.InMemoryStudentRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SectionAssignmentOptimizerTest {
+
+    @Test
+    void testSolve_ReroutesToSatisfyMoreStudents() {
+        Map<String, Integer> capacities = new LinkedHashMap<>();
+        capacities.put("KRIP101-A", 1);
+        capacities.put("KRIP101-B", 1);
+        Map<String, List<String>> preferences = new HashMap<>();
+        preferences.put("S1", List.of("KRIP101-A", "KRIP101-B"));
+        preferences.put("S2", List.of("KRIP101-A"));
+
+        SectionAssignment assignment = SectionAssignmentOptimizer.solve(capacities, preferences);
+
+        // Greedy akan memberi A ke S1 dan S2 tidak kebagian; optimal: S1 pindah ke B
+        assertEquals("KRIP101-B", assignment.getSection("S1"));
+        assertEquals("KRIP101-A", assignment.getSection("S2"));
+        assertEquals(1, assignment.getRank("S1"));
+        assertEquals(1, assignment.getTotalRank());
+        assertTrue(assignment.getUnassigned().isEmpty());
+    }
+
+    @Test
+    void testSolve_UnknownSectionsAndUnplaceableStudents() {
+        Map<String, Integer> capacities = Map.of("KRIP101-A", 1);
+        Map<String, List<String>> preferences = new HashMap<>();
+        preferences.put("S1", List.of("KRIP101-X", "KRIP101-A"));
+        preferences.put("S2", List.of("KRIP101-A"));
+        preferences.put("S3", List.of());
+
+        SectionAssignment assignment = SectionAssignmentOptimizer.solve(capacities, preferences);
+
+        assertEquals(1, assignment.getAssignments().size());
+        assertEquals(2, assignment.getUnassigned().size());
+        assertEquals(-1, assignment.getRank("S3"));
+        assertNull(assignment.getSection("S3"));
+    }
+
+    @Test
+    void testSolve_MatchesBruteForceOnSmallInstances() {
+        Random random = new Random(17);
+        for (int round = 0; round < 200; round++) {
+            int sectionCount = 1 + random.nextInt(3);
+            Map<String, Integer> capacities = new LinkedHashMap<>();
+            for (int j = 0; j < sectionCount; j++) {
+                capacities.put("SEC" + j, random.nextInt(3));
+            }
+            Map<String, List<String>> preferences = new HashMap<>();
+            int studentCount = 1 + random.nextInt(6);
+            for (int i = 0; i < studentCount; i++) {
+                List<String> ranked = new ArrayList<>();
+                for (int j = 0; j < sectionCount; j++) {
+                    if (random.nextBoolean()) {
+                        ranked.add(random.nextInt(ranked.size() + 1), "SEC" + j);
+                    }
+                }
+                preferences.put("S" + i, ranked);
+            }
+
+            SectionAssignment assignment = SectionAssignmentOptimizer.solve(capacities, preferences);
+            long[] best = bruteForce(new ArrayList<>(preferences.keySet()), 0, preferences,
+                    new HashMap<>(capacities));
+
+            assertEquals(best[0], assignment.getAssignments().size(), "round " + round);
+            assertEquals(best[1], assignment.getTotalRank(), "round " + round);
+            Map<String, Integer> used = new HashMap<>();
+            for (String section : assignment.getAssignments().values()) {
+                used.merge(section, 1, Integer::sum);
+            }
+            used.forEach((section, count) -> assertTrue(count <= capacities.get(section)));
+        }
+    }
+
+    /**
+     * Mencoba semua pembagian: {jumlah mahasiswa terbanyak, total peringkat terkecil}
+     */
+    private long[] bruteForce(List<String> students, int index, Map<String, List<String>> preferences,
+                              Map<String, Integer> remaining) {
+        if (index == students.size()) {
+            return new long[]{0, 0};
+        }
+        long[] best = bruteForce(students, index + 1, preferences, remaining);
+        List<String> ranked = preferences.get(students.get(index));
+        for (int rank = 0; rank < ranked.size(); rank++) {
+            String section = ranked.get(rank);
+            if (remaining.get(section) > 0) {
+                remaining.merge(section, -1, Integer::sum);
+                long[] rest = bruteForce(students, index + 1, preferences, remaining);
+                remaining.merge(section, 1, Integer::sum);
+                long[] candidate = {rest[0] + 1, rest[1] + rank};
+                if (candidate[0] > best[0] || (candidate[0] == best[0] && candidate[1] < best[1])) {
+                    best = candidate;
+                }
+            }
+        }
+        return best;
+    }
+
+    @Test
+    void testSolve_ThousandsOfStudentsWithinSeconds() {
+        int studentCount = 6_000;
+        int sectionCount = 12;
+        Map<String, Integer> capacities = new LinkedHashMap<>();
+        for (int j = 0; j < sectionCount; j++) {
+            capacities.put("MK-" + j, 480);                    // 5760 kursi
+        }
+        // Section pagi jauh lebih diminati
+        Random random = new Random(5);
+        Map<String, List<String>> preferences = new HashMap<>();
+        for (int i = 0; i < studentCount; i++) {
+            List<String> ranked = new ArrayList<>();
+            while (ranked.size() < 4) {
+                int section = Math.min(sectionCount - 1, (int) Math.abs(random.nextGaussian() * 3));
+                if (!ranked.contains("MK-" + section)) {
+                    ranked.add("MK-" + section);
+                }
+            }
+            preferences.put("S" + i, ranked);
+        }
+
+        long start = System.nanoTime();
+        SectionAssignment assignment = SectionAssignmentOptimizer.solve(capacities, preferences);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(elapsedMillis < 10_000, "Took " + elapsedMillis + " ms");
+        Map<String, Integer> used = new HashMap<>();
+        for (String section : assignment.getAssignments().values()) {
+            used.merge(section, 1, Integer::sum);
+        }
+        used.forEach((section, count) -> assertTrue(count <= 480));
+        assertEquals(studentCount, assignment.getAssignments().size() + assignment.getUnassigned().size());
+        int[] histogram = assignment.getRankHistogram(3);
+        assertEquals(assignment.getAssignments().size(), histogram[0] + histogram[1] + histogram[2] + histogram[3]);
+    }
+
+    @Test
+    void testAssign_EnrollsIntoSectionsUsingRemainingCapacity() {
+        InMemoryStudentRepository students = new InMemoryStudentRepository();
+        InMemoryCourseRepository courses = new InMemoryCourseRepository(students);
+        for (int s = 0; s < 4; s++) {
+            students.save(new Student("S" + s, "Mahasiswa " + s, "s" + s + "@pnc.ac.id",
+                    "Informatika", 3, 3.5, "ACTIVE"));
+            students.addCompletedCourse("S" + s, new Course("ALGO101", "Algoritma", 3, 30, 0, "Dr. Smith"));
+        }
+        students.save(new Student("NEW", "Mahasiswa Baru", "new@pnc.ac.id", "Informatika", 1, 3.5, "ACTIVE"));
+        Course sectionA = new Course("STRD201-A", "Struktur Data A", 3, 3, 1, "Dr. Smith");
+        sectionA.addPrerequisite("ALGO101");
+        Course sectionB = new Course("STRD201-B", "Struktur Data B", 3, 2, 0, "Dr. Jones");
+        sectionB.addPrerequisite("ALGO101");
+        courses.save(sectionA);
+        courses.save(sectionB);
+        EnrollmentService service = new EnrollmentService(students, courses,
+                new StubNotificationService(), new GradeCalculator());
+
+        Map<String, List<String>> preferences = new HashMap<>();
+        for (int s = 0; s < 4; s++) {
+            preferences.put("S" + s, List.of("STRD201-A", "STRD201-B"));
+        }
+        preferences.put("NEW", List.of("STRD201-B"));
+
+        SectionAssignment assignment = new SectionAssignmentOptimizer(service, courses)
+                .assign(List.of("STRD201-A", "STRD201-B"), preferences);
+
+        // A hanya punya 2 kursi tersisa; NEW (pilihan pertama B) lebih murah daripada memindahkan
+        // mahasiswa lain ke B, tetapi ditolak saat enroll karena prasyarat
+        assertEquals(4, assignment.getAssignments().size());
+        assertEquals(1, assignment.getUnassigned().size());
+        assertEquals("STRD201-B", assignment.getSection("NEW"));
+        assertTrue(assignment.getFailures().get("NEW") instanceof PrerequisiteNotMetException);
+        assertEquals(3, courses.findByCourseCode("STRD201-A").getEnrolledCount());
+        assertEquals(1, courses.findByCourseCode("STRD201-B").getEnrolledCount());
+    }
+}
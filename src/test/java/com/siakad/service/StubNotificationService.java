@@ -0,0 +1,29 @@
+package com.siakad.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class StubNotificationService implements NotificationService {
+    private List<String> sentEmails = Collections.synchronizedList(new ArrayList<>());
+    private List<String> sentSms = Collections.synchronizedList(new ArrayList<>());
+
+    @Override
+    public void sendEmail(String email, String subject, String message) {
+        sentEmails.add(email + "|" + subject + "|" + message);
+    }
+
+    @Override
+    public void sendSMS(String phone, String message) {
+        sentSms.add(phone + "|" + message);
+    }
+
+    // Helper methods
+    public List<String> getSentEmails() {
+        return sentEmails;
+    }
+
+    public List<String> getSentSms() {
+        return sentSms;
+    }
+}
@@ -0,0 +1,92 @@
+package com.siakad.simulation;
+
+import com.siakad.model.Course;
+import com.siakad.model.Student;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EnrollmentSimulatorTest {
+
+    private SimulationConfig smallConfig() {
+        return new SimulationConfig()
+                .setStudentCount(2_000)
+                .setCourseCount(40)
+                .setMinCapacity(10)
+                .setMaxCapacity(40)
+                .setRequestsPerStudent(5)
+                .setThreads(8);
+    }
+
+    @Test
+    void testZipf_FavoursLowRanks() {
+        ZipfDistribution zipf = new ZipfDistribution(100, 1.0);
+        int[] hits = new int[100];
+        Random random = new Random(7);
+        for (int i = 0; i < 100_000; i++) {
+            hits[zipf.sample(random)]++;
+        }
+
+        // Peringkat 1 kira-kira dua kali peringkat 2 dan sepuluh kali peringkat 10
+        assertEquals(zipf.probability(0) * 100_000, hits[0], 1_500);
+        assertEquals(2.0, (double) hits[0] / hits[1], 0.2);
+        assertTrue(hits[0] > 8 * hits[9]);
+        assertEquals(0.01, new ZipfDistribution(100, 0).probability(42), 1e-9);
+        assertThrows(IllegalArgumentException.class, () -> new ZipfDistribution(0, 1.0));
+    }
+
+    @Test
+    void testGeneration_DeterministicForSeed() {
+        EnrollmentSimulator first = new EnrollmentSimulator(smallConfig());
+        EnrollmentSimulator second = new EnrollmentSimulator(smallConfig());
+
+        List<Course> catalog = first.generateCatalog();
+        List<Student> students = first.generateStudents();
+        assertEquals(40, catalog.size());
+        assertEquals(2_000, students.size());
+        for (int i = 0; i < catalog.size(); i++) {
+            Course other = second.generateCatalog().get(i);
+            assertEquals(catalog.get(i).getCapacity(), other.getCapacity());
+            assertEquals(catalog.get(i).getPrerequisites(), other.getPrerequisites());
+        }
+        assertEquals(students.get(123).getGpa(), second.generateStudents().get(123).getGpa());
+        assertTrue(catalog.stream().anyMatch(course -> !course.getPrerequisites().isEmpty()));
+
+        List<EnrollmentSimulator.Operation> workload = first.generateWorkload();
+        assertEquals(10_000, workload.size());
+        assertEquals(workload.get(500).courseCode, second.generateWorkload().get(500).courseCode);
+    }
+
+    @Test
+    void testRun_ReportsBreakdownWithoutOversell() {
+        SimulationReport report = new EnrollmentSimulator(smallConfig()).run();
+
+        long rejected = report.getRejections().values().stream().mapToLong(Long::longValue).sum();
+        assertEquals(10_000, report.getRequests());
+        assertEquals(report.getRequests(), report.getSuccesses() + rejected);
+        assertEquals(report.getRequests(), report.getLatency().getCount());
+        assertTrue(report.getSuccesses() > 0);
+        // Permintaan Zipf melebihi kapasitas mata kuliah populer
+        assertTrue(report.getRejections().containsKey("CourseFullException"));
+        assertTrue(report.getViolations().isEmpty(), report.getViolations().toString());
+        assertTrue(report.getLatency().getPercentileNanos(99) >= report.getLatency().getPercentileNanos(50));
+    }
+
+    @Test
+    void testRun_HonoursTargetRate() {
+        SimulationConfig config = smallConfig()
+                .setStudentCount(200)
+                .setThreads(4)
+                .setTargetRatePerSecond(2_000);
+
+        SimulationReport report = new EnrollmentSimulator(config).run();
+
+        // 1000 request pada 2000/s -> minimal ~0.5 detik
+        assertTrue(report.getElapsedNanos() >= 450_000_000L, report.toString());
+        assertTrue(report.getThroughputPerSecond() <= 2_200, report.toString());
+        assertTrue(report.getViolations().isEmpty());
+    }
+}
@@ -0,0 +1,77 @@
+package com.siakad.tracing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TraceRecorderTest {
+
+    @Test
+    void testDisabledRecorderReturnsNoop() {
+        Trace trace = TraceRecorder.DISABLED.start("enrollCourse", "230209003", "KRIP101");
+
+        assertSame(Trace.NOOP, trace);
+        assertEquals(0, trace.mark());
+        trace.stage(TraceStage.FIND_STUDENT, 0);
+        TraceRecorder.DISABLED.finish(trace);
+
+        assertEquals(0, TraceRecorder.DISABLED.getRecordedCount());
+        assertTrue(TraceRecorder.DISABLED.slowest(5).isEmpty());
+    }
+
+    @Test
+    void testStagesAccumulate() throws Exception {
+        TraceRecorder recorder = new TraceRecorder(1, 8);
+        Trace trace = recorder.start("enrollCourse", "230209003", "KRIP101");
+
+        long mark = trace.mark();
+        Thread.sleep(2);
+        trace.stage(TraceStage.FIND_STUDENT, mark);
+        trace.fail(new IllegalStateException("boom"));
+        recorder.finish(trace);
+
+        assertTrue(trace.getStageNanos(TraceStage.FIND_STUDENT) >= 2_000_000);
+        assertEquals(0, trace.getStageNanos(TraceStage.SEND_NOTIFICATION));
+        assertTrue(trace.getTotalNanos() >= trace.getStageNanos(TraceStage.FIND_STUDENT));
+        assertEquals("IllegalStateException", trace.getError());
+        assertTrue(trace.toString().contains("FIND_STUDENT="));
+    }
+
+    @Test
+    void testRingBufferKeepsLatestAndSortsSlowest() {
+        TraceRecorder recorder = new TraceRecorder(1, 4);
+        for (int i = 0; i < 10; i++) {
+            recorder.finish(recorder.start("dropCourse", "S" + i, "KRIP101"));
+        }
+
+        List<Trace> slowest = recorder.slowest(10);
+        assertEquals(10, recorder.getRecordedCount());
+        assertEquals(4, slowest.size());
+        for (int i = 1; i < slowest.size(); i++) {
+            assertTrue(slowest.get(i - 1).getTotalNanos() >= slowest.get(i).getTotalNanos());
+        }
+        assertEquals(2, recorder.slowest(2).size());
+        assertEquals(2, recorder.dumpSlowest(2).split(System.lineSeparator()).length);
+    }
+
+    @Test
+    void testSampling() {
+        TraceRecorder recorder = new TraceRecorder(10, 16);
+        int sampled = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (recorder.start("enrollCourse", "S", "C").isSampled()) {
+                sampled++;
+            }
+        }
+        // Sekitar 1 dari 10
+        assertTrue(sampled > 700 && sampled < 1300, "sampled " + sampled);
+    }
+
+    @Test
+    void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new TraceRecorder(-1, 4));
+        assertThrows(IllegalArgumentException.class, () -> new TraceRecorder(1, 0));
+    }
+}